@@ -47,14 +47,14 @@ export const getAllEmployees = () => {
 }
 
 /**
- * 根据ID获取单个员工详情
+ * 根据ID获取单个员工详情（轻量版v2：不再携带下拉选项全集，选项由getEmployeeFormOptions单独获取）
  * @param {Number|String} id - 员工ID（必填）
  * @returns {Promise<Object>} 包含员工详情的Promise对象
  * @throws {Error} 请求失败时抛出错误，包含错误提示信息
  */
 export function getEmployeeById(id) {
   return request({
-    url: `/employees/${id}`,
+    url: `/employees/v2/${id}`,
     method: 'get'
   }).then(response => {
     if (response.success) {
@@ -0,0 +1,74 @@
+package com.murasame.smarthrm.benchmark;
+
+import com.murasame.smarthrm.dao.DepartmentDao;
+import com.murasame.smarthrm.dao.EmployeeDao;
+import com.murasame.smarthrm.dto.DepartmentDTO;
+import com.murasame.smarthrm.entity.Department;
+import com.murasame.smarthrm.service.impl.DepartmentServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 部门列表DTO组装：DepartmentServiceImpl.listDepartments一页部门 → 汇总成员ID → 一次姓名查询 → 组装DepartmentDTO
+ * DAO以内存桩代替（姓名查询按ID集合从内存表取值），只测量组装逻辑及其分配
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DepartmentDTOBenchmark {
+
+	// 每页部门数
+	@Param({"10", "100"})
+	public int departments;
+
+	// 每个部门的成员数
+	@Param({"20", "200"})
+	public int members;
+
+	private DepartmentServiceImpl service;
+
+	@Setup
+	public void setUp() {
+		List<Department> page = SyntheticData.departments(departments, members);
+		Map<Integer, String> names = new HashMap<>();
+		for (int id = 1; id <= departments * members; id++) {
+			names.put(id, "员工" + id);
+		}
+		DepartmentDao departmentDao = new DepartmentDao() {
+			@Override
+			public Page<Department> findByDepNameLikeWithPage(String searchKey, int pageNum, int pageSize) {
+				return new PageImpl<>(page, PageRequest.of(pageNum - 1, pageSize), page.size());
+			}
+		};
+		EmployeeDao employeeDao = new EmployeeDao(null, null) {
+			@Override
+			public Map<Integer, String> findEmpNamesByIds(Collection<Integer> empIds) {
+				Map<Integer, String> result = new HashMap<>(empIds.size() * 2);
+				for (Integer id : empIds) {
+					String name = names.get(id);
+					if (name != null) {
+						result.put(id, name);
+					}
+				}
+				return result;
+			}
+		};
+		service = new DepartmentServiceImpl();
+		ReflectionTestUtils.setField(service, "departmentDao", departmentDao);
+		ReflectionTestUtils.setField(service, "employeeDao", employeeDao);
+	}
+
+	@Benchmark
+	public Page<DepartmentDTO> listDepartments() {
+		return service.listDepartments(null, 1, departments);
+	}
+}
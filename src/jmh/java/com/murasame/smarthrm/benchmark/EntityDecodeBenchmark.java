@@ -0,0 +1,84 @@
+package com.murasame.smarthrm.benchmark;
+
+import com.murasame.smarthrm.config.MongoConversionConfig;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.entity.Project;
+import com.murasame.smarthrm.seed.SyntheticOrgGenerator;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 员工/项目文档解码：默认反射映射（mapping）与整文档读取转换器（reader），
+ * 每次操作解码一个合成文档（数据生成器产出，字段与线上一致）；配合-prof gc看gc.alloc.rate.norm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityDecodeBenchmark {
+
+	private static final int DOCS = 1024;
+
+	@Param({"employee", "project"})
+	public String entity;
+
+	private Class<?> type;
+	private Document[] docs;
+	private MappingMongoConverter mapping;
+	private MappingMongoConverter reader;
+
+	@Setup
+	public void setUp() {
+		List<Document> employees = new ArrayList<>();
+		List<Document> projects = new ArrayList<>();
+		new SyntheticOrgGenerator(new SyntheticOrgGenerator.Options(42L, 20, DOCS, DOCS, 4 * DOCS, 50, 200, 1.0, 500))
+				.generate((collection, batch) -> {
+					if ("Employee".equals(collection)) {
+						employees.addAll(batch);
+					} else if ("Project".equals(collection)) {
+						projects.addAll(batch);
+					}
+				});
+		type = "employee".equals(entity) ? Employee.class : Project.class;
+		docs = ("employee".equals(entity) ? employees : projects).toArray(new Document[0]);
+		mapping = converter(new MongoCustomConversions(MongoConversionConfig.valueConverters()));
+		reader = converter(new MongoConversionConfig().mongoCustomConversions());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(DOCS)
+	public void mapping(Blackhole bh) {
+		for (Document doc : docs) {
+			bh.consume(mapping.read(type, doc));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(DOCS)
+	public void reader(Blackhole bh) {
+		for (Document doc : docs) {
+			bh.consume(reader.read(type, doc));
+		}
+	}
+
+	private static MappingMongoConverter converter(MongoCustomConversions conversions) {
+		MongoMappingContext context = new MongoMappingContext();
+		context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		context.afterPropertiesSet();
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+		return converter;
+	}
+}
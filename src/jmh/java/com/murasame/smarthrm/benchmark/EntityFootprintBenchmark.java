@@ -0,0 +1,135 @@
+package com.murasame.smarthrm.benchmark;
+
+import com.murasame.smarthrm.config.MongoConversionConfig;
+import com.murasame.smarthrm.entity.Department;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.seed.SyntheticOrgGenerator;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 员工/部门实体的常驻堆占用：按默认规模生成合成数据（20万员工、500个部门），经MappingMongoConverter读取并全部保留，
+ * 读取前后各做Full GC，以堆使用量之差除以实体数得到每个实体的字节数（次要结果 bytesPerEntity，耗时无意义）。
+ * 源文档在Setup中生成并一直保留，字符串等与源文档共享的对象不计入，结果只反映实体本身的结构开销；
+ * 部门只有500个，每个文档重复读取 DEPARTMENT_COPIES 次以压过GC前后的堆噪声。
+ * model=typed 为当前的记录类型列表（SkillLevel、ProjectRef、EmpRef等），
+ * model=legacy 为改造前的 List&lt;Map&lt;String,Integer&gt;&gt; 字段（下方Legacy*类，字段与改造前实体一致）。
+ * EVENTS计数在迭代和fork间累加，因此只做一次测量迭代；用 -f 增加fork时请看jmh-result.json中的rawData
+ * 运行：-Djmh.args="EntityFootprintBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+public class EntityFootprintBenchmark {
+
+	private static final int DEPARTMENT_COPIES = 40;
+
+	@Param({"employee", "department"})
+	public String entity;
+
+	@Param({"typed", "legacy"})
+	public String model;
+
+	private MappingMongoConverter converter;
+	private List<Document> documents;
+	private Class<?> type;
+	private int copies;
+
+	/**
+	 * 每次操作的结果：每个实体的常驻字节数
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+		public long bytesPerEntity;
+	}
+
+	@Setup
+	public void setUp() {
+		boolean employee = "employee".equals(entity);
+		boolean typed = "typed".equals(model);
+		String collection = employee ? "Employee" : "Department";
+		copies = employee ? 1 : DEPARTMENT_COPIES;
+		documents = new ArrayList<>();
+		new SyntheticOrgGenerator(SyntheticOrgGenerator.Options.defaults()).generate((name, batch) -> {
+			if (collection.equals(name)) {
+				documents.addAll(batch);
+			}
+		});
+		type = employee ? (typed ? Employee.class : LegacyEmployee.class) : (typed ? Department.class : LegacyDepartment.class);
+
+		MongoCustomConversions conversions = new MongoConversionConfig().mongoCustomConversions();
+		MongoMappingContext context = new MongoMappingContext();
+		context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		context.afterPropertiesSet();
+		converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+	}
+
+	@Benchmark
+	public void retained(Footprint footprint) {
+		List<Object> retained = new ArrayList<>(documents.size() * copies);
+		long before = usedHeapAfterGc();
+		for (int i = 0; i < copies; i++) {
+			for (Document doc : documents) {
+				retained.add(converter.read(type, doc));
+			}
+		}
+		long after = usedHeapAfterGc();
+		footprint.bytesPerEntity = (after - before) / retained.size();
+		Reference.reachabilityFence(retained);
+	}
+
+	private static long usedHeapAfterGc() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+	// ==================== 改造前的实体形状 ====================
+
+	public static class LegacyEmployee {
+		@Id
+		@Field("_id")
+		private Integer _id;
+		private String empName;
+		private Integer depId;
+		private List<Map<String, Integer>> skillList;
+		private List<Map<String, Integer>> projects;
+		private LocalDateTime joinDate;
+		private List<Map<String, Integer>> trainingList;
+		private String deptName;
+		private String deptType;
+		private List<Map<String, Integer>> tasks;
+	}
+
+	public static class LegacyDepartment {
+		@Id
+		@Field("_id")
+		private Integer id;
+		private String depName;
+		private Integer managerId;
+		private List<Map<String, Integer>> empList;
+	}
+}
@@ -0,0 +1,89 @@
+package com.murasame.smarthrm.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.murasame.smarthrm.cache.JsonFragmentCache;
+import com.murasame.smarthrm.config.MongoConversionConfig;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.seed.SyntheticOrgGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 员工列表页响应的JSON输出：每次都序列化实体（entity），与拼接缓存命中的JSON片段（fragment），
+ * 每次操作输出一页（PAGE个员工，与列表接口的pageData结构一致）；配合-prof gc看gc.alloc.rate.norm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonFragmentBenchmark {
+
+	private static final int PAGE = 100;
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	private List<Employee> page;
+	private JsonFragmentCache cache;
+	private JsonGenerator gen;
+
+	@Setup
+	public void setUp() throws IOException {
+		List<Document> employees = new ArrayList<>();
+		new SyntheticOrgGenerator(new SyntheticOrgGenerator.Options(42L, 20, PAGE, 50, 4 * PAGE, 50, 200, 1.0, 500))
+				.generate((collection, batch) -> {
+					if ("Employee".equals(collection)) {
+						employees.addAll(batch);
+					}
+				});
+		MongoCustomConversions conversions = new MongoConversionConfig().mongoCustomConversions();
+		MongoMappingContext context = new MongoMappingContext();
+		context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		context.afterPropertiesSet();
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+		page = employees.stream().map(doc -> converter.read(Employee.class, doc)).toList();
+		page.forEach(emp -> emp.setDeptName("研发部"));
+
+		cache = new JsonFragmentCache(objectMapper, new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), 64L << 20);
+		cache.fragments(Employee.class, cache.stamp(), page, Employee::get_id, null);
+
+		// 输出到空流，只计编码开销
+		gen = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream());
+		gen.writeStartArray();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		gen.close();
+	}
+
+	@Benchmark
+	public void entity() throws IOException {
+		objectMapper.writeValue(gen, Map.of("employees", page, "pageSize", PAGE));
+		gen.flush();
+	}
+
+	@Benchmark
+	public void fragment() throws IOException {
+		objectMapper.writeValue(gen, Map.of("employees",
+				cache.fragments(Employee.class, cache.stamp(), page, Employee::get_id, null), "pageSize", PAGE));
+		gen.flush();
+	}
+}
@@ -0,0 +1,104 @@
+package com.murasame.smarthrm.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.murasame.smarthrm.config.MongoConversionConfig;
+import com.murasame.smarthrm.dao.RawJsonDao;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.entity.Project;
+import com.murasame.smarthrm.seed.SyntheticOrgGenerator;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列表接口的JSON输出：原始BSON → Document → 实体 → Jackson（entity），与原始BSON直通写出（passthrough），
+ * 均从驱动收到的原始字节开始，每次操作输出一个文档；配合-prof gc看gc.alloc.rate.norm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListJsonBenchmark {
+
+	private static final int DOCS = 1024;
+
+	@Param({"employee", "project"})
+	public String entity;
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	private final DocumentCodec documentCodec = new DocumentCodec();
+	private Class<?> type;
+	private RawJsonDao.Projection projection;
+	private RawBsonDocument[] docs;
+	private MappingMongoConverter converter;
+	private JsonGenerator gen;
+
+	@Setup
+	public void setUp() throws IOException {
+		List<Document> employees = new ArrayList<>();
+		List<Document> projects = new ArrayList<>();
+		new SyntheticOrgGenerator(new SyntheticOrgGenerator.Options(42L, 20, DOCS, DOCS, 4 * DOCS, 50, 200, 1.0, 500))
+				.generate((collection, batch) -> {
+					if ("Employee".equals(collection)) {
+						employees.addAll(batch);
+					} else if ("Project".equals(collection)) {
+						projects.addAll(batch);
+					}
+				});
+		boolean employee = "employee".equals(entity);
+		type = employee ? Employee.class : Project.class;
+		projection = employee ? RawJsonDao.EMPLOYEE : RawJsonDao.PROJECT;
+		docs = (employee ? employees : projects).stream()
+				.map(doc -> new RawBsonDocument(doc, documentCodec)).toArray(RawBsonDocument[]::new);
+
+		MongoCustomConversions conversions = new MongoConversionConfig().mongoCustomConversions();
+		MongoMappingContext context = new MongoMappingContext();
+		context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		context.afterPropertiesSet();
+		converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+
+		// 输出到空流，只计编码开销
+		gen = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream());
+		gen.writeStartArray();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		gen.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(DOCS)
+	public void entity() throws IOException {
+		for (RawBsonDocument doc : docs) {
+			objectMapper.writeValue(gen, converter.read(type, doc.decode(documentCodec)));
+		}
+		gen.flush();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(DOCS)
+	public void passthrough() throws IOException {
+		for (RawBsonDocument doc : docs) {
+			RawJsonDao.write(doc, projection, gen);
+		}
+		gen.flush();
+	}
+}
@@ -0,0 +1,63 @@
+package com.murasame.smarthrm.benchmark;
+
+import com.murasame.smarthrm.dao.EmployeeRepo;
+import com.murasame.smarthrm.dao.ProjectRepo;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.entity.Project;
+import com.murasame.smarthrm.service.impl.ProjectMatchServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 项目匹配：ProjectMatchServiceImpl按员工技能筛选可参与项目（getEmployeeSkills + isEmployeeSkillsMatchProject）
+ * 以及按成员筛选已参与项目；Repository以内存桩代替，只测量服务内的筛选逻辑
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectMatchBenchmark {
+
+	@Param({"100", "1000", "10000"})
+	public int projects;
+
+	private ProjectMatchServiceImpl service;
+
+	@Setup
+	public void setUp() {
+		List<Project> all = SyntheticData.projects(projects, 1000, 42);
+		Employee employee = SyntheticData.employees(1, 42).get(0);
+		ProjectRepo projectRepo = stub(ProjectRepo.class, all);
+		EmployeeRepo employeeRepo = stub(EmployeeRepo.class, Optional.of(employee));
+		service = new ProjectMatchServiceImpl(projectRepo, employeeRepo, null, null, null, null, null);
+	}
+
+	@Benchmark
+	public List<Project> matchAvailableForEmployee() {
+		return service.matchAvailableForEmployee(1);
+	}
+
+	@Benchmark
+	public List<Project> matchByEmployee() {
+		return service.matchByEmployee(1);
+	}
+
+	/**
+	 * Repository桩：findAll / findById 返回固定结果
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T stub(Class<T> repoType, Object result) {
+		return (T) Proxy.newProxyInstance(repoType.getClassLoader(), new Class<?>[]{repoType}, (proxy, method, args) -> {
+			if (method.getName().equals("findAll") || method.getName().equals("findById")) {
+				return result;
+			}
+			throw new UnsupportedOperationException(method.toString());
+		});
+	}
+}
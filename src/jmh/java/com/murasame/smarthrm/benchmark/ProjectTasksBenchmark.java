@@ -0,0 +1,100 @@
+package com.murasame.smarthrm.benchmark;
+
+import com.murasame.smarthrm.dao.TaskDao;
+import com.murasame.smarthrm.dao.TaskRepo;
+import com.murasame.smarthrm.dto.ProjectTaskGroupDTO;
+import com.murasame.smarthrm.entity.Project;
+import com.murasame.smarthrm.entity.Task;
+import com.murasame.smarthrm.service.impl.ProjectMatchServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 项目+任务列表组装：原实现逐个项目调用findByProjId并两次遍历统计状态（perProject），
+ * 与一次聚合取回分组结果后组装（grouped）；DAO以内存桩代替，只测量服务内的组装开销。
+ * 数据库往返次数由实现决定（perProject为项目数，grouped恒为1，见ProjectMatchServiceImplTest），
+ * 网络耗时约为 往返次数 × RTT，需在连接真实MongoDB的环境中测量
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectTasksBenchmark {
+
+	private static final int TASKS_PER_PROJECT = 5;
+
+	@Param({"10", "100", "1000"})
+	public int projects;
+
+	private List<Project> projectList;
+	private TaskRepo taskRepo;
+	private ProjectMatchServiceImpl service;
+
+	@Setup
+	public void setUp() {
+		projectList = new ArrayList<>();
+		Map<Integer, List<Task>> tasksByProject = new HashMap<>();
+		Map<Integer, ProjectTaskGroupDTO> groups = new HashMap<>();
+		for (int id = 1; id <= projects; id++) {
+			Project project = new Project();
+			project.setId(id);
+			projectList.add(project);
+			List<Task> tasks = new ArrayList<>();
+			for (int i = 0; i < TASKS_PER_PROJECT; i++) {
+				Task task = new Task();
+				task.set_id(id * 100 + i);
+				task.setProjId(id);
+				task.setTaskStatus(i % 2);
+				tasks.add(task);
+			}
+			tasksByProject.put(id, tasks);
+			ProjectTaskGroupDTO group = new ProjectTaskGroupDTO();
+			group.setProjId(id);
+			group.setTasks(tasks);
+			group.setCompleted(tasks.stream().filter(t -> t.getTaskStatus() == 1).count());
+			group.setPending(tasks.stream().filter(t -> t.getTaskStatus() == 0).count());
+			groups.put(id, group);
+		}
+
+		taskRepo = (TaskRepo) Proxy.newProxyInstance(TaskRepo.class.getClassLoader(), new Class<?>[]{TaskRepo.class},
+				(proxy, method, args) -> {
+					if (method.getName().equals("findByProjId")) {
+						return tasksByProject.getOrDefault(args[0], List.of());
+					}
+					throw new UnsupportedOperationException(method.toString());
+				});
+		TaskDao taskDao = new TaskDao() {
+			@Override
+			public Map<Integer, ProjectTaskGroupDTO> groupByProjIds(Collection<Integer> projIds) {
+				return groups;
+			}
+		};
+		service = new ProjectMatchServiceImpl(null, null, taskRepo, taskDao, null, null, null);
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> perProject() {
+		List<Map<String, Object>> result = new ArrayList<>();
+		for (Project project : projectList) {
+			Map<String, Object> projectWithTasks = new HashMap<>();
+			projectWithTasks.put("project", project);
+			List<Task> tasks = taskRepo.findByProjId(project.getId());
+			projectWithTasks.put("tasks", tasks);
+			projectWithTasks.put("taskCount", tasks.size());
+			projectWithTasks.put("completedTasks", tasks.stream().filter(task -> task.getTaskStatus() == 1).count());
+			projectWithTasks.put("pendingTasks", tasks.stream().filter(task -> task.getTaskStatus() == 0).count());
+			result.add(projectWithTasks);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> grouped() {
+		return service.getProjectsWithTasks(projectList);
+	}
+}
@@ -0,0 +1,74 @@
+package com.murasame.smarthrm.benchmark;
+
+import com.murasame.smarthrm.dao.EmployeeDao;
+import com.murasame.smarthrm.dto.SkillMatchDTO;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.index.SkillIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 技能匹配：SkillIndex倒排表求交集 vs 逐个员工扫描技能列表（即$elemMatch逐文档判断的内存等价实现）
+ * 条件分为「常见技能」（大量员工满足，结果集大）和「少见技能」（结果集小）两组
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkillMatchBenchmark {
+
+	@Param({"1000", "10000", "100000"})
+	public int employees;
+
+	// common：技能1熟练度≥2且技能2熟练度≥3；rare：再加上少见技能150熟练度≥1
+	@Param({"common", "rare"})
+	public String reqs;
+
+	private List<Employee> population;
+	private List<SkillMatchDTO> conditions;
+	private SkillIndex skillIndex;
+
+	@Setup
+	public void setUp() {
+		population = SyntheticData.employees(employees, 42);
+		conditions = SkillMatchDTO.fromString("common".equals(reqs) ? "1:2,2:3" : "1:2,2:3,150:1");
+		skillIndex = new SkillIndex(new EmployeeDao(null, null) {
+			@Override
+			public List<Employee> findAllSkillLists() {
+				return population;
+			}
+		});
+		skillIndex.rebuild();
+	}
+
+	@Benchmark
+	public int[] index() {
+		return skillIndex.match(conditions);
+	}
+
+	@Benchmark
+	public int[] linearScan() {
+		return population.stream()
+				.filter(emp -> conditions.stream().allMatch(req -> emp.getSkillList().stream().anyMatch(skill ->
+						req.getSkillId().equals(skill.skillId()) && skill.proficiency() >= req.getMinLevel())))
+				.mapToInt(Employee::get_id)
+				.toArray();
+	}
+
+	/**
+	 * 两种实现结果一致（Trial结束时校验，避免基准对比的是不同语义）
+	 */
+	@TearDown
+	public void verify() {
+		int[] expected = linearScan();
+		int[] actual = index();
+		if (!Arrays.equals(expected, actual)) {
+			throw new IllegalStateException("SkillIndex与线性扫描结果不一致：" + expected.length + " vs " + actual.length);
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.murasame.smarthrm.benchmark;
+
+import com.murasame.smarthrm.dto.SkillMatchDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 技能条件字符串解析（"1:3,2:5" → List&lt;SkillMatchDTO&gt;），每次技能匹配请求都会执行
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkillMatchDTOBenchmark {
+
+	// 条件中的技能数
+	@Param({"1", "3", "8"})
+	public int skills;
+
+	private String src;
+
+	@Setup
+	public void setUp() {
+		StringJoiner joiner = new StringJoiner(",");
+		for (int i = 1; i <= skills; i++) {
+			joiner.add(i * 7 + ":" + (1 + i % 5));
+		}
+		src = joiner.toString();
+	}
+
+	@Benchmark
+	public List<SkillMatchDTO> fromString() {
+		return SkillMatchDTO.fromString(src);
+	}
+}
@@ -0,0 +1,100 @@
+package com.murasame.smarthrm.benchmark;
+
+import com.murasame.smarthrm.entity.Department;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.entity.Project;
+
+import java.util.*;
+
+/**
+ * 基准测试用的合成数据（固定随机种子，同一参数每次生成相同数据，便于版本间对比）
+ * 技能热度线性递减：取两个均匀随机数的较小值，技能k被抽中的概率约为 (2(n-k)+1)/n²，
+ * 技能1约为平均的2倍，远不及Zipf分布那样集中（需要Zipf分布时见seed包的ZipfSampler）
+ */
+final class SyntheticData {
+
+	static final int SKILL_COUNT = 200;
+
+	private SyntheticData() {
+	}
+
+	/**
+	 * 员工：每人5~10项技能，熟练度1~5
+	 */
+	static List<Employee> employees(int count, long seed) {
+		Random random = new Random(seed);
+		List<Employee> employees = new ArrayList<>(count);
+		for (int id = 1; id <= count; id++) {
+			Employee emp = new Employee();
+			emp.set_id(id);
+			emp.setEmpName("员工" + id);
+			int skills = 5 + random.nextInt(6);
+			Set<Integer> skillIds = new LinkedHashSet<>();
+			while (skillIds.size() < skills) {
+				skillIds.add(skewedSkill(random));
+			}
+			List<Employee.SkillLevel> skillList = new ArrayList<>(skills);
+			for (Integer skillId : skillIds) {
+				skillList.add(new Employee.SkillLevel(skillId, 1 + random.nextInt(5)));
+			}
+			emp.setSkillList(skillList);
+			employees.add(emp);
+		}
+		return employees;
+	}
+
+	/**
+	 * 项目：每个项目需要1~4项技能，成员10人（员工ID取自[1, maxEmpId]）
+	 */
+	static List<Project> projects(int count, int maxEmpId, long seed) {
+		Random random = new Random(seed);
+		List<Project> projects = new ArrayList<>(count);
+		for (int id = 1; id <= count; id++) {
+			Project project = new Project();
+			project.setId(id);
+			project.setProjName("项目" + id);
+			List<Project.ReqSkill> reqSkills = new ArrayList<>();
+			for (int i = 1 + random.nextInt(4); i > 0; i--) {
+				Project.ReqSkill reqSkill = new Project.ReqSkill();
+				reqSkill.setSkillId(skewedSkill(random));
+				reqSkills.add(reqSkill);
+			}
+			project.setReqSkill(reqSkills);
+			List<Project.Member> members = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				Project.Member member = new Project.Member();
+				member.setEmpId(1 + random.nextInt(maxEmpId));
+				members.add(member);
+			}
+			project.setMembers(members);
+			projects.add(project);
+		}
+		return projects;
+	}
+
+	/**
+	 * 部门：员工ID连续分配，每个部门membersPerDept人，第一名成员为负责人
+	 */
+	static List<Department> departments(int count, int membersPerDept) {
+		List<Department> departments = new ArrayList<>(count);
+		int empId = 1;
+		for (int id = 1; id <= count; id++) {
+			Department dept = new Department();
+			dept.setId(id);
+			dept.setDepName("部门" + id);
+			dept.setManagerId(empId);
+			List<Department.EmpRef> empList = new ArrayList<>(membersPerDept);
+			for (int i = 0; i < membersPerDept; i++) {
+				empList.add(new Department.EmpRef(empId++));
+			}
+			dept.setEmpList(empList);
+			departments.add(dept);
+		}
+		return departments;
+	}
+
+	private static int skewedSkill(Random random) {
+		// 取两个均匀随机数的较小值，技能ID越小越常见
+		return 1 + Math.min(random.nextInt(SKILL_COUNT), random.nextInt(SKILL_COUNT));
+	}
+}
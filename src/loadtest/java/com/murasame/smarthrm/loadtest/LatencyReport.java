@@ -0,0 +1,90 @@
+package com.murasame.smarthrm.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测报告：每个场景输出分位数表，并写出HdrHistogram百分位分布文件（.hgrm，可用HdrHistogram的绘图工具对比），
+ * 再按配置的延迟预算和错误率上限判定是否通过
+ */
+public class LatencyReport {
+
+	private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+	private final LoadTestConfig config;
+	private final Map<Scenario, OpenLoopDriver.Stats> stats;
+
+	public LatencyReport(LoadTestConfig config, Map<Scenario, OpenLoopDriver.Stats> stats) {
+		this.config = config;
+		this.stats = stats;
+	}
+
+	/**
+	 * 输出报告
+	 * @param out 控制台
+	 * @param dir .hgrm文件输出目录
+	 * @return 违反预算/错误率的条目，全部通过时为空
+	 */
+	public List<String> print(PrintStream out, Path dir) throws IOException {
+		Files.createDirectories(dir);
+		List<String> violations = new ArrayList<>();
+		out.printf("%n%-22s %8s %7s %9s %9s %9s %9s %9s   %s%n",
+				"场景", "请求数", "错误", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)", "服务时间p99(ms)");
+		long totalCount = 0;
+		long totalErrors = 0;
+		for (Map.Entry<Scenario, OpenLoopDriver.Stats> e : stats.entrySet()) {
+			Scenario scenario = e.getKey();
+			OpenLoopDriver.Stats s = e.getValue();
+			Histogram latency = s.latency;
+			// 丢弃的到达已按超时时间计入latency
+			long count = latency.getTotalCount();
+			totalCount += count;
+			totalErrors += s.errors.sum();
+			out.printf("%-22s %8d %7d", scenario.id(), count, s.errors.sum());
+			for (double p : PERCENTILES) {
+				out.printf(" %9.1f", millis(latency.getValueAtPercentile(p)));
+			}
+			out.printf(" %9.1f   %.1f%n", millis(latency.getMaxValue()), millis(s.serviceTime.getValueAtPercentile(99)));
+			out.printf("  %s  状态码：%s%s%n", scenario.endpoint(), s.statuses, s.dropped.sum() > 0
+					? String.format("，丢弃：%d（%.2f%%，按超时 %d ms 计入分位数）", s.dropped.sum(),
+							100.0 * s.dropped.sum() / count, config.timeoutMs())
+					: "");
+
+			try (PrintStream hgrm = new PrintStream(Files.newOutputStream(dir.resolve(scenario.id() + ".hgrm")))) {
+				// 记录单位为微秒，输出按毫秒缩放
+				latency.outputPercentileDistribution(hgrm, 1000.0);
+			}
+			for (Map.Entry<Double, Long> budget : config.budgets().getOrDefault(scenario, Map.of()).entrySet()) {
+				double actual = millis(latency.getValueAtPercentile(budget.getKey()));
+				if (latency.getTotalCount() == 0 || actual > budget.getValue()) {
+					violations.add(String.format("%s p%s = %.1f ms，超出预算 %d ms（%s）", scenario.id(),
+							format(budget.getKey()), actual, budget.getValue(), scenario.endpoint()));
+				}
+			}
+		}
+		double errorRate = totalCount == 0 ? 0 : (double) totalErrors / totalCount;
+		out.printf("%n总请求数 %d，错误率 %.2f%%（上限 %.2f%%），分布文件：%s%n",
+				totalCount, errorRate * 100, config.maxErrorRate() * 100, dir.toAbsolutePath());
+		if (totalCount == 0) {
+			violations.add("采样期内没有请求");
+		} else if (errorRate > config.maxErrorRate()) {
+			violations.add(String.format("错误率 %.2f%% 超出上限 %.2f%%", errorRate * 100, config.maxErrorRate() * 100));
+		}
+		return violations;
+	}
+
+	private static double millis(long micros) {
+		return micros / 1000.0;
+	}
+
+	private static String format(double percentile) {
+		return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+	}
+}
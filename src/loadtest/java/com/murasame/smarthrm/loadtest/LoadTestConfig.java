@@ -0,0 +1,87 @@
+package com.murasame.smarthrm.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 压测配置：classpath下的loadtest.properties为默认值，命令行 名称=值（可带--前缀）覆盖
+ */
+public record LoadTestConfig(String baseUrl, double rate, boolean poisson, int warmupSeconds, int durationSeconds,
+		long seed, int timeoutMs, int maxInFlight, int employees, int projects, int skills, int pageSize, int maxPage,
+		Map<Scenario, Integer> weights, Map<Scenario, Map<Double, Long>> budgets, double maxErrorRate) {
+
+	public static LoadTestConfig load(String[] args) throws IOException {
+		Properties props = new Properties();
+		try (InputStream in = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+			if (in != null) {
+				props.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+			}
+		}
+		for (String arg : args) {
+			String pair = arg.startsWith("--") ? arg.substring(2) : arg;
+			int eq = pair.indexOf('=');
+			if (eq <= 0) {
+				throw new IllegalArgumentException("参数格式应为 名称=值：" + arg);
+			}
+			props.setProperty(pair.substring(0, eq), pair.substring(eq + 1));
+		}
+		return from(props);
+	}
+
+	static LoadTestConfig from(Properties props) {
+		Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+		Map<Scenario, Map<Double, Long>> budgets = new EnumMap<>(Scenario.class);
+		for (String key : props.stringPropertyNames()) {
+			if (key.startsWith("weight.")) {
+				weights.put(Scenario.byName(key.substring("weight.".length())), Integer.parseInt(props.getProperty(key).trim()));
+			} else if (key.startsWith("budget.")) {
+				// budget.p99.skillMatch → 分位数99.0，场景skillMatch
+				String[] parts = key.split("\\.", 3);
+				if (parts.length != 3 || !parts[1].matches("p\\d+")) {
+					throw new IllegalArgumentException("预算配置格式应为 budget.p99.<场景>：" + key);
+				}
+				budgets.computeIfAbsent(Scenario.byName(parts[2]), k -> new TreeMap<>())
+						.put(percentile(parts[1]), Long.parseLong(props.getProperty(key).trim()));
+			}
+		}
+		if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+			throw new IllegalArgumentException("场景权重之和必须大于0");
+		}
+		LoadTestConfig config = new LoadTestConfig(
+				props.getProperty("baseUrl", "http://localhost:8080").replaceAll("/+$", ""),
+				Double.parseDouble(props.getProperty("rate", "50")),
+				!"constant".equalsIgnoreCase(props.getProperty("arrival", "poisson")),
+				intProp(props, "warmupSeconds", 10),
+				intProp(props, "durationSeconds", 60),
+				Long.parseLong(props.getProperty("seed", "42")),
+				intProp(props, "timeoutMs", 10_000),
+				intProp(props, "maxInFlight", 5_000),
+				intProp(props, "employees", 200_000),
+				intProp(props, "projects", 20_000),
+				intProp(props, "skills", 200),
+				intProp(props, "pageSize", 20),
+				intProp(props, "maxPage", 50),
+				weights, budgets,
+				Double.parseDouble(props.getProperty("maxErrorRate", "0.01")));
+		if (config.rate() <= 0 || config.durationSeconds() <= 0) {
+			throw new IllegalArgumentException("到达率与压测时长必须大于0");
+		}
+		return config;
+	}
+
+	/**
+	 * p99 → 99.0，p999 → 99.9，p50 → 50.0
+	 */
+	static double percentile(String name) {
+		String digits = name.substring(1);
+		return digits.length() <= 2 ? Double.parseDouble(digits) : Double.parseDouble(digits.substring(0, 2) + "." + digits.substring(2));
+	}
+
+	private static int intProp(Properties props, String name, int defaultValue) {
+		String value = props.getProperty(name);
+		return value == null ? defaultValue : Integer.parseInt(value.trim().replace("_", ""));
+	}
+}
@@ -0,0 +1,33 @@
+package com.murasame.smarthrm.loadtest;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 端到端压测入口：对运行中的实例按权重回放场景，输出各场景延迟分布并按预算判定通过/失败
+ *
+ * 运行方式（先启动应用并用SeedDataApplication灌入数据，参数与loadtest.properties同名）：
+ * mvn -P loadtest -DskipTests verify -Dloadtest.args="rate=200 durationSeconds=120"
+ * 未通过时进程以非0退出，Maven构建随之失败，可直接用于CI
+ */
+public class LoadTestMain {
+
+	public static void main(String[] args) throws Exception {
+		LoadTestConfig config = LoadTestConfig.load(args);
+		System.out.printf("压测 %s：%.0f 请求/秒（%s到达），预热 %d 秒 + 采样 %d 秒，种子 %d，场景权重 {%s}%n",
+				config.baseUrl(), config.rate(), config.poisson() ? "泊松" : "等间隔",
+				config.warmupSeconds(), config.durationSeconds(), config.seed(),
+				config.weights().entrySet().stream().map(e -> e.getKey().id() + "=" + e.getValue()).collect(Collectors.joining(", ")));
+
+		LatencyReport report = new LatencyReport(config, new OpenLoopDriver(config).run());
+		List<String> violations = report.print(System.out, Path.of(System.getProperty("loadtest.output", "target/loadtest")));
+		if (violations.isEmpty()) {
+			System.out.println("压测通过");
+			System.exit(0);
+		}
+		System.out.println("压测未通过：");
+		violations.forEach(v -> System.out.println("  - " + v));
+		System.exit(1);
+	}
+}
@@ -0,0 +1,138 @@
+package com.murasame.smarthrm.loadtest;
+
+import com.murasame.smarthrm.seed.ZipfSampler;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开环压测驱动
+ * 调度线程按预先确定的计划时刻（泊松或等间隔到达）发出请求，请求异步执行，响应慢不会推迟后续到达；
+ * 延迟从「计划时刻」起算（而不是实际发出时刻），调度落后或服务端排队造成的等待都计入延迟，
+ * 即修正了协调遗漏（coordinated omission）。同时记录从实际发出起算的服务时间，两者差距反映排队程度。
+ * 在途请求达到上限时到达被丢弃，按超时时间（timeoutMs）计入延迟并记为错误：饱和时被丢弃的正是最慢的那部分请求，
+ * 不计入延迟分布会让分位数重新偏低
+ */
+public class OpenLoopDriver {
+
+	// 延迟记录范围：1微秒 ~ 1小时，3位有效数字
+	private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+	/**
+	 * 单个场景的统计
+	 */
+	public static final class Stats {
+		final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+		final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+		final LongAdder errors = new LongAdder();
+		final LongAdder dropped = new LongAdder();
+		final Map<Integer, LongAdder> statuses = new ConcurrentSkipListMap<>();
+	}
+
+	private final LoadTestConfig config;
+
+	public OpenLoopDriver(LoadTestConfig config) {
+		this.config = config;
+	}
+
+	public Map<Scenario, Stats> run() throws InterruptedException {
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofMillis(config.timeoutMs()))
+				.executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+				.build();
+		Scenario.Context ctx = new Scenario.Context(config, client, new ZipfSampler(config.skills(), 1.0));
+		SplittableRandom random = new SplittableRandom(config.seed());
+		Scenario[] wheel = weightedWheel();
+
+		Map<Scenario, Stats> stats = new EnumMap<>(Scenario.class);
+		for (Scenario scenario : config.weights().keySet()) {
+			stats.put(scenario, new Stats());
+		}
+		AtomicInteger inFlight = new AtomicInteger();
+		Phaser outstanding = new Phaser(1);
+
+		double meanIntervalNanos = 1e9 / config.rate();
+		long start = System.nanoTime();
+		long warmupEnd = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+		long end = warmupEnd + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+		double intended = start;
+		long arrivals = 0;
+		while (true) {
+			intended += config.poisson() ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos : meanIntervalNanos;
+			long intendedStart = (long) intended;
+			if (intendedStart >= end) {
+				break;
+			}
+			// 参数在调度线程上确定，与执行快慢无关，保证同一种子下请求序列一致
+			Scenario scenario = wheel[random.nextInt(wheel.length)];
+			Scenario.Call call = scenario.prepare(ctx, random);
+			arrivals++;
+
+			long wait;
+			while ((wait = intendedStart - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			boolean measured = intendedStart >= warmupEnd;
+			Stats s = stats.get(scenario);
+			if (inFlight.get() >= config.maxInFlight()) {
+				if (measured) {
+					s.latency.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.MILLISECONDS.toMicros(config.timeoutMs())));
+					s.dropped.increment();
+					s.errors.increment();
+				}
+				continue;
+			}
+			inFlight.incrementAndGet();
+			outstanding.register();
+			long sent = System.nanoTime();
+			CompletableFuture<Integer> future;
+			try {
+				future = call.start();
+			} catch (RuntimeException e) {
+				future = CompletableFuture.failedFuture(e);
+			}
+			future.orTimeout(config.timeoutMs(), TimeUnit.MILLISECONDS).whenComplete((status, error) -> {
+				long done = System.nanoTime();
+				if (measured) {
+					s.latency.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (done - intendedStart) / 1000));
+					s.serviceTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (done - sent) / 1000));
+					int code = error != null ? 0 : status;
+					s.statuses.computeIfAbsent(code, k -> new LongAdder()).increment();
+					if (error != null || status / 100 != 2) {
+						s.errors.increment();
+					}
+				}
+				inFlight.decrementAndGet();
+				outstanding.arriveAndDeregister();
+			});
+		}
+		System.out.printf("到达计划完成：共 %d 次到达，等待在途请求结束...%n", arrivals);
+		try {
+			outstanding.awaitAdvanceInterruptibly(outstanding.arrive(), config.timeoutMs() * 2L, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			System.out.println("仍有 " + inFlight.get() + " 个请求未结束，已超出等待时间");
+		}
+		return stats;
+	}
+
+	/**
+	 * 按权重展开的场景轮盘，随机取一个下标即按权重选场景
+	 */
+	private Scenario[] weightedWheel() {
+		List<Scenario> wheel = new ArrayList<>();
+		config.weights().forEach((scenario, weight) -> {
+			for (int i = 0; i < weight; i++) {
+				wheel.add(scenario);
+			}
+		});
+		return wheel.toArray(new Scenario[0]);
+	}
+}
@@ -0,0 +1,194 @@
+package com.murasame.smarthrm.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.murasame.smarthrm.seed.ZipfSampler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 压测场景：每次到达时在调度线程上用种子随机数确定请求参数（保证可复现），返回异步执行的调用
+ * 调用结果为最终HTTP状态码；多步场景（先读后改）以最后一步的状态为准，延迟按整个流程计
+ */
+public enum Scenario {
+
+	/**
+	 * 员工列表翻页
+	 */
+	LIST_EMPLOYEES("listEmployees", "GET /employees/") {
+		@Override
+		Call prepare(Context ctx, SplittableRandom random) {
+			int pageNum = 1 + random.nextInt(ctx.config().maxPage());
+			return () -> ctx.send(ctx.get("/employees/?pageNum=" + pageNum + "&pageSize=" + ctx.config().pageSize()));
+		}
+	},
+
+	/**
+	 * 员工详情
+	 */
+	EMPLOYEE_DETAIL("employeeDetail", "GET /employees/{id}") {
+		@Override
+		Call prepare(Context ctx, SplittableRandom random) {
+			int empId = 1 + random.nextInt(ctx.config().employees());
+			return () -> ctx.send(ctx.get("/employees/" + empId));
+		}
+	},
+
+	/**
+	 * 技能匹配：1~3项随机技能条件（技能按Zipf分布，与种子数据一致）
+	 */
+	SKILL_MATCH("skillMatch", "POST /skillmatch/") {
+		@Override
+		Call prepare(Context ctx, SplittableRandom random) {
+			StringJoiner reqs = new StringJoiner(",");
+			Set<Integer> skillIds = new LinkedHashSet<>();
+			for (int n = 1 + random.nextInt(3); skillIds.size() < n; ) {
+				skillIds.add(ctx.skillSampler().sample(random));
+			}
+			skillIds.forEach(skillId -> reqs.add(skillId + ":" + (1 + random.nextInt(3))));
+			return () -> ctx.send(ctx.post("/skillmatch/?requiredSkills=" + encode(reqs.toString()), null));
+		}
+	},
+
+	/**
+	 * 按项目名搜索项目（附带任务）
+	 */
+	PROJECT_SEARCH("projectSearch", "POST /projectmatch/searchProjectNameWithTasks") {
+		@Override
+		Call prepare(Context ctx, SplittableRandom random) {
+			String keyword = "项目" + (1 + random.nextInt(ctx.config().projects()));
+			return () -> ctx.send(ctx.post("/projectmatch/searchProjectNameWithTasks?searchValue=" + encode(keyword), null));
+		}
+	},
+
+	/**
+	 * 编辑员工参与的项目：先读取员工现状（v2详情），再原样回写并增删一个项目，其余关联保持不变
+	 */
+	EDIT_EMPLOYEE_PROJECTS("editEmployeeProjects", "GET /employees/v2/{id} + POST /employees/mod") {
+		@Override
+		Call prepare(Context ctx, SplittableRandom random) {
+			int empId = 1 + random.nextInt(ctx.config().employees());
+			int projId = 1 + random.nextInt(ctx.config().projects());
+			return () -> ctx.client().sendAsync(ctx.get("/employees/v2/" + empId), HttpResponse.BodyHandlers.ofByteArray())
+					.thenCompose(read -> {
+						if (read.statusCode() / 100 != 2) {
+							return CompletableFuture.completedFuture(read.statusCode());
+						}
+						return ctx.send(ctx.post("/employees/mod", editBody(read.body(), projId)));
+					});
+		}
+	};
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final String id;
+	private final String endpoint;
+
+	Scenario(String id, String endpoint) {
+		this.id = id;
+		this.endpoint = endpoint;
+	}
+
+	public String id() {
+		return id;
+	}
+
+	public String endpoint() {
+		return endpoint;
+	}
+
+	abstract Call prepare(Context ctx, SplittableRandom random);
+
+	static Scenario byName(String id) {
+		for (Scenario scenario : values()) {
+			if (scenario.id.equals(id)) {
+				return scenario;
+			}
+		}
+		throw new IllegalArgumentException("未知的压测场景：" + id);
+	}
+
+	/**
+	 * 已确定参数、待发出的调用
+	 */
+	@FunctionalInterface
+	interface Call {
+		CompletableFuture<Integer> start();
+	}
+
+	/**
+	 * 场景执行上下文：HTTP客户端与请求构造
+	 */
+	record Context(LoadTestConfig config, HttpClient client, ZipfSampler skillSampler) {
+
+		HttpRequest get(String path) {
+			return request(path).GET().build();
+		}
+
+		HttpRequest post(String path, String json) {
+			HttpRequest.Builder builder = request(path);
+			if (json == null) {
+				return builder.POST(HttpRequest.BodyPublishers.noBody()).build();
+			}
+			return builder.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8)).build();
+		}
+
+		CompletableFuture<Integer> send(HttpRequest request) {
+			// 响应体读完再计时结束，与浏览器感知一致
+			return client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+		}
+
+		private HttpRequest.Builder request(String path) {
+			return HttpRequest.newBuilder(URI.create(config.baseUrl() + path))
+					.timeout(Duration.ofMillis(config.timeoutMs()));
+		}
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * 由v2详情构造/employees/mod请求体：姓名、部门、技能、任务、培训原样保留，项目列表中切换projId
+	 */
+	static String editBody(byte[] detail, int projId) {
+		try {
+			JsonNode data = MAPPER.readTree(detail).path("data");
+			JsonNode employee = data.path("employee");
+			List<Integer> projectIds = ids(data.path("existingProjectIds"));
+			if (!projectIds.remove(Integer.valueOf(projId))) {
+				projectIds.add(projId);
+			}
+			ObjectNode body = MAPPER.createObjectNode();
+			body.put("id", employee.path("_id").asInt());
+			body.put("name", employee.path("empName").asText());
+			if (employee.hasNonNull("depId")) {
+				body.put("department", employee.get("depId").asText());
+			}
+			body.put("skills", data.path("existingSkillsStr").asText(""));
+			body.set("newProjectIds", MAPPER.valueToTree(projectIds));
+			body.set("newManagerTaskIds", MAPPER.valueToTree(ids(data.path("existingTaskIds"))));
+			body.set("newTrainingIds", MAPPER.valueToTree(ids(data.path("existingTrainingIds"))));
+			return MAPPER.writeValueAsString(body);
+		} catch (IOException e) {
+			throw new IllegalStateException("员工详情响应解析失败", e);
+		}
+	}
+
+	private static List<Integer> ids(JsonNode array) {
+		List<Integer> ids = new ArrayList<>();
+		array.forEach(node -> ids.add(node.asInt()));
+		return ids;
+	}
+}
@@ -0,0 +1,161 @@
+package com.murasame.smarthrm;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.murasame.smarthrm.seed.SyntheticOrgGenerator;
+import org.bson.Document;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 合成数据灌库工具（独立入口，不启动Spring容器）
+ * 用SyntheticOrgGenerator按种子生成大规模组织数据，以无序insertMany分批、多线程并发写入本地MongoDB，
+ * 完成后把counters中各序列推进到已用最大ID，保证应用新建记录不会与种子数据冲突。
+ *
+ * 运行方式（参数均可省略，以下为默认值）：
+ * mvn compile exec:java -Dexec.mainClass=com.murasame.smarthrm.SeedDataApplication -Dexec.args="
+ *   --uri=mongodb://localhost:27017/smartHRM --seed=42 --departments=500 --employees=200000
+ *   --projects=20000 --tasks=1000000 --trainings=5000 --skills=200 --zipf=1.0
+ *   --batch=5000 --writers=4 --drop=false"
+ *
+ * 目标集合非空时拒绝写入，需加 --drop=true 先清空（会同时删除对应的counters记录）。
+ * 建议在应用启动前灌库：IndexBootstrap会在应用启动后创建索引，先写数据再建索引比边写边维护索引快
+ */
+public class SeedDataApplication {
+
+	private static final List<String> COLLECTIONS = List.of("Skill", "Department", "Project", "Training", "Task", "Employee");
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> params = parseArgs(args);
+		String uri = params.getOrDefault("uri", "mongodb://localhost:27017/smartHRM");
+		int writers = Integer.parseInt(params.getOrDefault("writers", "4"));
+		boolean drop = Boolean.parseBoolean(params.getOrDefault("drop", "false"));
+		SyntheticOrgGenerator.Options defaults = SyntheticOrgGenerator.Options.defaults();
+		SyntheticOrgGenerator.Options options = new SyntheticOrgGenerator.Options(
+				Long.parseLong(params.getOrDefault("seed", String.valueOf(defaults.seed()))),
+				intParam(params, "departments", defaults.departments()),
+				intParam(params, "employees", defaults.employees()),
+				intParam(params, "projects", defaults.projects()),
+				intParam(params, "tasks", defaults.tasks()),
+				intParam(params, "trainings", defaults.trainings()),
+				intParam(params, "skills", defaults.skills()),
+				Double.parseDouble(params.getOrDefault("zipf", String.valueOf(defaults.zipfExponent()))),
+				intParam(params, "batch", defaults.batchSize()));
+
+		String database = new ConnectionString(uri).getDatabase();
+		try (MongoClient client = MongoClients.create(uri)) {
+			MongoDatabase db = client.getDatabase(database == null ? "smartHRM" : database);
+			prepare(db, drop);
+
+			long start = System.nanoTime();
+			Map<String, Integer> counts;
+			try (ParallelInsertSink sink = new ParallelInsertSink(db, writers)) {
+				counts = new SyntheticOrgGenerator(options).generate(sink);
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			// 序列推进到已用最大ID（$max，只会往大调）
+			counts.forEach((collection, count) -> db.getCollection("counters").updateOne(
+					Filters.eq("_id", collection), Updates.max("seq", count), new UpdateOptions().upsert(true)));
+
+			int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+			System.out.println("灌库完成：" + counts);
+			System.out.printf("共 %d 个文档，耗时 %.1f 秒，%.0f 文档/秒%n", total, seconds, total / seconds);
+		}
+	}
+
+	/**
+	 * 写入前检查：目标集合非空时要求显式 --drop=true
+	 */
+	private static void prepare(MongoDatabase db, boolean drop) {
+		for (String collection : COLLECTIONS) {
+			if (drop) {
+				db.getCollection(collection).drop();
+				db.getCollection("counters").deleteOne(Filters.eq("_id", collection));
+			} else if (db.getCollection(collection).estimatedDocumentCount() > 0) {
+				throw new IllegalStateException("集合 " + collection + " 非空，如需覆盖请加参数 --drop=true");
+			}
+		}
+	}
+
+	private static Map<String, String> parseArgs(String[] args) {
+		Map<String, String> params = new HashMap<>();
+		for (String arg : args) {
+			int eq = arg.indexOf('=');
+			if (!arg.startsWith("--") || eq < 0) {
+				throw new IllegalArgumentException("参数格式应为 --名称=值：" + arg);
+			}
+			params.put(arg.substring(2, eq), arg.substring(eq + 1));
+		}
+		return params;
+	}
+
+	private static int intParam(Map<String, String> params, String name, int defaultValue) {
+		String value = params.get(name);
+		return value == null ? defaultValue : Integer.parseInt(value.replace("_", ""));
+	}
+
+	/**
+	 * 多线程写入：生成线程只负责攒批，insertMany由writers个线程并发执行；
+	 * 在途批次数有上限（writers * 2），避免生成快于写入时批次堆积占满内存
+	 */
+	static final class ParallelInsertSink implements SyntheticOrgGenerator.Sink, AutoCloseable {
+
+		private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+
+		private final MongoDatabase db;
+		private final ExecutorService executor;
+		private final Semaphore inFlight;
+		private final List<Future<?>> pending = new ArrayList<>();
+
+		ParallelInsertSink(MongoDatabase db, int writers) {
+			this.db = db;
+			this.executor = Executors.newFixedThreadPool(writers);
+			this.inFlight = new Semaphore(writers * 2);
+		}
+
+		@Override
+		public void insert(String collection, List<Document> batch) {
+			inFlight.acquireUninterruptibly();
+			pending.add(executor.submit(() -> {
+				try {
+					db.getCollection(collection).insertMany(batch, UNORDERED);
+				} finally {
+					inFlight.release();
+				}
+			}));
+			// 及早暴露写入失败，并清理已完成的批次
+			pending.removeIf(this::doneOrThrow);
+		}
+
+		@Override
+		public void close() throws InterruptedException {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.HOURS);
+			pending.forEach(this::doneOrThrow);
+		}
+
+		private boolean doneOrThrow(Future<?> future) {
+			if (!future.isDone()) {
+				return false;
+			}
+			try {
+				future.get();
+				return true;
+			} catch (ExecutionException e) {
+				executor.shutdownNow();
+				throw new RuntimeException("批量写入失败：" + e.getCause().getMessage(), e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.murasame.smarthrm.cache;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 预序列化的JSON值（UTF-8字节）
+ * 放入响应对象（如List、Map）中由Jackson序列化时，作为一个完整的JSON值原样写出：
+ * 字节输出的生成器直接复制字节（writeRaw → appendUnquotedUTF8），不再经过实体序列化和字符编码
+ */
+public final class JsonFragment extends JsonSerializable.Base implements SerializableString {
+
+	private final byte[] utf8;
+
+	public JsonFragment(byte[] utf8) {
+		this.utf8 = utf8;
+	}
+
+	public int byteLength() {
+		return utf8.length;
+	}
+
+	// ==================== JsonSerializable ====================
+
+	@Override
+	public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+		gen.writeRawValue(this);
+	}
+
+	@Override
+	public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+		serialize(gen, serializers);
+	}
+
+	// ==================== SerializableString ====================
+	// 片段本身已是合法JSON，「带引号」与「不带引号」两种形式相同
+
+	@Override
+	public String getValue() {
+		return new String(utf8, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public int charLength() {
+		return getValue().length();
+	}
+
+	@Override
+	public char[] asQuotedChars() {
+		return getValue().toCharArray();
+	}
+
+	@Override
+	public byte[] asUnquotedUTF8() {
+		return utf8;
+	}
+
+	@Override
+	public byte[] asQuotedUTF8() {
+		return utf8;
+	}
+
+	@Override
+	public int appendQuotedUTF8(byte[] buffer, int offset) {
+		return appendUnquotedUTF8(buffer, offset);
+	}
+
+	@Override
+	public int appendQuoted(char[] buffer, int offset) {
+		return appendUnquoted(buffer, offset);
+	}
+
+	@Override
+	public int appendUnquotedUTF8(byte[] buffer, int offset) {
+		if (offset + utf8.length > buffer.length) {
+			return -1;
+		}
+		System.arraycopy(utf8, 0, buffer, offset, utf8.length);
+		return utf8.length;
+	}
+
+	@Override
+	public int appendUnquoted(char[] buffer, int offset) {
+		String value = getValue();
+		if (offset + value.length() > buffer.length) {
+			return -1;
+		}
+		value.getChars(0, value.length(), buffer, offset);
+		return value.length();
+	}
+
+	@Override
+	public int writeQuotedUTF8(OutputStream out) throws IOException {
+		return writeUnquotedUTF8(out);
+	}
+
+	@Override
+	public int writeUnquotedUTF8(OutputStream out) throws IOException {
+		out.write(utf8);
+		return utf8.length;
+	}
+
+	@Override
+	public int putQuotedUTF8(ByteBuffer buffer) {
+		return putUnquotedUTF8(buffer);
+	}
+
+	@Override
+	public int putUnquotedUTF8(ByteBuffer buffer) {
+		if (buffer.remaining() < utf8.length) {
+			return -1;
+		}
+		buffer.put(utf8);
+		return utf8.length;
+	}
+
+	@Override
+	public String toString() {
+		return getValue();
+	}
+}
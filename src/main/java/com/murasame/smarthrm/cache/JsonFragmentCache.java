@@ -0,0 +1,218 @@
+package com.murasame.smarthrm.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.entity.Project;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 热点实体的JSON片段缓存（员工列表项、项目）
+ * 核心逻辑：
+ * 1. 按「类型 + ID」缓存实体序列化后的UTF-8字节，列表响应由各实体的片段拼接（JsonFragment原样写出），命中的实体不再序列化；
+ * 2. 版本：全局单调时钟，调用方在读库前取版本戳（stamp），片段随版本戳存入；写入路径在写库后失效对应ID（或整个类型），
+ *    记下失效时的时钟值，版本戳早于最近一次失效的片段视为过期——读库与失效并发时不会把旧数据当作新数据；
+ * 3. 容量按总字节数限制（片段字节 + 估算的条目开销），超出时按Caffeine的W-TinyLFU策略淘汰；
+ * 4. 员工片段为列表视图：含列表页补充的部门名称、负责任务，部门及任务的写入同样需要失效员工片段。
+ * 失效由写入路径显式调用：EmployeeServiceImpl、DepartmentServiceImpl、ProjectMatchServiceImpl、TaskServiceImpl及RelationshipDao
+ */
+@Component
+public class JsonFragmentCache {
+
+	// 每个条目的估算固定开销（键、值对象、数组头、Caffeine节点），计入容量
+	static final int ENTRY_OVERHEAD = 96;
+	// 按ID失效的时钟值分片数（不同ID落在同一分片时只会多失效，不会漏失效）
+	private static final int STRIPES = 4096;
+
+	/**
+	 * 缓存键
+	 */
+	private record Key(Class<?> type, int id) {
+	}
+
+	/**
+	 * 片段及其版本戳
+	 */
+	private record Entry(long stamp, JsonFragment fragment) {
+	}
+
+	private final ObjectMapper objectMapper;
+	private final long maxBytes;
+	private final Cache<Key, Entry> cache;
+	private final AtomicLong clock = new AtomicLong();
+	private final AtomicLongArray invalidatedAt = new AtomicLongArray(STRIPES);
+	private final Map<Class<?>, AtomicLong> typeInvalidatedAt = Map.of(
+			Employee.class, new AtomicLong(), Project.class, new AtomicLong());
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	public JsonFragmentCache(ObjectMapper objectMapper, ObjectProvider<MeterRegistry> meterRegistry,
+							 @Value("${smarthrm.json-fragment-cache.max-bytes:67108864}") long maxBytes) {
+		this.objectMapper = objectMapper;
+		this.maxBytes = maxBytes;
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher((Key key, Entry entry) -> entry.fragment().byteLength() + ENTRY_OVERHEAD)
+				.recordStats()
+				.build();
+		registerMeters(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+	}
+
+	/**
+	 * 版本戳：须在读取实体（及列表补充数据）之前获取
+	 */
+	public long stamp() {
+		return clock.get();
+	}
+
+	/**
+	 * 取实体列表的JSON片段（保持列表顺序）：命中的直接复用；未命中的先交给prepare批量处理（如补充显示字段），再序列化并缓存
+	 * @param type 实体类型（Employee / Project）
+	 * @param stamp 读取entities之前获取的版本戳
+	 * @param entities 实体列表（本次从数据库或基础数据缓存读取）
+	 * @param idOf 取实体ID
+	 * @param prepare 序列化前对未命中实体的处理，可为null
+	 * @return 与entities一一对应的JSON片段
+	 */
+	public <T> List<JsonFragment> fragments(Class<T> type, long stamp, List<T> entities, Function<T, Integer> idOf,
+											Consumer<List<T>> prepare) {
+		if (!typeInvalidatedAt.containsKey(type)) {
+			throw new IllegalArgumentException("不支持缓存JSON片段的类型：" + type.getSimpleName());
+		}
+		List<JsonFragment> result = new ArrayList<>(entities.size());
+		List<T> missed = new ArrayList<>();
+		List<Integer> missedAt = new ArrayList<>();
+		for (T entity : entities) {
+			Integer id = idOf.apply(entity);
+			JsonFragment fragment = id == null ? null : get(type, id);
+			if (fragment == null) {
+				missed.add(entity);
+				missedAt.add(result.size());
+			}
+			result.add(fragment);
+		}
+		if (missed.isEmpty()) {
+			return result;
+		}
+		if (prepare != null) {
+			prepare.accept(missed);
+		}
+		for (int i = 0; i < missed.size(); i++) {
+			T entity = missed.get(i);
+			JsonFragment fragment = serialize(entity);
+			Integer id = idOf.apply(entity);
+			if (id != null) {
+				cache.put(new Key(type, id), new Entry(stamp, fragment));
+			}
+			result.set(missedAt.get(i), fragment);
+		}
+		return result;
+	}
+
+	/**
+	 * 使单个实体的片段失效（写库之后调用）
+	 */
+	public void invalidate(Class<?> type, Integer id) {
+		if (id == null || !typeInvalidatedAt.containsKey(type)) return;
+		Key key = new Key(type, id);
+		invalidatedAt.accumulateAndGet(stripe(key), clock.incrementAndGet(), Math::max);
+		cache.invalidate(key);
+		invalidations.increment();
+	}
+
+	public void invalidate(Class<?> type, Collection<Integer> ids) {
+		if (ids != null) {
+			ids.forEach(id -> invalidate(type, id));
+		}
+	}
+
+	/**
+	 * 使某类型的全部片段失效（无法确定受影响ID的批量写入）：只推进该类型的失效时钟，旧条目在访问时识别为过期或被淘汰
+	 */
+	public void invalidateAll(Class<?> type) {
+		AtomicLong typeClock = typeInvalidatedAt.get(type);
+		if (typeClock == null) return;
+		typeClock.accumulateAndGet(clock.incrementAndGet(), Math::max);
+		invalidations.increment();
+	}
+
+	/**
+	 * 缓存统计：命中率、占用字节数（含条目开销）、条目数、淘汰与失效次数
+	 */
+	public Map<String, Object> stats() {
+		// 先执行挂起的淘汰，使字节数、条目数反映容量限制后的结果
+		cache.cleanUp();
+		long hit = hits.sum();
+		long miss = misses.sum();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("hits", hit);
+		stats.put("misses", miss);
+		stats.put("hitRatio", hit + miss == 0 ? 0.0 : (double) hit / (hit + miss));
+		stats.put("entries", cache.estimatedSize());
+		stats.put("bytes", weightedBytes());
+		stats.put("maxBytes", maxBytes);
+		stats.put("evictions", cache.stats().evictionCount());
+		stats.put("invalidations", invalidations.sum());
+		return stats;
+	}
+
+	// ==================== 私有工具方法 ====================
+
+	private JsonFragment get(Class<?> type, int id) {
+		Key key = new Key(type, id);
+		Entry entry = cache.getIfPresent(key);
+		if (entry != null && entry.stamp() >= invalidatedAt.get(stripe(key))
+				&& entry.stamp() >= typeInvalidatedAt.get(type).get()) {
+			hits.increment();
+			return entry.fragment();
+		}
+		misses.increment();
+		return null;
+	}
+
+	private JsonFragment serialize(Object entity) {
+		try {
+			return new JsonFragment(objectMapper.writeValueAsBytes(entity));
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private long weightedBytes() {
+		return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+	}
+
+	private static int stripe(Key key) {
+		return (key.hashCode() & 0x7fffffff) % STRIPES;
+	}
+
+	private void registerMeters(MeterRegistry registry) {
+		FunctionCounter.builder("smarthrm.json.fragment.cache.requests", hits, LongAdder::sum)
+				.tag("result", "hit").register(registry);
+		FunctionCounter.builder("smarthrm.json.fragment.cache.requests", misses, LongAdder::sum)
+				.tag("result", "miss").register(registry);
+		FunctionCounter.builder("smarthrm.json.fragment.cache.evictions", cache, c -> c.stats().evictionCount())
+				.register(registry);
+		Gauge.builder("smarthrm.json.fragment.cache.bytes", this, JsonFragmentCache::weightedBytes)
+				.baseUnit("bytes").register(registry);
+		Gauge.builder("smarthrm.json.fragment.cache.entries", cache, Cache::estimatedSize).register(registry);
+	}
+}
@@ -0,0 +1,226 @@
+package com.murasame.smarthrm.cache;
+
+import com.murasame.smarthrm.entity.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 基础数据缓存（部门/项目/任务/培训/技能）
+ * 核心逻辑：
+ * 1. 每类数据保存一份不可变快照，首次读取或失效后才查询数据库；
+ * 2. 全局单调递增版本号：任一类数据写入时该类数据的版本号更新为新的全局版本，快照随之失效；
+ * 3. 版本号生成强ETag（含进程启动时间，重启后不会与旧ETag冲突），浏览器用If-None-Match重新验证，未变化时304且不读库；
+ * 4. 写入感知：通过Mongo生命周期事件捕获所有save/delete（含各Repo），DAO中的updateFirst等更新操作显式调用invalidate；
+ * 5. 存活时间：上述失效只在本进程内生效，其他节点（或直接改库）的写入由存活时间兜底——快照超过ttl后重新加载，
+ *    数据有变化时换新版本号（ETag随之变化），未变化时沿用原版本，客户端的304不受影响
+ * 注意：快照中的实体对象为共享实例，调用方只能读取、不能修改
+ */
+@Component
+public class ReferenceDataCache extends AbstractMongoEventListener<Object> {
+
+	private static final Logger log = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+	private final MongoTemplate mongoTemplate;
+	private final long ttlNanos;
+	private final LongSupplier nanoTime;
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong globalVersion = new AtomicLong();
+	private final Map<Class<?>, Entry<?>> entries = new LinkedHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+
+	@Autowired
+	public ReferenceDataCache(MongoTemplate mongoTemplate, @Value("${smarthrm.reference-cache.ttl:5m}") Duration ttl) {
+		this(mongoTemplate, ttl, System::nanoTime);
+	}
+
+	ReferenceDataCache(MongoTemplate mongoTemplate, Duration ttl, LongSupplier nanoTime) {
+		this.mongoTemplate = mongoTemplate;
+		this.ttlNanos = ttl.toNanos();
+		this.nanoTime = nanoTime;
+		for (Class<?> type : List.of(Department.class, Project.class, Task.class, Training.class, Skill.class)) {
+			entries.put(type, new Entry<>());
+		}
+	}
+
+	public Snapshot<Department> departments() {
+		return get(Department.class);
+	}
+
+	public Snapshot<Project> projects() {
+		return get(Project.class);
+	}
+
+	public Snapshot<Task> tasks() {
+		return get(Task.class);
+	}
+
+	public Snapshot<Training> trainings() {
+		return get(Training.class);
+	}
+
+	public Snapshot<Skill> skills() {
+		return get(Skill.class);
+	}
+
+	/**
+	 * 多类数据组合响应（如员工表单下拉选项）的ETag：取各类数据快照版本号的最大值
+	 * 未加载或已超过存活时间的数据先重新加载，否则其他节点的写入在存活时间之后仍会返回304
+	 * @param types 组合中包含的数据类型
+	 * @return 强ETag
+	 */
+	public String etagOf(Class<?>... types) {
+		long version = 0;
+		for (Class<?> type : types) {
+			version = Math.max(version, get(type).version());
+		}
+		return etag("ref", version);
+	}
+
+	/**
+	 * 使某类数据的快照失效（版本号更新为新的全局版本）
+	 * @param type 实体类型，非缓存类型直接忽略
+	 */
+	public void invalidate(Class<?> type) {
+		Entry<?> entry = entries.get(type);
+		if (entry == null) return;
+		entry.version.set(globalVersion.incrementAndGet());
+		entry.snapshot.set(null);
+		invalidations.increment();
+		log.debug("基础数据缓存失效：{}，新版本 {}", type.getSimpleName(), entry.version.get());
+	}
+
+	/**
+	 * 缓存统计：命中/未命中/失效/到期重新加载次数及各类数据当前版本、条数
+	 */
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("hits", hits.sum());
+		stats.put("misses", misses.sum());
+		stats.put("invalidations", invalidations.sum());
+		stats.put("expirations", expirations.sum());
+		entries.forEach((type, entry) -> {
+			Snapshot<?> snap = entry.snapshot.get();
+			stats.put(type.getSimpleName(), Map.of(
+					"version", entry.version.get(),
+					"cached", snap != null,
+					"size", snap != null ? snap.data().size() : 0));
+		});
+		return stats;
+	}
+
+	// ==================== Mongo生命周期事件 ====================
+
+	@Override
+	public void onAfterSave(AfterSaveEvent<Object> event) {
+		invalidate(event.getSource().getClass());
+	}
+
+	@Override
+	public void onAfterDelete(AfterDeleteEvent<Object> event) {
+		invalidate(event.getType());
+	}
+
+	// ==================== 私有工具方法 ====================
+
+	@SuppressWarnings("unchecked")
+	private <T> Entry<T> entry(Class<T> type) {
+		return (Entry<T>) entries.get(type);
+	}
+
+	private <T> Snapshot<T> get(Class<T> type) {
+		Entry<T> entry = entry(type);
+		Snapshot<T> snap = entry.snapshot.get();
+		long version = entry.version.get();
+		long now = nanoTime.getAsLong();
+		boolean current = snap != null && snap.version() == version;
+		if (current && now - entry.loadedAt < ttlNanos) {
+			hits.increment();
+			return snap;
+		}
+		misses.increment();
+		List<T> data = List.copyOf(mongoTemplate.findAll(type));
+		if (current) {
+			// 到期重新加载：数据有变化时换新版本；CAS失败说明期间本进程有写入，下方的版本检查会放弃缓存本次结果
+			expirations.increment();
+			if (!data.equals(snap.data())) {
+				long next = globalVersion.incrementAndGet();
+				if (entry.version.compareAndSet(version, next)) {
+					version = next;
+				}
+			}
+		}
+		snap = new Snapshot<>(version, etag(type.getSimpleName(), version), data);
+		// 加载期间若发生写入（版本号已变化），本次结果只返回给当前调用方，不写入缓存
+		if (entry.version.get() == version) {
+			entry.loadedAt = now;
+			entry.snapshot.set(snap);
+		}
+		return snap;
+	}
+
+	private String etag(String name, long version) {
+		return "\"" + name + "-" + epoch + "-" + version + "\"";
+	}
+
+	/**
+	 * 某类数据的不可变快照
+	 * @param version 快照对应的数据版本号
+	 * @param etag 强ETag
+	 * @param data 不可变数据列表
+	 */
+	public record Snapshot<T>(long version, String etag, List<T> data) {
+
+		/**
+		 * 生成带ETag的响应：If-None-Match命中时返回null（框架已写入304），否则返回快照数据
+		 * @param request 当前请求
+		 * @return 响应实体或null
+		 */
+		public ResponseEntity<List<T>> toResponse(WebRequest request) {
+			return toResponse(request, Function.identity());
+		}
+
+		/**
+		 * 生成带ETag的响应，响应体由快照数据转换而来（如转为预序列化的JSON片段），304时不做转换
+		 * @param request 当前请求
+		 * @param body 快照数据 → 响应体
+		 * @return 响应实体或null
+		 */
+		public <R> ResponseEntity<R> toResponse(WebRequest request, Function<List<T>, R> body) {
+			if (request.checkNotModified(etag)) {
+				return null;
+			}
+			return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(body.apply(data));
+		}
+	}
+
+	private static final class Entry<T> {
+		private final AtomicLong version = new AtomicLong();
+		// 当前快照开始加载的时间（System.nanoTime）
+		private volatile long loadedAt;
+		private final AtomicReference<Snapshot<T>> snapshot = new AtomicReference<>();
+	}
+}
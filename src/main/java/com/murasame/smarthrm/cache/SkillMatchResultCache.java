@@ -0,0 +1,183 @@
+package com.murasame.smarthrm.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.murasame.smarthrm.dto.SkillMatchDTO;
+import com.murasame.smarthrm.entity.Employee;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 技能匹配结果缓存（/skillmatch/ 按技能条件筛选员工）
+ * 核心逻辑：
+ * 1. 键为规范化后的技能条件（按技能ID排序、重复技能取最高要求），"1:3,2:5"与"2:5,1:3"命中同一条目；
+ * 2. 值为匹配结果序列化后的JSON（JsonFragment），命中时不查库、不序列化，按字节数计入容量；
+ * 3. 按技能定向失效：员工新增/编辑/删除时只使涉及其（新旧）技能的条目失效——员工只会出现在其技能覆盖全部条件的结果中，
+ *    其信息变化必然落在与其技能相交的条目里；无法确定技能的批量写入（部门迁移、任务负责人）整体失效；
+ * 4. 版本与JsonFragmentCache相同：查询前取时钟值，条目版本早于其任一技能的最近失效时钟即视为过期，查询与写入并发时不会缓存旧结果；
+ * 5. 容量按总字节数限制，Caffeine的W-TinyLFU按访问频率决定准入与淘汰，偶发的一次性查询不会挤掉高频条件。
+ */
+@Component
+public class SkillMatchResultCache {
+
+	// 每个条目的估算固定开销（键、值对象、数组头、Caffeine节点），计入容量
+	static final int ENTRY_OVERHEAD = 128;
+	// 按技能失效的时钟值分片数（技能ID取模，不同技能落在同一分片时只会多失效，不会漏失效）
+	private static final int STRIPES = 1024;
+
+	/**
+	 * 匹配结果及其版本、涉及的技能
+	 */
+	private record Entry(long stamp, int[] skillIds, JsonFragment json) {
+	}
+
+	private final ObjectMapper objectMapper;
+	private final long maxBytes;
+	private final Cache<String, Entry> cache;
+	private final AtomicLong clock = new AtomicLong();
+	private final AtomicLongArray invalidatedAt = new AtomicLongArray(STRIPES);
+	private final AtomicLong allInvalidatedAt = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	public SkillMatchResultCache(ObjectMapper objectMapper, ObjectProvider<MeterRegistry> meterRegistry,
+								 @Value("${smarthrm.skill-match-cache.max-bytes:33554432}") long maxBytes) {
+		this.objectMapper = objectMapper;
+		this.maxBytes = maxBytes;
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher((String key, Entry entry) ->
+						entry.json().byteLength() + 2 * key.length() + 4 * entry.skillIds().length + ENTRY_OVERHEAD)
+				.recordStats()
+				.build();
+		registerMeters(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+	}
+
+	/**
+	 * 取技能条件的匹配结果JSON：命中直接返回；未命中时以规范化后的条件调用loader查询，序列化后缓存
+	 * 条件为空时不缓存（无法按技能定向失效）
+	 * @param reqs 技能条件（原始顺序，可含重复技能）
+	 * @param loader 规范化条件 → 匹配的员工
+	 * @return 员工列表的JSON
+	 */
+	public JsonFragment get(List<SkillMatchDTO> reqs, Function<List<SkillMatchDTO>, List<Employee>> loader) {
+		List<SkillMatchDTO> normalized = SkillMatchDTO.normalize(reqs);
+		if (normalized.isEmpty()) {
+			return serialize(loader.apply(normalized));
+		}
+		String key = normalized.stream()
+				.map(r -> r.getSkillId() + ":" + r.getMinLevel())
+				.collect(Collectors.joining(","));
+		Entry entry = cache.getIfPresent(key);
+		if (entry != null && isFresh(entry)) {
+			hits.increment();
+			return entry.json();
+		}
+		misses.increment();
+		long stamp = clock.get();
+		JsonFragment json = serialize(loader.apply(normalized));
+		int[] skillIds = normalized.stream().mapToInt(SkillMatchDTO::getSkillId).toArray();
+		cache.put(key, new Entry(stamp, skillIds, json));
+		return json;
+	}
+
+	/**
+	 * 使包含任一给定技能的条目失效（写库之后调用）
+	 * @param skills 员工写入前或写入后的技能列表，可为null
+	 */
+	public void invalidate(List<Employee.SkillLevel> skills) {
+		if (skills == null || skills.isEmpty()) return;
+		long now = clock.incrementAndGet();
+		for (Employee.SkillLevel skill : skills) {
+			if (skill != null && skill.skillId() != null) {
+				invalidatedAt.accumulateAndGet(stripe(skill.skillId()), now, Math::max);
+			}
+		}
+		invalidations.increment();
+	}
+
+	/**
+	 * 使全部条目失效（无法确定涉及技能的批量写入）
+	 */
+	public void invalidateAll() {
+		allInvalidatedAt.accumulateAndGet(clock.incrementAndGet(), Math::max);
+		invalidations.increment();
+	}
+
+	/**
+	 * 缓存统计：命中率、占用字节数（含条目开销）、条目数、淘汰与失效次数
+	 */
+	public Map<String, Object> stats() {
+		// 先执行挂起的淘汰，使字节数、条目数反映容量限制后的结果
+		cache.cleanUp();
+		long hit = hits.sum();
+		long miss = misses.sum();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("hits", hit);
+		stats.put("misses", miss);
+		stats.put("hitRatio", hit + miss == 0 ? 0.0 : (double) hit / (hit + miss));
+		stats.put("entries", cache.estimatedSize());
+		stats.put("bytes", weightedBytes());
+		stats.put("maxBytes", maxBytes);
+		stats.put("evictions", cache.stats().evictionCount());
+		stats.put("invalidations", invalidations.sum());
+		return stats;
+	}
+
+	// ==================== 私有工具方法 ====================
+
+	private boolean isFresh(Entry entry) {
+		if (entry.stamp() < allInvalidatedAt.get()) return false;
+		for (int skillId : entry.skillIds()) {
+			if (entry.stamp() < invalidatedAt.get(stripe(skillId))) return false;
+		}
+		return true;
+	}
+
+	private JsonFragment serialize(List<Employee> employees) {
+		try {
+			return new JsonFragment(objectMapper.writeValueAsBytes(employees));
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private long weightedBytes() {
+		return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+	}
+
+	private static int stripe(int skillId) {
+		return Math.floorMod(skillId, STRIPES);
+	}
+
+	private void registerMeters(MeterRegistry registry) {
+		FunctionCounter.builder("smarthrm.skillmatch.cache.requests", hits, LongAdder::sum)
+				.tag("result", "hit").register(registry);
+		FunctionCounter.builder("smarthrm.skillmatch.cache.requests", misses, LongAdder::sum)
+				.tag("result", "miss").register(registry);
+		FunctionCounter.builder("smarthrm.skillmatch.cache.evictions", cache, c -> c.stats().evictionCount())
+				.register(registry);
+		Gauge.builder("smarthrm.skillmatch.cache.bytes", this, SkillMatchResultCache::weightedBytes)
+				.baseUnit("bytes").register(registry);
+		Gauge.builder("smarthrm.skillmatch.cache.entries", cache, Cache::estimatedSize).register(registry);
+	}
+}
@@ -0,0 +1,236 @@
+package com.murasame.smarthrm.config;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MongoDB索引引导
+ * 实体类上没有声明@Indexed/@CompoundIndex，DAO与Repository中的按字段查询默认都是全表扫描（COLLSCAN）。
+ * 这里集中登记所有查询路径（QUERIES）以及覆盖它们的索引（INDEXES），应用启动完成后在后台线程逐个createIndex
+ * （已存在的同名同键索引为空操作），并提供覆盖关系报告和explain检查，供/internal/indexes及测试使用。
+ *
+ * 新增按字段查询的DAO/Repository方法时，需同步在QUERIES中登记，并保证有索引覆盖（IndexBootstrapTest会校验）
+ */
+@Component
+public class IndexBootstrap {
+
+	private static final Logger log = LoggerFactory.getLogger(IndexBootstrap.class);
+
+	/**
+	 * 索引定义：集合名 + 索引名 + 键（1升序，-1降序；数组字段自动为多键索引）
+	 */
+	public record IndexSpec(String collection, String name, Document keys) {
+	}
+
+	/**
+	 * 查询路径：方法名 + 集合名 + 代表性的过滤条件/排序（用于覆盖校验和explain）
+	 */
+	public record QueryShape(String method, String collection, Document filter, Document sort) {
+	}
+
+	public static final List<IndexSpec> INDEXES = List.of(
+			new IndexSpec("Task", "projId_1_taskStatus_1", new Document("projId", 1).append("taskStatus", 1)),
+			new IndexSpec("Task", "managerId_1", new Document("managerId", 1)),
+			new IndexSpec("Training", "skillId_1", new Document("skillId", 1)),
+			new IndexSpec("Training", "members_1", new Document("members", 1)),
+			new IndexSpec("Training", "trainName_1", new Document("trainName", 1)),
+			new IndexSpec("Project", "members.empId_1", new Document("members.empId", 1)),
+			new IndexSpec("Project", "projStatus_1_startDate_-1", new Document("projStatus", 1).append("startDate", -1)),
+			new IndexSpec("Project", "startDate_-1", new Document("startDate", -1)),
+			new IndexSpec("Project", "projName_1", new Document("projName", 1)),
+			new IndexSpec("Employee", "skillList.skillId_1_skillList.proficiency_1",
+					new Document("skillList.skillId", 1).append("skillList.proficiency", 1)),
+			new IndexSpec("Employee", "tasks.taskId_1", new Document("tasks.taskId", 1)),
+			new IndexSpec("Skill", "skillName_1", new Document("skillName", 1))
+	);
+
+	public static final List<QueryShape> QUERIES = List.of(
+			new QueryShape("TaskRepo.findByProjId", "Task", new Document("projId", 1), null),
+			new QueryShape("TaskRepo.findByProjIdAndTaskStatus", "Task", new Document("projId", 1).append("taskStatus", 0), null),
+			new QueryShape("TaskRepo.existsByProjId", "Task", new Document("projId", 1), null),
+			new QueryShape("TaskRepo.findByManagerId", "Task", new Document("managerId", 1), null),
+			new QueryShape("TaskDao.groupByProjIds", "Task", new Document("projId", new Document("$in", List.of(1, 2))), null),
+			new QueryShape("TaskDao.findByManagerIds", "Task", new Document("managerId", new Document("$in", List.of(1, 2))), null),
+			new QueryShape("TrainingRepo.findBySkillId", "Training", new Document("skillId", 1), null),
+			new QueryShape("TrainingRepo.existsByTrainName", "Training", new Document("trainName", "x"), null),
+			new QueryShape("TrainingDao.findByMemberEmpId", "Training", new Document("members", 1), null),
+			new QueryShape("ProjectDao.findByMemberEmpId", "Project",
+					new Document("members", new Document("$elemMatch", new Document("empId", 1))), null),
+			new QueryShape("ProjectRepo.existsByProjName", "Project", new Document("projName", "x"), null),
+			new QueryShape("ProjectRepo.findByProjStatus", "Project", new Document("projStatus", 0), null),
+			new QueryShape("ProjectRepo.findByProjStatusOrderByStartDateDesc", "Project",
+					new Document("projStatus", 0), new Document("startDate", -1)),
+			new QueryShape("ProjectRepo.findAllByOrderByStartDateDesc", "Project", new Document(), new Document("startDate", -1)),
+			new QueryShape("EmployeeDao.findBySkillsRequired", "Employee",
+					new Document("$and", List.of(new Document("skillList", new Document("$elemMatch",
+							new Document("skillId", 1).append("proficiency", new Document("$gte", 2)))))), null),
+			new QueryShape("EmployeeDao.streamBySkillIds", "Employee",
+					new Document("skillList.skillId", new Document("$in", List.of(1, 2))), null),
+			new QueryShape("RelationshipDao.findProjectIdsByMember", "Project", new Document("members.empId", 1), null),
+			new QueryShape("RelationshipDao.assignTasks", "Employee",
+					new Document("_id", new Document("$ne", 1)).append("tasks.taskId", new Document("$in", List.of(1, 2))), null),
+			new QueryShape("SkillRepo.existsBySkillName", "Skill", new Document("skillName", "x"), null)
+	);
+
+	/**
+	 * 不登记索引的查询：无锚点、忽略大小写的正则无法利用B树索引，已改由NameSearchIndex在内存中检索
+	 */
+	public static final Map<String, String> UNINDEXED = Map.of(
+			"*NameContaining / *NameLike*", "无锚点正则，由NameSearchIndex承担，仅在索引未就绪时回退查库"
+	);
+
+	private final MongoTemplate mongoTemplate;
+
+	// 索引名 → 创建结果（ok / 异常信息），未执行时无记录
+	private final Map<String, String> status = new ConcurrentHashMap<>();
+	private volatile boolean done = false;
+
+	public IndexBootstrap(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	/**
+	 * 应用启动完成后异步创建索引，避免数据库不可用或大集合建索引时阻塞启动
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void ensureOnStartup() {
+		Thread worker = new Thread(this::ensureIndexes, "index-bootstrap");
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	/**
+	 * 创建所有登记的索引，单个索引失败（如与已有同名索引键不一致）只记录不中断
+	 */
+	public void ensureIndexes() {
+		long start = System.nanoTime();
+		int ok = 0;
+		for (IndexSpec spec : INDEXES) {
+			try {
+				mongoTemplate.indexOps(spec.collection())
+						.createIndex(new CompoundIndexDefinition(spec.keys()).named(spec.name()));
+				status.put(spec.collection() + "." + spec.name(), "ok");
+				ok++;
+			} catch (Exception e) {
+				status.put(spec.collection() + "." + spec.name(), "failed: " + e.getMessage());
+				log.warn("索引 {}.{} 创建失败：{}", spec.collection(), spec.name(), e.getMessage());
+			}
+		}
+		done = true;
+		log.info("索引引导完成：{}/{} 个索引就绪，耗时 {} ms", ok, INDEXES.size(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * 覆盖关系报告：每个查询路径由哪个索引覆盖、索引创建状态
+	 */
+	public Map<String, Object> report() {
+		Map<String, Object> queries = new LinkedHashMap<>();
+		for (QueryShape shape : QUERIES) {
+			IndexSpec spec = coveringIndex(shape);
+			Map<String, Object> item = new LinkedHashMap<>();
+			item.put("collection", shape.collection());
+			item.put("index", spec == null ? null : spec.name());
+			item.put("status", spec == null ? "uncovered" : status.getOrDefault(spec.collection() + "." + spec.name(), "pending"));
+			queries.put(shape.method(), item);
+		}
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("bootstrapDone", done);
+		report.put("indexes", new TreeMap<>(status));
+		report.put("queries", queries);
+		report.put("unindexed", UNINDEXED);
+		return report;
+	}
+
+	/**
+	 * 找出能让该查询避免COLLSCAN的索引：索引首键是过滤字段之一，或无过滤条件时首键是排序字段
+	 */
+	public static IndexSpec coveringIndex(QueryShape shape) {
+		Set<String> filterFields = filterFields(shape.filter());
+		Set<String> sortFields = shape.sort() == null ? Set.of() : shape.sort().keySet();
+		for (IndexSpec spec : INDEXES) {
+			if (!spec.collection().equals(shape.collection())) {
+				continue;
+			}
+			String leading = spec.keys().keySet().iterator().next();
+			if (filterFields.contains(leading) || (filterFields.isEmpty() && sortFields.contains(leading))) {
+				return spec;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 提取过滤条件中的字段路径：$and展开，$elemMatch展开为「数组字段.子字段」
+	 */
+	static Set<String> filterFields(Document filter) {
+		Set<String> fields = new LinkedHashSet<>();
+		if (filter == null) {
+			return fields;
+		}
+		for (Map.Entry<String, Object> e : filter.entrySet()) {
+			if ("$and".equals(e.getKey()) && e.getValue() instanceof List<?> list) {
+				for (Object sub : list) {
+					if (sub instanceof Document d) {
+						fields.addAll(filterFields(d));
+					}
+				}
+			} else if (e.getValue() instanceof Document d && d.get("$elemMatch") instanceof Document elem) {
+				for (String sub : filterFields(elem)) {
+					fields.add(e.getKey() + "." + sub);
+				}
+			} else {
+				fields.add(e.getKey());
+			}
+		}
+		return fields;
+	}
+
+	/**
+	 * 对查询路径执行explain（queryPlanner），返回获胜计划中出现的所有stage（如FETCH、IXSCAN、COLLSCAN）
+	 */
+	public List<String> explainStages(QueryShape shape) {
+		Document find = new Document("find", shape.collection()).append("filter", shape.filter());
+		if (shape.sort() != null) {
+			find.append("sort", shape.sort());
+		}
+		Document result = mongoTemplate.getDb()
+				.runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+		Document planner = result.get("queryPlanner", Document.class);
+		List<String> stages = new ArrayList<>();
+		collectStages(planner == null ? null : planner.get("winningPlan", Document.class), stages);
+		return stages;
+	}
+
+	private static void collectStages(Document plan, List<String> stages) {
+		if (plan == null) {
+			return;
+		}
+		// 新版本查询引擎（SBE）把计划包在queryPlan下
+		if (plan.get("queryPlan") instanceof Document inner) {
+			collectStages(inner, stages);
+			return;
+		}
+		if (plan.getString("stage") != null) {
+			stages.add(plan.getString("stage"));
+		}
+		if (plan.get("inputStage") instanceof Document input) {
+			collectStages(input, stages);
+		}
+		if (plan.get("inputStages") instanceof List<?> inputs) {
+			for (Object input : inputs) {
+				if (input instanceof Document d) {
+					collectStages(d, stages);
+				}
+			}
+		}
+	}
+}
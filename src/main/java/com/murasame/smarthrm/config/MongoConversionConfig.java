@@ -0,0 +1,255 @@
+package com.murasame.smarthrm.config;
+
+import com.murasame.smarthrm.entity.Department;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.entity.Project;
+import org.bson.Document;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * MongoDB自定义类型转换
+ * 员工技能/项目/培训/任务、部门成员在内存中为紧凑的record（两个/一个Integer字段），
+ * 库中仍是原来的内嵌文档格式（{skillId, proficiency}、{projId}等），数据无需迁移。
+ * 显式转换器代替反射映射：写入时不带_class，读取时兼容早期以id为键的技能数据；
+ * 字段缺失或为null时读为null，数字字符串转为Integer，其他无法转换的值读取失败，与默认映射一致。
+ *
+ * 员工、项目是列表/匹配/缓存加载中读取量最大的两类文档，另有整文档读取转换器（EmployeeReader/ProjectReader），
+ * 直接按字段取值构造实体，绕过MappingMongoConverter逐属性的反射与类型推断；写入仍走默认映射。
+ * 实体新增字段时需同步修改对应的Reader（MongoConversionConfigTest会与默认映射的读取结果逐个比对）
+ */
+@Configuration
+public class MongoConversionConfig {
+
+	@Bean
+	public MongoCustomConversions mongoCustomConversions() {
+		List<Object> converters = new ArrayList<>(valueConverters());
+		converters.add(new EmployeeReader());
+		converters.add(new ProjectReader());
+		return new MongoCustomConversions(converters);
+	}
+
+	/**
+	 * 嵌套值类型的读写转换器（不含整文档读取转换器，供基准测试与默认映射对比）
+	 */
+	public static List<Object> valueConverters() {
+		return List.of(
+				new SkillLevelWriter(), new SkillLevelReader(),
+				new ProjectRefWriter(), new ProjectRefReader(),
+				new TrainingRefWriter(), new TrainingRefReader(),
+				new TaskRefWriter(), new TaskRefReader(),
+				new EmpRefWriter(), new EmpRefReader());
+	}
+
+	/**
+	 * 读取整数字段，依次尝试候选键，取第一个非null的值按integer转换；均不存在时返回null
+	 */
+	static Integer intValue(Document doc, String... keys) {
+		for (String key : keys) {
+			Object value = doc.get(key);
+			if (value != null) {
+				return integer(value);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 写入整数字段，null不写入，读取时缺失的字段保存后仍然缺失
+	 */
+	static Document withInt(Document doc, String key, Integer value) {
+		if (value != null) {
+			doc.append(key, value);
+		}
+		return doc;
+	}
+
+	// 以下取值方法与默认映射的类型转换保持一致：数值统一转为Integer，日期按系统时区转为LocalDateTime
+
+	static Integer integer(Object value) {
+		if (value instanceof Integer i) {
+			return i;
+		}
+		if (value instanceof Number number) {
+			return number.intValue();
+		}
+		return value instanceof String s ? Integer.valueOf(s) : null;
+	}
+
+	static String string(Object value) {
+		return value == null ? null : value.toString();
+	}
+
+	static LocalDateTime localDateTime(Object value) {
+		return value instanceof Date date ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+	}
+
+	/**
+	 * 读取内嵌文档数组：字段缺失时为null，非文档元素跳过
+	 */
+	static <T> List<T> list(Object value, Function<Document, T> reader) {
+		if (!(value instanceof List<?> items)) {
+			return null;
+		}
+		List<T> result = new ArrayList<>(items.size());
+		for (Object item : items) {
+			if (item instanceof Document doc) {
+				result.add(reader.apply(doc));
+			}
+		}
+		return result;
+	}
+
+	@ReadingConverter
+	static class EmployeeReader implements Converter<Document, Employee> {
+		@Override
+		public Employee convert(Document source) {
+			Employee employee = new Employee();
+			employee.set_id(integer(source.get("_id")));
+			employee.setEmpName(string(source.get("empName")));
+			employee.setDepId(integer(source.get("depId")));
+			employee.setSkillList(list(source.get("skillList"), SkillLevelReader::read));
+			employee.setProjects(list(source.get("projects"), ProjectRefReader::read));
+			employee.setJoinDate(localDateTime(source.get("joinDate")));
+			employee.setTrainingList(list(source.get("trainingList"), TrainingRefReader::read));
+			employee.setDeptName(string(source.get("deptName")));
+			employee.setDeptType(string(source.get("deptType")));
+			employee.setTasks(list(source.get("tasks"), TaskRefReader::read));
+			return employee;
+		}
+	}
+
+	@ReadingConverter
+	static class ProjectReader implements Converter<Document, Project> {
+		@Override
+		public Project convert(Document source) {
+			Project project = new Project();
+			project.setId(integer(source.get("_id")));
+			project.setProjName(string(source.get("projName")));
+			project.setMembers(list(source.get("members"), doc -> {
+				Project.Member member = new Project.Member();
+				member.setEmpId(integer(doc.get("empId")));
+				return member;
+			}));
+			project.setReqSkill(list(source.get("reqSkill"), doc -> {
+				Project.ReqSkill reqSkill = new Project.ReqSkill();
+				reqSkill.setSkillId(integer(doc.get("skillId")));
+				return reqSkill;
+			}));
+			project.setProjStatus(integer(source.get("projStatus")));
+			project.setStartDate(localDateTime(source.get("startDate")));
+			return project;
+		}
+	}
+
+	@WritingConverter
+	static class SkillLevelWriter implements Converter<Employee.SkillLevel, Document> {
+		@Override
+		public Document convert(Employee.SkillLevel source) {
+			return withInt(withInt(new Document(), "skillId", source.skillId()), "proficiency", source.proficiency());
+		}
+	}
+
+	@ReadingConverter
+	static class SkillLevelReader implements Converter<Document, Employee.SkillLevel> {
+		@Override
+		public Employee.SkillLevel convert(Document source) {
+			return read(source);
+		}
+
+		static Employee.SkillLevel read(Document source) {
+			return new Employee.SkillLevel(intValue(source, "skillId", "id"), intValue(source, "proficiency"));
+		}
+	}
+
+	@WritingConverter
+	static class ProjectRefWriter implements Converter<Employee.ProjectRef, Document> {
+		@Override
+		public Document convert(Employee.ProjectRef source) {
+			return withInt(new Document(), "projId", source.projId());
+		}
+	}
+
+	@ReadingConverter
+	static class ProjectRefReader implements Converter<Document, Employee.ProjectRef> {
+		@Override
+		public Employee.ProjectRef convert(Document source) {
+			return read(source);
+		}
+
+		static Employee.ProjectRef read(Document source) {
+			return new Employee.ProjectRef(intValue(source, "projId"));
+		}
+	}
+
+	@WritingConverter
+	static class TrainingRefWriter implements Converter<Employee.TrainingRef, Document> {
+		@Override
+		public Document convert(Employee.TrainingRef source) {
+			return withInt(new Document(), "trainId", source.trainId());
+		}
+	}
+
+	@ReadingConverter
+	static class TrainingRefReader implements Converter<Document, Employee.TrainingRef> {
+		@Override
+		public Employee.TrainingRef convert(Document source) {
+			return read(source);
+		}
+
+		static Employee.TrainingRef read(Document source) {
+			return new Employee.TrainingRef(intValue(source, "trainId"));
+		}
+	}
+
+	@WritingConverter
+	static class TaskRefWriter implements Converter<Employee.TaskRef, Document> {
+		@Override
+		public Document convert(Employee.TaskRef source) {
+			return withInt(new Document(), "taskId", source.taskId());
+		}
+	}
+
+	@ReadingConverter
+	static class TaskRefReader implements Converter<Document, Employee.TaskRef> {
+		@Override
+		public Employee.TaskRef convert(Document source) {
+			return read(source);
+		}
+
+		static Employee.TaskRef read(Document source) {
+			return new Employee.TaskRef(intValue(source, "taskId"));
+		}
+	}
+
+	@WritingConverter
+	static class EmpRefWriter implements Converter<Department.EmpRef, Document> {
+		@Override
+		public Document convert(Department.EmpRef source) {
+			return withInt(new Document(), "empId", source.empId());
+		}
+	}
+
+	@ReadingConverter
+	static class EmpRefReader implements Converter<Document, Department.EmpRef> {
+		@Override
+		public Department.EmpRef convert(Document source) {
+			return read(source);
+		}
+
+		static Department.EmpRef read(Document source) {
+			return new Department.EmpRef(intValue(source, "empId"));
+		}
+	}
+}
@@ -2,6 +2,7 @@ package com.murasame.smarthrm.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -15,8 +16,11 @@ public class SecurityConfiguration {
 		return http
 				.authorizeHttpRequests(auth -> {
 					auth.requestMatchers("/static/**").permitAll();
+					// 内部运行状态接口（缓存/索引/Mongo命令统计及清空）需登录
+					auth.requestMatchers("/internal/**").authenticated();
 					auth.anyRequest().permitAll();  //.authenticated();
 				})
+				.httpBasic(Customizer.withDefaults())
 				.formLogin(conf -> {
 //					conf.loginPage("/login");
 //					conf.loginProcessingUrl("/doLogin");
@@ -1,5 +1,6 @@
 package com.murasame.smarthrm.controller;
 //lin1224
+import com.murasame.smarthrm.dto.CursorPage;
 import com.murasame.smarthrm.dto.DepartmentDTO;
 import com.murasame.smarthrm.entity.Department;
 import com.murasame.smarthrm.entity.Employee;
@@ -32,12 +33,33 @@ public class DepartmentController {
 
     /**
      * 部门列表查询（支持模糊搜索、分页）
+     * 传入after参数（第一页传空字符串）时切换为游标分页：按_id升序，返回nextCursor；withTotal=true时附带总数
      */
     @GetMapping("/")
     public ResponseEntity<Map<String, Object>> listDepartments(
             @RequestParam(required = false) String searchKey,
             @RequestParam(defaultValue = "1") int pageNum,
-            @RequestParam(defaultValue = "10") int pageSize) {
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+
+        if (after != null) {
+            Map<String, Object> response = new HashMap<>();
+            try {
+                CursorPage<DepartmentDTO> page = departmentService.listDepartmentsAfter(searchKey, after, pageSize, withTotal);
+                response.put("departments", page.getItems());
+                response.put("pageSize", pageSize);
+                response.put("nextCursor", page.getNextCursor());
+                response.put("hasMore", page.getNextCursor() != null);
+                response.put("total", page.getTotal());
+                response.put("totalEstimated", page.isTotalEstimated());
+                return new ResponseEntity<>(response, HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                response.put("success", false);
+                response.put("message", e.getMessage());
+                return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+            }
+        }
 
         Page<DepartmentDTO> deptPage = departmentService.listDepartments(searchKey, pageNum, pageSize);
 
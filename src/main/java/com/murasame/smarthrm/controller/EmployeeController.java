@@ -1,21 +1,31 @@
 package com.murasame.smarthrm.controller;
 
+import com.murasame.smarthrm.cache.JsonFragmentCache;
+import com.murasame.smarthrm.cache.ReferenceDataCache;
 import com.murasame.smarthrm.dao.*;
+import com.murasame.smarthrm.dto.CursorPage;
 import com.murasame.smarthrm.dto.EmployeeDTO;
+import com.murasame.smarthrm.dto.ImportReportDTO;
 import com.murasame.smarthrm.entity.*;
+import com.murasame.smarthrm.service.EmployeeImportService;
 import com.murasame.smarthrm.service.EmployeeService;
+import com.murasame.smarthrm.service.ExportService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -34,6 +44,8 @@ public class EmployeeController {
     @Autowired
     private EmployeeService employeeService;
     @Autowired
+    private EmployeeImportService employeeImportService;
+    @Autowired
     private DepartmentDao departmentDao;
     @Autowired
     private ProjectDao projectDao;
@@ -43,6 +55,10 @@ public class EmployeeController {
     private TrainingDao trainingDao;
     @Autowired
     private SkillDao skillDao;
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    @Autowired
+    private JsonFragmentCache jsonFragmentCache;
 
     /**
      * 统一响应结构
@@ -75,52 +91,27 @@ public class EmployeeController {
 
     /**
      * 员工列表查询（分页/搜索）
+     * 传入after参数（第一页传空字符串）时切换为游标分页：按_id升序，返回nextCursor，深分页不随页码变慢；
+     * withTotal=true时附带总数（无关键词时为估算值）；游标分页的pageSize需在1-200之间，否则返回400
      */
     @GetMapping("/")
     public ResponseEntity<ApiResponse> listEmployees(
             @RequestParam(required = false) String empName,
             @RequestParam(defaultValue = "1") int pageNum,
-            @RequestParam(defaultValue = "10") int pageSize) {
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        if (after != null) {
+            return listEmployeesAfter(empName, after, pageSize, withTotal);
+        }
         try {
+            long stamp = jsonFragmentCache.stamp();
             Page<Employee> empPage = employeeService.listEmployeesWithPage(empName, pageNum, pageSize);
-            List<Employee> employees = empPage.getContent();
-            List<Department> departments = departmentDao.findAll();
-
-            // 处理部门信息
-            for (Employee emp : employees) {
-                if (emp.getDepId() == null) {
-                    emp.setDeptName("未分配");
-                    emp.setDeptType("unassigned");
-                } else {
-                    boolean found = false;
-                    for (Department dept : departments) {
-                        if (Objects.equals(dept.getId(), emp.getDepId())) {
-                            emp.setDeptName(dept.getDepName());
-                            emp.setDeptType("normal");
-                            found = true;
-                            break;
-                        }
-                    }
-                    if (!found) {
-                        emp.setDeptName("部门已删除");
-                        emp.setDeptType("deleted");
-                    }
-                }
-
-                // ========== 新增：处理员工任务列表（前端表格显示） ==========
-                if (emp.getTasks() == null) {
-                    // 从任务表查询该员工负责的任务，补充到员工实体
-                    List<Task> empTasks = taskDao.findByManagerId(emp.get_id());
-                    List<Map<String, Integer>> taskList = empTasks.stream()
-                            .map(task -> Map.of("taskId", task.get_id()))
-                            .collect(Collectors.toList());
-                    emp.setTasks(taskList);
-                }
-            }
 
-            // 封装分页数据
+            // 封装分页数据（员工为JSON片段：命中缓存的直接复用，未命中的补充部门名称/任务后序列化）
             Map<String, Object> pageData = new HashMap<>();
-            pageData.put("employees", employees);
+            pageData.put("employees", jsonFragmentCache.fragments(Employee.class, stamp, empPage.getContent(),
+                    Employee::get_id, this::enrichEmployees));
             pageData.put("pageNum", empPage.getNumber() + 1);
             pageData.put("pageSize", empPage.getSize());
             pageData.put("totalPages", empPage.getTotalPages());
@@ -135,6 +126,79 @@ public class EmployeeController {
         }
     }
 
+    /**
+     * 员工列表游标分页
+     */
+    private ResponseEntity<ApiResponse> listEmployeesAfter(String empName, String after, int pageSize, boolean withTotal) {
+        try {
+            long stamp = jsonFragmentCache.stamp();
+            CursorPage<Employee> page = employeeService.listEmployeesAfter(empName, after, pageSize, withTotal);
+
+            Map<String, Object> pageData = new HashMap<>();
+            pageData.put("employees", jsonFragmentCache.fragments(Employee.class, stamp, page.getItems(),
+                    Employee::get_id, this::enrichEmployees));
+            pageData.put("pageSize", pageSize);
+            pageData.put("nextCursor", page.getNextCursor());
+            pageData.put("hasMore", page.getNextCursor() != null);
+            pageData.put("totalElements", page.getTotal());
+            pageData.put("totalEstimated", page.isTotalEstimated());
+            pageData.put("empName", empName);
+
+            return ResponseEntity.ok(new ApiResponse(true, "查询成功", pageData));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("查询员工列表失败", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "查询失败: " + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * 批量补充列表页员工的部门名称和负责任务
+     * 无论页大小，固定为：1次部门名称$in查询 + 1次任务managerId $in查询
+     */
+    private void enrichEmployees(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return;
+        }
+
+        // 1. 本页涉及的部门ID → 部门名称
+        Set<Integer> depIds = employees.stream()
+                .map(Employee::getDepId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, String> depNames = departmentDao.findDepNamesByIds(depIds);
+
+        // 2. 未携带任务列表的员工，一次性查询其负责的任务并按负责人分组
+        Set<Integer> managerIds = employees.stream()
+                .filter(emp -> emp.getTasks() == null)
+                .map(Employee::get_id)
+                .collect(Collectors.toSet());
+        Map<Integer, List<Employee.TaskRef>> tasksByManager = taskDao.findByManagerIds(managerIds).stream()
+                .collect(Collectors.groupingBy(Task::getManagerId,
+                        Collectors.mapping(task -> new Employee.TaskRef(task.get_id()), Collectors.toList())));
+
+        for (Employee emp : employees) {
+            // 处理部门信息
+            if (emp.getDepId() == null) {
+                emp.setDeptName("未分配");
+                emp.setDeptType("unassigned");
+            } else if (depNames.containsKey(emp.getDepId())) {
+                emp.setDeptName(depNames.get(emp.getDepId()));
+                emp.setDeptType("normal");
+            } else {
+                emp.setDeptName("部门已删除");
+                emp.setDeptType("deleted");
+            }
+
+            // 处理员工任务列表（前端表格显示）
+            if (emp.getTasks() == null) {
+                emp.setTasks(tasksByManager.getOrDefault(emp.get_id(), new ArrayList<>()));
+            }
+        }
+    }
+
     /**
      * 获取员工详情
      */
@@ -147,12 +211,12 @@ public class EmployeeController {
                         .body(new ApiResponse(false, "员工不存在", null));
             }
 
-            // 查询关联数据
-            List<Department> departments = departmentDao.findAll();
-            List<Project> allProjects = projectDao.findAll();
-            List<Task> allTasks = taskDao.findAll();
-            List<Training> allTrainings = trainingDao.findAll();
-            List<Skill> allSkills = skillDao.findAll();
+            // 查询关联数据（下拉选项全集来自基础数据缓存）
+            List<Department> departments = referenceDataCache.departments().data();
+            List<Project> allProjects = referenceDataCache.projects().data();
+            List<Task> allTasks = referenceDataCache.tasks().data();
+            List<Training> allTrainings = referenceDataCache.trainings().data();
+            List<Skill> allSkills = referenceDataCache.skills().data();
 
             // 处理部门信息
             if (employee.getDepId() != null) {
@@ -171,8 +235,8 @@ public class EmployeeController {
             // 处理关联数据
             List<Integer> existingProjectIds = employee.getProjects() != null ?
                     employee.getProjects().stream()
-                            .map(projMap -> projMap.get("projId"))
                             .filter(Objects::nonNull)
+                            .map(Employee.ProjectRef::projId)
                             .collect(Collectors.toList()) : new ArrayList<>();
 
             // ========== 已有逻辑：查询员工已负责的任务ID ==========
@@ -186,8 +250,9 @@ public class EmployeeController {
 
             String existingSkillsStr = employee.getSkillList() != null ?
                     employee.getSkillList().stream()
-                            .filter(skillMap -> skillMap.get("skillId") != null && skillMap.get("proficiency") != null)
-                            .map(skillMap -> skillMap.get("skillId") + ":" + skillMap.get("proficiency"))
+                            .filter(skill -> skill != null && skill.skillId() != null
+                                    && skill.proficiency() != null && skill.proficiency() > 0)
+                            .map(skill -> skill.skillId() + ":" + skill.proficiency())
                             .collect(Collectors.joining(",")) : "";
 
             // 封装返回数据
@@ -211,20 +276,98 @@ public class EmployeeController {
         }
     }
 
+    /**
+     * 获取员工详情（轻量版）
+     * 仅返回员工本身及其引用到的部门/项目/任务/培训/技能名称（每个集合最多一次$in查询），
+     * 下拉选项全集改由可缓存的 /employees/form-options 提供，响应大小与公司总数据量无关
+     */
+    @GetMapping("/v2/{id}")
+    public ResponseEntity<ApiResponse> getEmployeeDetailV2(@PathVariable Integer id) {
+        try {
+            Employee employee = employeeService.findEmployeeById(id);
+            if (employee == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse(false, "员工不存在", null));
+            }
+
+            // 处理部门信息
+            if (employee.getDepId() != null) {
+                String depName = departmentDao.findDepNamesByIds(List.of(employee.getDepId())).get(employee.getDepId());
+                employee.setDeptName(depName != null ? depName : "部门已删除");
+                employee.setDeptType(depName != null ? "normal" : "deleted");
+            } else {
+                employee.setDeptName("未分配");
+                employee.setDeptType("unassigned");
+            }
+
+            // 处理关联数据：只解析员工实际引用到的ID
+            List<Integer> existingProjectIds = employee.getProjects() != null ?
+                    employee.getProjects().stream()
+                            .filter(Objects::nonNull)
+                            .map(Employee.ProjectRef::projId)
+                            .collect(Collectors.toList()) : new ArrayList<>();
+            Map<Integer, String> projectNames = projectDao.findNamesByIds(existingProjectIds);
+
+            Map<Integer, String> taskNames = new LinkedHashMap<>();
+            taskDao.findByManagerId(id).forEach(task -> taskNames.put(task.get_id(), task.getTaskName()));
+
+            Map<Integer, String> trainingNames = trainingDao.findNamesByMemberEmpId(id);
+
+            List<Employee.SkillLevel> skills = employee.getSkillList() != null ?
+                    employee.getSkillList().stream()
+                            .filter(skill -> skill != null && skill.skillId() != null
+                                    && skill.proficiency() != null && skill.proficiency() > 0)
+                            .collect(Collectors.toList()) : new ArrayList<>();
+            Map<Integer, String> skillNames = skillDao.findNamesByIds(
+                    skills.stream().map(Employee.SkillLevel::skillId).collect(Collectors.toSet()));
+            String existingSkillsStr = skills.stream()
+                    .map(skill -> skill.skillId() + ":" + skill.proficiency())
+                    .collect(Collectors.joining(","));
+
+            // 封装返回数据
+            Map<String, Object> data = new HashMap<>();
+            data.put("employee", employee);
+            data.put("existingProjectIds", existingProjectIds);
+            data.put("existingTaskIds", new ArrayList<>(taskNames.keySet()));
+            data.put("existingTrainingIds", new ArrayList<>(trainingNames.keySet()));
+            data.put("existingSkillsStr", existingSkillsStr);
+            data.put("projectNames", projectNames);
+            data.put("taskNames", taskNames);
+            data.put("trainingNames", trainingNames);
+            data.put("skillNames", skillNames);
+
+            return ResponseEntity.ok(new ApiResponse(true, "查询成功", data));
+        } catch (Exception e) {
+            log.error("查询员工详情失败", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "查询失败: " + e.getMessage(), null));
+        }
+    }
+
     /**
      * 获取表单所需的选项数据
+     * 数据来自基础数据缓存，响应携带按数据版本生成的强ETag：
+     * 浏览器以If-None-Match重新验证，数据未变化时直接返回304，不读取数据库、不重复传输
      */
     @GetMapping("/form-options")
-    public ResponseEntity<ApiResponse> getFormOptions() {
+    public ResponseEntity<ApiResponse> getFormOptions(WebRequest request) {
         try {
-            Map<String, Object> options = new HashMap<>();
-            options.put("departments", departmentDao.findAll());
-            options.put("allProjects", projectDao.findAll());
-            options.put("allTasks", taskDao.findAll());  // 已有逻辑：返回所有任务
-            options.put("allTrainings", trainingDao.findAll());
-            options.put("allSkills", skillDao.findAll());
+            String etag = referenceDataCache.etagOf(Department.class, Project.class, Task.class, Training.class, Skill.class);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
 
-            return ResponseEntity.ok(new ApiResponse(true, "获取选项成功", options));
+            Map<String, Object> options = new HashMap<>();
+            options.put("departments", referenceDataCache.departments().data());
+            options.put("allProjects", referenceDataCache.projects().data());
+            options.put("allTasks", referenceDataCache.tasks().data());  // 已有逻辑：返回所有任务
+            options.put("allTrainings", referenceDataCache.trainings().data());
+            options.put("allSkills", referenceDataCache.skills().data());
+
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(etag)
+                    .body(new ApiResponse(true, "获取选项成功", options));
         } catch (Exception e) {
             log.error("获取表单选项失败", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -293,6 +436,39 @@ public class EmployeeController {
         }
     }
 
+    /**
+     * 批量导入员工（上传CSV/NDJSON文件）
+     * 列：name, department, joinDate, skills（"1:4,2:5"）, projects, tasks, trainings（ID以逗号分隔）；
+     * 逐行校验，失败行在结果中列出行号与原因，不影响其他行导入
+     * @param file 上传文件
+     * @param format 文件格式：csv / ndjson，为空时按文件扩展名判断
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse> importEmployees(@RequestParam("file") MultipartFile file,
+                                                       @RequestParam(required = false) String format) {
+        String ext = StringUtils.hasText(format) ? format.trim() : StringUtils.getFilenameExtension(file.getOriginalFilename());
+        ExportService.Format importFormat = "jsonl".equalsIgnoreCase(ext) ? ExportService.Format.NDJSON
+                : Arrays.stream(ExportService.Format.values())
+                        .filter(f -> f.extension().equalsIgnoreCase(ext))
+                        .findFirst().orElse(null);
+        if (importFormat == null) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "不支持的导入格式：" + ext + "（支持csv、ndjson）", null));
+        }
+
+        try (InputStream in = file.getInputStream()) {
+            ImportReportDTO report = employeeImportService.importEmployees(in, importFormat);
+            return ResponseEntity.ok(new ApiResponse(true,
+                    "导入完成：成功 " + report.getImported() + " 条，失败 " + report.getFailed() + " 条", report));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("批量导入员工失败", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "导入失败: " + e.getMessage(), null));
+        }
+    }
+
     /**
      * 更新员工
      */
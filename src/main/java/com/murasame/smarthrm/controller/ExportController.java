@@ -0,0 +1,80 @@
+package com.murasame.smarthrm.controller;
+
+import com.murasame.smarthrm.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 数据导出REST控制器
+ * 流式导出员工/项目/任务（CSV或NDJSON，可选gzip压缩），边读边写，不在内存中组装完整结果
+ * 所有请求路径统一前缀：/export
+ */
+@RestController
+@RequestMapping("/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    /**
+     * 导出数据
+     * 示例：/export/employees?format=csv&fields=_id,empName,depName&gzip=true
+     * @param entity 数据类型：employees / projects / tasks
+     * @param format 导出格式：csv（默认）/ ndjson
+     * @param fields 导出列（逗号分隔，为空则导出默认列）
+     * @param gzip 是否gzip压缩（文件名追加.gz）
+     */
+    @GetMapping("/{entity}")
+    public ResponseEntity<?> export(@PathVariable String entity,
+                                    @RequestParam(defaultValue = "csv") String format,
+                                    @RequestParam(required = false) List<String> fields,
+                                    @RequestParam(defaultValue = "false") boolean gzip) {
+        if (!exportService.supports(entity)) {
+            return ResponseEntity.notFound().build();
+        }
+        ExportService.Format exportFormat = Arrays.stream(ExportService.Format.values())
+                .filter(f -> f.extension().equalsIgnoreCase(format.trim()))
+                .findFirst().orElse(null);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "不支持的导出格式：" + format));
+        }
+        List<String> columns;
+        try {
+            columns = exportService.resolveColumns(entity, fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+
+        String fileName = entity + "-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE)
+                + "." + exportFormat.extension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            exportService.export(entity, columns, exportFormat, target);
+            if (target instanceof GZIPOutputStream gz) {
+                gz.finish();
+            }
+            out.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString())
+                .body(body);
+    }
+}
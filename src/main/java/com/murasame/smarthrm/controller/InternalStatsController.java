@@ -0,0 +1,79 @@
+package com.murasame.smarthrm.controller;
+
+import com.murasame.smarthrm.cache.JsonFragmentCache;
+import com.murasame.smarthrm.cache.ReferenceDataCache;
+import com.murasame.smarthrm.cache.SkillMatchResultCache;
+import com.murasame.smarthrm.config.IndexBootstrap;
+import com.murasame.smarthrm.metrics.MongoCommandStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 内部运行状态接口（缓存、索引等统计信息）
+ * 所有请求路径统一前缀：/internal
+ */
+@RestController
+@RequestMapping("/internal")
+@RequiredArgsConstructor
+public class InternalStatsController {
+
+    private final ReferenceDataCache referenceDataCache;
+    private final JsonFragmentCache jsonFragmentCache;
+    private final SkillMatchResultCache skillMatchResultCache;
+    private final IndexBootstrap indexBootstrap;
+    private final MongoCommandStats mongoCommandStats;
+
+    /**
+     * 基础数据缓存统计：命中/未命中/失效次数、各类数据版本号及条数
+     */
+    @GetMapping("/reference-cache")
+    public Map<String, Object> referenceCacheStats() {
+        return referenceDataCache.stats();
+    }
+
+    /**
+     * JSON片段缓存统计：命中率、占用字节数、条目数、淘汰与失效次数
+     */
+    @GetMapping("/json-fragment-cache")
+    public Map<String, Object> jsonFragmentCacheStats() {
+        return jsonFragmentCache.stats();
+    }
+
+    /**
+     * 技能匹配结果缓存统计：命中率、占用字节数、条目数、淘汰与失效次数
+     */
+    @GetMapping("/skill-match-cache")
+    public Map<String, Object> skillMatchCacheStats() {
+        return skillMatchResultCache.stats();
+    }
+
+    /**
+     * 索引覆盖报告：各查询路径对应的索引及创建状态
+     */
+    @GetMapping("/indexes")
+    public Map<String, Object> indexReport() {
+        return indexBootstrap.report();
+    }
+
+    /**
+     * Mongo命令统计：按调用方方法的延迟分位数、返回文档数、回复大小，以及各HTTP路由的平均/最大命令数
+     */
+    @GetMapping("/mongo-stats")
+    public Map<String, Object> mongoStats() {
+        return mongoCommandStats.report();
+    }
+
+    /**
+     * 清空Mongo命令统计（如压测前）
+     */
+    @DeleteMapping("/mongo-stats")
+    public Map<String, Object> resetMongoStats() {
+        mongoCommandStats.reset();
+        return mongoCommandStats.report();
+    }
+}
@@ -0,0 +1,63 @@
+package com.murasame.smarthrm.controller;
+
+import com.murasame.smarthrm.index.NameSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 名称搜索REST控制器（输入联想/快速定位）
+ * 基于进程内n-gram名称索引，按 完全匹配 > 前缀 > 子串 排序并分页返回 [{id, name}]
+ * 请求路径：/search/{type}，type取值：project / department / employee / skill / training
+ */
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+public class NameSearchController {
+
+    private final NameSearchIndex nameSearchIndex;
+
+    @GetMapping("/{type}")
+    public ResponseEntity<Map<String, Object>> search(
+            @PathVariable String type,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "1") int pageNum,
+            @RequestParam(defaultValue = "10") int pageSize) {
+        Map<String, Object> response = new HashMap<>();
+        NameSearchIndex.Domain domain;
+        try {
+            domain = NameSearchIndex.Domain.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", "不支持的搜索类型：" + type);
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+        if (!nameSearchIndex.isReady()) {
+            response.put("success", false);
+            response.put("message", "名称索引正在构建，请稍后重试");
+            return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        NameSearchIndex.Result result = nameSearchIndex.search(domain, q, (Math.max(pageNum, 1) - 1) * pageSize, pageSize);
+        List<Map<String, Object>> items = result.ids().stream()
+                .map(id -> {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("id", id);
+                    item.put("name", nameSearchIndex.nameOf(domain, id));
+                    return item;
+                })
+                .toList();
+        response.put("success", true);
+        response.put("items", items);
+        response.put("total", result.total());
+        response.put("pageNum", pageNum);
+        response.put("pageSize", pageSize);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
@@ -1,18 +1,22 @@
 package com.murasame.smarthrm.controller;
 
-import com.murasame.smarthrm.dao.EmployeeRepo;
-import com.murasame.smarthrm.dao.ProjectRepo;
-import com.murasame.smarthrm.dao.SkillRepo;
-import com.murasame.smarthrm.dao.TaskRepo;
-import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.cache.JsonFragment;
+import com.murasame.smarthrm.cache.JsonFragmentCache;
+import com.murasame.smarthrm.cache.ReferenceDataCache;
+import com.murasame.smarthrm.dao.RawJsonDao;
 import com.murasame.smarthrm.entity.Project;
 import com.murasame.smarthrm.entity.Skill;
 import com.murasame.smarthrm.entity.Task;
 import com.murasame.smarthrm.service.ProjectMatchService;
 import com.murasame.smarthrm.service.TaskService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -24,10 +28,9 @@ public class ProjectMatchController {
 
     private final ProjectMatchService projectMatchService;
     private final TaskService taskService;
-    private final ProjectRepo projectRepo;
-    private final EmployeeRepo employeeRepo;
-    private final SkillRepo skillRepo;
-    private final TaskRepo taskRepo;
+    private final RawJsonDao rawJsonDao;
+    private final ReferenceDataCache referenceDataCache;
+    private final JsonFragmentCache jsonFragmentCache;
 
     @GetMapping("/")
     public String projectMatchPage(){
@@ -61,25 +64,29 @@ public class ProjectMatchController {
     }
 
     // 辅助接口
-    /* 仅返回 [{_id,projName}, ...] */
+    /* 仅返回 [{_id,projName}, ...]（基础数据缓存，带ETag；项目为缓存的JSON片段） */
     @GetMapping("/projects")
     @ResponseBody
-    public List<Project> allProjects(){
-        return projectRepo.findAll();
+    public ResponseEntity<List<JsonFragment>> allProjects(WebRequest request){
+        long stamp = jsonFragmentCache.stamp();
+        return referenceDataCache.projects().toResponse(request,
+                projects -> jsonFragmentCache.fragments(Project.class, stamp, projects, Project::getId, null));
     }
 
-    /* 仅返回 [{id,empName}, ...] */
+    /* 返回全部员工 [{_id,empName,...}, ...]（原始BSON直通输出JSON，不经实体映射，游标流式写出） */
     @GetMapping("/employees")
     @ResponseBody
-    public List<Employee> allEmployees(){
-        return employeeRepo.findAll();
+    public ResponseEntity<StreamingResponseBody> allEmployees(){
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> rawJsonDao.writeList("Employee", new Query(), RawJsonDao.EMPLOYEE, out));
     }
 
-    /* 仅返回 [{_id,skillName}, ...] */
+    /* 仅返回 [{_id,skillName}, ...]（基础数据缓存，带ETag） */
     @GetMapping("/skills")
     @ResponseBody
-    public List<Skill> allSkills(){
-        return skillRepo.findAll();
+    public ResponseEntity<List<Skill>> allSkills(WebRequest request){
+        return referenceDataCache.skills().toResponse(request);
     }
 
     /* 仅返回部门数据 [{id,depName}, ...] */
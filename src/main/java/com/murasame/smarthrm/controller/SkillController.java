@@ -2,6 +2,7 @@ package com.murasame.smarthrm.controller;
 
 import com.murasame.smarthrm.dao.SkillRepo;
 import com.murasame.smarthrm.entity.Skill;
+import com.murasame.smarthrm.index.NameSearchIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -17,6 +18,7 @@ import java.util.List;
 public class SkillController {
 
     private final SkillRepo skillRepo;
+    private final NameSearchIndex nameSearchIndex;
 
     @PostMapping("/add")
     public ResponseEntity<String> addSkill(@RequestBody Skill skill) {
@@ -77,7 +79,11 @@ public class SkillController {
 
     @GetMapping("/search")
     public List<Skill> searchSkills(@RequestParam String name) {
-        return skillRepo.findBySkillNameContaining(name);
+        if (!nameSearchIndex.isReady()) {
+            return skillRepo.findBySkillNameContaining(name);
+        }
+        List<Integer> ids = nameSearchIndex.searchAll(NameSearchIndex.Domain.SKILL, name);
+        return NameSearchIndex.orderByIds(skillRepo.findAllById(ids), ids, Skill::get_id);
     }
 
     @GetMapping("/{id}")
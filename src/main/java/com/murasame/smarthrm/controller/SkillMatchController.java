@@ -1,29 +1,37 @@
 package com.murasame.smarthrm.controller;
 
-import com.murasame.smarthrm.dao.DepartmentRepo;
-import com.murasame.smarthrm.dao.ProjectRepo;
-import com.murasame.smarthrm.dao.SkillRepo;
+import com.murasame.smarthrm.cache.JsonFragment;
+import com.murasame.smarthrm.cache.JsonFragmentCache;
+import com.murasame.smarthrm.cache.ReferenceDataCache;
+import com.murasame.smarthrm.cache.SkillMatchResultCache;
 import com.murasame.smarthrm.dto.SkillMatchDTO;
+import com.murasame.smarthrm.dto.SkillRankDTO;
 import com.murasame.smarthrm.entity.Department;
-import com.murasame.smarthrm.entity.Employee;
 import com.murasame.smarthrm.entity.Project;
 import com.murasame.smarthrm.entity.Skill;
 import com.murasame.smarthrm.service.SkillMatchService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/skillmatch")
 @RequiredArgsConstructor
 public class SkillMatchController {
 
+	// 排序匹配单次最多返回的员工数
+	private static final int MAX_TOP_K = 500;
+
 	private final SkillMatchService skillMatchService;
-	private final SkillRepo skillRepo;
-	private final DepartmentRepo depRepo;
-	private final ProjectRepo projRepo;
+	private final ReferenceDataCache referenceDataCache;
+	private final JsonFragmentCache jsonFragmentCache;
+	private final SkillMatchResultCache skillMatchResultCache;
 
 	@GetMapping("/")
 	public String skillMatchPage(){
@@ -33,28 +41,60 @@ public class SkillMatchController {
 	/*
 	  Post /skillmatch?requiredSkills=1:3,2:5
 	  如果想把结果渲染在页面，把 @ResponseBody 去掉，用 Model 传值即可
+	  结果按规范化后的技能条件缓存（序列化后的员工列表JSON），员工写入时按技能定向失效
 	 */
 	@PostMapping("/")
 	@ResponseBody
-	public List<Employee> doSkillMatch(@RequestParam String requiredSkills){
+	public JsonFragment doSkillMatch(@RequestParam String requiredSkills){
 		// 简单拆包
 		List<SkillMatchDTO> dtoList = SkillMatchDTO.fromString(requiredSkills);
-		return skillMatchService.matchBySkills(dtoList);
+		return skillMatchResultCache.get(dtoList, skillMatchService::matchBySkills);
+	}
+
+	/*
+	  Post /skillmatch/ranked?requiredSkills=1:3,2:5&weights=1:2,2:1&k=20
+	  按覆盖度、熟练度超出量及技能权重综合打分，返回得分最高的k名员工（允许部分匹配）
+	 */
+	@PostMapping("/ranked")
+	@ResponseBody
+	public List<SkillRankDTO> doRankedSkillMatch(@RequestParam String requiredSkills,
+												 @RequestParam(required = false) String weights,
+												 @RequestParam(defaultValue = "20") int k){
+		List<SkillMatchDTO> dtoList = SkillMatchDTO.fromString(requiredSkills);
+		return skillMatchService.rankBySkills(dtoList, parseWeights(weights), Math.min(k, MAX_TOP_K));
+	}
+
+	/* "技能ID:权重,技能ID:权重" → {技能ID: 权重} */
+	private static Map<Integer, Double> parseWeights(String src) {
+		Map<Integer, Double> weights = new HashMap<>();
+		if (src == null || src.isBlank()) return weights;
+		for (String pair : src.split(",")) {
+			String[] a = pair.split(":");
+			if (a.length == 2) {
+				weights.put(Integer.valueOf(a[0].trim()), Double.valueOf(a[1].trim()));
+			}
+		}
+		return weights;
 	}
 
 	// 辅助接口
+	// 以下下拉数据均来自基础数据缓存，带ETag，未变化时返回304
 	/* 仅返回 [{id,skillName}, ...] */
 	@GetMapping("/skills")
 	@ResponseBody
-	public List<Skill> allSkills(){ return skillRepo.findAll(); }
+	public ResponseEntity<List<Skill>> allSkills(WebRequest request){ return referenceDataCache.skills().toResponse(request); }
 
 	/* 仅返回 [{id,projName}, ...] */
 	@GetMapping("/projects")
 	@ResponseBody
-	public List<Project> allProjects(){ return projRepo.findAll(); }
+	public ResponseEntity<List<JsonFragment>> allProjects(WebRequest request){
+		long stamp = jsonFragmentCache.stamp();
+		return referenceDataCache.projects().toResponse(request,
+				projects -> jsonFragmentCache.fragments(Project.class, stamp, projects, Project::getId, null));
+	}
 
 	/* 仅返回 [{id,depName}, ...] */
 	@GetMapping("/departments")
 	@ResponseBody
-	public List<Department> allDeps(){ return depRepo.findAll(); }
+	public ResponseEntity<List<Department>> allDeps(WebRequest request){ return referenceDataCache.departments().toResponse(request); }
 }
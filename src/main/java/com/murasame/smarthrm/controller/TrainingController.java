@@ -1,16 +1,19 @@
 package com.murasame.smarthrm.controller;
 
 import com.murasame.smarthrm.dao.EmployeeDao;
+import com.murasame.smarthrm.dao.RawJsonDao;
 import com.murasame.smarthrm.dao.SkillRepo;
 import com.murasame.smarthrm.dao.TrainingRepo;
 import com.murasame.smarthrm.entity.Training;
+import com.murasame.smarthrm.index.NameSearchIndex;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,6 +25,8 @@ public class TrainingController {
     private final TrainingRepo trainingRepo;
     private final SkillRepo skillRepo;
     private final EmployeeDao employeeDao;
+    private final NameSearchIndex nameSearchIndex;
+    private final RawJsonDao rawJsonDao;
 
     @GetMapping("/")
     public String manageSkillTraining(){
@@ -102,15 +107,23 @@ public class TrainingController {
 
     @ResponseBody
     @GetMapping("/list")
-    public Page<Training> listTrainings(@RequestParam(defaultValue = "0") int page,
-                                        @RequestParam(defaultValue = "10") int size) {
-        return trainingRepo.findAll(PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "_id")));
+    public ResponseEntity<StreamingResponseBody> listTrainings(@RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "10") int size) {
+        // 与Page<Training>的JSON结构一致，content由原始BSON直通输出
+        PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "_id"));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> rawJsonDao.writePage("Training", pageable, RawJsonDao.TRAINING, out));
     }
 
     @ResponseBody
     @GetMapping("/search")
     public List<Training> searchTrainings(@RequestParam String name) {
-        return trainingRepo.findByTrainNameContaining(name);
+        if (!nameSearchIndex.isReady()) {
+            return trainingRepo.findByTrainNameContaining(name);
+        }
+        List<Integer> ids = nameSearchIndex.searchAll(NameSearchIndex.Domain.TRAINING, name);
+        return NameSearchIndex.orderByIds(trainingRepo.findAllById(ids), ids, Training::get_id);
     }
 
     @ResponseBody
@@ -0,0 +1,63 @@
+package com.murasame.smarthrm.dao;
+
+import com.murasame.smarthrm.entity.Counter;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 序列计数器数据访问层（DAO）
+ * 基于counters集合的findAndModify + $inc 原子分配ID号段，替代全表扫描求max(_id)+1
+ */
+@Repository
+@RequiredArgsConstructor
+public class CounterDao {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * 原子递增序列并返回递增后的值（序列不存在时自动创建）
+     * @param name 序列名
+     * @param delta 递增步长（即本次申请的号段大小）
+     * @return 递增后的seq，即本次号段的上界（包含）
+     */
+    public int incrementBy(String name, int delta) {
+        Query query = new Query(Criteria.where("_id").is(name));
+        Update update = new Update().inc("seq", delta);
+        Counter counter = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true).upsert(true), Counter.class);
+        return counter.getSeq();
+    }
+
+    /**
+     * 用业务集合当前最大ID初始化序列（$max语义：只会把seq往大调，可重复执行、多节点并发执行均安全）
+     * @param name 序列名
+     * @param maxId 业务集合当前最大ID
+     */
+    public void seedAtLeast(String name, int maxId) {
+        Query query = new Query(Criteria.where("_id").is(name));
+        Update update = new Update().max("seq", maxId);
+        mongoTemplate.upsert(query, update, Counter.class);
+    }
+
+    /**
+     * 查询指定集合当前最大的_id（按_id索引倒序取1条，仅投影_id，不加载整篇文档）
+     * @param collectionName 集合名
+     * @return 最大_id，集合为空时返回0
+     */
+    public int findMaxId(String collectionName) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "_id")).limit(1);
+        query.fields().include("_id");
+        Document doc = mongoTemplate.findOne(query, Document.class, collectionName);
+        if (doc == null || !(doc.get("_id") instanceof Number id)) {
+            return 0;
+        }
+        return id.intValue();
+    }
+}
@@ -1,17 +1,26 @@
 package com.murasame.smarthrm.dao;
 //林 2025.12.19
 
+import com.murasame.smarthrm.cache.ReferenceDataCache;
 import com.murasame.smarthrm.entity.Department;
+import com.murasame.smarthrm.index.NameSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * 部门数据访问层（DAO）
@@ -23,6 +32,12 @@ public class DepartmentDao {
     // 注入MongoTemplate，用于操作MongoDB数据库
     @Autowired
     private MongoTemplate mongoTemplate;
+    // 基础数据缓存，更新后使其失效
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    // 名称搜索索引，模糊查询优先走索引
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
 
     /**
      * 根据部门ID查询单个部门信息
@@ -34,6 +49,17 @@ public class DepartmentDao {
         return mongoTemplate.findOne(query, Department.class);
     }
 
+    /**
+     * 根据部门ID列表批量查询部门信息
+     * @param ids 部门主键ID列表
+     * @return 匹配的部门列表（不保证顺序），ID列表为空时返回空列表
+     */
+    public List<Department> findByIds(List<Integer> ids) {
+        if (ids.isEmpty()) return List.of();
+        Query query = new Query(Criteria.where("_id").in(ids));
+        return mongoTemplate.find(query, Department.class);
+    }
+
     /**
      * 查询所有部门信息
      * @return 所有部门的List集合，无数据则返回空列表
@@ -42,6 +68,21 @@ public class DepartmentDao {
         return mongoTemplate.findAll(Department.class);
     }
 
+    /**
+     * 根据部门ID集合批量查询部门名称（单次$in查询，仅投影_id、depName）
+     * @param ids 部门主键ID集合
+     * @return 部门ID → 部门名称，ID集合为空时返回空Map
+     */
+    public Map<Integer, String> findDepNamesByIds(Collection<Integer> ids) {
+        Map<Integer, String> names = new HashMap<>();
+        if (ids == null || ids.isEmpty()) return names;
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("_id").include("depName");
+        mongoTemplate.find(query, Department.class)
+                .forEach(dept -> names.put(dept.getId(), dept.getDepName()));
+        return names;
+    }
+
     /**
      * 保存部门信息（支持新增）
      * - 若部门对象的_id（主键）不存在 → 执行新增操作
@@ -64,6 +105,27 @@ public class DepartmentDao {
                 .set("managerId", department.getManagerId())
                 .set("empList", department.getEmpList());
         mongoTemplate.updateFirst(query, update, Department.class);
+        // updateFirst不触发Mongo生命周期事件，需显式使基础数据缓存失效
+        referenceDataCache.invalidate(Department.class);
+        nameSearchIndex.put(NameSearchIndex.Domain.DEPARTMENT, department.getId(), department.getDepName());
+    }
+
+    /**
+     * 批量从原部门移除迁出的员工（单次BulkOperations）
+     * 每个原部门两条更新：$pull移除empList中的这些员工；若负责人在迁出员工中则置空负责人
+     * @param empIdsBySourceDept 原部门ID → 迁出该部门的员工ID集合
+     */
+    public void bulkPullEmployees(Map<Integer, ? extends Collection<Integer>> empIdsBySourceDept) {
+        if (empIdsBySourceDept.isEmpty()) return;
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Department.class);
+        empIdsBySourceDept.forEach((deptId, empIds) -> {
+            ops.updateOne(new Query(Criteria.where("_id").is(deptId)),
+                    new Update().pull("empList", Query.query(Criteria.where("empId").in(empIds))));
+            ops.updateOne(new Query(Criteria.where("_id").is(deptId).and("managerId").in(empIds)),
+                    new Update().set("managerId", null));
+        });
+        ops.execute();
+        referenceDataCache.invalidate(Department.class);
     }
 
     /**
@@ -86,9 +148,15 @@ public class DepartmentDao {
             return mongoTemplate.findAll(Department.class);
         }
 
-        // 构建模糊查询条件：匹配包含关键词的部门名称，忽略大小写
+        // 名称索引就绪时：按相关度排序的ID → 单次$in查询
+        if (nameSearchIndex.isReady()) {
+            List<Integer> ids = nameSearchIndex.searchAll(NameSearchIndex.Domain.DEPARTMENT, searchKey);
+            return NameSearchIndex.orderByIds(findByIds(ids), ids, Department::getId);
+        }
+
+        // 构建模糊查询条件：匹配包含关键词的部门名称，忽略大小写（关键词转义，正则元字符按字面匹配）
         Criteria criteria = Criteria.where("depName")
-                .regex(".*" + searchKey.trim() + ".*", "i"); // "i" 表示忽略大小写
+                .regex(Pattern.quote(searchKey.trim()), "i"); // "i" 表示忽略大小写
 
         Query query = new Query(criteria);
         return mongoTemplate.find(query, Department.class);
@@ -102,11 +170,18 @@ public class DepartmentDao {
      * @return 分页结果对象（包含当前页数据、总条数、分页参数）
      */
     public Page<Department> findByDepNameLikeWithPage(String searchKey, int pageNum, int pageSize) {
+        // 0. 有关键词且名称索引就绪时：索引内分页，仅按当前页ID查询
+        if (searchKey != null && !searchKey.trim().isEmpty() && nameSearchIndex.isReady()) {
+            NameSearchIndex.Result result = nameSearchIndex.search(NameSearchIndex.Domain.DEPARTMENT, searchKey, (pageNum - 1) * pageSize, pageSize);
+            List<Department> departments = NameSearchIndex.orderByIds(findByIds(result.ids()), result.ids(), Department::getId);
+            return new PageImpl<>(departments, PageRequest.of(pageNum - 1, pageSize), result.total());
+        }
+
         // 1. 构建基础查询条件
         Query query = new Query();
         if (searchKey != null && !searchKey.trim().isEmpty()) {
             Criteria criteria = Criteria.where("depName")
-                    .regex(".*" + searchKey.trim() + ".*", "i");
+                    .regex(Pattern.quote(searchKey.trim()), "i");
             query.addCriteria(criteria);
         }
 
@@ -123,4 +198,47 @@ public class DepartmentDao {
         // 5. 封装为Spring Data的Page对象，返回分页结果
         return new PageImpl<>(departments, PageRequest.of(pageNum - 1, pageSize), total);
     }
+
+    /**
+     * 按部门名称模糊查询（游标分页，按_id升序）
+     * 使用 _id > afterId 的范围条件 + limit，不使用skip，任意深度的页耗时一致
+     * @param searchKey 部门名称关键词（可为空）
+     * @param afterId 上一页最后一条的_id，第一页传null
+     * @param limit 查询条数（调用方通常传页大小+1以判断是否有下一页）
+     * @return 按_id升序的部门列表
+     */
+    public List<Department> findByDepNameLikeAfter(String searchKey, Integer afterId, int limit) {
+        boolean hasKey = searchKey != null && !searchKey.trim().isEmpty();
+        // 名称索引就绪时：在索引的有序倒排表中定位到afterId之后取下一段，再按ID查询
+        if (hasKey && nameSearchIndex.isReady()) {
+            List<Integer> ids = nameSearchIndex.searchAfter(NameSearchIndex.Domain.DEPARTMENT, searchKey, afterId, limit);
+            return NameSearchIndex.orderByIds(findByIds(ids), ids, Department::getId);
+        }
+
+        Query query = new Query();
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("_id").gt(afterId));
+        }
+        if (hasKey) {
+            query.addCriteria(Criteria.where("depName").regex(Pattern.quote(searchKey.trim()), "i"));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        return mongoTemplate.find(query, Department.class);
+    }
+
+    /**
+     * 统计部门名称模糊匹配的部门数（游标分页可选总数）
+     * 无关键词时使用集合元数据估算（estimatedDocumentCount，不扫描文档）
+     * @param searchKey 部门名称关键词（可为空）
+     * @return 部门数
+     */
+    public long countByDepNameLike(String searchKey) {
+        if (searchKey == null || searchKey.trim().isEmpty()) {
+            return mongoTemplate.estimatedCount(Department.class);
+        }
+        if (nameSearchIndex.isReady()) {
+            return nameSearchIndex.searchAll(NameSearchIndex.Domain.DEPARTMENT, searchKey).size();
+        }
+        return mongoTemplate.count(new Query(Criteria.where("depName").regex(Pattern.quote(searchKey.trim()), "i")), Department.class);
+    }
 }
\ No newline at end of file
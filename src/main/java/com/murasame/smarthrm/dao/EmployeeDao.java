@@ -3,10 +3,13 @@ package com.murasame.smarthrm.dao;
 
 import com.murasame.smarthrm.dto.SkillMatchDTO;
 import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.index.NameSearchIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
@@ -15,13 +18,20 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
 @Component
 @RequiredArgsConstructor
 public class EmployeeDao {
 
     private final MongoTemplate mongoTemplate;
+    private final NameSearchIndex nameSearchIndex;
 
     /*
       匹配：skillList 里同时存在
@@ -41,6 +51,17 @@ public class EmployeeDao {
         Query query = new Query(new Criteria().andOperator(elemMatchCriterias.toArray(new Criteria[0])));
         return mongoTemplate.find(query, Employee.class);
     }
+    /*
+      流式读取技能候选人：skillList 中至少包含一项指定技能
+      仅投影 _id、empName、skillList，按批次从游标读取，不一次性加载到内存
+     */
+    public Stream<Employee> streamBySkillIds(Collection<Integer> skillIds, int batchSize) {
+        Query query = new Query(Criteria.where("skillList.skillId").in(skillIds));
+        query.fields().include("_id").include("empName").include("skillList");
+        query.cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, Employee.class);
+    }
+
     //修复报错
     public boolean existsById(Integer id) {
         Query query = new Query(Criteria.where("_id").is(id));
@@ -65,6 +86,16 @@ public class EmployeeDao {
         return mongoTemplate.findAll(Employee.class);
     }
 
+    /**
+     * 查询所有员工的技能列表（仅投影_id、skillList，用于构建技能倒排索引）
+     * @return 仅含_id和skillList字段的员工列表
+     */
+    public List<Employee> findAllSkillLists() {
+        Query query = new Query();
+        query.fields().include("_id").include("skillList");
+        return mongoTemplate.find(query, Employee.class);
+    }
+
     /**
      * 批量查询员工信息（根据员工ID列表）
      * @param empIds 待查询的员工ID列表
@@ -76,6 +107,21 @@ public class EmployeeDao {
         return mongoTemplate.find(query, Employee.class);
     }
 
+    /**
+     * 批量查询员工姓名（单次$in查询，仅投影_id、empName）
+     * @param empIds 员工ID集合
+     * @return 员工ID → 姓名；ID集合为空时返回空Map，不存在的员工不在结果中
+     */
+    public Map<Integer, String> findEmpNamesByIds(Collection<Integer> empIds) {
+        Map<Integer, String> names = new HashMap<>();
+        if (empIds == null || empIds.isEmpty()) return names;
+        Query query = new Query(Criteria.where("_id").in(empIds));
+        query.fields().include("_id").include("empName");
+        mongoTemplate.find(query, Employee.class)
+                .forEach(emp -> names.put(emp.get_id(), emp.getEmpName()));
+        return names;
+    }
+
     /**
      * 更新员工信息（支持不存在则插入）
      * 包含姓名、部门ID、技能列表、项目列表、入职时间等核心字段的更新
@@ -92,6 +138,7 @@ public class EmployeeDao {
                 .set("joinDate", employee.getJoinDate());
         // 使用upsert：匹配到则更新第一条，未匹配到则插入新文档
         mongoTemplate.upsert(query, update, Employee.class);
+        nameSearchIndex.put(NameSearchIndex.Domain.EMPLOYEE, employee.get_id(), employee.getEmpName());
     }
 
     /**
@@ -105,6 +152,31 @@ public class EmployeeDao {
         mongoTemplate.updateFirst(query, update, Employee.class);
     }
 
+    /**
+     * 批量迁移员工部门（单次BulkOperations，每个目标部门一条updateMulti）
+     * @param empIdsByTargetDept 目标部门ID → 迁入该部门的员工ID集合；key为null表示置空部门ID
+     */
+    public void bulkUpdateDepIds(Map<Integer, ? extends Collection<Integer>> empIdsByTargetDept) {
+        if (empIdsByTargetDept.isEmpty()) return;
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employee.class);
+        empIdsByTargetDept.forEach((deptId, empIds) -> {
+            if (!empIds.isEmpty()) {
+                ops.updateMulti(new Query(Criteria.where("_id").in(empIds)), new Update().set("depId", deptId));
+            }
+        });
+        ops.execute();
+    }
+
+    /**
+     * 批量插入员工（单次无序BulkOperations，不逐条往返），插入后同步姓名检索索引
+     * @param employees 待插入的员工（必须已分配_id）
+     */
+    public void bulkInsert(List<Employee> employees) {
+        if (employees.isEmpty()) return;
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employee.class).insert(employees).execute();
+        employees.forEach(emp -> nameSearchIndex.put(NameSearchIndex.Domain.EMPLOYEE, emp.get_id(), emp.getEmpName()));
+    }
+
     /**
      * 批量更新员工部门ID为null（部门删除时调用）
      * @param empIds 待更新的员工ID列表
@@ -137,9 +209,15 @@ public class EmployeeDao {
             return List.of();
         }
 
-        // 构建模糊查询条件：empName字段包含关键词，"i"表示忽略大小写
+        // 名称索引就绪时：按相关度排序的ID → 单次$in查询
+        if (nameSearchIndex.isReady()) {
+            List<Integer> ids = nameSearchIndex.searchAll(NameSearchIndex.Domain.EMPLOYEE, empName);
+            return NameSearchIndex.orderByIds(findByIds(ids), ids, Employee::get_id);
+        }
+
+        // 构建模糊查询条件：empName字段包含关键词，"i"表示忽略大小写（关键词转义，正则元字符按字面匹配）
         Criteria criteria = Criteria.where("empName")
-                .regex(".*" + empName.trim() + ".*", "i");
+                .regex(Pattern.quote(empName.trim()), "i");
 
         Query query = new Query(criteria);
         return mongoTemplate.find(query, Employee.class);
@@ -153,11 +231,18 @@ public class EmployeeDao {
      * @return 分页结果对象（包含当前页数据、总条数、分页参数）
      */
     public Page<Employee> findByEmpNameLikeWithPage(String empName, int pageNum, int pageSize) {
+        // 0. 有关键词且名称索引就绪时：索引内分页，仅按当前页ID查询
+        if (StringUtils.hasText(empName) && nameSearchIndex.isReady()) {
+            NameSearchIndex.Result result = nameSearchIndex.search(NameSearchIndex.Domain.EMPLOYEE, empName, (pageNum - 1) * pageSize, pageSize);
+            List<Employee> employees = NameSearchIndex.orderByIds(findByIds(result.ids()), result.ids(), Employee::get_id);
+            return new PageImpl<>(employees, PageRequest.of(pageNum - 1, pageSize), result.total());
+        }
+
         // 1. 构建基础查询条件：姓名模糊匹配（忽略大小写）
         Query query = new Query();
         if (StringUtils.hasText(empName)) {
             Criteria criteria = Criteria.where("empName")
-                    .regex(".*" + empName.trim() + ".*", "i");
+                    .regex(Pattern.quote(empName.trim()), "i");
             query.addCriteria(criteria);
         }
 
@@ -174,4 +259,46 @@ public class EmployeeDao {
         // 5. 封装为Spring Data的Page对象，返回分页结果
         return new PageImpl<>(employees, PageRequest.of(pageNum - 1, pageSize), total);
     }
-}
+
+    /**
+     * 按姓名模糊查询（游标分页，按_id升序）
+     * 使用 _id > afterId 的范围条件 + limit，不使用skip，任意深度的页耗时一致
+     * @param empName 姓名关键词（可为空）
+     * @param afterId 上一页最后一条的_id，第一页传null
+     * @param limit 查询条数（调用方通常传页大小+1以判断是否有下一页）
+     * @return 按_id升序的员工列表
+     */
+    public List<Employee> findByEmpNameLikeAfter(String empName, Integer afterId, int limit) {
+        // 名称索引就绪时：在索引的有序倒排表中定位到afterId之后取下一段，再按ID查询
+        if (StringUtils.hasText(empName) && nameSearchIndex.isReady()) {
+            List<Integer> ids = nameSearchIndex.searchAfter(NameSearchIndex.Domain.EMPLOYEE, empName, afterId, limit);
+            return NameSearchIndex.orderByIds(findByIds(ids), ids, Employee::get_id);
+        }
+
+        Query query = new Query();
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("_id").gt(afterId));
+        }
+        if (StringUtils.hasText(empName)) {
+            query.addCriteria(Criteria.where("empName").regex(Pattern.quote(empName.trim()), "i"));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        return mongoTemplate.find(query, Employee.class);
+    }
+
+    /**
+     * 统计姓名模糊匹配的员工数（游标分页可选总数）
+     * 无关键词时使用集合元数据估算（estimatedDocumentCount，不扫描文档）
+     * @param empName 姓名关键词（可为空）
+     * @return 员工数
+     */
+    public long countByEmpNameLike(String empName) {
+        if (!StringUtils.hasText(empName)) {
+            return mongoTemplate.estimatedCount(Employee.class);
+        }
+        if (nameSearchIndex.isReady()) {
+            return nameSearchIndex.searchAll(NameSearchIndex.Domain.EMPLOYEE, empName).size();
+        }
+        return mongoTemplate.count(new Query(Criteria.where("empName").regex(Pattern.quote(empName.trim()), "i")), Employee.class);
+    }
+}
\ No newline at end of file
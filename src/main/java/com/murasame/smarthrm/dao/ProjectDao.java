@@ -1,14 +1,20 @@
 package com.murasame.smarthrm.dao;
 //林 2025.12.19
 
+import com.murasame.smarthrm.cache.JsonFragmentCache;
+import com.murasame.smarthrm.cache.ReferenceDataCache;
 import com.murasame.smarthrm.entity.Project;
+import com.murasame.smarthrm.index.NameSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 项目数据访问层（DAO）
@@ -20,6 +26,13 @@ public class ProjectDao {
     // 注入MongoTemplate，用于操作MongoDB数据库
     @Autowired
     private MongoTemplate mongoTemplate;
+    // 基础数据缓存，更新后使其失效
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+    @Autowired
+    private JsonFragmentCache jsonFragmentCache;
 
     /**
      * 根据项目ID查询单个项目信息
@@ -39,6 +52,21 @@ public class ProjectDao {
         return mongoTemplate.findAll(Project.class);
     }
 
+    /**
+     * 根据项目ID集合批量查询项目名称（单次$in查询，仅投影_id、projName）
+     * @param ids 项目主键ID集合
+     * @return 项目ID → 项目名称，ID集合为空时返回空Map
+     */
+    public Map<Integer, String> findNamesByIds(Collection<Integer> ids) {
+        Map<Integer, String> names = new HashMap<>();
+        if (ids == null || ids.isEmpty()) return names;
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("_id").include("projName");
+        mongoTemplate.find(query, Project.class)
+                .forEach(project -> names.put(project.getId(), project.getProjName()));
+        return names;
+    }
+
     /**
      * 根据员工ID查询该员工参与的所有项目
      * 匹配规则：通过elemMatch匹配项目members嵌套列表中包含该员工ID的项目
@@ -64,5 +92,8 @@ public class ProjectDao {
                 .set("projStatus", project.getProjStatus())
                 .set("startDate", project.getStartDate());
         mongoTemplate.updateFirst(query, update, Project.class);
+        referenceDataCache.invalidate(Project.class);
+        jsonFragmentCache.invalidate(Project.class, project.getId());
+        nameSearchIndex.put(NameSearchIndex.Domain.PROJECT, project.getId(), project.getProjName());
     }
 }
\ No newline at end of file
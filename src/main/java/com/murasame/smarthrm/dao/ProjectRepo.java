@@ -15,6 +15,8 @@ public interface ProjectRepo extends MongoRepository<Project, Integer> {
     boolean existsByProjName(String projName);
     // 根据项目名称模糊查询
     List<Project> findByProjNameContaining(String name);
+    // 根据项目名称模糊查询（忽略大小写）
+    List<Project> findByProjNameContainingIgnoreCase(String name);
     // 根据项目状态查询
     List<Project> findByProjStatus(Integer projStatus);
 
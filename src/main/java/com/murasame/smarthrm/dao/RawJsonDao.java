@@ -0,0 +1,405 @@
+package com.murasame.smarthrm.dao;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.WriterBasedJsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCursor;
+import org.bson.ByteBuf;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * 只读列表的JSON直通数据访问层
+ * 列表接口原本把BSON解码为Document、再映射为实体，随即交给Jackson编码为JSON，实体只是中转。
+ * 这里以RawBsonDocument读取游标（文档保持为驱动收到的原始字节），按字段映射（Projection）在字节上顺序遍历并直接写入JsonGenerator，
+ * 不创建Document/实体对象；输出与实体经Jackson序列化的结果一致：
+ * 1. 字段可改名（如Project的_id → id），映射中未声明的字段不输出；
+ * 2. 缺失字段输出null（包括SkillLevel.proficiency等记录组件），与MongoConversionConfig的读取规则一致；
+ * 3. 实体中为Integer的字段（含Integer列表的元素）按读取时的类型转换输出：早期数据中的DOUBLE/INT64/DECIMAL128截断为int，
+ *    数字字符串（如"depId":"3"）解析为int，无法解析的字符串抛出NumberFormatException（实体读取同样失败），其他类型输出null；
+ * 4. 日期按系统时区转为LocalDateTime后交由ObjectMapper格式化（与实体映射一致）。
+ *
+ * 实体新增字段时需同步修改对应的Projection（RawJsonDaoTest会与实体序列化结果比对）
+ */
+@Repository
+public class RawJsonDao {
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * 字段映射：JSON字段名 ← 库中字段名（首个为主名，其余为早期数据的别名）
+     * @param integer 实体中为Integer（或Integer列表）的字段，值按读取规则转换为int输出
+     * @param elements 不为null时字段为内嵌文档数组，每个元素按elements输出（非文档元素跳过）
+     */
+    public record Field(String json, List<String> bson, boolean integer, Projection elements) {
+    }
+
+    /**
+     * 文档的字段映射（按实体属性顺序声明）
+     */
+    public static final class Projection {
+        private final Field[] fields;
+        private final SerializedString[] jsonNames;
+        // 库中字段名（含别名）的UTF-8字节 → 字段下标
+        private final byte[][] names;
+        private final int[] nameFields;
+
+        public Projection(Field... fields) {
+            if (fields.length > Long.SIZE) {
+                throw new IllegalArgumentException("映射字段数不能超过" + Long.SIZE);
+            }
+            this.fields = fields;
+            this.jsonNames = new SerializedString[fields.length];
+            List<byte[]> names = new ArrayList<>();
+            List<Integer> nameFields = new ArrayList<>();
+            for (int i = 0; i < fields.length; i++) {
+                jsonNames[i] = new SerializedString(fields[i].json());
+                for (String name : fields[i].bson()) {
+                    names.add(name.getBytes(StandardCharsets.UTF_8));
+                    nameFields.add(i);
+                }
+            }
+            this.names = names.toArray(new byte[0][]);
+            this.nameFields = nameFields.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private int match(byte[] b, int off, int len) {
+            for (int k = 0; k < names.length; k++) {
+                if (names[k].length == len && Arrays.equals(names[k], 0, len, b, off, off + len)) {
+                    return nameFields[k];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 查询投影：只取映射中的字段
+         */
+        Document fieldsObject() {
+            Document fieldsObject = new Document();
+            for (Field field : fields) {
+                field.bson().forEach(name -> fieldsObject.append(name, 1));
+            }
+            return fieldsObject;
+        }
+    }
+
+    public static final Projection EMPLOYEE = new Projection(
+            intField("_id"), field("empName"), intField("depId"),
+            array("skillList", intField("skillId", "skillId", "id"), intField("proficiency")),
+            array("projects", intField("projId")),
+            field("joinDate"),
+            array("trainingList", intField("trainId")),
+            field("deptName"), field("deptType"),
+            array("tasks", intField("taskId")));
+
+    public static final Projection PROJECT = new Projection(
+            intField("id", "_id"), field("projName"),
+            array("members", intField("empId")),
+            array("reqSkill", intField("skillId")),
+            intField("projStatus"), field("startDate"));
+
+    public static final Projection TRAINING = new Projection(
+            intField("_id"), field("trainName"), intField("skillId"), intField("members"));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 游标流式写出JSON数组，内存占用与数据量无关
+     * @param collection 集合名
+     * @param query 查询条件、排序、skip/limit（投影由projection决定）
+     * @param out 输出流（调用方负责关闭）
+     * @return 写出的文档数
+     */
+    public long writeList(String collection, Query query, Projection projection, OutputStream out) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.writeStartArray();
+            long count = forEach(collection, query, projection, doc -> write(doc, projection, gen));
+            gen.writeEndArray();
+            return count;
+        }
+    }
+
+    /**
+     * 写出分页结果：一页的原始文档先读入（页大小有限），分页元数据与Page经Jackson序列化的结构一致
+     */
+    public void writePage(String collection, Pageable pageable, Projection projection, OutputStream out) throws IOException {
+        List<RawBsonDocument> content = new ArrayList<>(pageable.isPaged() ? pageable.getPageSize() : 16);
+        forEach(collection, new Query().with(pageable), projection, content::add);
+        // 与Repository.findAll(Pageable)一致：首页未满时不再count
+        Page<Object> page = PageableExecutionUtils.getPage(Collections.nCopies(content.size(), null), pageable,
+                () -> mongoTemplate.count(new Query(), collection));
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            writePage(content, page, projection, gen);
+        }
+    }
+
+    /**
+     * 分页元数据由Page序列化得到，content替换为原始文档直通输出
+     */
+    void writePage(List<RawBsonDocument> content, Page<?> page, Projection projection, JsonGenerator gen) throws IOException {
+        JsonNode meta = objectMapper.valueToTree(page);
+        gen.writeStartObject();
+        for (Map.Entry<String, JsonNode> entry : meta.properties()) {
+            gen.writeFieldName(entry.getKey());
+            if ("content".equals(entry.getKey())) {
+                gen.writeStartArray();
+                for (RawBsonDocument doc : content) {
+                    write(doc, projection, gen);
+                }
+                gen.writeEndArray();
+            } else {
+                gen.writeTree(entry.getValue());
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private interface RawDocumentConsumer {
+        void accept(RawBsonDocument doc) throws IOException;
+    }
+
+    private long forEach(String collection, Query query, Projection projection, RawDocumentConsumer consumer) throws IOException {
+        try {
+            return mongoTemplate.execute(collection, coll -> {
+                FindIterable<RawBsonDocument> find = coll.withDocumentClass(RawBsonDocument.class)
+                        .find(query.getQueryObject())
+                        .projection(projection.fieldsObject())
+                        .sort(query.getSortObject())
+                        .skip((int) query.getSkip())
+                        .batchSize(BATCH_SIZE);
+                if (query.isLimited()) {
+                    find.limit(query.getLimit());
+                }
+                long count = 0;
+                try (MongoCursor<RawBsonDocument> cursor = find.iterator()) {
+                    while (cursor.hasNext()) {
+                        consumer.accept(cursor.next());
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // ==================== BSON → JSON ====================
+    // 直接在原始字节上顺序遍历元素：字段名与映射中预先编码的字节比较，字符串值以UTF-8字节原样交给JsonGenerator，
+    // 不为字段名/字符串值创建String对象（BSON元素 = 类型字节 + 字段名cstring + 值，文档/数组以int32长度开头、0结尾）
+
+    private static final byte DOUBLE = 0x01, STRING = 0x02, DOCUMENT = 0x03, ARRAY = 0x04, BINARY = 0x05,
+            UNDEFINED = 0x06, OBJECT_ID = 0x07, BOOLEAN = 0x08, DATE_TIME = 0x09, NULL = 0x0A, REGEX = 0x0B, DB_POINTER = 0x0C,
+            JAVASCRIPT = 0x0D, SYMBOL = 0x0E, JAVASCRIPT_WITH_SCOPE = 0x0F, INT32 = 0x10, TIMESTAMP = 0x11,
+            INT64 = 0x12, DECIMAL128 = 0x13, MAX_KEY = 0x7F, MIN_KEY = (byte) 0xFF;
+
+    /**
+     * 把一个原始文档按映射写为JSON对象
+     */
+    public static void write(RawBsonDocument doc, Projection projection, JsonGenerator gen) throws IOException {
+        ByteBuf buf = doc.getByteBuffer();
+        writeDocument(buf.array(), buf.arrayOffset() + buf.position(), projection, gen);
+    }
+
+    private static void writeDocument(byte[] b, int start, Projection projection, JsonGenerator gen) throws IOException {
+        long written = 0;
+        gen.writeStartObject();
+        int pos = start + 4;
+        while (b[pos] != 0) {
+            byte type = b[pos];
+            int nameEnd = cstringEnd(b, pos + 1);
+            int i = projection.match(b, pos + 1, nameEnd - pos - 1);
+            int value = nameEnd + 1;
+            pos = value + valueSize(b, type, value);
+            // 未声明的字段，或主名与别名同时存在时的后一个
+            if (i < 0 || (written & (1L << i)) != 0) {
+                continue;
+            }
+            written |= 1L << i;
+            Field field = projection.fields[i];
+            gen.writeFieldName(projection.jsonNames[i]);
+            if (field.elements() != null) {
+                if (type == ARRAY) {
+                    writeElements(b, value, field.elements(), gen);
+                } else {
+                    gen.writeNull();
+                }
+            } else if (field.integer()) {
+                writeInteger(b, type, value, gen);
+            } else {
+                writeValue(b, type, value, gen);
+            }
+        }
+        for (int i = 0; i < projection.fields.length; i++) {
+            if ((written & (1L << i)) == 0) {
+                gen.writeFieldName(projection.jsonNames[i]);
+                gen.writeNull();
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeElements(byte[] b, int start, Projection elements, JsonGenerator gen) throws IOException {
+        gen.writeStartArray();
+        int pos = start + 4;
+        while (b[pos] != 0) {
+            byte type = b[pos];
+            int value = cstringEnd(b, pos + 1) + 1;
+            if (type == DOCUMENT) {
+                writeDocument(b, value, elements, gen);
+            }
+            pos = value + valueSize(b, type, value);
+        }
+        gen.writeEndArray();
+    }
+
+    /**
+     * 未声明映射的值（标量、标量数组）按类型原样输出
+     */
+    private static void writeValue(byte[] b, byte type, int pos, JsonGenerator gen) throws IOException {
+        switch (type) {
+            case INT32 -> gen.writeNumber(int32(b, pos));
+            case INT64 -> gen.writeNumber(int64(b, pos));
+            case DOUBLE -> gen.writeNumber(Double.longBitsToDouble(int64(b, pos)));
+            case DECIMAL128 -> gen.writeNumber(
+                    Decimal128.fromIEEE754BIDEncoding(int64(b, pos + 8), int64(b, pos)).bigDecimalValue());
+            case STRING -> {
+                // 字节输出的生成器直接写入UTF-8字节（仍按JSON规则转义），字符输出的生成器不支持，需先解码
+                if (gen instanceof WriterBasedJsonGenerator) {
+                    gen.writeString(new String(b, pos + 4, int32(b, pos) - 1, StandardCharsets.UTF_8));
+                } else {
+                    gen.writeUTF8String(b, pos + 4, int32(b, pos) - 1);
+                }
+            }
+            case BOOLEAN -> gen.writeBoolean(b[pos] != 0);
+            case OBJECT_ID -> gen.writeString(new ObjectId(ByteBuffer.wrap(b, pos, 12)).toHexString());
+            case DATE_TIME -> gen.writeObject(
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(int64(b, pos)), ZoneId.systemDefault()));
+            case ARRAY -> {
+                gen.writeStartArray();
+                int p = pos + 4;
+                while (b[p] != 0) {
+                    int value = cstringEnd(b, p + 1) + 1;
+                    writeValue(b, b[p], value, gen);
+                    p = value + valueSize(b, b[p], value);
+                }
+                gen.writeEndArray();
+            }
+            case DOCUMENT -> {
+                gen.writeStartObject();
+                int p = pos + 4;
+                while (b[p] != 0) {
+                    int nameEnd = cstringEnd(b, p + 1);
+                    gen.writeFieldName(new String(b, p + 1, nameEnd - p - 1, StandardCharsets.UTF_8));
+                    writeValue(b, b[p], nameEnd + 1, gen);
+                    p = nameEnd + 1 + valueSize(b, b[p], nameEnd + 1);
+                }
+                gen.writeEndObject();
+            }
+            default -> gen.writeNull();
+        }
+    }
+
+    /**
+     * Integer字段：与MongoConversionConfig.integer一致，数值取intValue，字符串按十进制整数解析；数组逐个元素转换
+     */
+    private static void writeInteger(byte[] b, byte type, int pos, JsonGenerator gen) throws IOException {
+        switch (type) {
+            case INT32 -> gen.writeNumber(int32(b, pos));
+            case INT64 -> gen.writeNumber((int) int64(b, pos));
+            case DOUBLE -> gen.writeNumber((int) Double.longBitsToDouble(int64(b, pos)));
+            case DECIMAL128 -> gen.writeNumber(
+                    Decimal128.fromIEEE754BIDEncoding(int64(b, pos + 8), int64(b, pos)).bigDecimalValue().intValue());
+            case STRING -> gen.writeNumber(Integer.parseInt(new String(b, pos + 4, int32(b, pos) - 1, StandardCharsets.UTF_8)));
+            case ARRAY -> {
+                gen.writeStartArray();
+                int p = pos + 4;
+                while (b[p] != 0) {
+                    int value = cstringEnd(b, p + 1) + 1;
+                    writeInteger(b, b[p], value, gen);
+                    p = value + valueSize(b, b[p], value);
+                }
+                gen.writeEndArray();
+            }
+            default -> gen.writeNull();
+        }
+    }
+
+    /**
+     * 值所占字节数（用于跳过未声明的字段）
+     */
+    private static int valueSize(byte[] b, byte type, int pos) {
+        return switch (type) {
+            case DOUBLE, DATE_TIME, TIMESTAMP, INT64 -> 8;
+            case STRING, JAVASCRIPT, SYMBOL -> 4 + int32(b, pos);
+            case DOCUMENT, ARRAY, JAVASCRIPT_WITH_SCOPE -> int32(b, pos);
+            case BINARY -> 5 + int32(b, pos);
+            case OBJECT_ID -> 12;
+            case BOOLEAN -> 1;
+            case INT32 -> 4;
+            case DECIMAL128 -> 16;
+            case DB_POINTER -> 16 + int32(b, pos);
+            case REGEX -> cstringEnd(b, cstringEnd(b, pos) + 1) + 1 - pos;
+            case NULL, UNDEFINED, MAX_KEY, MIN_KEY -> 0;
+            default -> throw new IllegalStateException("无法识别的BSON类型：" + type);
+        };
+    }
+
+    private static int cstringEnd(byte[] b, int pos) {
+        while (b[pos] != 0) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int int32(byte[] b, int pos) {
+        return (b[pos] & 0xFF) | (b[pos + 1] & 0xFF) << 8 | (b[pos + 2] & 0xFF) << 16 | (b[pos + 3] & 0xFF) << 24;
+    }
+
+    private static long int64(byte[] b, int pos) {
+        return (int32(b, pos) & 0xFFFFFFFFL) | (long) int32(b, pos + 4) << 32;
+    }
+
+    private static Field field(String name) {
+        return new Field(name, List.of(name), false, null);
+    }
+
+    /**
+     * Integer字段（可改名，或有早期数据的别名）
+     */
+    private static Field intField(String json, String... bson) {
+        return new Field(json, bson.length == 0 ? List.of(json) : List.of(bson), true, null);
+    }
+
+    private static Field array(String name, Field... elementFields) {
+        return new Field(name, List.of(name), false, new Projection(elementFields));
+    }
+}
@@ -0,0 +1,275 @@
+package com.murasame.smarthrm.dao;
+
+import com.murasame.smarthrm.cache.JsonFragmentCache;
+import com.murasame.smarthrm.cache.ReferenceDataCache;
+import com.murasame.smarthrm.cache.SkillMatchResultCache;
+import com.murasame.smarthrm.entity.*;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 员工关联关系数据访问层
+ * 员工与项目（members）、培训（members）、部门（empList）、任务（managerId）之间的关联变更，
+ * 统一用数组操作符（$addToSet/$pull）+ updateMulti按变更的ID集合直接在数据库端修改，
+ * 不读取、不整体回写被关联的文档：修改一名员工的N个项目只需「移除」「加入」两条命令，
+ * 并发编辑同一项目成员时也不会互相覆盖
+ */
+@Repository
+public class RelationshipDao {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    // 基础数据缓存，updateMulti不触发Mongo生命周期事件，需显式失效
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private JsonFragmentCache jsonFragmentCache;
+
+    @Autowired
+    private SkillMatchResultCache skillMatchResultCache;
+
+    // ==================== 查询 ====================
+
+    /**
+     * 查询员工参与的项目ID（仅投影_id）
+     */
+    public List<Integer> findProjectIdsByMember(Integer empId) {
+        Query query = new Query(Criteria.where("members.empId").is(empId));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Project.class).stream().map(Project::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * 查询员工参与的培训ID（仅投影_id）
+     */
+    public List<Integer> findTrainingIdsByMember(Integer empId) {
+        Query query = new Query(Criteria.where("members").is(empId));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Training.class).stream().map(Training::get_id).collect(Collectors.toList());
+    }
+
+    /**
+     * 查询员工负责的任务ID（仅投影_id）
+     */
+    public List<Integer> findTaskIdsByManager(Integer empId) {
+        Query query = new Query(Criteria.where("managerId").is(empId));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Task.class).stream().map(Task::get_id).collect(Collectors.toList());
+    }
+
+    /**
+     * 找出不存在的ID（单次$in查询，仅投影_id），用于写入前的存在性校验
+     * @param entityClass 实体类型（决定集合）
+     * @param ids 待校验的ID集合
+     * @return 集合中不存在的ID（保持入参顺序），全部存在时返回空列表
+     */
+    public List<Integer> findMissingIds(Class<?> entityClass, Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("_id");
+        Set<Object> existing = mongoTemplate.find(query, Document.class,
+                        mongoTemplate.getCollectionName(entityClass)).stream()
+                .map(doc -> doc.get("_id"))
+                .collect(Collectors.toSet());
+        return ids.stream().filter(id -> !existing.contains(id)).distinct().collect(Collectors.toList());
+    }
+
+    // ==================== 项目成员 ====================
+
+    /**
+     * 把员工加入多个项目（members为null的项目先初始化为空数组，再$addToSet，单次bulk往返）
+     */
+    public void addProjectMember(Collection<Integer> projIds, Integer empId) {
+        if (projIds.isEmpty()) return;
+        addToSet(Project.class, projIds, "members", new Document("empId", empId));
+        referenceDataCache.invalidate(Project.class);
+        jsonFragmentCache.invalidate(Project.class, projIds);
+    }
+
+    /**
+     * 把员工从项目中移除
+     * @param projIds 项目ID集合；为null时从所有项目中移除（删除员工）
+     */
+    public void removeProjectMember(Collection<Integer> projIds, Integer empId) {
+        if (projIds != null && projIds.isEmpty()) return;
+        Criteria criteria = Criteria.where("members.empId").is(empId);
+        if (projIds != null) criteria.and("_id").in(projIds);
+        mongoTemplate.updateMulti(new Query(criteria),
+                new Update().pull("members", new Document("empId", empId)), Project.class);
+        referenceDataCache.invalidate(Project.class);
+        if (projIds != null) {
+            jsonFragmentCache.invalidate(Project.class, projIds);
+        } else {
+            jsonFragmentCache.invalidateAll(Project.class);
+        }
+    }
+
+    // ==================== 培训成员 ====================
+
+    /**
+     * 把员工加入多个培训（members为null的培训先初始化为空数组，再$addToSet，单次bulk往返）
+     */
+    public void addTrainingMember(Collection<Integer> trainIds, Integer empId) {
+        if (trainIds.isEmpty()) return;
+        addToSet(Training.class, trainIds, "members", empId);
+        referenceDataCache.invalidate(Training.class);
+    }
+
+    /**
+     * 把员工从培训中移除
+     * @param trainIds 培训ID集合；为null时从所有培训中移除（删除员工）
+     */
+    public void removeTrainingMember(Collection<Integer> trainIds, Integer empId) {
+        if (trainIds != null && trainIds.isEmpty()) return;
+        Criteria criteria = Criteria.where("members").is(empId);
+        if (trainIds != null) criteria.and("_id").in(trainIds);
+        mongoTemplate.updateMulti(new Query(criteria), new Update().pull("members", empId), Training.class);
+        referenceDataCache.invalidate(Training.class);
+    }
+
+    // ==================== 部门成员 ====================
+
+    /**
+     * 把员工加入部门empList（empList为null时先初始化，再$addToSet，单次bulk往返）
+     */
+    public void addDepartmentMember(Integer depId, Integer empId) {
+        addToSet(Department.class, List.of(depId), "empList", new Document("empId", empId));
+        referenceDataCache.invalidate(Department.class);
+    }
+
+    /**
+     * 把员工从部门empList中移除，若其为部门负责人则同时置空负责人（单次bulk往返）
+     */
+    public void removeDepartmentMember(Integer depId, Integer empId) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Department.class);
+        ops.updateOne(new Query(Criteria.where("_id").is(depId).and("empList.empId").is(empId)),
+                new Update().pull("empList", new Document("empId", empId)));
+        ops.updateOne(new Query(Criteria.where("_id").is(depId).and("managerId").is(empId)),
+                new Update().set("managerId", null));
+        ops.execute();
+        referenceDataCache.invalidate(Department.class);
+    }
+
+    // ==================== 任务负责人 ====================
+
+    /**
+     * 把任务负责人设为该员工：先从其他员工的tasks中$pull这些任务，再批量设置任务的managerId
+     */
+    public void assignTasks(Collection<Integer> taskIds, Integer empId) {
+        if (taskIds.isEmpty()) return;
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").ne(empId).and("tasks.taskId").in(taskIds)),
+                new Update().pull("tasks", Query.query(Criteria.where("taskId").in(taskIds))),
+                Employee.class);
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(taskIds)),
+                new Update().set("managerId", empId), Task.class);
+        referenceDataCache.invalidate(Task.class);
+        // 原负责人的tasks与列表页补充的任务均会变化，且原负责人不确定
+        jsonFragmentCache.invalidateAll(Employee.class);
+        skillMatchResultCache.invalidateAll();
+    }
+
+    /**
+     * 置空任务负责人（仅负责人仍是该员工的任务，防止误操作）
+     * @param taskIds 任务ID集合；为null时处理该员工负责的所有任务（删除员工）
+     */
+    public void releaseTasks(Collection<Integer> taskIds, Integer empId) {
+        if (taskIds != null && taskIds.isEmpty()) return;
+        Criteria criteria = Criteria.where("managerId").is(empId);
+        if (taskIds != null) criteria.and("_id").in(taskIds);
+        mongoTemplate.updateMulti(new Query(criteria), new Update().set("managerId", null), Task.class);
+        referenceDataCache.invalidate(Task.class);
+        jsonFragmentCache.invalidate(Employee.class, empId);
+    }
+
+    // ==================== 批量导入 ====================
+
+    /**
+     * 批量把员工加入项目：每个项目一条$addToSet $each（无序bulk，单次往返）
+     * @param empIdsByProject 项目ID → 加入该项目的员工ID
+     */
+    public void addProjectMembers(Map<Integer, ? extends Collection<Integer>> empIdsByProject) {
+        if (empIdsByProject.isEmpty()) return;
+        addToSetEach(Project.class, "members", empIdsByProject, empId -> new Document("empId", empId));
+        referenceDataCache.invalidate(Project.class);
+        jsonFragmentCache.invalidate(Project.class, empIdsByProject.keySet());
+    }
+
+    /**
+     * 批量把员工加入培训：每个培训一条$addToSet $each（无序bulk，单次往返）
+     * @param empIdsByTraining 培训ID → 加入该培训的员工ID
+     */
+    public void addTrainingMembers(Map<Integer, ? extends Collection<Integer>> empIdsByTraining) {
+        if (empIdsByTraining.isEmpty()) return;
+        addToSetEach(Training.class, "members", empIdsByTraining, empId -> empId);
+        referenceDataCache.invalidate(Training.class);
+    }
+
+    /**
+     * 批量把员工加入部门empList：每个部门一条$addToSet $each（无序bulk，单次往返）
+     * @param empIdsByDepartment 部门ID → 加入该部门的员工ID
+     */
+    public void addDepartmentMembers(Map<Integer, ? extends Collection<Integer>> empIdsByDepartment) {
+        if (empIdsByDepartment.isEmpty()) return;
+        addToSetEach(Department.class, "empList", empIdsByDepartment, empId -> new Document("empId", empId));
+        referenceDataCache.invalidate(Department.class);
+    }
+
+    /**
+     * 批量设置任务负责人：先一次性从其他员工的tasks中$pull这些任务，再每个负责人一条updateMulti（无序bulk）
+     * @param taskIdsByManager 负责人员工ID → 其负责的任务ID
+     */
+    public void assignTasks(Map<Integer, ? extends Collection<Integer>> taskIdsByManager) {
+        List<Integer> taskIds = taskIdsByManager.values().stream().flatMap(Collection::stream).collect(Collectors.toList());
+        if (taskIds.isEmpty()) return;
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").nin(taskIdsByManager.keySet()).and("tasks.taskId").in(taskIds)),
+                new Update().pull("tasks", Query.query(Criteria.where("taskId").in(taskIds))),
+                Employee.class);
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class);
+        taskIdsByManager.forEach((empId, ids) -> {
+            if (!ids.isEmpty()) {
+                ops.updateMulti(new Query(Criteria.where("_id").in(ids)), new Update().set("managerId", empId));
+            }
+        });
+        ops.execute();
+        referenceDataCache.invalidate(Task.class);
+        jsonFragmentCache.invalidateAll(Employee.class);
+        skillMatchResultCache.invalidateAll();
+    }
+
+    /**
+     * 批量$addToSet $each：先用一条updateMulti把目标文档中为null的数组初始化为[]，再每个目标文档一条$addToSet（无序bulk）
+     */
+    private void addToSetEach(Class<?> entityClass, String field, Map<Integer, ? extends Collection<Integer>> empIdsByTarget,
+                              Function<Integer, Object> element) {
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(empIdsByTarget.keySet()).and(field).is(null)),
+                new Update().set(field, new ArrayList<>()), entityClass);
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+        empIdsByTarget.forEach((targetId, empIds) -> ops.updateOne(new Query(Criteria.where("_id").is(targetId)),
+                new Update().addToSet(field).each(empIds.stream().map(element).toArray())));
+        ops.execute();
+    }
+
+    /**
+     * $addToSet不能作用于null字段：同一bulk中先把null数组初始化为[]，再$addToSet
+     */
+    private void addToSet(Class<?> entityClass, Collection<Integer> ids, String field, Object value) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, entityClass);
+        ops.updateMulti(new Query(Criteria.where("_id").in(ids).and(field).is(null)),
+                new Update().set(field, new ArrayList<>()));
+        ops.updateMulti(new Query(Criteria.where("_id").in(ids)), new Update().addToSet(field, value));
+        ops.execute();
+    }
+}
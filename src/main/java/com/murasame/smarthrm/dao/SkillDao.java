@@ -8,7 +8,10 @@ import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 技能数据访问层（DAO）
@@ -32,6 +35,21 @@ public class SkillDao {
         return mongoTemplate.findOne(query, Skill.class);
     }
 
+    /**
+     * 根据技能ID集合批量查询技能名称（单次$in查询，仅投影_id、skillName）
+     * @param skillIds 技能主键ID集合
+     * @return 技能ID → 技能名称，ID集合为空时返回空Map
+     */
+    public Map<Integer, String> findNamesByIds(Collection<Integer> skillIds) {
+        Map<Integer, String> names = new HashMap<>();
+        if (skillIds == null || skillIds.isEmpty()) return names;
+        Query query = new Query(Criteria.where("_id").in(skillIds));
+        query.fields().include("_id").include("skillName");
+        mongoTemplate.find(query, Skill.class)
+                .forEach(skill -> names.put(skill.get_id(), skill.getSkillName()));
+        return names;
+    }
+
     /**
      * 查询所有技能信息
      * 核心用途：为前端下拉选择框提供全量技能列表，支持技能关联选择场景
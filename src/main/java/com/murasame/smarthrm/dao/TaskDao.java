@@ -1,14 +1,25 @@
 package com.murasame.smarthrm.dao;
 //林 2025.12.19
 
+import com.murasame.smarthrm.cache.ReferenceDataCache;
+import com.murasame.smarthrm.dto.ProjectTaskGroupDTO;
 import com.murasame.smarthrm.entity.Task;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 任务数据访问层（DAO）
@@ -20,6 +31,9 @@ public class TaskDao {
     // 注入MongoTemplate，用于操作MongoDB数据库
     @Autowired
     private MongoTemplate mongoTemplate;
+    // 基础数据缓存，更新后使其失效
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
 
     /**
      * 根据任务ID查询单个任务信息
@@ -51,6 +65,42 @@ public class TaskDao {
         return mongoTemplate.find(query, Task.class);
     }
 
+    /**
+     * 根据负责人ID列表批量查询任务（单次$in查询，替代逐个员工调用findByManagerId）
+     * @param managerIds 负责人（员工）主键ID集合
+     * @return 这些员工负责的全部任务，ID集合为空时返回空列表
+     */
+    public List<Task> findByManagerIds(Collection<Integer> managerIds) {
+        if (managerIds == null || managerIds.isEmpty()) return List.of();
+        Query query = new Query(Criteria.where("managerId").in(managerIds));
+        return mongoTemplate.find(query, Task.class);
+    }
+
+    /**
+     * 按项目ID列表批量查询任务并按项目分组（单次聚合：$match projId $in → $group，同时统计已完成/未完成数）
+     * 替代逐个项目调用TaskRepo.findByProjId，N个项目只需一次数据库往返；
+     * $sort/$group 会在内存中保留全部匹配的任务，开启allowDiskUse，项目多时超过100MB的阶段内存限制改用临时文件而不是报错
+     * @param projIds 项目主键ID集合
+     * @return 项目ID → 分组结果；没有任务的项目不在结果中，ID集合为空时返回空Map
+     */
+    public Map<Integer, ProjectTaskGroupDTO> groupByProjIds(Collection<Integer> projIds) {
+        if (projIds == null || projIds.isEmpty()) return Map.of();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("projId").in(projIds)),
+                Aggregation.sort(Sort.by("_id")),
+                Aggregation.group("projId")
+                        .push("$$ROOT").as("tasks")
+                        .sum(ConditionalOperators.when(ComparisonOperators.valueOf("taskStatus").equalToValue(1))
+                                .then(1).otherwise(0)).as("completed")
+                        .sum(ConditionalOperators.when(ComparisonOperators.valueOf("taskStatus").equalToValue(0))
+                                .then(1).otherwise(0)).as("pending"),
+                Aggregation.project("tasks", "completed", "pending").and("projId").previousOperation()
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        return mongoTemplate.aggregate(aggregation, Task.class, ProjectTaskGroupDTO.class)
+                .getMappedResults().stream()
+                .collect(Collectors.toMap(ProjectTaskGroupDTO::getProjId, Function.identity()));
+    }
+
     /**
      * 更新任务信息
      * 包含项目ID、任务名称、负责人ID、任务状态等核心字段的更新
@@ -64,5 +114,6 @@ public class TaskDao {
                 .set("managerId", task.getManagerId())
                 .set("taskStatus", task.getTaskStatus());
         mongoTemplate.updateFirst(query, update, Task.class);
+        referenceDataCache.invalidate(Task.class);
     }
 }
\ No newline at end of file
@@ -1,14 +1,18 @@
 package com.murasame.smarthrm.dao;
 //林 2025.12.19
 
+import com.murasame.smarthrm.cache.ReferenceDataCache;
 import com.murasame.smarthrm.entity.Training;
+import com.murasame.smarthrm.index.NameSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 培训数据访问层（DAO）
@@ -20,6 +24,11 @@ public class TrainingDao {
     // 注入MongoTemplate，用于操作MongoDB数据库
     @Autowired
     private MongoTemplate mongoTemplate;
+    // 基础数据缓存，更新后使其失效
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
 
     /**
      * 根据培训ID查询单个培训信息
@@ -51,6 +60,20 @@ public class TrainingDao {
         return mongoTemplate.find(query, Training.class);
     }
 
+    /**
+     * 根据员工ID查询该员工参与的培训名称（仅投影_id、trainName，不加载members数组）
+     * @param empId 员工主键ID
+     * @return 培训ID → 培训名称，无匹配则返回空Map
+     */
+    public Map<Integer, String> findNamesByMemberEmpId(Integer empId) {
+        Map<Integer, String> names = new LinkedHashMap<>();
+        Query query = new Query(Criteria.where("members").is(empId));
+        query.fields().include("_id").include("trainName");
+        mongoTemplate.find(query, Training.class)
+                .forEach(training -> names.put(training.get_id(), training.getTrainName()));
+        return names;
+    }
+
     /**
      * 更新培训信息
      * 包含培训名称、关联技能ID、参与员工列表等核心字段的更新
@@ -63,5 +86,7 @@ public class TrainingDao {
                 .set("skillId", training.getSkillId())
                 .set("members", training.getMembers());
         mongoTemplate.updateFirst(query, update, Training.class);
+        referenceDataCache.invalidate(Training.class);
+        nameSearchIndex.put(NameSearchIndex.Domain.TRAINING, training.get_id(), training.getTrainName());
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.murasame.smarthrm.dto;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标（keyset）分页结果
+ * 按_id升序，下一页通过不透明游标nextCursor（上一页最后一条的_id）定位，
+ * 数据库端使用 _id > 游标 的范围条件 + limit，不使用skip，深分页耗时与页码无关
+ */
+@Getter
+public class CursorPage<T> {
+	private static final String PREFIX = "v1:";
+	public static final int MAX_PAGE_SIZE = 200;
+
+	private final List<T> items;
+	private final String nextCursor;     // 没有下一页时为null
+	private final Long total;            // 未要求总数时为null
+	private final boolean totalEstimated; // total是否为集合元数据估算值
+
+	private CursorPage(List<T> items, String nextCursor, Long total, boolean totalEstimated) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+		this.total = total;
+		this.totalEstimated = totalEstimated;
+	}
+
+	/**
+	 * 由多取一条的查询结果构建分页：fetched.size() > pageSize 说明还有下一页
+	 * @param fetched 按_id升序、最多pageSize+1条的查询结果
+	 * @param pageSize 页大小
+	 * @param idGetter 取_id的方法
+	 * @param total 总数（可为null）
+	 * @param totalEstimated 总数是否为估算值
+	 */
+	public static <T> CursorPage<T> of(List<T> fetched, int pageSize, Function<T, Integer> idGetter,
+	                                   Long total, boolean totalEstimated) {
+		boolean hasMore = fetched.size() > pageSize;
+		List<T> items = hasMore ? fetched.subList(0, pageSize) : fetched;
+		String next = hasMore ? encode(idGetter.apply(items.get(items.size() - 1))) : null;
+		return new CursorPage<>(items, next, total, totalEstimated);
+	}
+
+	/**
+	 * 校验页大小，需在查询之前调用：0会使分页取不到最后一条，负数作为limit会被Mongo视为不限条数
+	 * @param pageSize 页大小
+	 * @return 原页大小
+	 * @throws IllegalArgumentException 页大小不在1-MAX_PAGE_SIZE之间
+	 */
+	public static int checkPageSize(int pageSize) {
+		if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("pageSize需在1-" + MAX_PAGE_SIZE + "之间: " + pageSize);
+		}
+		return pageSize;
+	}
+
+	public <R> CursorPage<R> map(Function<List<T>, List<R>> mapper) {
+		return new CursorPage<>(mapper.apply(items), nextCursor, total, totalEstimated);
+	}
+
+	public static String encode(Integer lastId) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 解析游标
+	 * @param cursor 游标，null/空字符串表示第一页
+	 * @return 上一页最后一条的_id，第一页返回null
+	 * @throws IllegalArgumentException 游标格式不合法
+	 */
+	public static Integer decode(String cursor) {
+		if (cursor == null || cursor.isBlank()) return null;
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+			if (!raw.startsWith(PREFIX)) throw new IllegalArgumentException("游标格式不合法");
+			return Integer.valueOf(raw.substring(PREFIX.length()));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("游标格式不合法: " + cursor);
+		}
+	}
+}
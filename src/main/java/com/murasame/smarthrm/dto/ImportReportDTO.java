@@ -0,0 +1,25 @@
+package com.murasame.smarthrm.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 员工批量导入结果
+ * 失败行不影响其他行导入，逐行列出行号（不含表头，从1开始）与失败原因
+ */
+@Data
+public class ImportReportDTO {
+	private long total;      // 读取的数据行数
+	private long imported;   // 成功导入的行数
+	private long failed;     // 校验失败的行数
+	private int batches;     // 批量写入的批次数
+	private long elapsedMs;
+	private double rowsPerSecond;
+	private List<RowError> errors = new ArrayList<>();
+	private boolean errorsTruncated; // 失败行过多时只返回前若干条
+
+	public record RowError(long row, String message) {
+	}
+}
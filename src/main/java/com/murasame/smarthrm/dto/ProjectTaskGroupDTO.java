@@ -0,0 +1,20 @@
+package com.murasame.smarthrm.dto;
+
+import com.murasame.smarthrm.entity.Task;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按项目分组的任务聚合结果
+ * 由TaskDao.groupByProjIds一次聚合查询（$match projId $in + $group）得到，供项目+任务列表组装使用
+ */
+@Data
+public class ProjectTaskGroupDTO implements Serializable {
+	private Integer projId;
+	private List<Task> tasks = new ArrayList<>();
+	private long completed; // taskStatus = 1 的任务数
+	private long pending;   // taskStatus = 0 的任务数
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Data
 @AllArgsConstructor
@@ -23,4 +25,18 @@ public class SkillMatchDTO  implements Serializable {
 				.map(a -> new SkillMatchDTO(Integer.valueOf(a[0]), Integer.valueOf(a[1])))
 				.toList();
 	}
+
+	/**
+	 * 规范化技能条件（匹配语义不变）：按技能ID升序，同一技能多次出现时取最高要求，未指定熟练度按0
+	 * 2:5,1:3,2:4 → 1:3,2:5
+	 * @throws IllegalArgumentException 技能ID为空
+	 */
+	public static List<SkillMatchDTO> normalize(List<SkillMatchDTO> reqs) {
+		Map<Integer, Integer> merged = new TreeMap<>();
+		for (SkillMatchDTO r : reqs) {
+			if (r.getSkillId() == null) throw new IllegalArgumentException("技能ID不能为空");
+			merged.merge(r.getSkillId(), r.getMinLevel() == null ? 0 : r.getMinLevel(), Math::max);
+		}
+		return merged.entrySet().stream().map(e -> new SkillMatchDTO(e.getKey(), e.getValue())).toList();
+	}
 }
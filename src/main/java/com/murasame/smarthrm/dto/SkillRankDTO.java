@@ -0,0 +1,20 @@
+package com.murasame.smarthrm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 技能排序匹配结果
+ * 用于 /skillmatch/ranked 接口，按综合得分降序返回TopK员工（允许部分匹配）
+ */
+@Data
+@AllArgsConstructor
+public class SkillRankDTO implements Serializable {
+	private Integer empId;
+	private String empName;
+	private Double score;         // 综合得分（已按权重归一化，完全满足全部条件时≥1）
+	private Integer matchedSkills; // 达到最低熟练度的技能条件数
+	private Integer totalSkills;   // 技能条件总数
+}
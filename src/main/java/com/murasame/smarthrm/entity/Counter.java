@@ -0,0 +1,19 @@
+package com.murasame.smarthrm.entity;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * 自增序列计数器
+ * 每个业务集合对应一条记录（_id为序列名，如"Employee"），seq为已分配出去的最大ID
+ */
+@Data
+@Document(collection = "counters")
+public class Counter {
+	@Id               // ← 序列名即主键
+	@Field("_id")
+	private String _id;
+	private Integer seq; // 已分配的最大ID（号段上界）
+}
@@ -6,7 +6,6 @@ import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import java.util.List;
-import java.util.Map;
 
 @Data
 @Document(collection = "Department")
@@ -23,9 +22,13 @@ public class Department {
     private Integer managerId;   // 部门负责人ID
 
     @Field("empList")
-    private List<Map<String, Integer>> empList;
+    private List<EmpRef> empList;
 
     @Transient
     private List<Integer> empIds;//接收前端传递的员工ID数组（格式：[10,11,12]）
 
+    // 部门成员（库中格式：{empId}，读写见MongoConversionConfig）
+    public record EmpRef(Integer empId) {
+    }
+
 }
@@ -7,7 +7,6 @@ import org.springframework.data.mongodb.core.mapping.Field;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 // 数据库实体
 @Data
@@ -18,12 +17,32 @@ public class Employee {
     private Integer _id;//id修改为_id
     private String empName;
     private Integer depId;
-    private List<Map<String, Integer>> skillList;  // 员工拥有技能: [{技能id, 熟练度}...]
-    private List<Map<String, Integer>> projects;                 // 员工参与项目: [projId:项目id...]
+    private List<SkillLevel> skillList;  // 员工拥有技能: [{技能id, 熟练度}...]
+    private List<ProjectRef> projects;                 // 员工参与项目: [projId:项目id...]
     private LocalDateTime joinDate;                 // 加入时间
-    private List<Map<String, Integer>> trainingList;
+    private List<TrainingRef> trainingList;
 
     private String deptName; // 临时部门名称（前端显示用）
     private String deptType; // 临时部门类型（用于前端样式）
-    private List<Map<String, Integer>> tasks;
+    private List<TaskRef> tasks;
+
+    /* ===== 嵌套对象 =====
+     * 库中格式与原先的Map列表一致（{skillId, proficiency} / {projId} / {trainId} / {taskId}），
+     * 读写由MongoConversionConfig中的转换器完成；JSON序列化结果同样不变 */
+
+    // 技能项：技能ID + 熟练度（1-5）；字段缺失或无法识别时为null，与原先的Map一致，不会被当作0写回
+    public record SkillLevel(Integer skillId, Integer proficiency) {
+    }
+
+    // 参与的项目
+    public record ProjectRef(Integer projId) {
+    }
+
+    // 参与的培训
+    public record TrainingRef(Integer trainId) {
+    }
+
+    // 负责的任务
+    public record TaskRef(Integer taskId) {
+    }
 }
\ No newline at end of file
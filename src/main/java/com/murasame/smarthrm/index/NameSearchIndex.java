@@ -0,0 +1,428 @@
+package com.murasame.smarthrm.index;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 名称搜索引擎（进程内n-gram倒排索引）
+ * 覆盖项目、部门、员工、技能、培训五类名称，替代全量加载后toLowerCase().contains以及无法走索引的 .*x.* 正则。
+ * 核心逻辑：
+ * 1. 名称经NFKC归一化（全角转半角）并转小写，按Unicode码点切分：单字（unigram）+ 相邻两字（bigram），中文按字切分；
+ * 2. 查询词为1个字时直接取单字倒排表，≥2个字时对其全部bigram倒排表求交集，再用contains校验去除假阳性；
+ * 3. 结果排序：完全相同 > 前缀匹配 > 子串匹配（出现位置越靠前越优先）> 名称越短越优先 > ID升序，支持分页；
+ * 4. 启动完成后后台线程从各集合仅投影_id和名称字段构建；Repo/MongoTemplate的save/delete由生命周期事件同步，
+ *    DAO中的updateFirst/upsert由DAO显式调用put同步。构建完成前isReady()为false，调用方回退到数据库（已转义的）正则查询
+ */
+@Component
+public class NameSearchIndex extends AbstractMongoEventListener<Object> {
+
+	private static final Logger log = LoggerFactory.getLogger(NameSearchIndex.class);
+	private static final int[] EMPTY = new int[0];
+
+	/**
+	 * 可搜索的名称类型：集合名 + 名称字段
+	 */
+	public enum Domain {
+		PROJECT("Project", "projName"),
+		DEPARTMENT("Department", "depName"),
+		EMPLOYEE("Employee", "empName"),
+		SKILL("Skill", "skillName"),
+		TRAINING("Training", "trainName");
+
+		private final String collection;
+		private final String nameField;
+
+		Domain(String collection, String nameField) {
+			this.collection = collection;
+			this.nameField = nameField;
+		}
+
+		static Domain ofCollection(String collection) {
+			for (Domain d : values()) {
+				if (d.collection.equals(collection)) return d;
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * 搜索结果
+	 * @param total 命中总数
+	 * @param ids 当前页命中的ID（已排序）
+	 */
+	public record Result(int total, List<Integer> ids) {
+	}
+
+	private final MongoTemplate mongoTemplate;
+	private final Map<Domain, Shard> shards = new EnumMap<>(Domain.class);
+	private volatile boolean ready = false;
+
+	public NameSearchIndex(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+		for (Domain d : Domain.values()) {
+			shards.put(d, new Shard());
+		}
+	}
+
+	/**
+	 * 应用启动完成后异步构建索引，避免阻塞启动
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void buildOnStartup() {
+		Thread loader = new Thread(this::rebuild, "name-index-loader");
+		loader.setDaemon(true);
+		loader.start();
+	}
+
+	/**
+	 * 从数据库全量重建全部名称索引
+	 */
+	public void rebuild() {
+		try {
+			long start = System.nanoTime();
+			int total = 0;
+			shards.values().forEach(Shard::beginLoad);
+			for (Domain d : Domain.values()) {
+				Query query = new Query();
+				query.fields().include("_id").include(d.nameField);
+				Map<Integer, String> names = new HashMap<>();
+				for (Document doc : mongoTemplate.find(query, Document.class, d.collection)) {
+					if (doc.get("_id") instanceof Number id && doc.get(d.nameField) instanceof String name) {
+						names.put(id.intValue(), name);
+					}
+				}
+				shards.get(d).load(names);
+				total += names.size();
+			}
+			ready = true;
+			log.info("名称搜索索引构建完成：共 {} 条名称，耗时 {} ms", total, (System.nanoTime() - start) / 1_000_000);
+		} catch (RuntimeException e) {
+			shards.values().forEach(Shard::abortLoad);
+			log.warn("名称搜索索引构建失败，名称搜索将回退到数据库查询：{}", e.getMessage());
+		}
+	}
+
+	/**
+	 * 索引是否已可用于查询
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * 新增/更新名称
+	 * @param domain 名称类型
+	 * @param id 主键ID
+	 * @param name 名称（为null时等同于删除）
+	 */
+	public void put(Domain domain, Integer id, String name) {
+		if (id == null) return;
+		shards.get(domain).put(id, name);
+	}
+
+	/**
+	 * 删除名称
+	 * @param domain 名称类型
+	 * @param id 主键ID
+	 */
+	public void remove(Domain domain, Integer id) {
+		if (id == null) return;
+		shards.get(domain).put(id, null);
+	}
+
+	/**
+	 * 分页搜索名称包含关键词的记录
+	 * @param domain 名称类型
+	 * @param keyword 关键词（原样匹配，不解释任何正则元字符）
+	 * @param offset 跳过的条数
+	 * @param limit 返回条数上限（<0表示不限）
+	 * @return 命中总数及当前页ID
+	 */
+	public Result search(Domain domain, String keyword, int offset, int limit) {
+		List<Integer> ranked = searchAll(domain, keyword);
+		int from = Math.min(Math.max(offset, 0), ranked.size());
+		int to = limit < 0 ? ranked.size() : (int) Math.min((long) from + limit, ranked.size());
+		return new Result(ranked.size(), ranked.subList(from, to));
+	}
+
+	/**
+	 * 搜索名称包含关键词的全部记录（已排序）
+	 * @param domain 名称类型
+	 * @param keyword 关键词
+	 * @return 命中ID列表，关键词为空时返回空列表
+	 */
+	public List<Integer> searchAll(Domain domain, String keyword) {
+		String q = normalize(keyword);
+		if (q.isEmpty()) return List.of();
+		return shards.get(domain).search(q);
+	}
+
+	/**
+	 * 按ID升序取名称包含关键词、且ID大于afterId的前limit条（游标分页）
+	 * 在最短的倒排表中二分定位到afterId之后，逐个校验直到凑满limit，不计算、不排序全部命中，耗时与页的深度无关
+	 * @param domain 名称类型
+	 * @param keyword 关键词
+	 * @param afterId 上一页最后一条的ID，第一页传null
+	 * @param limit 返回条数上限
+	 * @return 按ID升序的命中ID，关键词为空时返回空列表
+	 */
+	public List<Integer> searchAfter(Domain domain, String keyword, Integer afterId, int limit) {
+		String q = normalize(keyword);
+		if (q.isEmpty() || limit <= 0) return List.of();
+		return shards.get(domain).searchAfter(q, afterId, limit);
+	}
+
+	/**
+	 * 获取索引中的原始名称
+	 * @param domain 名称类型
+	 * @param id 主键ID
+	 * @return 名称，不存在时返回null
+	 */
+	public String nameOf(Domain domain, Integer id) {
+		return shards.get(domain).displayNames.get(id);
+	}
+
+	/**
+	 * 按给定ID顺序对实体列表排序（$in查询不保证返回顺序）
+	 */
+	public static <T> List<T> orderByIds(List<T> entities, List<Integer> ids, Function<T, Integer> idGetter) {
+		Map<Integer, Integer> position = new HashMap<>(ids.size() * 2);
+		for (int i = 0; i < ids.size(); i++) position.put(ids.get(i), i);
+		List<T> sorted = new ArrayList<>(entities);
+		sorted.sort(Comparator.comparingInt(e -> position.getOrDefault(idGetter.apply(e), Integer.MAX_VALUE)));
+		return sorted;
+	}
+
+	// ==================== Mongo生命周期事件 ====================
+
+	@Override
+	public void onAfterSave(AfterSaveEvent<Object> event) {
+		Domain domain = Domain.ofCollection(event.getCollectionName());
+		Document doc = event.getDocument();
+		if (domain != null && doc != null && doc.get("_id") instanceof Number id) {
+			Object name = doc.get(domain.nameField);
+			put(domain, id.intValue(), name instanceof String s ? s : null);
+		}
+	}
+
+	@Override
+	public void onAfterDelete(AfterDeleteEvent<Object> event) {
+		Domain domain = Domain.ofCollection(event.getCollectionName());
+		Document query = event.getDocument();
+		if (domain != null && query != null && query.get("_id") instanceof Number id) {
+			remove(domain, id.intValue());
+		}
+	}
+
+	// ==================== 私有工具方法 ====================
+
+	static String normalize(String s) {
+		if (s == null) return "";
+		return Normalizer.normalize(s.trim(), Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * 切分n-gram：全部单字 + 相邻两字
+	 */
+	private static Set<String> grams(String normalized) {
+		int[] cps = normalized.codePoints().toArray();
+		Set<String> grams = new HashSet<>();
+		for (int i = 0; i < cps.length; i++) {
+			grams.add(new String(cps, i, 1));
+			if (i + 1 < cps.length) grams.add(new String(cps, i, 2));
+		}
+		return grams;
+	}
+
+	/**
+	 * 查询词对应的n-gram：1个字取单字，否则取全部相邻两字
+	 */
+	private static Set<String> queryGrams(String q) {
+		int[] cps = q.codePoints().toArray();
+		if (cps.length == 1) return Set.of(q);
+		Set<String> grams = new HashSet<>();
+		for (int i = 0; i + 1 < cps.length; i++) grams.add(new String(cps, i, 2));
+		return grams;
+	}
+
+	private static int[] intersect(int[] a, int[] b) {
+		int[] out = new int[Math.min(a.length, b.length)];
+		int i = 0, j = 0, n = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) i++;
+			else if (a[i] > b[j]) j++;
+			else {
+				out[n++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(out, n);
+	}
+
+	/**
+	 * 单类名称的倒排索引：gram → 升序ID数组（写时复制，读无锁）
+	 */
+	private static final class Shard {
+		private final Map<Integer, String> names = new ConcurrentHashMap<>();
+		private final Map<Integer, String> displayNames = new ConcurrentHashMap<>();
+		private final Map<String, int[]> postings = new ConcurrentHashMap<>();
+		// 全量构建期间收到的增量变更（构建完成后重放），value为null表示删除
+		private Map<Integer, String> pendingWhileLoading;
+
+		synchronized void beginLoad() {
+			pendingWhileLoading = new LinkedHashMap<>();
+		}
+
+		synchronized void abortLoad() {
+			pendingWhileLoading = null;
+		}
+
+		synchronized void load(Map<Integer, String> loaded) {
+			names.clear();
+			displayNames.clear();
+			postings.clear();
+			Map<String, List<Integer>> building = new HashMap<>();
+			loaded.forEach((id, name) -> {
+				String normalized = normalize(name);
+				names.put(id, normalized);
+				displayNames.put(id, name);
+				for (String g : grams(normalized)) {
+					building.computeIfAbsent(g, k -> new ArrayList<>()).add(id);
+				}
+			});
+			building.forEach((g, ids) -> {
+				int[] arr = ids.stream().mapToInt(Integer::intValue).toArray();
+				Arrays.sort(arr);
+				postings.put(g, arr);
+			});
+			Map<Integer, String> pending = pendingWhileLoading;
+			pendingWhileLoading = null;
+			if (pending != null) {
+				pending.forEach(this::put);
+			}
+		}
+
+		synchronized void put(int id, String name) {
+			if (pendingWhileLoading != null) {
+				pendingWhileLoading.put(id, name);
+			}
+			String normalized = name == null ? null : normalize(name);
+			String old = normalized == null ? names.remove(id) : names.put(id, normalized);
+			if (name == null) displayNames.remove(id);
+			else displayNames.put(id, name);
+			Set<String> oldGrams = old == null ? Set.of() : grams(old);
+			Set<String> newGrams = normalized == null ? Set.of() : grams(normalized);
+			for (String g : oldGrams) {
+				if (!newGrams.contains(g)) {
+					postings.computeIfPresent(g, (k, arr) -> {
+						int pos = Arrays.binarySearch(arr, id);
+						if (pos < 0) return arr;
+						if (arr.length == 1) return null;
+						int[] next = new int[arr.length - 1];
+						System.arraycopy(arr, 0, next, 0, pos);
+						System.arraycopy(arr, pos + 1, next, pos, arr.length - pos - 1);
+						return next;
+					});
+				}
+			}
+			for (String g : newGrams) {
+				if (!oldGrams.contains(g)) {
+					postings.merge(g, new int[]{id}, (arr, one) -> {
+						int pos = Arrays.binarySearch(arr, id);
+						if (pos >= 0) return arr;
+						pos = -pos - 1;
+						int[] next = new int[arr.length + 1];
+						System.arraycopy(arr, 0, next, 0, pos);
+						next[pos] = id;
+						System.arraycopy(arr, pos, next, pos + 1, arr.length - pos);
+						return next;
+					});
+				}
+			}
+		}
+
+		/**
+		 * 查询词全部gram的倒排表（按长度升序），任一为空时返回空列表
+		 */
+		private List<int[]> postingLists(String q) {
+			List<int[]> lists = new ArrayList<>();
+			for (String g : queryGrams(q)) {
+				int[] list = postings.getOrDefault(g, EMPTY);
+				if (list.length == 0) return List.of();
+				lists.add(list);
+			}
+			lists.sort(Comparator.comparingInt(l -> l.length));
+			return lists;
+		}
+
+		List<Integer> searchAfter(String q, Integer afterId, int limit) {
+			List<int[]> lists = postingLists(q);
+			if (lists.isEmpty()) return List.of();
+			int[] shortest = lists.get(0);
+			int start = 0;
+			if (afterId != null) {
+				int pos = Arrays.binarySearch(shortest, afterId);
+				start = pos >= 0 ? pos + 1 : -pos - 1;
+			}
+			List<Integer> ids = new ArrayList<>(Math.min(limit, shortest.length - start));
+			for (int i = start; i < shortest.length && ids.size() < limit; i++) {
+				int id = shortest[i];
+				boolean inAll = true;
+				for (int k = 1; k < lists.size() && inAll; k++) {
+					inAll = Arrays.binarySearch(lists.get(k), id) >= 0;
+				}
+				String name = inAll ? names.get(id) : null;
+				if (name != null && name.contains(q)) {
+					ids.add(id);
+				}
+			}
+			return ids;
+		}
+
+		List<Integer> search(String q) {
+			// 1. 取查询词全部gram的倒排表，从最短的开始求交集
+			List<int[]> lists = postingLists(q);
+			if (lists.isEmpty()) return List.of();
+			int[] candidates = lists.get(0);
+			for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+				candidates = intersect(candidates, lists.get(i));
+			}
+
+			// 2. contains校验（bigram全部命中不代表连续出现）并排序
+			List<long[]> hits = new ArrayList<>();
+			for (int id : candidates) {
+				String name = names.get(id);
+				if (name == null) continue;
+				int pos = name.indexOf(q);
+				if (pos < 0) continue;
+				int kind = name.length() == q.length() ? 0 : (pos == 0 ? 1 : 2);
+				hits.add(new long[]{kind, pos, name.length(), id});
+			}
+			hits.sort((a, b) -> {
+				for (int k = 0; k < a.length; k++) {
+					int c = Long.compare(a[k], b[k]);
+					if (c != 0) return c;
+				}
+				return 0;
+			});
+			List<Integer> ids = new ArrayList<>(hits.size());
+			for (long[] h : hits) ids.add((int) h[3]);
+			return ids;
+		}
+	}
+}
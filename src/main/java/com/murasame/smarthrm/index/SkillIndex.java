@@ -0,0 +1,314 @@
+package com.murasame.smarthrm.index;
+
+import com.murasame.smarthrm.dao.EmployeeDao;
+import com.murasame.smarthrm.dto.SkillMatchDTO;
+import com.murasame.smarthrm.entity.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 员工技能倒排索引（进程内）
+ * 结构：skillId → 倒排表 long[]，每个元素为 (熟练度 << 32 | 员工ID)，整体按熟练度升序、同熟练度内按员工ID升序排列。
+ * 查询「技能s熟练度≥L」即取倒排表中 key ≥ (L << 32) 的后缀；多个条件时从最短后缀开始，
+ * 对其余后缀中按熟练度划分的有序段做galloping查找求交集，全程只读基本类型数组，不访问数据库。
+ *
+ * 生命周期：
+ * 1. 应用启动完成后在后台线程从EmployeeDao全量构建（仅投影_id、skillList），构建完成前isReady()为false，调用方应回退到数据库查询；
+ * 2. 员工新增/修改/删除时由EmployeeServiceImpl调用put/remove增量维护（写时复制单个技能的倒排表，读无锁）
+ */
+@Component
+public class SkillIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(SkillIndex.class);
+	private static final long EMP_MASK = 0xFFFFFFFFL;
+	private static final long[] EMPTY = new long[0];
+
+	private final EmployeeDao employeeDao;
+
+	// skillId → 倒排表（不可变快照，写时整体替换）
+	private final Map<Integer, long[]> postings = new ConcurrentHashMap<>();
+	// empId → {skillId: 熟练度}，用于增量更新时找出旧技能
+	private final Map<Integer, Map<Integer, Integer>> skillsByEmp = new HashMap<>();
+	// 全量构建期间收到的增量变更（构建完成后重放）；value为null表示删除
+	private final Map<Integer, Map<Integer, Integer>> pendingWhileLoading = new LinkedHashMap<>();
+	private volatile boolean ready = false;
+	private boolean loading = false;
+
+	public SkillIndex(EmployeeDao employeeDao) {
+		this.employeeDao = employeeDao;
+	}
+
+	/**
+	 * 应用启动完成后异步构建索引，避免阻塞启动（数据库不可用时保持未就绪，查询自动走数据库）
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void buildOnStartup() {
+		Thread loader = new Thread(this::rebuild, "skill-index-loader");
+		loader.setDaemon(true);
+		loader.start();
+	}
+
+	/**
+	 * 从数据库全量重建索引
+	 */
+	public void rebuild() {
+		synchronized (this) {
+			loading = true;
+		}
+		try {
+			long start = System.nanoTime();
+			List<Employee> employees = employeeDao.findAllSkillLists();
+			Map<Integer, Map<Integer, Integer>> loaded = new HashMap<>(employees.size() * 2);
+			for (Employee emp : employees) {
+				if (emp.get_id() != null) {
+					loaded.put(emp.get_id(), toSkillMap(emp.getSkillList()));
+				}
+			}
+			synchronized (this) {
+				load(loaded);
+				pendingWhileLoading.forEach(this::apply);
+				pendingWhileLoading.clear();
+				loading = false;
+				ready = true;
+			}
+			log.info("技能倒排索引构建完成：员工 {} 人，技能 {} 项，耗时 {} ms",
+					loaded.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+		} catch (RuntimeException e) {
+			synchronized (this) {
+				pendingWhileLoading.clear();
+				loading = false;
+			}
+			log.warn("技能倒排索引构建失败，技能匹配将回退到数据库查询：{}", e.getMessage());
+		}
+	}
+
+	/**
+	 * 索引是否已可用于查询
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * 新增/更新员工技能（整体替换该员工的技能列表）
+	 * @param empId 员工ID
+	 * @param skillList 员工技能列表（格式：[{skillId, proficiency}...]）
+	 */
+	public synchronized void put(Integer empId, List<Employee.SkillLevel> skillList) {
+		if (empId == null) return;
+		Map<Integer, Integer> skills = toSkillMap(skillList);
+		if (loading) {
+			pendingWhileLoading.put(empId, skills);
+		}
+		if (ready) {
+			apply(empId, skills);
+		}
+	}
+
+	/**
+	 * 删除员工的全部技能索引
+	 * @param empId 员工ID
+	 */
+	public synchronized void remove(Integer empId) {
+		if (empId == null) return;
+		if (loading) {
+			pendingWhileLoading.put(empId, null);
+		}
+		if (ready) {
+			apply(empId, null);
+		}
+	}
+
+	/**
+	 * 按「技能:最小熟练度」条件求同时满足全部条件的员工ID
+	 * @param reqs 技能匹配条件列表（同一技能出现多次时取最高要求）
+	 * @return 满足条件的员工ID（升序），条件为空时返回空数组
+	 */
+	public int[] match(List<SkillMatchDTO> reqs) {
+		if (reqs == null || reqs.isEmpty()) return new int[0];
+
+		// 1. 每个条件定位倒排表后缀 [from, to)
+		List<Suffix> suffixes = new ArrayList<>(reqs.size());
+		for (SkillMatchDTO req : reqs) {
+			long[] list = postings.getOrDefault(req.getSkillId(), EMPTY);
+			int minLevel = req.getMinLevel() == null ? 0 : req.getMinLevel();
+			int from = lowerBound(list, 0, list.length, ((long) minLevel) << 32);
+			if (from == list.length) return new int[0];
+			suffixes.add(new Suffix(list, from));
+		}
+
+		// 2. 最短后缀作为候选集，其余后缀从短到长依次过滤
+		suffixes.sort(Comparator.comparingInt(Suffix::size));
+		int[] candidates = suffixes.get(0).sortedEmpIds();
+		int size = candidates.length;
+		for (int i = 1; i < suffixes.size() && size > 0; i++) {
+			size = suffixes.get(i).retainAll(candidates, size);
+		}
+		return Arrays.copyOf(candidates, size);
+	}
+
+	/**
+	 * 返回某技能倒排表长度（用于统计/监控）
+	 */
+	public int postingSize(Integer skillId) {
+		return postings.getOrDefault(skillId, EMPTY).length;
+	}
+
+	// ==================== 私有工具方法 ====================
+
+	private void load(Map<Integer, Map<Integer, Integer>> loaded) {
+		skillsByEmp.clear();
+		skillsByEmp.putAll(loaded);
+		Map<Integer, List<Long>> bySkill = new HashMap<>();
+		loaded.forEach((empId, skills) -> skills.forEach((skillId, level) ->
+				bySkill.computeIfAbsent(skillId, k -> new ArrayList<>()).add(key(level, empId))));
+		postings.clear();
+		bySkill.forEach((skillId, keys) -> {
+			long[] list = new long[keys.size()];
+			for (int i = 0; i < list.length; i++) list[i] = keys.get(i);
+			Arrays.sort(list);
+			postings.put(skillId, list);
+		});
+	}
+
+	private void apply(Integer empId, Map<Integer, Integer> newSkills) {
+		Map<Integer, Integer> oldSkills = newSkills == null ? skillsByEmp.remove(empId) : skillsByEmp.put(empId, newSkills);
+		if (oldSkills == null) oldSkills = Map.of();
+		if (newSkills == null) newSkills = Map.of();
+
+		for (Map.Entry<Integer, Integer> old : oldSkills.entrySet()) {
+			if (!old.getValue().equals(newSkills.get(old.getKey()))) {
+				postings.computeIfPresent(old.getKey(), (k, list) -> {
+					long[] next = without(list, key(old.getValue(), empId));
+					return next.length == 0 ? null : next;
+				});
+			}
+		}
+		for (Map.Entry<Integer, Integer> neu : newSkills.entrySet()) {
+			if (!neu.getValue().equals(oldSkills.get(neu.getKey()))) {
+				postings.merge(neu.getKey(), new long[]{key(neu.getValue(), empId)},
+						(list, one) -> with(list, one[0]));
+			}
+		}
+	}
+
+	private static Map<Integer, Integer> toSkillMap(List<Employee.SkillLevel> skillList) {
+		if (skillList == null || skillList.isEmpty()) return Map.of();
+		Map<Integer, Integer> skills = new HashMap<>();
+		for (Employee.SkillLevel skill : skillList) {
+			// 缺少技能ID或熟练度的残缺数据读取为null，不建索引
+			if (skill != null && skill.skillId() != null && skill.proficiency() != null && skill.proficiency() > 0) {
+				skills.merge(skill.skillId(), skill.proficiency(), Math::max);
+			}
+		}
+		return skills;
+	}
+
+	private static long key(int level, int empId) {
+		return ((long) level << 32) | (empId & EMP_MASK);
+	}
+
+	private static long[] with(long[] list, long key) {
+		int pos = lowerBound(list, 0, list.length, key);
+		if (pos < list.length && list[pos] == key) return list;
+		long[] next = new long[list.length + 1];
+		System.arraycopy(list, 0, next, 0, pos);
+		next[pos] = key;
+		System.arraycopy(list, pos, next, pos + 1, list.length - pos);
+		return next;
+	}
+
+	private static long[] without(long[] list, long key) {
+		int pos = lowerBound(list, 0, list.length, key);
+		if (pos == list.length || list[pos] != key) return list;
+		long[] next = new long[list.length - 1];
+		System.arraycopy(list, 0, next, 0, pos);
+		System.arraycopy(list, pos + 1, next, pos, list.length - pos - 1);
+		return next;
+	}
+
+	/**
+	 * 第一个 ≥ key 的下标（[from, to) 内），不存在返回to
+	 */
+	private static int lowerBound(long[] list, int from, int to, long key) {
+		int lo = from, hi = to;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (list[mid] < key) lo = mid + 1;
+			else hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * 倒排表后缀：由若干个「同熟练度、员工ID升序」的有序段组成
+	 */
+	private static final class Suffix {
+		private final long[] list;
+		private final int from;
+
+		Suffix(long[] list, int from) {
+			this.list = list;
+			this.from = from;
+		}
+
+		int size() {
+			return list.length - from;
+		}
+
+		int[] sortedEmpIds() {
+			int[] ids = new int[size()];
+			for (int i = from; i < list.length; i++) ids[i - from] = (int) list[i];
+			Arrays.sort(ids);
+			return ids;
+		}
+
+		/**
+		 * 就地保留candidates[0, size)中同样出现在本后缀的员工ID，返回保留后的数量（candidates保持升序）
+		 */
+		int retainAll(int[] candidates, int size) {
+			boolean[] hit = new boolean[size];
+			int runStart = from;
+			while (runStart < list.length) {
+				long level = list[runStart] >>> 32;
+				int runEnd = lowerBound(list, runStart, list.length, (level + 1) << 32);
+				gallopIntersect(candidates, size, runStart, runEnd, level, hit);
+				runStart = runEnd;
+			}
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (hit[i]) candidates[kept++] = candidates[i];
+			}
+			return kept;
+		}
+
+		/**
+		 * 有序候选集与一个有序段求交：每个候选在段内指数步长探测后二分定位，游标只前进不后退
+		 */
+		private void gallopIntersect(int[] candidates, int size, int runStart, int runEnd, long level, boolean[] hit) {
+			long base = level << 32;
+			int cursor = runStart;
+			for (int i = 0; i < size && cursor < runEnd; i++) {
+				long target = base | (candidates[i] & EMP_MASK);
+				int step = 1;
+				int probe = cursor;
+				while (probe < runEnd && list[probe] < target) {
+					cursor = probe + 1;
+					probe = cursor + step;
+					step <<= 1;
+				}
+				cursor = lowerBound(list, cursor, Math.min(probe + 1, runEnd), target);
+				if (cursor < runEnd && list[cursor] == target) {
+					hit[i] = true;
+					cursor++;
+				}
+			}
+		}
+	}
+}
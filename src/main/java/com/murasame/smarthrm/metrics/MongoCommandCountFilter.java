@@ -0,0 +1,35 @@
+package com.murasame.smarthrm.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 统计每个HTTP请求执行的Mongo命令数，按「请求方法 + 路径模板」（如GET /employees/{id}）汇总到MongoCommandStats
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoCommandCountFilter extends OncePerRequestFilter {
+
+	private final MongoCommandStats mongoCommandStats;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		mongoCommandStats.startRequest();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			// 未匹配到处理器（如404）的请求不记录，避免路由维度无限增长
+			Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			mongoCommandStats.finishRequest(pattern != null ? request.getMethod() + " " + pattern : null);
+		}
+	}
+}
@@ -0,0 +1,359 @@
+package com.murasame.smarthrm.metrics;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MongoDB命令统计
+ * 作为CommandListener注册到MongoClient，按「调用方方法 + 命令名」分组统计：
+ * 1. 延迟：HdrHistogram（最大1分钟，3位有效数字），输出p50/p95/p99/max；
+ * 2. 返回文档数（游标firstBatch/nextBatch条数，写命令取n）与回复大小（回复文档的BSON字节数）；
+ * 3. 同时记录到Micrometer：mongo.command（计时器）、mongo.command.documents、mongo.command.reply.bytes；
+ * 4. 每个HTTP请求内执行的命令数（由MongoCommandCountFilter开启计数），N+1回归直接体现为数字。
+ * 调用方在commandStarted时从当前线程栈识别（同步驱动在调用线程上回调）：最内层的应用内方法，
+ * Spring Data Repository代理取接口名（如TaskRepo.findByProjId），getMore归属于迭代游标的方法
+ */
+@Component
+public class MongoCommandStats implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+	private static final Logger log = LoggerFactory.getLogger(MongoCommandStats.class);
+
+	private static final String APP_PACKAGE = "com.murasame.smarthrm.";
+	private static final String SELF_PACKAGE = MongoCommandStats.class.getPackageName() + ".";
+	private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+	private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+	private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+
+	private final MeterRegistry meterRegistry;
+	// 单个HTTP请求的命令数超过该值时打印告警
+	private final int requestWarnThreshold;
+	// 驱动requestId → 调用方，在started与succeeded/failed之间传递
+	private final Map<Integer, String> callers = new ConcurrentHashMap<>();
+	private final Map<String, CommandStat> commands = new ConcurrentHashMap<>();
+	private final Map<String, RequestStat> requests = new ConcurrentHashMap<>();
+	// 当前线程所处HTTP请求的命令计数，未开启计数时为null
+	private final ThreadLocal<int[]> requestCounter = new ThreadLocal<>();
+	private volatile long since = System.currentTimeMillis();
+
+	public MongoCommandStats(ObjectProvider<MeterRegistry> meterRegistry,
+							 @Value("${smarthrm.mongo-stats.request-command-warn:50}") int requestWarnThreshold) {
+		this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+		this.requestWarnThreshold = requestWarnThreshold;
+	}
+
+	@Override
+	public void customize(MongoClientSettings.Builder builder) {
+		builder.addCommandListener(this);
+	}
+
+	// ==================== CommandListener ====================
+
+	@Override
+	public void commandStarted(CommandStartedEvent event) {
+		callers.put(event.getRequestId(), callerOf());
+		int[] counter = requestCounter.get();
+		if (counter != null) {
+			counter[0]++;
+		}
+	}
+
+	@Override
+	public void commandSucceeded(CommandSucceededEvent event) {
+		BsonDocument reply = event.getResponse();
+		stat(callers.remove(event.getRequestId()), event.getCommandName())
+				.record(event.getElapsedTime(TimeUnit.NANOSECONDS), documentsIn(reply), sizeOf(reply), false);
+	}
+
+	@Override
+	public void commandFailed(CommandFailedEvent event) {
+		stat(callers.remove(event.getRequestId()), event.getCommandName())
+				.record(event.getElapsedTime(TimeUnit.NANOSECONDS), 0, 0, true);
+	}
+
+	// ==================== HTTP请求计数 ====================
+
+	/**
+	 * 开始统计当前线程（HTTP请求）执行的命令数
+	 */
+	public void startRequest() {
+		requestCounter.set(new int[1]);
+	}
+
+	/**
+	 * 结束统计并按路由记录
+	 * @param route 路由（请求方法 + 路径模板），为null时只结束计数不记录
+	 * @return 本次请求执行的命令数
+	 */
+	public int finishRequest(String route) {
+		int[] counter = requestCounter.get();
+		requestCounter.remove();
+		if (counter == null) {
+			return 0;
+		}
+		if (route != null) {
+			requests.computeIfAbsent(route, RequestStat::new).record(counter[0]);
+			if (counter[0] > requestWarnThreshold) {
+				log.warn("请求 {} 执行了 {} 条Mongo命令（阈值 {}），可能存在N+1查询", route, counter[0], requestWarnThreshold);
+			}
+		}
+		return counter[0];
+	}
+
+	// ==================== 报告 ====================
+
+	/**
+	 * 统计报告：命令按累计耗时倒序，请求路由按平均命令数倒序
+	 */
+	public Map<String, Object> report() {
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("since", Instant.ofEpochMilli(since).toString());
+		report.put("commands", commands.values().stream()
+				.sorted(Comparator.comparingLong((CommandStat s) -> s.totalNanos.sum()).reversed())
+				.map(CommandStat::toMap)
+				.toList());
+		report.put("requests", requests.values().stream()
+				.sorted(Comparator.comparingDouble(RequestStat::meanCommands).reversed())
+				.map(RequestStat::toMap)
+				.toList());
+		return report;
+	}
+
+	/**
+	 * 清空统计（Micrometer中的累计指标不受影响）
+	 */
+	public void reset() {
+		commands.clear();
+		requests.clear();
+		since = System.currentTimeMillis();
+	}
+
+	// ==================== 工具方法 ====================
+
+	private CommandStat stat(String caller, String command) {
+		String method = caller != null ? caller : "other";
+		return commands.computeIfAbsent(method + " " + command, key -> new CommandStat(method, command));
+	}
+
+	/**
+	 * 当前线程栈中最内层的应用内方法（跳过本包），Repository代理取接口名，找不到时为other
+	 */
+	static String callerOf() {
+		return WALKER.walk(frames -> frames
+				.map(MongoCommandStats::callerName)
+				.filter(Objects::nonNull)
+				.findFirst()
+				.orElse("other"));
+	}
+
+	private static String callerName(StackWalker.StackFrame frame) {
+		Class<?> type = frame.getDeclaringClass();
+		if (Proxy.isProxyClass(type)) {
+			for (Class<?> iface : type.getInterfaces()) {
+				if (iface.getName().startsWith(APP_PACKAGE)) {
+					return iface.getSimpleName() + "." + frame.getMethodName();
+				}
+			}
+			return null;
+		}
+		String name = type.getName();
+		if (!name.startsWith(APP_PACKAGE) || name.startsWith(SELF_PACKAGE)) {
+			return null;
+		}
+		// 去掉包名和CGLIB代理后缀；lambda取所在方法名（lambda$findAll$0 → findAll）
+		String simpleName = name.substring(name.lastIndexOf('.') + 1);
+		int proxySuffix = simpleName.indexOf("$$");
+		if (proxySuffix > 0) {
+			simpleName = simpleName.substring(0, proxySuffix);
+		}
+		String method = frame.getMethodName();
+		if (method.startsWith("lambda$")) {
+			int end = method.indexOf('$', 7);
+			method = method.substring(7, end > 7 ? end : method.length());
+		}
+		return simpleName + "." + method;
+	}
+
+	/**
+	 * 回复中的文档数：游标命令取本批条数，findAndModify取value是否存在，写命令/count取n
+	 */
+	static long documentsIn(BsonDocument reply) {
+		if (reply == null) {
+			return 0;
+		}
+		if (reply.get("cursor") instanceof BsonDocument cursor) {
+			BsonValue batch = cursor.containsKey("firstBatch") ? cursor.get("firstBatch") : cursor.get("nextBatch");
+			return batch != null && batch.isArray() ? batch.asArray().size() : 0;
+		}
+		if (reply.containsKey("value")) {
+			return reply.get("value").isDocument() ? 1 : 0;
+		}
+		BsonValue n = reply.get("n");
+		return n != null && n.isNumber() ? n.asNumber().longValue() : 0;
+	}
+
+	/**
+	 * 回复文档的BSON字节数（即线上回复的消息体大小，不含消息头）
+	 */
+	static long sizeOf(BsonDocument reply) {
+		if (reply == null) {
+			return 0;
+		}
+		if (reply instanceof RawBsonDocument raw) {
+			return raw.getByteBuffer().remaining();
+		}
+		try (BasicOutputBuffer buffer = new BasicOutputBuffer()) {
+			CODEC.encode(new BsonBinaryWriter(buffer), reply, EncoderContext.builder().build());
+			return buffer.getPosition();
+		}
+	}
+
+	private static double millis(long nanos) {
+		return Math.round(nanos / 1_000.0) / 1_000.0;
+	}
+
+	/**
+	 * 单个「调用方方法 + 命令名」的统计
+	 */
+	private final class CommandStat {
+		private final String method;
+		private final String command;
+		// 记录端无锁，读取时取出区间直方图累加到cumulative
+		private final Recorder recorder = new Recorder(1_000, MAX_TRACKABLE_NANOS, 3);
+		private final Histogram cumulative = new Histogram(1_000, MAX_TRACKABLE_NANOS, 3);
+		private final LongAdder count = new LongAdder();
+		private final LongAdder failures = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAdder documents = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private final Timer timer;
+		private final DistributionSummary documentSummary;
+		private final DistributionSummary byteSummary;
+
+		CommandStat(String method, String command) {
+			this.method = method;
+			this.command = command;
+			this.timer = Timer.builder("mongo.command")
+					.description("Mongo命令耗时（按调用方方法）")
+					.tags("method", method, "command", command)
+					.publishPercentileHistogram()
+					.minimumExpectedValue(Duration.ofMillis(1))
+					.maximumExpectedValue(Duration.ofSeconds(10))
+					.register(meterRegistry);
+			this.documentSummary = DistributionSummary.builder("mongo.command.documents")
+					.description("Mongo命令返回的文档数")
+					.tags("method", method, "command", command)
+					.register(meterRegistry);
+			this.byteSummary = DistributionSummary.builder("mongo.command.reply.bytes")
+					.description("Mongo命令回复大小")
+					.baseUnit("bytes")
+					.tags("method", method, "command", command)
+					.register(meterRegistry);
+		}
+
+		void record(long nanos, long docs, long size, boolean failed) {
+			recorder.recordValue(Math.min(Math.max(nanos, 0), MAX_TRACKABLE_NANOS));
+			count.increment();
+			totalNanos.add(nanos);
+			documents.add(docs);
+			bytes.add(size);
+			if (failed) {
+				failures.increment();
+			}
+			timer.record(nanos, TimeUnit.NANOSECONDS);
+			documentSummary.record(docs);
+			byteSummary.record(size);
+		}
+
+		synchronized Map<String, Object> toMap() {
+			cumulative.add(recorder.getIntervalHistogram());
+			long n = Math.max(count.sum(), 1);
+			Map<String, Object> map = new LinkedHashMap<>();
+			map.put("method", method);
+			map.put("command", command);
+			map.put("count", count.sum());
+			map.put("failures", failures.sum());
+			map.put("totalMs", millis(totalNanos.sum()));
+			map.put("meanMs", millis(totalNanos.sum() / n));
+			map.put("p50Ms", millis(cumulative.getValueAtPercentile(50)));
+			map.put("p95Ms", millis(cumulative.getValueAtPercentile(95)));
+			map.put("p99Ms", millis(cumulative.getValueAtPercentile(99)));
+			map.put("maxMs", millis(cumulative.getMaxValue()));
+			map.put("documents", documents.sum());
+			map.put("avgDocuments", documents.sum() / n);
+			map.put("replyBytes", bytes.sum());
+			map.put("avgReplyBytes", bytes.sum() / n);
+			return map;
+		}
+	}
+
+	/**
+	 * 单个HTTP路由的命令数统计
+	 */
+	private final class RequestStat {
+		private final String route;
+		private final LongAdder requests = new LongAdder();
+		private final LongAdder commands = new LongAdder();
+		private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+		private final DistributionSummary summary;
+
+		RequestStat(String route) {
+			this.route = route;
+			this.summary = DistributionSummary.builder("http.server.requests.mongo.commands")
+					.description("单个HTTP请求执行的Mongo命令数")
+					.tag("route", route)
+					.register(meterRegistry);
+		}
+
+		void record(int n) {
+			requests.increment();
+			commands.add(n);
+			max.accumulate(n);
+			summary.record(n);
+		}
+
+		double meanCommands() {
+			long r = requests.sum();
+			return r == 0 ? 0 : (double) commands.sum() / r;
+		}
+
+		Map<String, Object> toMap() {
+			Map<String, Object> map = new LinkedHashMap<>();
+			map.put("route", route);
+			map.put("requests", requests.sum());
+			map.put("meanCommands", Math.round(meanCommands() * 10) / 10.0);
+			map.put("maxCommands", max.get());
+			return map;
+		}
+	}
+}
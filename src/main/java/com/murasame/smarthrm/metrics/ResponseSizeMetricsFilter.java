@@ -0,0 +1,183 @@
+package com.murasame.smarthrm.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 响应大小指标
+ * 统计写出的响应体字节数，按「请求方法 + 路由模板 + 状态码 + 结果」记录到http.server.response.size（分布由配置开启直方图/分位数），
+ * 与Actuator自带的http.server.requests（耗时、请求数、错误数）使用相同的uri/outcome取值规则，路由维度有界。
+ * 只包装输出流计数，不缓存响应体；异步响应（如流式导出）不参与再次分派，由AsyncListener在请求真正完成时记录。
+ * 处理中抛出的异常要到本过滤器之外的错误分派才写入状态码，此时响应状态仍为200，因此按异常记为500/SERVER_ERROR
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseSizeMetricsFilter extends OncePerRequestFilter {
+
+	private final MeterRegistry meterRegistry;
+	// 标签组合 → 指标，避免每个请求重新构建并查找注册表
+	private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		CountingResponse counting = new CountingResponse(response);
+		try {
+			chain.doFilter(request, counting);
+		} catch (Throwable e) {
+			counting.failed = true;
+			throw e;
+		} finally {
+			counting.flushWriter();
+			if (request.isAsyncStarted()) {
+				request.getAsyncContext().addListener(new AsyncListener() {
+					@Override
+					public void onComplete(AsyncEvent event) {
+						record(request, counting);
+					}
+
+					@Override
+					public void onTimeout(AsyncEvent event) {
+					}
+
+					@Override
+					public void onError(AsyncEvent event) {
+						counting.failed = true;
+					}
+
+					@Override
+					public void onStartAsync(AsyncEvent event) {
+					}
+				});
+			} else {
+				record(request, counting);
+			}
+		}
+	}
+
+	private void record(HttpServletRequest request, CountingResponse response) {
+		int status = response.status();
+		String method = request.getMethod();
+		String uri = uri(request, status);
+		String outcome = Outcome.forStatus(status).name();
+		summaries.computeIfAbsent(method + " " + uri + " " + status + " " + outcome,
+				key -> DistributionSummary.builder("http.server.response.size")
+						.description("HTTP响应体大小")
+						.baseUnit("bytes")
+						.tags("method", method, "uri", uri, "status", Integer.toString(status), "outcome", outcome)
+						.register(meterRegistry))
+				.record(response.bytes);
+	}
+
+	/**
+	 * 路由模板；未匹配到处理器时与http.server.requests一致归为NOT_FOUND/REDIRECTION/UNKNOWN
+	 */
+	static String uri(HttpServletRequest request, int status) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		if (pattern != null) {
+			return pattern.toString();
+		}
+		if (status == 404) {
+			return "NOT_FOUND";
+		}
+		return status >= 300 && status < 400 ? "REDIRECTION" : "UNKNOWN";
+	}
+
+	/**
+	 * 只计数不缓存的响应包装：输出流逐字节计数，Writer以响应编码写入同一计数流
+	 */
+	private static class CountingResponse extends HttpServletResponseWrapper {
+		private long bytes;
+		private volatile boolean failed;
+		private ServletOutputStream out;
+		private PrintWriter writer;
+
+		CountingResponse(HttpServletResponse response) {
+			super(response);
+		}
+
+		/**
+		 * 记录用的状态码：请求以异常结束而状态码尚未表示错误时记为500
+		 */
+		int status() {
+			int status = getStatus();
+			return failed && status < 400 ? 500 : status;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (out == null) {
+				ServletOutputStream target = super.getOutputStream();
+				out = new ServletOutputStream() {
+					@Override
+					public void write(int b) throws IOException {
+						target.write(b);
+						bytes++;
+					}
+
+					@Override
+					public void write(byte[] b, int off, int len) throws IOException {
+						target.write(b, off, len);
+						bytes += len;
+					}
+
+					@Override
+					public void flush() throws IOException {
+						target.flush();
+					}
+
+					@Override
+					public void close() throws IOException {
+						target.close();
+					}
+
+					@Override
+					public boolean isReady() {
+						return target.isReady();
+					}
+
+					@Override
+					public void setWriteListener(WriteListener listener) {
+						target.setWriteListener(listener);
+					}
+				};
+			}
+			return out;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (writer == null) {
+				writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+			}
+			return writer;
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			flushWriter();
+			super.flushBuffer();
+		}
+
+		void flushWriter() {
+			if (writer != null) {
+				writer.flush();
+			}
+		}
+	}
+}
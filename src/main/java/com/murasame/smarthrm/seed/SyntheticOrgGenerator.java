@@ -0,0 +1,325 @@
+package com.murasame.smarthrm.seed;
+
+import org.bson.Document;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * 合成组织数据生成器
+ * 按随机种子确定性地生成部门、员工、项目、任务、培训、技能六个集合的文档（字段与实体类映射一致），
+ * 并保证双向引用一致：
+ * Employee.depId ↔ Department.empList，Employee.projects ↔ Project.members，
+ * Employee.trainingList ↔ Training.members，Employee.tasks ↔ Task.managerId（负责人取自任务所属项目的成员）
+ *
+ * 技能按Zipf分布抽取（少数技能被大量员工掌握），熟练度同样按Zipf分布（级别越高越少见）。
+ * 关系先在内存中以int数组建立，再按集合分批交给Sink写入；任务逐批生成不整体驻留内存，
+ * 员工最后生成，以便带上全部反向引用
+ */
+public class SyntheticOrgGenerator {
+
+	/**
+	 * 生成规模与参数
+	 * @param zipfExponent 技能热度的Zipf指数，越大越集中
+	 * @param batchSize 每批文档数（即insertMany的批大小）
+	 */
+	public record Options(long seed, int departments, int employees, int projects, int tasks, int trainings,
+			int skills, double zipfExponent, int batchSize) {
+
+		public static Options defaults() {
+			return new Options(42L, 500, 200_000, 20_000, 1_000_000, 5_000, 200, 1.0, 5_000);
+		}
+
+		public Options {
+			if (departments <= 0 || employees <= 0 || projects <= 0 || skills <= 0 || batchSize <= 0) {
+				throw new IllegalArgumentException("部门、员工、项目、技能数量及批大小必须大于0");
+			}
+			if (tasks < 0 || trainings < 0) {
+				throw new IllegalArgumentException("任务、培训数量不能为负数");
+			}
+		}
+	}
+
+	/**
+	 * 文档输出：按集合名分批接收（同一集合的批次按ID递增顺序到达）
+	 */
+	public interface Sink {
+		void insert(String collection, List<Document> batch);
+	}
+
+	private static final String[] SKILL_KINDS = {"后端", "前端", "数据", "运维", "测试", "设计", "管理"};
+	private static final String SURNAMES = "王李张刘陈杨黄赵吴周徐孙马朱胡郭何高林罗郑梁谢宋唐许韩冯邓曹彭曾肖田董袁潘于蒋蔡余杜叶程苏魏吕丁任沈";
+	private static final String GIVEN = "伟芳娜秀英敏静丽强磊军洋勇艳杰娟涛明超秀兰霞平刚桂英华玉萍红娥玲芬燕彬斌宇浩凯瑶晨轩然欣怡梓涵子墨雨泽";
+	private static final LocalDateTime EPOCH = LocalDateTime.of(2018, 1, 1, 9, 0);
+	private static final int PROFICIENCY_LEVELS = 5;
+
+	// 各阶段使用独立的随机流，调整某个集合的规模不会改变其他集合的数据
+	private static final long DEPT_STREAM = 0x1D;
+	private static final long PROJECT_STREAM = 0x2B;
+	private static final long TRAINING_STREAM = 0x3C;
+	private static final long TASK_STREAM = 0x4E;
+	private static final long EMPLOYEE_STREAM = 0x5F;
+
+	private final Options options;
+
+	public SyntheticOrgGenerator(Options options) {
+		this.options = options;
+	}
+
+	/**
+	 * 生成全部集合并写入Sink
+	 * @return 集合名 → 生成的文档数（按写入顺序）
+	 */
+	public Map<String, Integer> generate(Sink sink) {
+		int employees = options.employees();
+		// 员工ID从1开始，数组下标即员工ID
+		int[] depOf = new int[employees + 1];
+		IntBag[] projectsOf = new IntBag[employees + 1];
+		IntBag[] trainingsOf = new IntBag[employees + 1];
+		IntBag[] tasksOf = new IntBag[employees + 1];
+		ZipfSampler skillSampler = new ZipfSampler(options.skills(), options.zipfExponent());
+
+		Map<String, Integer> counts = new LinkedHashMap<>();
+		counts.put("Skill", writeSkills(sink));
+		counts.put("Department", writeDepartments(sink, depOf));
+		int[][] members = new int[options.projects() + 1][];
+		counts.put("Project", writeProjects(sink, skillSampler, members, projectsOf));
+		counts.put("Training", writeTrainings(sink, skillSampler, trainingsOf));
+		counts.put("Task", writeTasks(sink, members, tasksOf));
+		counts.put("Employee", writeEmployees(sink, skillSampler, depOf, projectsOf, trainingsOf, tasksOf));
+		return counts;
+	}
+
+	private int writeSkills(Sink sink) {
+		Batcher batcher = new Batcher(sink, "Skill");
+		for (int id = 1; id <= options.skills(); id++) {
+			batcher.add(new Document("_id", id)
+					.append("skillName", "技能" + id)
+					.append("skillKind", SKILL_KINDS[id % SKILL_KINDS.length]));
+		}
+		return batcher.finish();
+	}
+
+	/**
+	 * 部门：员工均匀随机分配到部门，部门内最小的员工ID为负责人
+	 */
+	private int writeDepartments(Sink sink, int[] depOf) {
+		SplittableRandom random = new SplittableRandom(options.seed() ^ DEPT_STREAM);
+		IntBag[] empsOf = new IntBag[options.departments() + 1];
+		for (int empId = 1; empId < depOf.length; empId++) {
+			int depId = 1 + random.nextInt(options.departments());
+			depOf[empId] = depId;
+			bag(empsOf, depId).add(empId);
+		}
+		Batcher batcher = new Batcher(sink, "Department");
+		for (int depId = 1; depId <= options.departments(); depId++) {
+			IntBag emps = empsOf[depId];
+			List<Document> empList = new ArrayList<>(emps == null ? 0 : emps.size);
+			if (emps != null) {
+				for (int i = 0; i < emps.size; i++) {
+					empList.add(new Document("empId", emps.values[i]));
+				}
+			}
+			batcher.add(new Document("_id", depId)
+					.append("depName", "部门" + depId)
+					.append("managerId", emps == null ? null : emps.values[0])
+					.append("empList", empList));
+		}
+		return batcher.finish();
+	}
+
+	/**
+	 * 项目：每个项目5~30名成员、1~4项需求技能，约20%已归档
+	 */
+	private int writeProjects(Sink sink, ZipfSampler skillSampler, int[][] members, IntBag[] projectsOf) {
+		SplittableRandom random = new SplittableRandom(options.seed() ^ PROJECT_STREAM);
+		Batcher batcher = new Batcher(sink, "Project");
+		for (int projId = 1; projId <= options.projects(); projId++) {
+			int[] empIds = distinct(random, 5 + random.nextInt(26), options.employees());
+			members[projId] = empIds;
+			List<Document> memberDocs = new ArrayList<>(empIds.length);
+			for (int empId : empIds) {
+				memberDocs.add(new Document("empId", empId));
+				bag(projectsOf, empId).add(projId);
+			}
+			List<Document> reqSkill = new ArrayList<>();
+			for (int skillId : distinctSkills(random, skillSampler, 1 + random.nextInt(4))) {
+				reqSkill.add(new Document("skillId", skillId));
+			}
+			batcher.add(new Document("_id", projId)
+					.append("projName", "项目" + projId)
+					.append("members", memberDocs)
+					.append("reqSkill", reqSkill)
+					.append("projStatus", random.nextInt(5) == 0 ? 1 : 0)
+					.append("startDate", date(EPOCH.plusDays(random.nextInt(365 * 8)))));
+		}
+		return batcher.finish();
+	}
+
+	/**
+	 * 培训：每个培训针对一项技能，10~60名学员
+	 */
+	private int writeTrainings(Sink sink, ZipfSampler skillSampler, IntBag[] trainingsOf) {
+		SplittableRandom random = new SplittableRandom(options.seed() ^ TRAINING_STREAM);
+		Batcher batcher = new Batcher(sink, "Training");
+		for (int trainId = 1; trainId <= options.trainings(); trainId++) {
+			int[] empIds = distinct(random, 10 + random.nextInt(51), options.employees());
+			List<Integer> memberIds = new ArrayList<>(empIds.length);
+			for (int empId : empIds) {
+				memberIds.add(empId);
+				bag(trainingsOf, empId).add(trainId);
+			}
+			batcher.add(new Document("_id", trainId)
+					.append("trainName", "培训" + trainId)
+					.append("skillId", skillSampler.sample(random))
+					.append("members", memberIds));
+		}
+		return batcher.finish();
+	}
+
+	/**
+	 * 任务：随机归属一个项目，负责人为该项目的某名成员，约60%已完成
+	 */
+	private int writeTasks(Sink sink, int[][] members, IntBag[] tasksOf) {
+		SplittableRandom random = new SplittableRandom(options.seed() ^ TASK_STREAM);
+		Batcher batcher = new Batcher(sink, "Task");
+		for (int taskId = 1; taskId <= options.tasks(); taskId++) {
+			int projId = 1 + random.nextInt(options.projects());
+			int[] projectMembers = members[projId];
+			int managerId = projectMembers[random.nextInt(projectMembers.length)];
+			bag(tasksOf, managerId).add(taskId);
+			batcher.add(new Document("_id", taskId)
+					.append("projId", projId)
+					.append("taskName", "任务" + taskId)
+					.append("managerId", managerId)
+					.append("taskStatus", random.nextInt(5) < 3 ? 1 : 0));
+		}
+		return batcher.finish();
+	}
+
+	/**
+	 * 员工：3~12项技能（技能、熟练度均按Zipf分布），并带上部门、项目、培训、任务的反向引用
+	 */
+	private int writeEmployees(Sink sink, ZipfSampler skillSampler, int[] depOf,
+			IntBag[] projectsOf, IntBag[] trainingsOf, IntBag[] tasksOf) {
+		SplittableRandom random = new SplittableRandom(options.seed() ^ EMPLOYEE_STREAM);
+		ZipfSampler proficiencySampler = new ZipfSampler(PROFICIENCY_LEVELS, 1.0);
+		Batcher batcher = new Batcher(sink, "Employee");
+		for (int empId = 1; empId < depOf.length; empId++) {
+			List<Document> skillList = new ArrayList<>();
+			for (int skillId : distinctSkills(random, skillSampler, 3 + random.nextInt(10))) {
+				skillList.add(new Document("skillId", skillId).append("proficiency", proficiencySampler.sample(random)));
+			}
+			batcher.add(new Document("_id", empId)
+					.append("empName", name(random))
+					.append("depId", depOf[empId])
+					.append("skillList", skillList)
+					.append("projects", refs(projectsOf[empId], "projId"))
+					.append("joinDate", date(EPOCH.plusDays(random.nextInt(365 * 8))))
+					.append("trainingList", refs(trainingsOf[empId], "trainId"))
+					.append("tasks", refs(tasksOf[empId], "taskId")));
+		}
+		return batcher.finish();
+	}
+
+	private static String name(SplittableRandom random) {
+		StringBuilder name = new StringBuilder(3).append(SURNAMES.charAt(random.nextInt(SURNAMES.length())));
+		for (int i = 1 + random.nextInt(2); i > 0; i--) {
+			name.append(GIVEN.charAt(random.nextInt(GIVEN.length())));
+		}
+		return name.toString();
+	}
+
+	private static List<Document> refs(IntBag ids, String key) {
+		if (ids == null) {
+			return new ArrayList<>();
+		}
+		List<Document> refs = new ArrayList<>(ids.size);
+		for (int i = 0; i < ids.size; i++) {
+			refs.add(new Document(key, ids.values[i]));
+		}
+		return refs;
+	}
+
+	/**
+	 * 从[1, bound]中抽取count个不重复的ID（count不超过bound），按抽取顺序返回
+	 */
+	private static int[] distinct(SplittableRandom random, int count, int bound) {
+		count = Math.min(count, bound);
+		Set<Integer> ids = new LinkedHashSet<>();
+		while (ids.size() < count) {
+			ids.add(1 + random.nextInt(bound));
+		}
+		return ids.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private Set<Integer> distinctSkills(SplittableRandom random, ZipfSampler skillSampler, int count) {
+		count = Math.min(count, options.skills());
+		Set<Integer> skillIds = new LinkedHashSet<>();
+		while (skillIds.size() < count) {
+			skillIds.add(skillSampler.sample(random));
+		}
+		return skillIds;
+	}
+
+	// 与Spring Data对LocalDateTime的默认写入方式一致（按系统时区转为BSON Date）
+	private static Date date(LocalDateTime time) {
+		return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+	}
+
+	private static IntBag bag(IntBag[] bags, int index) {
+		IntBag bag = bags[index];
+		if (bag == null) {
+			bag = new IntBag();
+			bags[index] = bag;
+		}
+		return bag;
+	}
+
+	/**
+	 * 紧凑的int列表（关系表总量可达百万级，避免装箱）
+	 */
+	private static final class IntBag {
+		private int[] values = new int[4];
+		private int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+	}
+
+	/**
+	 * 按批大小攒批交给Sink
+	 */
+	private final class Batcher {
+		private final Sink sink;
+		private final String collection;
+		private List<Document> batch = new ArrayList<>(options.batchSize());
+		private int total;
+
+		Batcher(Sink sink, String collection) {
+			this.sink = sink;
+			this.collection = collection;
+		}
+
+		void add(Document doc) {
+			batch.add(doc);
+			total++;
+			if (batch.size() == options.batchSize()) {
+				sink.insert(collection, batch);
+				batch = new ArrayList<>(options.batchSize());
+			}
+		}
+
+		int finish() {
+			if (!batch.isEmpty()) {
+				sink.insert(collection, batch);
+			}
+			return total;
+		}
+	}
+}
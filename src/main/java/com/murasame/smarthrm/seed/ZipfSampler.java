@@ -0,0 +1,35 @@
+package com.murasame.smarthrm.seed;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipf分布抽样：返回[1, n]，取值k的概率正比于 1 / k^exponent
+ * 预先计算累积分布，抽样为一次二分查找（n为技能数/熟练度级数，规模很小）
+ */
+public final class ZipfSampler {
+
+	private final double[] cdf;
+
+	public ZipfSampler(int n, double exponent) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("Zipf取值个数必须大于0");
+		}
+		cdf = new double[n];
+		double sum = 0;
+		for (int k = 1; k <= n; k++) {
+			sum += 1.0 / Math.pow(k, exponent);
+			cdf[k - 1] = sum;
+		}
+		for (int i = 0; i < n; i++) {
+			cdf[i] /= sum;
+		}
+	}
+
+	public int sample(SplittableRandom random) {
+		int i = Arrays.binarySearch(cdf, random.nextDouble());
+		// 未命中时binarySearch返回 -(插入点) - 1
+		int index = i >= 0 ? i : -i - 1;
+		return Math.min(index, cdf.length - 1) + 1;
+	}
+}
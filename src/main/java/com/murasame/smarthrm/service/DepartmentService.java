@@ -1,5 +1,6 @@
 package com.murasame.smarthrm.service;
 //林2025.12.19
+import com.murasame.smarthrm.dto.CursorPage;
 import com.murasame.smarthrm.dto.DepartmentDTO;
 import com.murasame.smarthrm.entity.Department;
 import com.murasame.smarthrm.entity.Employee;
@@ -58,4 +59,14 @@ public interface DepartmentService {
      * @return 分页结果对象（封装DepartmentDTO，包含部门、负责人、员工简要信息）
      */
     Page<DepartmentDTO> listDepartments(String searchKey, int pageNum, int pageSize);
+
+    /**
+     * 部门游标分页查询（支持名称模糊匹配，按_id升序，不使用skip）
+     * @param searchKey 部门名称关键词（可为空，为空则查询所有部门）
+     * @param after 上一页返回的游标（为空则查询第一页）
+     * @param pageSize 每页展示条数
+     * @param withTotal 是否返回总数（无关键词时为估算值）
+     * @return 游标分页结果（封装DepartmentDTO、下一页游标、可选总数）
+     */
+    CursorPage<DepartmentDTO> listDepartmentsAfter(String searchKey, String after, int pageSize, boolean withTotal);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.murasame.smarthrm.service;
+
+import com.murasame.smarthrm.dto.ImportReportDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 员工批量导入业务层接口（Service）
+ * 流式读取CSV/NDJSON上传文件，按批次并行校验、批量写入员工及其部门/项目/任务/培训关联
+ */
+public interface EmployeeImportService {
+
+    /**
+     * 导入员工
+     * 列（CSV表头/NDJSON字段）：name, department, joinDate, skills（"1:4,2:5"）, projects, tasks, trainings（ID以逗号分隔）
+     * @param in 上传文件输入流（调用方负责关闭）
+     * @param format 文件格式（与导出格式一致）
+     * @return 导入结果（成功/失败行数、失败行原因、吞吐）
+     * @throws IllegalArgumentException 文件缺少必需的name列时
+     */
+    ImportReportDTO importEmployees(InputStream in, ExportService.Format format) throws IOException;
+}
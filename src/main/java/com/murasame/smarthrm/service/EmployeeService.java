@@ -1,6 +1,7 @@
 package com.murasame.smarthrm.service;
 //林 2025.12.19
 
+import com.murasame.smarthrm.dto.CursorPage;
 import com.murasame.smarthrm.dto.EmployeeDTO;
 import com.murasame.smarthrm.entity.Employee;
 import org.springframework.data.domain.Page;
@@ -67,4 +68,14 @@ public interface EmployeeService {
      * @return 分页结果对象（包含当前页员工数据、总条数、分页参数）
      */
     Page<Employee> listEmployeesWithPage(String empName, int pageNum, int pageSize);
+
+    /**
+     * 员工游标分页查询（按姓名模糊匹配，按_id升序，不使用skip）
+     * @param empName 员工姓名关键词（可为空，为空则查询所有员工）
+     * @param after 上一页返回的游标（为空则查询第一页）
+     * @param pageSize 每页展示条数
+     * @param withTotal 是否返回总数（无关键词时为估算值）
+     * @return 游标分页结果（当前页员工数据、下一页游标、可选总数）
+     */
+    CursorPage<Employee> listEmployeesAfter(String empName, String after, int pageSize, boolean withTotal);
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.murasame.smarthrm.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 数据导出业务层接口（Service）
+ * 以游标流式读取（不整体加载到内存）的方式导出员工、项目、任务数据，支持CSV与NDJSON两种格式
+ */
+public interface ExportService {
+
+    /**
+     * 导出格式
+     */
+    enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    /**
+     * 是否支持导出该实体
+     * @param entity 实体名（employees / projects / tasks）
+     */
+    boolean supports(String entity);
+
+    /**
+     * 校验并确定导出列
+     * @param entity 实体名
+     * @param fields 请求的列（为空则使用默认列）
+     * @return 实际导出的列（保持请求顺序）
+     * @throws IllegalArgumentException 包含不支持的列时
+     */
+    List<String> resolveColumns(String entity, List<String> fields);
+
+    /**
+     * 流式导出：按批次从数据库游标读取，逐行写入输出流
+     * @param entity 实体名
+     * @param columns 导出列（需先经resolveColumns校验）
+     * @param format 导出格式
+     * @param out 输出流（调用方负责关闭，可为gzip包装流）
+     * @return 导出行数
+     */
+    long export(String entity, List<String> columns, Format format, OutputStream out) throws IOException;
+}
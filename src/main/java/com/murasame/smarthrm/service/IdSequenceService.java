@@ -0,0 +1,29 @@
+package com.murasame.smarthrm.service;
+
+/**
+ * 自增ID序列服务接口
+ * 为员工/部门/项目/任务等集合分配全局唯一的自增主键，新增操作无需再扫描全表求最大ID
+ */
+public interface IdSequenceService {
+
+    // 序列名与业务集合名保持一致，初始化时按集合名读取现有最大ID
+    String EMPLOYEE = "Employee";
+    String DEPARTMENT = "Department";
+    String PROJECT = "Project";
+    String TASK = "Task";
+
+    /**
+     * 获取指定序列的下一个ID
+     * @param sequenceName 序列名（见本接口常量）
+     * @return 新的唯一ID
+     */
+    Integer nextId(String sequenceName);
+
+    /**
+     * 一次预留一段连续ID（单次数据库往返，不经过本节点号段），用于批量导入
+     * @param sequenceName 序列名（见本接口常量）
+     * @param count 预留数量（大于0）
+     * @return 预留号段的第一个ID，号段为 [返回值, 返回值 + count - 1]
+     */
+    int reserve(String sequenceName, int count);
+}
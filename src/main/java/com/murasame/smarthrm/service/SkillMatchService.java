@@ -1,11 +1,16 @@
 package com.murasame.smarthrm.service;
 
 import com.murasame.smarthrm.dto.SkillMatchDTO;
+import com.murasame.smarthrm.dto.SkillRankDTO;
 import com.murasame.smarthrm.entity.Employee;
 
 import java.util.List;
+import java.util.Map;
 
 public interface SkillMatchService {
 	// 按「技能:最小熟练度」字符串列表匹配员工
 	List<Employee> matchBySkills(List<SkillMatchDTO> reqs);
+
+	// 按技能条件对候选员工综合打分，返回得分最高的topK（允许部分匹配）；weights为 技能ID→权重，未指定的技能权重为1
+	List<SkillRankDTO> rankBySkills(List<SkillMatchDTO> reqs, Map<Integer, Double> weights, int topK);
 }
@@ -0,0 +1,54 @@
+package com.murasame.smarthrm.service.impl;
+
+import com.murasame.smarthrm.entity.Employee;
+
+import java.util.*;
+
+/**
+ * 员工跨部门迁移计划
+ * 把一次部门保存/更新涉及的员工变动整理为两组批量写：
+ * 1. byTargetDept：目标部门ID → 迁入员工（null表示移出后置空部门ID），对应Employee上的一次BulkOperations；
+ * 2. bySourceDept：原部门ID → 迁出员工，对应Department上的一次BulkOperations（$pull + 负责人置空）。
+ * 同一原部门迁出多人时只更新一次，不再逐人读取、改写原部门文档
+ */
+final class DepartmentMigrationPlan {
+
+	private final Map<Integer, List<Integer>> byTargetDept = new LinkedHashMap<>();
+	private final Map<Integer, List<Integer>> bySourceDept = new LinkedHashMap<>();
+
+	/**
+	 * 员工迁入目标部门；原部门与目标部门不同时记录为原部门的迁出
+	 */
+	DepartmentMigrationPlan moveInto(Integer targetDeptId, Collection<Employee> movers) {
+		for (Employee emp : movers) {
+			byTargetDept.computeIfAbsent(targetDeptId, k -> new ArrayList<>()).add(emp.get_id());
+			Integer sourceDeptId = emp.getDepId();
+			if (sourceDeptId != null && !sourceDeptId.equals(targetDeptId)) {
+				bySourceDept.computeIfAbsent(sourceDeptId, k -> new ArrayList<>()).add(emp.get_id());
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * 员工移出部门（部门ID置空），原部门的empList由调用方整体覆盖，无需$pull
+	 */
+	DepartmentMigrationPlan detach(Collection<Integer> empIds) {
+		if (!empIds.isEmpty()) {
+			byTargetDept.computeIfAbsent(null, k -> new ArrayList<>()).addAll(empIds);
+		}
+		return this;
+	}
+
+	Map<Integer, List<Integer>> byTargetDept() {
+		return byTargetDept;
+	}
+
+	Map<Integer, List<Integer>> bySourceDept() {
+		return bySourceDept;
+	}
+
+	boolean isEmpty() {
+		return byTargetDept.isEmpty();
+	}
+}
@@ -1,11 +1,15 @@
 package com.murasame.smarthrm.service.impl;
 //林2025.12.19
 
+import com.murasame.smarthrm.cache.JsonFragmentCache;
+import com.murasame.smarthrm.cache.SkillMatchResultCache;
 import com.murasame.smarthrm.dao.*;
+import com.murasame.smarthrm.dto.CursorPage;
 import com.murasame.smarthrm.dto.DepartmentDTO;
 import com.murasame.smarthrm.entity.Department;
 import com.murasame.smarthrm.entity.Employee;
 import com.murasame.smarthrm.service.DepartmentService;
+import com.murasame.smarthrm.service.IdSequenceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,9 +39,18 @@ public class DepartmentServiceImpl implements DepartmentService {
     // 注入员工数据访问层，处理员工关联查询、部门ID批量更新等操作
     @Autowired
     private EmployeeDao employeeDao;
-    // 注入MongoTemplate，辅助ID生成和数据库原生查询（备用）
+    // 注入MongoTemplate，数据库原生查询（备用）
     @Autowired
     private MongoTemplate mongoTemplate;
+    // 注入ID序列服务，原子生成部门自增ID
+    @Autowired
+    private IdSequenceService idSequenceService;
+    // 员工列表JSON片段缓存：片段含部门名称，部门及员工部门ID变更后整体失效
+    @Autowired
+    private JsonFragmentCache jsonFragmentCache;
+    // 技能匹配结果缓存：结果中的员工含部门ID，员工迁移后整体失效
+    @Autowired
+    private SkillMatchResultCache skillMatchResultCache;
 
     /**
      * 根据部门ID查询单个部门信息
@@ -73,10 +86,7 @@ public class DepartmentServiceImpl implements DepartmentService {
         }
 
         // 2. 提取部门关联的员工ID列表（过滤无效ID）
-        List<Integer> empIds = department.getEmpList().stream()
-                .map(empMap -> empMap.get("empId"))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<Integer> empIds = getEmpIdsFromList(department.getEmpList());
 
         // 3. 批量查询员工信息并返回
         return employeeDao.findByIds(empIds);
@@ -87,8 +97,8 @@ public class DepartmentServiceImpl implements DepartmentService {
      * 核心逻辑：
      * 1. 转换前端传递的empIds为部门empList格式；
      * 2. 生成自增部门ID（无ID时）；
-     * 3. 校验关联员工存在性，同步迁移员工至新部门（清理原部门关联）；
-     * 4. 校验负责人合法性，最终保存部门
+     * 3. 校验关联员工存在性、负责人合法性；
+     * 4. 同步迁移员工至新部门（清理原部门关联），最终保存部门
      * @param dept 待新增的部门实体（含名称、关联员工ID、负责人ID等）
      */
     @Override
@@ -96,12 +106,9 @@ public class DepartmentServiceImpl implements DepartmentService {
     public void saveDepartment(Department dept) {
         // 1. 转换empIds为empList格式（适配数据库存储结构）
         if (dept.getEmpIds() != null && !dept.getEmpIds().isEmpty()) {
-            List<Map<String, Integer>> empList = dept.getEmpIds().stream()
-                    .map(empId -> {
-                        Map<String, Integer> map = new HashMap<>();
-                        map.put("empId", empId);
-                        return map;
-                    })
+            List<Department.EmpRef> empList = dept.getEmpIds().stream()
+                    .filter(Objects::nonNull)
+                    .map(Department.EmpRef::new)
                     .collect(Collectors.toList());
             dept.setEmpList(empList);
         } else {
@@ -115,8 +122,9 @@ public class DepartmentServiceImpl implements DepartmentService {
             log.info("新增部门：生成自增ID = {}", newDeptId);
         }
 
-        // 3. 提取并校验关联员工，同步迁移员工至新部门
+        // 3. 提取并校验关联员工、负责人（全部校验在迁移员工之前，校验失败不留下已改部门的员工）
         List<Integer> newEmpIds = getEmpIdsFromList(dept.getEmpList());
+        DepartmentMigrationPlan plan = new DepartmentMigrationPlan();
         if (newEmpIds.isEmpty()) {
             log.warn("部门ID: {} 未关联任何员工，仍可保存", dept.getId());
         } else {
@@ -128,45 +136,18 @@ public class DepartmentServiceImpl implements DepartmentService {
                         .collect(Collectors.toList());
                 throw new RuntimeException("选中的员工ID: " + notExistEmps + " 不存在，请检查");
             }
-
-            // 同步迁移员工至新部门（清理原部门关联）
-            addedEmps.forEach(emp -> {
-                Integer oldDeptId = emp.getDepId(); // 员工原所属部门ID
-                Integer newDeptId = dept.getId();   // 新部门ID
-
-                // 3.1 更新员工的部门ID为新部门
-                employeeDao.updateDepId(emp.get_id(), newDeptId);
-                log.info("员工ID: {} - 从原部门ID: {} 迁移到新部门ID: {}", emp.get_id(), oldDeptId, newDeptId);
-
-                // 3.2 清理原部门关联（移除员工、置空原部门负责人）
-                if (oldDeptId != null) {
-                    Department oldDept = departmentDao.findById(oldDeptId);
-                    if (oldDept != null) {
-                        // 从原部门empList移除该员工
-                        List<Map<String, Integer>> oldEmpList = oldDept.getEmpList();
-                        if (oldEmpList != null) {
-                            oldEmpList.removeIf(empMap -> emp.get_id().equals(empMap.get("empId")));
-                            oldDept.setEmpList(oldEmpList);
-
-                            // 若该员工是原部门负责人，置空原部门负责人ID
-                            if (emp.get_id().equals(oldDept.getManagerId())) {
-                                oldDept.setManagerId(null);
-                                log.info("原部门ID: {} - 负责人（员工ID: {}）已迁移，负责人置空", oldDeptId, emp.get_id());
-                            }
-
-                            departmentDao.update(oldDept);
-                            log.info("原部门ID: {} - 已从员工列表中移除员工ID: {}", oldDeptId, emp.get_id());
-                        }
-                    } else {
-                        log.warn("员工ID: {} 的原部门ID: {} 不存在，无需清理", emp.get_id(), oldDeptId);
-                    }
-                }
-            });
+            plan.moveInto(dept.getId(), addedEmps);
         }
-
-        // 4. 校验负责人合法性，保存部门
         validateManagerInEmpList(dept.getManagerId(), newEmpIds, dept.getId());
-        departmentDao.save(dept);
+
+        // 4. 同步迁移员工至新部门（按原部门分组批量清理原部门关联），保存部门
+        try {
+            applyMigration(plan);
+            departmentDao.save(dept);
+        } finally {
+            // 迁移写入中途失败时已改部门的员工同样需要失效
+            invalidateEmployeeCaches();
+        }
         log.info("新增部门ID: {} 成功（部门名称：{}）", dept.getId(), dept.getDepName());
     }
 
@@ -175,8 +156,8 @@ public class DepartmentServiceImpl implements DepartmentService {
      * 核心逻辑：
      * 1. 转换empIds为empList格式；
      * 2. 校验部门存在性，提取新旧员工ID列表；
-     * 3. 处理移除员工（置空部门ID）、新增员工（同步迁移+清理原部门）；
-     * 4. 校验负责人合法性，最终更新部门
+     * 3. 计算移除员工（置空部门ID）、新增员工（同步迁移+清理原部门）；
+     * 4. 校验负责人合法性后执行迁移，最终更新部门
      * @param newDept 待更新的部门实体（含主键ID、新关联员工/负责人信息）
      */
     @Override
@@ -187,12 +168,9 @@ public class DepartmentServiceImpl implements DepartmentService {
 
         // 1. 转换empIds为empList格式（适配数据库存储结构）
         if (newDept.getEmpIds() != null && !newDept.getEmpIds().isEmpty()) {
-            List<Map<String, Integer>> empList = newDept.getEmpIds().stream()
-                    .map(empId -> {
-                        Map<String, Integer> map = new HashMap<>();
-                        map.put("empId", empId);
-                        return map;
-                    })
+            List<Department.EmpRef> empList = newDept.getEmpIds().stream()
+                    .filter(Objects::nonNull)
+                    .map(Department.EmpRef::new)
                     .collect(Collectors.toList());
             newDept.setEmpList(empList);
         } else {
@@ -215,9 +193,9 @@ public class DepartmentServiceImpl implements DepartmentService {
         List<Integer> removedEmpIds = oldEmpIds.stream()
                 .filter(empId -> !newEmpIds.contains(empId))
                 .collect(Collectors.toList());
+        DepartmentMigrationPlan plan = new DepartmentMigrationPlan().detach(removedEmpIds);
         if (!removedEmpIds.isEmpty()) {
-            removedEmpIds.forEach(empId -> employeeDao.updateDepId(empId, null));
-            log.info("部门ID: {} 已移除员工: {}，其部门ID已置空", deptId, removedEmpIds);
+            log.info("部门ID: {} 移除员工: {}，其部门ID将置空", deptId, removedEmpIds);
         }
 
         // 5. 处理新增的员工（同步迁移+清理原部门关联）
@@ -234,44 +212,18 @@ public class DepartmentServiceImpl implements DepartmentService {
                 throw new RuntimeException("新增员工ID: " + notExistEmps + " 不存在");
             }
 
-            // 同步迁移员工至当前部门（清理原部门关联）
-            addedEmps.forEach(emp -> {
-                Integer oldEmpDeptId = emp.getDepId(); // 员工原所属部门ID
-                Integer currentDeptId = deptId;        // 当前编辑的部门ID
-
-                // 5.1 更新员工的部门ID为当前部门
-                employeeDao.updateDepId(emp.get_id(), currentDeptId);
-                log.info("员工ID: {} - 从原部门ID: {} 迁移到新部门ID: {}", emp.get_id(), oldEmpDeptId, currentDeptId);
-
-                // 5.2 清理原部门关联（非当前部门时）
-                if (oldEmpDeptId != null && !oldEmpDeptId.equals(currentDeptId)) {
-                    Department oldEmpDept = departmentDao.findById(oldEmpDeptId);
-                    if (oldEmpDept != null) {
-                        // 从原部门empList移除该员工
-                        List<Map<String, Integer>> oldEmpDeptEmpList = oldEmpDept.getEmpList();
-                        if (oldEmpDeptEmpList != null) {
-                            oldEmpDeptEmpList.removeIf(empMap -> emp.get_id().equals(empMap.get("empId")));
-                            oldEmpDept.setEmpList(oldEmpDeptEmpList);
-
-                            // 若该员工是原部门负责人，置空原部门负责人ID
-                            if (emp.get_id().equals(oldEmpDept.getManagerId())) {
-                                oldEmpDept.setManagerId(null);
-                                log.info("原部门ID: {} - 负责人（员工ID: {}）已迁移，负责人置空", oldEmpDeptId, emp.get_id());
-                            }
-
-                            departmentDao.update(oldEmpDept);
-                            log.info("原部门ID: {} - 已从员工列表中移除员工ID: {}", oldEmpDeptId, emp.get_id());
-                        }
-                    } else {
-                        log.warn("员工ID: {} 的原部门ID: {} 不存在，无需清理", emp.get_id(), oldEmpDeptId);
-                    }
-                }
-            });
+            // 同步迁移员工至当前部门（按原部门分组批量清理原部门关联）
+            plan.moveInto(deptId, addedEmps);
         }
 
-        // 6. 校验负责人合法性，更新部门
+        // 6. 校验负责人合法性（在迁移员工之前），迁移并更新部门
         validateManagerInEmpList(newDept.getManagerId(), newEmpIds, deptId);
-        departmentDao.update(newDept);
+        try {
+            applyMigration(plan);
+            departmentDao.update(newDept);
+        } finally {
+            invalidateEmployeeCaches();
+        }
         log.info("部门ID: {} 更新完成", deptId);
     }
 
@@ -306,6 +258,7 @@ public class DepartmentServiceImpl implements DepartmentService {
 
         // 3. 最终删除部门
         departmentDao.delete(deptId);
+        invalidateEmployeeCaches();
         log.info("部门ID: {} 删除完成", deptId);
     }
 
@@ -332,58 +285,88 @@ public class DepartmentServiceImpl implements DepartmentService {
             deptPage = departmentDao.findByDepNameLikeWithPage(searchKey, pageNum, pageSize);
         }
 
-        // 2. 统一转换为DepartmentDTO（包含负责人、员工简要信息）
-        List<DepartmentDTO> dtoList = deptPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // 2. 统一转换为DepartmentDTO（包含负责人、员工简要信息），整页只查询一次员工姓名
+        List<DepartmentDTO> dtoList = convertToDTOs(deptPage.getContent());
 
         // 3. 封装分页结果返回
         return new PageImpl<>(dtoList, deptPage.getPageable(), deptPage.getTotalElements());
     }
 
+    /**
+     * 部门游标分页查询（支持名称模糊匹配）
+     * 按_id升序，以上一页最后一条的_id作为范围条件，不使用skip；总数可选，无关键词时为集合估算值
+     * @param searchKey 部门名称关键词（可为空）
+     * @param after 上一页返回的游标（为空则查询第一页）
+     * @param pageSize 页大小
+     * @param withTotal 是否返回总数
+     * @return 游标分页结果（含DTO列表、下一页游标、可选总数）
+     */
+    @Override
+    public CursorPage<DepartmentDTO> listDepartmentsAfter(String searchKey, String after, int pageSize, boolean withTotal) {
+        CursorPage.checkPageSize(pageSize);
+        Integer afterId = CursorPage.decode(after);
+        // 多取一条用于判断是否还有下一页
+        List<Department> fetched = departmentDao.findByDepNameLikeAfter(searchKey, afterId, pageSize + 1);
+        Long total = withTotal ? departmentDao.countByDepNameLike(searchKey) : null;
+        boolean estimated = withTotal && (searchKey == null || searchKey.trim().isEmpty());
+        return CursorPage.of(fetched, pageSize, Department::getId, total, estimated).map(this::convertToDTOs);
+    }
+
     // ==================== 私有工具方法 ====================
 
+    /**
+     * 执行员工迁移计划：员工部门ID一次批量更新，涉及的原部门一次批量$pull（负责人迁出时置空）
+     * 无论迁移多少员工、涉及多少原部门，固定最多两次数据库往返
+     * @param plan 迁移计划
+     */
+    private void applyMigration(DepartmentMigrationPlan plan) {
+        if (plan.isEmpty()) {
+            return;
+        }
+        employeeDao.bulkUpdateDepIds(plan.byTargetDept());
+        plan.byTargetDept().forEach((deptId, empIds) ->
+                log.info("员工ID: {} 迁移到部门ID: {}", empIds, deptId));
+        if (!plan.bySourceDept().isEmpty()) {
+            departmentDao.bulkPullEmployees(plan.bySourceDept());
+            plan.bySourceDept().forEach((deptId, empIds) ->
+                    log.info("原部门ID: {} - 已从员工列表中移除员工ID: {}（如为负责人则置空）", deptId, empIds));
+        }
+    }
+
     /**
      * 生成自增部门ID
-     * 逻辑：查询所有部门的最大ID，无数据时从1开始，有数据则最大ID+1
+     * 逻辑：从counters序列原子分配（号段预分配），无需查询全部部门
      * @return 新的部门自增ID
      */
     private Integer generateDeptId() {
-        log.info("开始生成部门自增ID");
-
-        // 1. 查询所有部门数据
-        List<Department> allDepts = departmentDao.findAll();
-        log.info("查询到所有部门数量：{}", allDepts.size());
-
-        // 2. 提取有效部门ID，计算最大值
-        Integer maxId = allDepts.stream()
-                .map(Department::getId)
-                .filter(Objects::nonNull)
-                .max(Integer::compareTo)
-                .orElse(null);
-
-        // 3. 生成新ID（无数据返回1，有数据返回maxId+1）
-        Integer newDeptId = (maxId == null) ? 1 : maxId + 1;
-        log.info("现有最大部门ID：{}，生成新ID：{}", maxId, newDeptId);
-
+        Integer newDeptId = idSequenceService.nextId(IdSequenceService.DEPARTMENT);
+        log.info("生成部门自增ID：{}", newDeptId);
         return newDeptId;
     }
 
     /**
      * 从部门empList中提取员工ID列表
-     * @param empList 部门关联的员工Map列表（格式：[{"empId": 1}, ...]）
+     * @param empList 部门关联的员工列表（库中格式：[{"empId": 1}, ...]）
      * @return 员工ID列表，空/无效时返回空列表
      */
-    private List<Integer> getEmpIdsFromList(List<Map<String, Integer>> empList) {
+    private List<Integer> getEmpIdsFromList(List<Department.EmpRef> empList) {
         if (empList == null || empList.isEmpty()) {
             return new ArrayList<>();
         }
         return empList.stream()
-                .map(empMap -> empMap.get("empId"))
-                .filter(empId -> empId != null)
+                .filter(Objects::nonNull)
+                .map(Department.EmpRef::empId)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 员工的部门ID/部门名称变化后失效员工列表片段与技能匹配结果（缓存无过期时间，漏掉失效会一直陈旧）
+     */
+    private void invalidateEmployeeCaches() {
+        jsonFragmentCache.invalidateAll(Employee.class);
+        skillMatchResultCache.invalidateAll();
+    }
+
     /**
      * 校验部门负责人合法性（必须是本部门员工）
      * @param managerId 负责人ID（可为空）
@@ -442,35 +425,57 @@ public class DepartmentServiceImpl implements DepartmentService {
     }
 
     /**
-     * 通用DTO转换方法（整合最优逻辑）
-     * @param dept 部门实体
-     * @return 转换后的DepartmentDTO（含负责人姓名、员工简要信息）
+     * 批量DTO转换方法
+     * 先汇总所有部门的负责人ID和员工ID，一次投影$in查询取回员工姓名，再逐个部门组装，
+     * 查询次数与部门数量无关（替代逐个部门查询负责人、员工列表）
+     * @param depts 部门实体列表
+     * @return 转换后的DepartmentDTO列表（含负责人姓名、员工简要信息），顺序与入参一致
      */
-    private DepartmentDTO convertToDTO(Department dept) {
-        DepartmentDTO dto = new DepartmentDTO();
-        dto.setId(dept.getId());
-        dto.setDepName(dept.getDepName());
-
-        // 1. 补充负责人姓名
-        if (dept.getManagerId() != null) {
-            Employee manager = employeeDao.findById(dept.getManagerId());
-            dto.setManagerName(manager != null ? manager.getEmpName() : "未设置");
-        } else {
-            dto.setManagerName("未设置");
+    private List<DepartmentDTO> convertToDTOs(List<Department> depts) {
+        // 1. 汇总负责人与员工ID
+        Map<Department, List<Integer>> memberIds = new IdentityHashMap<>();
+        Set<Integer> allEmpIds = new HashSet<>();
+        for (Department dept : depts) {
+            List<Integer> empIds = memberIdsOf(dept);
+            memberIds.put(dept, empIds);
+            allEmpIds.addAll(empIds);
+            if (dept.getManagerId() != null) {
+                allEmpIds.add(dept.getManagerId());
+            }
         }
 
-        // 2. 补充员工简要信息（优先用empIds，兼容getEmployeesByDeptId）
-        List<Integer> empIds = dept.getEmpIds() != null ? dept.getEmpIds() : new ArrayList<>();
-        List<Employee> empList = empIds.isEmpty() ? getEmployeesByDeptId(dept.getId()) : employeeDao.findByIds(empIds);
+        // 2. 单次查询所有相关员工姓名
+        Map<Integer, String> empNames = employeeDao.findEmpNamesByIds(allEmpIds);
+
+        // 3. 逐个部门组装DTO（不存在的员工不展示，负责人不存在时显示"未设置"）
+        return depts.stream().map(dept -> {
+            DepartmentDTO dto = new DepartmentDTO();
+            dto.setId(dept.getId());
+            dto.setDepName(dept.getDepName());
+            String managerName = dept.getManagerId() != null ? empNames.get(dept.getManagerId()) : null;
+            dto.setManagerName(managerName != null ? managerName : "未设置");
 
-        List<DepartmentDTO.EmpSimpleDTO> empSimpleList = empList.stream().map(emp -> {
-            DepartmentDTO.EmpSimpleDTO empSimple = new DepartmentDTO.EmpSimpleDTO();
-            empSimple.setId(emp.get_id());
-            empSimple.setEmpName(emp.getEmpName());
-            return empSimple;
+            List<DepartmentDTO.EmpSimpleDTO> empSimpleList = memberIds.get(dept).stream()
+                    .filter(empNames::containsKey)
+                    .map(empId -> {
+                        DepartmentDTO.EmpSimpleDTO empSimple = new DepartmentDTO.EmpSimpleDTO();
+                        empSimple.setId(empId);
+                        empSimple.setEmpName(empNames.get(empId));
+                        return empSimple;
+                    }).collect(Collectors.toList());
+            dto.setEmpList(empSimpleList);
+            return dto;
         }).collect(Collectors.toList());
-        dto.setEmpList(empSimpleList);
+    }
 
-        return dto;
+    /**
+     * 部门员工ID（优先用empIds，否则取empList，去重并保持顺序）
+     * @param dept 部门实体
+     * @return 员工ID列表
+     */
+    private List<Integer> memberIdsOf(Department dept) {
+        List<Integer> empIds = dept.getEmpIds() != null && !dept.getEmpIds().isEmpty()
+                ? dept.getEmpIds() : getEmpIdsFromList(dept.getEmpList());
+        return empIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
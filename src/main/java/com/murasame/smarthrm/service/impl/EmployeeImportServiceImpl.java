@@ -0,0 +1,504 @@
+package com.murasame.smarthrm.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.murasame.smarthrm.cache.ReferenceDataCache;
+import com.murasame.smarthrm.cache.SkillMatchResultCache;
+import com.murasame.smarthrm.dao.EmployeeDao;
+import com.murasame.smarthrm.dao.RelationshipDao;
+import com.murasame.smarthrm.dto.ImportReportDTO;
+import com.murasame.smarthrm.entity.*;
+import com.murasame.smarthrm.index.SkillIndex;
+import com.murasame.smarthrm.service.EmployeeImportService;
+import com.murasame.smarthrm.service.ExportService.Format;
+import com.murasame.smarthrm.service.IdSequenceService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 员工批量导入业务层实现类
+ * 核心逻辑：
+ * 1. 导入开始时从基础数据缓存取出部门/项目/任务/培训/技能的现有ID集合，逐行校验全部在内存中完成，不逐行查库；
+ * 2. 流式读取上传文件，每满1000行为一批：并行解析校验 → 一次预留整批所需的员工ID号段 → 无序BulkOperations批量插入员工，
+ *    再按部门/项目/培训/负责人分组，各用一次bulk写入反向关联（Department.empList、Project.members、Training.members、Task.managerId）；
+ * 3. 失败行记录行号与原因，不影响其他行；同一任务被多行认领时，只有第一行生效
+ */
+@Service
+@RequiredArgsConstructor
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeImportServiceImpl.class);
+
+    // 每批行数：一批对应一次ID预留和一组bulk写入
+    static final int BATCH_SIZE = 1000;
+    // 报告中最多列出的失败行数
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    // ID列表分隔符（CSV单元格内用逗号时需加引号，也可用分号/竖线/空格）
+    private static final Pattern ID_SEPARATOR = Pattern.compile("[,;|\\s]+");
+    private static final Pattern SKILL_ITEM = Pattern.compile("(\\d+):(\\d+)");
+    // 表头/字段别名 → 标准列名（兼容EmployeeDTO字段名和员工导出列名）
+    private static final Map<String, String> COLUMN_ALIASES = Map.ofEntries(
+            Map.entry("name", "name"), Map.entry("empname", "name"),
+            Map.entry("department", "department"), Map.entry("depid", "department"),
+            Map.entry("joindate", "joinDate"),
+            Map.entry("skills", "skills"), Map.entry("skilllist", "skills"),
+            Map.entry("projects", "projects"), Map.entry("newprojectids", "projects"),
+            Map.entry("tasks", "tasks"), Map.entry("newmanagertaskids", "tasks"),
+            Map.entry("trainings", "trainings"), Map.entry("newtrainingids", "trainings"));
+
+    private final EmployeeDao employeeDao;
+    private final RelationshipDao relationshipDao;
+    private final IdSequenceService idSequenceService;
+    private final ReferenceDataCache referenceDataCache;
+    private final SkillIndex skillIndex;
+    private final SkillMatchResultCache skillMatchResultCache;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public ImportReportDTO importEmployees(InputStream in, Format format) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        RowSource source = format == Format.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+
+        ReferenceIds refs = new ReferenceIds(
+                ids(referenceDataCache.departments().data(), Department::getId),
+                ids(referenceDataCache.projects().data(), Project::getId),
+                ids(referenceDataCache.tasks().data(), Task::get_id),
+                ids(referenceDataCache.trainings().data(), Training::get_id),
+                ids(referenceDataCache.skills().data(), Skill::get_id));
+        ImportReportDTO report = new ImportReportDTO();
+        // 任务ID → 本次导入中认领该任务的行号
+        Map<Integer, Long> claimedTasks = new HashMap<>();
+
+        List<RawRow> batch = new ArrayList<>(BATCH_SIZE);
+        RawRow row;
+        while ((row = source.next()) != null) {
+            batch.add(row);
+            if (batch.size() == BATCH_SIZE) {
+                importBatch(batch, refs, claimedTasks, report);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, refs, claimedTasks, report);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        report.setElapsedMs(elapsedNanos / 1_000_000);
+        report.setRowsPerSecond(elapsedNanos == 0 ? 0
+                : Math.round(report.getTotal() * 1e9 / elapsedNanos * 10) / 10.0);
+        log.info("员工导入完成：共 {} 行，成功 {} 行，失败 {} 行，{} 批，耗时 {} ms（{} 行/秒）", report.getTotal(),
+                report.getImported(), report.getFailed(), report.getBatches(), report.getElapsedMs(), report.getRowsPerSecond());
+        return report;
+    }
+
+    /**
+     * 导入一批：并行校验 → 顺序处理跨行冲突 → 预留ID → 批量写入员工及反向关联
+     */
+    private void importBatch(List<RawRow> rows, ReferenceIds refs, Map<Integer, Long> claimedTasks, ImportReportDTO report) {
+        report.setTotal(report.getTotal() + rows.size());
+
+        // 1. 并行解析校验（只读内存中的ID集合，不访问数据库）
+        List<ParsedRow> parsed = rows.parallelStream().map(raw -> parse(raw, refs)).collect(Collectors.toList());
+
+        // 2. 按行号顺序检查跨行冲突：同一任务只能由一名员工负责
+        List<ParsedRow> valid = new ArrayList<>(parsed.size());
+        for (ParsedRow p : parsed) {
+            String error = p.error() != null ? p.error() : taskConflict(p, claimedTasks);
+            if (error != null) {
+                report.setFailed(report.getFailed() + 1);
+                if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                    report.getErrors().add(new ImportReportDTO.RowError(p.row(), error));
+                } else {
+                    report.setErrorsTruncated(true);
+                }
+                continue;
+            }
+            p.taskIds().forEach(taskId -> claimedTasks.put(taskId, p.row()));
+            valid.add(p);
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // 3. 整批一次预留连续ID，并按关联对象分组
+        int firstId = idSequenceService.reserve(IdSequenceService.EMPLOYEE, valid.size());
+        List<Employee> employees = new ArrayList<>(valid.size());
+        Map<Integer, List<Integer>> empIdsByDepartment = new HashMap<>();
+        Map<Integer, List<Integer>> empIdsByProject = new HashMap<>();
+        Map<Integer, List<Integer>> empIdsByTraining = new HashMap<>();
+        Map<Integer, List<Integer>> taskIdsByManager = new HashMap<>();
+        for (int i = 0; i < valid.size(); i++) {
+            ParsedRow p = valid.get(i);
+            Integer empId = firstId + i;
+            Employee employee = p.employee();
+            employee.set_id(empId);
+            employees.add(employee);
+            if (employee.getDepId() != null) {
+                empIdsByDepartment.computeIfAbsent(employee.getDepId(), k -> new ArrayList<>()).add(empId);
+            }
+            p.projectIds().forEach(projId -> empIdsByProject.computeIfAbsent(projId, k -> new ArrayList<>()).add(empId));
+            p.trainingIds().forEach(trainId -> empIdsByTraining.computeIfAbsent(trainId, k -> new ArrayList<>()).add(empId));
+            if (!p.taskIds().isEmpty()) {
+                taskIdsByManager.put(empId, p.taskIds());
+            }
+        }
+
+        // 4. 批量写入：员工一次bulk插入，每类反向关联一次bulk
+        employeeDao.bulkInsert(employees);
+        relationshipDao.addDepartmentMembers(empIdsByDepartment);
+        relationshipDao.addProjectMembers(empIdsByProject);
+        relationshipDao.addTrainingMembers(empIdsByTraining);
+        relationshipDao.assignTasks(taskIdsByManager);
+        employees.forEach(emp -> skillIndex.put(emp.get_id(), emp.getSkillList()));
+        employees.forEach(emp -> skillMatchResultCache.invalidate(emp.getSkillList()));
+
+        report.setImported(report.getImported() + valid.size());
+        report.setBatches(report.getBatches() + 1);
+        log.debug("员工导入批次完成：{} 行，ID [{}, {}]", valid.size(), firstId, firstId + valid.size() - 1);
+    }
+
+    private String taskConflict(ParsedRow p, Map<Integer, Long> claimedTasks) {
+        for (Integer taskId : p.taskIds()) {
+            Long claimedBy = claimedTasks.get(taskId);
+            if (claimedBy != null) {
+                return "任务ID:" + taskId + " 已由第" + claimedBy + "行的员工负责";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 解析校验单行（与单条新增员工的校验规则一致），失败时返回带原因的结果
+     */
+    private ParsedRow parse(RawRow raw, ReferenceIds refs) {
+        if (raw.error() != null) {
+            return ParsedRow.failed(raw.row(), raw.error());
+        }
+        try {
+            Map<String, String> values = raw.values();
+            String name = values.get("name");
+            if (!StringUtils.hasText(name)) {
+                throw new IllegalArgumentException("员工姓名不能为空");
+            }
+            Employee employee = new Employee();
+            employee.setEmpName(name.trim());
+
+            String department = values.get("department");
+            if (StringUtils.hasText(department)) {
+                Integer depId = parseId(department.trim(), "部门ID");
+                if (!refs.departments().contains(depId)) {
+                    throw new IllegalArgumentException("部门ID:" + depId + " 不存在");
+                }
+                employee.setDepId(depId);
+            }
+
+            employee.setJoinDate(parseJoinDate(values.get("joinDate")));
+            employee.setSkillList(parseSkills(values.get("skills"), refs.skills()));
+
+            List<Integer> projectIds = parseIds(values.get("projects"), refs.projects(), "项目ID");
+            List<Integer> taskIds = parseIds(values.get("tasks"), refs.tasks(), "任务ID");
+            List<Integer> trainingIds = parseIds(values.get("trainings"), refs.trainings(), "培训ID");
+            employee.setProjects(projectIds.stream()
+                    .map(Employee.ProjectRef::new)
+                    .collect(Collectors.toList()));
+            // 与单条新增（bindTasks/bindTrainings）一致：员工侧同时记录负责的任务和参加的培训
+            employee.setTasks(taskIds.stream()
+                    .map(Employee.TaskRef::new)
+                    .collect(Collectors.toList()));
+            employee.setTrainingList(trainingIds.stream()
+                    .map(Employee.TrainingRef::new)
+                    .collect(Collectors.toList()));
+            return new ParsedRow(raw.row(), employee, projectIds, taskIds, trainingIds, null);
+        } catch (IllegalArgumentException e) {
+            return ParsedRow.failed(raw.row(), e.getMessage());
+        }
+    }
+
+    private static Integer parseId(String s, String label) {
+        try {
+            int id = Integer.parseInt(s);
+            if (id > 0) {
+                return id;
+            }
+        } catch (NumberFormatException ignored) {
+            // 统一在下方抛出
+        }
+        throw new IllegalArgumentException(label + "必须为正整数：" + s);
+    }
+
+    private static List<Integer> parseIds(String s, Set<Integer> existing, String label) {
+        if (!StringUtils.hasText(s)) {
+            return List.of();
+        }
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (String item : ID_SEPARATOR.split(s.trim())) {
+            Integer id = parseId(item, label);
+            if (!existing.contains(id)) {
+                throw new IllegalArgumentException(label + ":" + id + " 不存在");
+            }
+            ids.add(id);
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private static List<Employee.SkillLevel> parseSkills(String s, Set<Integer> existing) {
+        if (!StringUtils.hasText(s)) {
+            return new ArrayList<>();
+        }
+        // 同一技能出现多次时保留第一次
+        Map<Integer, Employee.SkillLevel> skills = new LinkedHashMap<>();
+        for (String item : ID_SEPARATOR.split(s.trim())) {
+            Matcher m = SKILL_ITEM.matcher(item);
+            if (!m.matches()) {
+                throw new IllegalArgumentException("技能格式错误：" + item + "，请按「技能ID:熟练度」格式输入（例：1:4）");
+            }
+            Integer skillId = parseId(m.group(1), "技能ID");
+            int proficiency = Integer.parseInt(m.group(2));
+            if (!existing.contains(skillId)) {
+                throw new IllegalArgumentException("技能ID:" + skillId + " 不存在");
+            }
+            if (proficiency < 1 || proficiency > 5) {
+                throw new IllegalArgumentException("技能ID:" + skillId + " 的熟练度需在1-5之间");
+            }
+            skills.putIfAbsent(skillId, new Employee.SkillLevel(skillId, proficiency));
+        }
+        return new ArrayList<>(skills.values());
+    }
+
+    /**
+     * 加入时间：为空取当前时间，支持yyyy-MM-dd及ISO日期时间（与导出格式一致）
+     */
+    private static LocalDateTime parseJoinDate(String s) {
+        if (!StringUtils.hasText(s)) {
+            return LocalDateTime.now();
+        }
+        String value = s.trim();
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("加入时间格式错误：" + value + "（应为yyyy-MM-dd）");
+        }
+    }
+
+    private static <T> Set<Integer> ids(List<T> entities, Function<T, Integer> idGetter) {
+        return entities.stream().map(idGetter).filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static String canonicalColumn(String name) {
+        return name == null ? null : COLUMN_ALIASES.get(name.trim().toLowerCase(Locale.ROOT));
+    }
+
+    // ==================== 数据结构 ====================
+
+    /**
+     * 导入开始时的现有ID快照（只读，供并行校验共享）
+     */
+    private record ReferenceIds(Set<Integer> departments, Set<Integer> projects, Set<Integer> tasks,
+                                Set<Integer> trainings, Set<Integer> skills) {
+    }
+
+    /**
+     * 读取到的原始行：行号 + 标准列名 → 单元格文本；error非空表示该行无法读取
+     */
+    private record RawRow(long row, Map<String, String> values, String error) {
+    }
+
+    /**
+     * 校验后的行：error为空时employee及各关联ID有效
+     */
+    private record ParsedRow(long row, Employee employee, List<Integer> projectIds, List<Integer> taskIds,
+                             List<Integer> trainingIds, String error) {
+        static ParsedRow failed(long row, String error) {
+            return new ParsedRow(row, null, List.of(), List.of(), List.of(), error);
+        }
+    }
+
+    // ==================== 文件读取 ====================
+
+    private interface RowSource {
+        /**
+         * @return 下一行，读完返回null
+         */
+        RawRow next() throws IOException;
+    }
+
+    /**
+     * CSV读取（RFC 4180：双引号包裹、""转义、单元格内可含逗号和换行），第一行为表头，行号为文件中的物理行号
+     */
+    private static class CsvRowSource implements RowSource {
+        private final BufferedReader reader;
+        private final List<String> columns = new ArrayList<>();
+        private long line = 1;
+        private boolean eof;
+
+        CsvRowSource(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                eof = true;
+                return;
+            }
+            for (String name : header) {
+                // 去掉Excel等工具写入的UTF-8 BOM
+                columns.add(canonicalColumn(name.replace("\uFEFF", "")));
+            }
+            if (!columns.contains("name")) {
+                throw new IllegalArgumentException("导入文件缺少name列（表头：" + header + "）");
+            }
+        }
+
+        @Override
+        public RawRow next() throws IOException {
+            while (!eof) {
+                long row = line;
+                List<String> record;
+                try {
+                    record = readRecord();
+                } catch (IllegalStateException e) {
+                    eof = true;
+                    return new RawRow(row, Map.of(), e.getMessage());
+                }
+                if (record == null) {
+                    eof = true;
+                    return null;
+                }
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue; // 空行
+                }
+                if (record.size() != columns.size()) {
+                    return new RawRow(row, Map.of(), "列数（" + record.size() + "）与表头列数（" + columns.size() + "）不一致");
+                }
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    if (columns.get(i) != null) {
+                        values.put(columns.get(i), record.get(i));
+                    }
+                }
+                return new RawRow(row, values, null);
+            }
+            return null;
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalStateException("引号未闭合");
+                    }
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+    }
+
+    /**
+     * NDJSON读取：每行一个JSON对象；数组字段按逗号拼接，技能对象数组转为「技能ID:熟练度」
+     */
+    private class NdjsonRowSource implements RowSource {
+        private final BufferedReader reader;
+        private long line;
+
+        NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public RawRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (line == 1 && text.startsWith("\uFEFF")) {
+                    text = text.substring(1);
+                }
+                if (text.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(text);
+                } catch (JsonProcessingException e) {
+                    return new RawRow(line, Map.of(), "JSON格式错误：" + e.getOriginalMessage());
+                }
+                if (!node.isObject()) {
+                    return new RawRow(line, Map.of(), "每行必须是一个JSON对象");
+                }
+                Map<String, String> values = new HashMap<>();
+                node.properties().forEach(e -> {
+                    String column = canonicalColumn(e.getKey());
+                    if (column != null && !e.getValue().isNull()) {
+                        values.put(column, cellText(e.getValue()));
+                    }
+                });
+                return new RawRow(line, values, null);
+            }
+            return null;
+        }
+
+        private String cellText(JsonNode value) {
+            if (!value.isArray()) {
+                return value.asText();
+            }
+            List<String> items = new ArrayList<>();
+            for (JsonNode item : value) {
+                items.add(item.has("skillId")
+                        ? item.path("skillId").asText() + ":" + item.path("proficiency").asText()
+                        : item.asText());
+            }
+            return String.join(",", items);
+        }
+    }
+}
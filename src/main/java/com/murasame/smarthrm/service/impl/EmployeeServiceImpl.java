@@ -1,9 +1,14 @@
 package com.murasame.smarthrm.service.impl;
 //林1224
+import com.murasame.smarthrm.cache.JsonFragmentCache;
+import com.murasame.smarthrm.cache.SkillMatchResultCache;
 import com.murasame.smarthrm.dao.*;
+import com.murasame.smarthrm.dto.CursorPage;
 import com.murasame.smarthrm.dto.EmployeeDTO;
 import com.murasame.smarthrm.entity.*;
+import com.murasame.smarthrm.index.SkillIndex;
 import com.murasame.smarthrm.service.EmployeeService;
+import com.murasame.smarthrm.service.IdSequenceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,15 +29,17 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Autowired
     private EmployeeDao employeeDao;
     @Autowired
-    private DepartmentDao departmentDao;
+    private RelationshipDao relationshipDao;
     @Autowired
-    private ProjectDao projectDao;
+    private SkillDao skillDao;
     @Autowired
-    private TaskDao taskDao;
+    private IdSequenceService idSequenceService;
     @Autowired
-    private TrainingDao trainingDao;
+    private SkillIndex skillIndex;
     @Autowired
-    private SkillDao skillDao;
+    private JsonFragmentCache jsonFragmentCache;
+    @Autowired
+    private SkillMatchResultCache skillMatchResultCache;
 
     // ========== 原有方法不变 ==========
     @Override
@@ -53,11 +60,19 @@ public class EmployeeServiceImpl implements EmployeeService {
     // ========== 核心修改：新增员工时绑定任务关联 ==========
     @Override
     public void saveEmployee(Employee employee, EmployeeDTO dto) {
+        updateEmployeeSkills(employee, dto);
+        // 关联ID全部校验通过后才开始写入：未配置Mongo事务，中途失败会留下已写入的部门/项目成员关系
+        if (employee.getDepId() != null && !relationshipDao.findMissingIds(Department.class, List.of(employee.getDepId())).isEmpty()) {
+            throw new RuntimeException("部门ID:" + employee.getDepId() + " 不存在，无法关联");
+        }
+        requireExisting(Project.class, idsOf(dto.getNewProjectIds()), "项目ID");
+        requireExisting(Task.class, idsOf(dto.getNewManagerTaskIds()), "任务ID");
+        requireExisting(Training.class, idsOf(dto.getNewTrainingIds()), "培训ID");
+
         Integer newEmpId = generateEmpId();
         employee.set_id(newEmpId);
         log.info("开始新增员工：生成自增ID = {}，员工姓名 = {}", newEmpId, employee.getEmpName());
 
-        updateEmployeeSkills(employee, dto);
         bindDepartment(employee);
         bindProjects(employee.get_id(), dto, employee);
         // 新增：绑定任务关联
@@ -65,6 +80,9 @@ public class EmployeeServiceImpl implements EmployeeService {
         bindTrainings(employee.get_id(), dto, employee);
 
         employeeDao.update(employee);
+        skillIndex.put(newEmpId, employee.getSkillList());
+        jsonFragmentCache.invalidate(Employee.class, newEmpId);
+        skillMatchResultCache.invalidate(employee.getSkillList());
         log.info("员工ID: {} 新增成功（含所有关联关系）", newEmpId);
     }
 
@@ -78,13 +96,30 @@ public class EmployeeServiceImpl implements EmployeeService {
         }
 
         updateEmployeeSkills(newEmployee, dto);
+        // 先读取旧关联并校验全部新增ID，再开始写入：未配置Mongo事务，任一校验失败都不能留下部分变更
+        Integer newDepId = newEmployee.getDepId();
+        if (newDepId != null && !equals(oldEmployee.getDepId(), newDepId)) {
+            requireExisting(Department.class, List.of(newDepId), "新部门ID");
+        }
+        List<Integer> oldProjectIds = relationshipDao.findProjectIdsByMember(empId);
+        List<Integer> oldTaskIds = relationshipDao.findTaskIdsByManager(empId);
+        List<Integer> oldTrainingIds = relationshipDao.findTrainingIdsByMember(empId);
+        requireExisting(Project.class, diff(idsOf(dto.getNewProjectIds()), oldProjectIds), "项目ID");
+        requireExisting(Task.class, diff(idsOf(dto.getNewManagerTaskIds()), oldTaskIds), "任务ID");
+        requireExisting(Training.class, diff(idsOf(dto.getNewTrainingIds()), oldTrainingIds), "培训ID");
+
         handleDepartmentChange(oldEmployee, newEmployee);
-        handleProjectChange(empId, dto, newEmployee);
+        handleProjectChange(empId, oldProjectIds, dto, newEmployee);
         // 新增：处理任务关联变更
-        handleTaskChange(empId, dto, newEmployee);
-        handleTrainingChange(empId, dto, newEmployee);
+        handleTaskChange(empId, oldTaskIds, dto, newEmployee);
+        handleTrainingChange(empId, oldTrainingIds, dto, newEmployee);
 
         employeeDao.update(newEmployee);
+        skillIndex.put(empId, newEmployee.getSkillList());
+        jsonFragmentCache.invalidate(Employee.class, empId);
+        // 新旧技能涉及的匹配结果均可能变化（技能增删、熟练度变化或员工信息变化）
+        skillMatchResultCache.invalidate(oldEmployee.getSkillList());
+        skillMatchResultCache.invalidate(newEmployee.getSkillList());
     }
 
     // ========== 核心修改：删除员工时调用任务关联清理 ==========
@@ -102,6 +137,9 @@ public class EmployeeServiceImpl implements EmployeeService {
         handleTrainingDelete(empId);
 
         employeeDao.deleteById(empId);
+        skillIndex.remove(empId);
+        jsonFragmentCache.invalidate(Employee.class, empId);
+        skillMatchResultCache.invalidate(employee.getSkillList());
     }
 
     @Override
@@ -118,9 +156,19 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employeeDao.findByEmpNameLikeWithPage(empName, pageNum, pageSize);
     }
 
+    @Override
+    public CursorPage<Employee> listEmployeesAfter(String empName, String after, int pageSize, boolean withTotal) {
+        CursorPage.checkPageSize(pageSize);
+        Integer afterId = CursorPage.decode(after);
+        // 多取一条用于判断是否还有下一页
+        List<Employee> fetched = employeeDao.findByEmpNameLikeAfter(empName, afterId, pageSize + 1);
+        Long total = withTotal ? employeeDao.countByEmpNameLike(empName) : null;
+        return CursorPage.of(fetched, pageSize, Employee::get_id, total, withTotal && !StringUtils.hasText(empName));
+    }
+
     // ========== 原有私有方法不变（技能/部门/项目/培训） ==========
     private void updateEmployeeSkills(Employee newEmployee, EmployeeDTO dto) {
-        List<Map<String, Integer>> updatedSkillList = new ArrayList<>();
+        List<Employee.SkillLevel> updatedSkillList = new ArrayList<>();
         String skillsStr = dto.getSkills();
 
         if (skillsStr != null && !skillsStr.trim().isEmpty()) {
@@ -145,15 +193,12 @@ public class EmployeeServiceImpl implements EmployeeService {
                     throw new RuntimeException("技能「" + existSkill.getSkillName() + "」（ID:" + skillId + "）的熟练度需在1-5之间，无需技能可留空");
                 }
 
-                Map<String, Integer> skillMap = new HashMap<>();
-                skillMap.put("skillId", skillId);
-                skillMap.put("proficiency", proficiency);
-                updatedSkillList.add(skillMap);
+                updatedSkillList.add(new Employee.SkillLevel(skillId, proficiency));
             }
 
-            List<Map<String, Integer>> distinctSkillList = updatedSkillList.stream()
+            List<Employee.SkillLevel> distinctSkillList = updatedSkillList.stream()
                     .collect(Collectors.toMap(
-                            skill -> skill.get("skillId"),
+                            Employee.SkillLevel::skillId,
                             skill -> skill,
                             (oldVal, newVal) -> oldVal
                     ))
@@ -173,124 +218,43 @@ public class EmployeeServiceImpl implements EmployeeService {
 
         if (!equals(oldDepId, newDepId)) {
             if (oldDepId != null) {
-                Department oldDept = departmentDao.findById(oldDepId);
-                if (oldDept != null && oldDept.getEmpList() != null) {
-                    oldDept.getEmpList().removeIf(empMap -> oldEmp.get_id().equals(empMap.get("empId")));
-                    if (oldEmp.get_id().equals(oldDept.getManagerId())) {
-                        oldDept.setManagerId(null);
-                    }
-                    departmentDao.update(oldDept);
-                }
+                relationshipDao.removeDepartmentMember(oldDepId, oldEmp.get_id());
             }
-
             if (newDepId != null) {
-                Department newDept = departmentDao.findById(newDepId);
-                if (newDept == null) {
-                    throw new RuntimeException("新部门ID:" + newDepId + " 不存在");
-                }
-                if (newDept.getEmpList() == null) {
-                    newDept.setEmpList(new ArrayList<>());
-                }
-                boolean exists = newDept.getEmpList().stream()
-                        .anyMatch(empMap -> newEmp.get_id().equals(empMap.get("empId")));
-                if (!exists) {
-                    newDept.getEmpList().add(Map.of("empId", newEmp.get_id()));
-                    departmentDao.update(newDept);
-                }
+                relationshipDao.addDepartmentMember(newDepId, newEmp.get_id());
             }
+            log.info("员工ID: {} - 部门从ID: {} 变更为ID: {}", newEmp.get_id(), oldDepId, newDepId);
         }
     }
 
-    private void handleProjectChange(Integer empId, EmployeeDTO dto, Employee newEmployee) {
-        List<Integer> oldProjectIds = getOldProjectIds(empId);
-        List<Integer> newProjectIds = dto.getNewProjectIds() == null ? new ArrayList<>() : dto.getNewProjectIds();
-
-        for (Integer projId : oldProjectIds) {
-            if (!newProjectIds.contains(projId)) {
-                Project project = getValidProject(projId);
-                if (project.getMembers() == null) {
-                    continue;
-                }
-                boolean removed = project.getMembers().removeIf(member -> empId.equals(member.getEmpId()));
-                if (removed) {
-                    projectDao.update(project);
-                }
-            }
-        }
+    private void handleProjectChange(Integer empId, List<Integer> oldProjectIds, EmployeeDTO dto, Employee newEmployee) {
+        List<Integer> newProjectIds = idsOf(dto.getNewProjectIds());
 
-        for (Integer projId : newProjectIds) {
-            if (!oldProjectIds.contains(projId)) {
-                Project project = getValidProject(projId);
-                if (project.getMembers() == null) {
-                    project.setMembers(new ArrayList<>());
-                }
-                boolean alreadyInProject = project.getMembers().stream()
-                        .anyMatch(member -> empId.equals(member.getEmpId()));
-                if (!alreadyInProject) {
-                    Project.Member member = new Project.Member();
-                    member.setEmpId(empId);
-                    project.getMembers().add(member);
-                    projectDao.update(project);
-                }
-            }
-        }
+        List<Integer> removedIds = diff(oldProjectIds, newProjectIds);
+        List<Integer> addedIds = diff(newProjectIds, oldProjectIds);
+        relationshipDao.removeProjectMember(removedIds, empId);
+        relationshipDao.addProjectMember(addedIds, empId);
+        log.info("员工ID: {} - 退出项目: {}，加入项目: {}", empId, removedIds, addedIds);
 
-        List<Map<String, Integer>> employeeProjects = newProjectIds.stream()
-                .map(projId -> Map.of("projId", projId))
+        List<Employee.ProjectRef> employeeProjects = newProjectIds.stream()
+                .map(Employee.ProjectRef::new)
                 .collect(Collectors.toList());
         newEmployee.setProjects(employeeProjects);
     }
 
-    private void handleTrainingChange(Integer empId, EmployeeDTO dto, Employee newEmployee) {
-        List<Integer> oldTrainingIds = getOldTrainingIds(empId);
-        List<Integer> newTrainingIds = dto.getNewTrainingIds() == null ? new ArrayList<>() : dto.getNewTrainingIds();
+    private void handleTrainingChange(Integer empId, List<Integer> oldTrainingIds, EmployeeDTO dto, Employee newEmployee) {
+        List<Integer> newTrainingIds = idsOf(dto.getNewTrainingIds());
 
         log.info("员工ID: {} - 旧培训ID列表: {}", empId, oldTrainingIds);
         log.info("员工ID: {} - 新培训ID列表: {}", empId, newTrainingIds);
 
-        for (Integer trainId : oldTrainingIds) {
-            if (!newTrainingIds.contains(trainId)) {
-                Training training = getValidTraining(trainId);
-                log.info("培训ID: {} - 从数据库读取的memberList: {}", trainId, training.getMembers());
-
-                if (training.getMembers() == null) {
-                    training.setMembers(new ArrayList<>());
-                    log.info("培训ID: {} - 数据库memberList为null，初始化空列表", trainId);
-                    continue;
-                }
-
-                boolean removed = training.getMembers().removeIf(memberId -> empId.equals(memberId));
-                if (removed) {
-                    trainingDao.update(training);
-                    log.info("培训ID: {} - 成功从memberList删除员工ID: {}", trainId, empId);
-                } else {
-                    log.info("培训ID: {} - memberList中无员工ID: {}，无需删除", trainId, empId);
-                }
-            }
-        }
-
-        for (Integer trainId : newTrainingIds) {
-            if (!oldTrainingIds.contains(trainId)) {
-                Training training = getValidTraining(trainId);
-                if (training.getMembers() == null) {
-                    training.setMembers(new ArrayList<>());
-                    log.info("培训ID: {} - 数据库memberList为null，初始化空列表", trainId);
-                }
-
-                boolean alreadyInTraining = training.getMembers().stream()
-                        .anyMatch(memberId -> empId.equals(memberId));
-                if (!alreadyInTraining) {
-                    training.getMembers().add(empId);
-                    trainingDao.update(training);
-                    log.info("培训ID: {} - 成功向memberList添加员工ID: {}", trainId, empId);
-                } else {
-                    log.info("培训ID: {} - 员工ID: {} 已在memberList中，无需重复添加", trainId, empId);
-                }
-            }
-        }
+        List<Integer> removedIds = diff(oldTrainingIds, newTrainingIds);
+        List<Integer> addedIds = diff(newTrainingIds, oldTrainingIds);
+        relationshipDao.removeTrainingMember(removedIds, empId);
+        relationshipDao.addTrainingMember(addedIds, empId);
 
-        List<Map<String, Integer>> employeeTrainings = newTrainingIds.stream()
-                .map(trainId -> Map.of("trainId", trainId))
+        List<Employee.TrainingRef> employeeTrainings = newTrainingIds.stream()
+                .map(Employee.TrainingRef::new)
                 .collect(Collectors.toList());
         newEmployee.setTrainingList(employeeTrainings);
         log.info("员工ID: {} - 最终关联的培训列表: {}", empId, employeeTrainings);
@@ -298,105 +262,29 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     private void handleDeptDelete(Integer empId, Integer depId) {
         if (depId != null) {
-            Department department = departmentDao.findById(depId);
-            if (department != null) {
-                if (department.getEmpList() != null) {
-                    department.getEmpList().removeIf(empMap -> empId.equals(empMap.get("empId")));
-                }
-                if (empId.equals(department.getManagerId())) {
-                    department.setManagerId(null);
-                }
-                departmentDao.update(department);
-            }
+            relationshipDao.removeDepartmentMember(depId, empId);
         }
     }
 
     private void handleProjectDelete(Integer empId) {
-        log.info("开始处理员工ID: {} 的项目关联删除", empId);
-
-        List<Project> projects = projectDao.findByMemberEmpId(empId);
-        if (projects.isEmpty()) {
-            log.info("员工ID: {} 未关联任何项目，无需删除项目成员", empId);
-            return;
-        }
-
-        for (Project project : projects) {
-            Integer projId = project.getId();
-            if (project.getMembers() == null) {
-                project.setMembers(new ArrayList<>());
-                log.info("项目ID: {} - members为null，初始化空列表", projId);
-                continue;
-            }
-
-            boolean removed = project.getMembers().removeIf(member -> empId.equals(member.getEmpId()));
-            if (removed) {
-                projectDao.update(project);
-                log.info("项目ID: {} - 成功从members中移除员工ID: {}", projId, empId);
-            } else {
-                log.info("项目ID: {} - members中无员工ID: {}，无需删除", projId, empId);
-            }
-        }
-
+        relationshipDao.removeProjectMember(null, empId);
         log.info("员工ID: {} 的项目关联删除处理完成", empId);
     }
 
     // ========== 原有方法：任务删除清理（已存在，补充调用） ==========
     private void handleTaskDelete(Integer empId) {
-        log.info("开始处理员工ID: {} 的任务关联删除", empId);
-        List<Task> tasks = taskDao.findByManagerId(empId);
-        if (tasks.isEmpty()) {
-            log.info("员工ID: {} 未负责任何任务，无需清理任务负责人", empId);
-            return;
-        }
-        for (Task task : tasks) {
-            task.setManagerId(null);
-            taskDao.update(task);
-            log.info("任务ID: {}（{}）- 成功置空负责人（员工ID: {}）", task.get_id(), task.getTaskName(), empId);
-        }
+        relationshipDao.releaseTasks(null, empId);
         log.info("员工ID: {} 的任务关联删除处理完成", empId);
     }
 
     private void handleTrainingDelete(Integer empId) {
-        log.info("开始处理员工ID: {} 的培训关联删除", empId);
-
-        List<Training> trainings = trainingDao.findByMemberEmpId(empId);
-        if (trainings.isEmpty()) {
-            log.info("员工ID: {} 未关联任何培训，无需删除培训成员", empId);
-            return;
-        }
-
-        for (Training training : trainings) {
-            Integer trainId = training.get_id();
-            String trainName = training.getTrainName();
-
-            if (training.getMembers() == null) {
-                training.setMembers(new ArrayList<>());
-                log.info("培训ID: {}（{}）- memberList为null，初始化空列表", trainId, trainName);
-                continue;
-            }
-
-            boolean removed = training.getMembers().removeIf(memberId -> empId.equals(memberId));
-            if (removed) {
-                trainingDao.update(training);
-                log.info("培训ID: {}（{}）- 成功从memberList移除员工ID: {}", trainId, trainName, empId);
-            } else {
-                log.info("培训ID: {}（{}）- memberList中无员工ID: {}，无需删除", trainId, trainName, empId);
-            }
-        }
-
+        relationshipDao.removeTrainingMember(null, empId);
         log.info("员工ID: {} 的培训关联删除处理完成", empId);
     }
 
     private Integer generateEmpId() {
-        log.info("开始生成员工自增ID");
-        List<Employee> allEmps = employeeDao.findAll();
-        Integer maxId = allEmps.stream()
-                .map(Employee::get_id)
-                .filter(Objects::nonNull)
-                .max(Integer::compareTo)
-                .orElse(null);
-        Integer newEmpId = (maxId == null) ? 1 : maxId + 1;
-        log.info("现有最大员工ID：{}，生成新ID：{}", maxId, newEmpId);
+        Integer newEmpId = idSequenceService.nextId(IdSequenceService.EMPLOYEE);
+        log.info("生成员工自增ID：{}", newEmpId);
         return newEmpId;
     }
 
@@ -406,20 +294,8 @@ public class EmployeeServiceImpl implements EmployeeService {
             log.warn("员工ID: {} 未选择所属部门，跳过部门关联", employee.get_id());
             return;
         }
-        Department dept = departmentDao.findById(depId);
-        if (dept == null) {
-            throw new RuntimeException("部门ID:" + depId + " 不存在，无法关联");
-        }
-        if (dept.getEmpList() == null) {
-            dept.setEmpList(new ArrayList<>());
-        }
-        boolean exists = dept.getEmpList().stream()
-                .anyMatch(empMap -> employee.get_id().equals(empMap.get("empId")));
-        if (!exists) {
-            dept.getEmpList().add(Map.of("empId", employee.get_id()));
-            departmentDao.update(dept);
-            log.info("员工ID: {} 已关联到部门ID: {}", employee.get_id(), depId);
-        }
+        relationshipDao.addDepartmentMember(depId, employee.get_id());
+        log.info("员工ID: {} 已关联到部门ID: {}", employee.get_id(), depId);
     }
 
     private void bindProjects(Integer empId, EmployeeDTO dto, Employee employee) {
@@ -430,24 +306,11 @@ public class EmployeeServiceImpl implements EmployeeService {
             return;
         }
 
-        List<Map<String, Integer>> employeeProjects = new ArrayList<>();
-        for (Integer projId : newProjectIds) {
-            Project project = getValidProject(projId);
-            if (project.getMembers() == null) {
-                project.setMembers(new ArrayList<>());
-            }
-            boolean alreadyIn = project.getMembers().stream()
-                    .anyMatch(member -> empId.equals(member.getEmpId()));
-            if (!alreadyIn) {
-                Project.Member member = new Project.Member();
-                member.setEmpId(empId);
-                project.getMembers().add(member);
-                projectDao.update(project);
-                log.info("员工ID: {} 已加入项目ID: {}", empId, projId);
-            }
-            employeeProjects.add(Map.of("projId", projId));
-        }
-        employee.setProjects(employeeProjects);
+        relationshipDao.addProjectMember(newProjectIds, empId);
+        log.info("员工ID: {} 已加入项目ID: {}", empId, newProjectIds);
+        employee.setProjects(newProjectIds.stream()
+                .map(Employee.ProjectRef::new)
+                .collect(Collectors.toList()));
     }
 
     // ========== 新增：绑定新增员工的任务关联 ==========
@@ -459,30 +322,12 @@ public class EmployeeServiceImpl implements EmployeeService {
             return;
         }
 
-        List<Map<String, Integer>> employeeTasks = new ArrayList<>();
-        for (Integer taskId : newTaskIds) {
-            // 校验任务存在性
-            Task task = getValidTask(taskId);
-            // 核心修改：如果任务已有负责人，先清空旧负责人的关联
-            if (task.getManagerId() != null) {
-                Integer oldManagerId = task.getManagerId();
-                // 1. 找到旧负责人员工，移除该任务关联
-                Employee oldManager = employeeDao.findById(oldManagerId);
-                if (oldManager != null && oldManager.getTasks() != null) {
-                    oldManager.getTasks().removeIf(taskMap -> taskId.equals(taskMap.get("taskId")));
-                    employeeDao.update(oldManager);
-                    log.info("任务ID: {}（{}）原有负责人（员工ID: {}），已移除其任务关联", taskId, task.getTaskName(), oldManagerId);
-                }
-                log.warn("任务ID: {}（{}）已有负责人（员工ID: {}），将替换为新员工ID: {}", taskId, task.getTaskName(), oldManagerId, empId);
-            }
-            // 设置任务负责人为当前员工
-            task.setManagerId(empId);
-            taskDao.update(task);
-            log.info("员工ID: {} 已绑定为任务ID: {}（{}）的负责人", empId, taskId, task.getTaskName());
-            // 封装员工的任务列表
-            employeeTasks.add(Map.of("taskId", taskId));
-        }
-        employee.setTasks(employeeTasks);
+        // 任务已有负责人时，从旧负责人的任务列表中移除后改为当前员工（存在性已在写入前校验）
+        relationshipDao.assignTasks(newTaskIds, empId);
+        log.info("员工ID: {} 已绑定为任务ID: {} 的负责人", empId, newTaskIds);
+        employee.setTasks(newTaskIds.stream()
+                .map(Employee.TaskRef::new)
+                .collect(Collectors.toList()));
     }
 
     private void bindTrainings(Integer empId, EmployeeDTO dto, Employee employee) {
@@ -493,97 +338,48 @@ public class EmployeeServiceImpl implements EmployeeService {
             return;
         }
 
-        List<Map<String, Integer>> employeeTrainings = new ArrayList<>();
-        for (Integer trainId : newTrainingIds) {
-            Training training = getValidTraining(trainId);
-            if (training.getMembers() == null) {
-                training.setMembers(new ArrayList<>());
-            }
-            boolean alreadyIn = training.getMembers().stream()
-                    .anyMatch(memberId -> empId.equals(memberId));
-            if (!alreadyIn) {
-                training.getMembers().add(empId);
-                trainingDao.update(training);
-                log.info("员工ID: {} 已加入培训ID: {}", empId, trainId);
-            }
-            employeeTrainings.add(Map.of("trainId", trainId));
-        }
-        employee.setTrainingList(employeeTrainings);
+        relationshipDao.addTrainingMember(newTrainingIds, empId);
+        log.info("员工ID: {} 已加入培训ID: {}", empId, newTrainingIds);
+        employee.setTrainingList(newTrainingIds.stream()
+                .map(Employee.TrainingRef::new)
+                .collect(Collectors.toList()));
     }
 
     // ========== 新增：处理编辑员工的任务关联变更 ==========
-    private void handleTaskChange(Integer empId, EmployeeDTO dto, Employee newEmployee) {
-        // 1. 获取旧任务ID列表（员工原本负责的任务）
-        List<Integer> oldTaskIds = getOldTaskIds(empId);
+    private void handleTaskChange(Integer empId, List<Integer> oldTaskIds, EmployeeDTO dto, Employee newEmployee) {
+        // 1. 旧任务ID列表（员工原本负责的任务）由调用方在校验前读取
         // 2. 获取新任务ID列表（员工现在选择负责的任务）
-        List<Integer> newTaskIds = dto.getNewManagerTaskIds() == null ? new ArrayList<>() : dto.getNewManagerTaskIds();
+        List<Integer> newTaskIds = idsOf(dto.getNewManagerTaskIds());
 
         log.info("员工ID: {} - 旧负责任务ID列表: {}", empId, oldTaskIds);
         log.info("员工ID: {} - 新负责任务ID列表: {}", empId, newTaskIds);
 
-        // 3. 退出旧任务：置空旧任务的负责人ID（如果不在新列表里）
-        for (Integer taskId : oldTaskIds) {
-            if (!newTaskIds.contains(taskId)) {
-                Task task = getValidTask(taskId);
-                // 仅当任务负责人是当前员工时，才置空（防止误操作）
-                if (empId.equals(task.getManagerId())) {
-                    task.setManagerId(null);
-                    taskDao.update(task);
-                    log.info("任务ID: {}（{}）- 成功移除员工ID: {} 的负责人权限", taskId, task.getTaskName(), empId);
-                } else {
-                    log.info("任务ID: {}（{}）- 负责人已不是员工ID: {}，无需处理", taskId, task.getTaskName(), empId);
-                }
-            }
-        }
-
-        // 4. 加入新任务：设置新任务的负责人ID为当前员工（如果不在旧列表里）
-        for (Integer taskId : newTaskIds) {
-            if (!oldTaskIds.contains(taskId)) {
-                Task task = getValidTask(taskId);
-                // 核心修改：如果任务已有其他负责人，先清空旧负责人关联
-                if (task.getManagerId() != null && !task.getManagerId().equals(empId)) {
-                    Integer oldManagerId = task.getManagerId();
-                    // 4.1 找到旧负责人员工，移除该任务关联
-                    Employee oldManager = employeeDao.findById(oldManagerId);
-                    if (oldManager != null && oldManager.getTasks() != null) {
-                        oldManager.getTasks().removeIf(taskMap -> taskId.equals(taskMap.get("taskId")));
-                        employeeDao.update(oldManager);
-                        log.info("任务ID: {}（{}）原有负责人（员工ID: {}），已移除其任务关联", taskId, task.getTaskName(), oldManagerId);
-                    }
-                    log.warn("任务ID: {}（{}）已有负责人（员工ID: {}），将替换为新员工ID: {}", taskId, task.getTaskName(), oldManagerId, empId);
-                }
-                // 设置当前员工为任务负责人
-                task.setManagerId(empId);
-                taskDao.update(task);
-                log.info("任务ID: {}（{}）- 成功设置员工ID: {} 为负责人", taskId, task.getTaskName(), empId);
-            }
-        }
+        List<Integer> removedIds = diff(oldTaskIds, newTaskIds);
+        List<Integer> addedIds = diff(newTaskIds, oldTaskIds);
+        // 3. 退出旧任务：仅当任务负责人仍是当前员工时才置空（防止误操作）
+        relationshipDao.releaseTasks(removedIds, empId);
+        // 4. 加入新任务：已有其他负责人的，先从旧负责人的任务列表中移除，再设置为当前员工
+        relationshipDao.assignTasks(addedIds, empId);
 
         // 5. 同步更新员工的任务关联列表
-        List<Map<String, Integer>> employeeTasks = newTaskIds.stream()
-                .map(taskId -> Map.of("taskId", taskId))
+        List<Employee.TaskRef> employeeTasks = newTaskIds.stream()
+                .map(Employee.TaskRef::new)
                 .collect(Collectors.toList());
         newEmployee.setTasks(employeeTasks);
         log.info("员工ID: {} - 最终负责的任务列表: {}", empId, employeeTasks);
     }
 
     // ========== 工具方法补充 ==========
-    private List<Integer> getOldProjectIds(Integer empId) {
-        return projectDao.findByMemberEmpId(empId).stream()
-                .map(Project::getId)
-                .collect(Collectors.toList());
-    }
-
-    private List<Integer> getOldTaskIds(Integer empId) {
-        return taskDao.findByManagerId(empId).stream()
-                .map(Task::get_id)
-                .collect(Collectors.toList());
+    /**
+     * 在a中但不在b中的ID（保持a的顺序、去重）
+     */
+    private List<Integer> diff(List<Integer> a, List<Integer> b) {
+        Set<Integer> exclude = new HashSet<>(b);
+        return a.stream().filter(id -> !exclude.contains(id)).distinct().collect(Collectors.toList());
     }
 
-    private List<Integer> getOldTrainingIds(Integer empId) {
-        return trainingDao.findByMemberEmpId(empId).stream()
-                .map(Training::get_id)
-                .collect(Collectors.toList());
+    private List<Integer> idsOf(List<Integer> ids) {
+        return ids == null ? new ArrayList<>() : ids;
     }
 
     private boolean equals(Integer a, Integer b) {
@@ -592,31 +388,14 @@ public class EmployeeServiceImpl implements EmployeeService {
         return a.equals(b);
     }
 
-    private Project getValidProject(Integer projId) {
-        Project project = projectDao.findById(projId);
-        if (project == null) {
-            log.error("项目ID: {} 不存在", projId);
-            throw new RuntimeException("项目ID:" + projId + " 不存在");
-        }
-        return project;
-    }
-
-    // ========== 新增：校验任务存在性 ==========
-    private Task getValidTask(Integer taskId) {
-        Task task = taskDao.findById(taskId);
-        if (task == null) {
-            log.error("任务ID: {} 不存在", taskId);
-            throw new RuntimeException("任务ID:" + taskId + " 不存在");
-        }
-        return task;
-    }
-
-    private Training getValidTraining(Integer trainId) {
-        Training training = trainingDao.findById(trainId);
-        if (training == null) {
-            log.error("培训ID: {} 不存在", trainId);
-            throw new RuntimeException("培训ID:" + trainId + " 不存在");
+    /**
+     * 校验ID全部存在（单次投影查询），否则抛出「xxID:n 不存在」
+     */
+    private void requireExisting(Class<?> entityClass, List<Integer> ids, String label) {
+        List<Integer> missing = relationshipDao.findMissingIds(entityClass, ids);
+        if (!missing.isEmpty()) {
+            log.error("{}: {} 不存在", label, missing);
+            throw new RuntimeException(label + ":" + missing.get(0) + " 不存在");
         }
-        return training;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,270 @@
+package com.murasame.smarthrm.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.murasame.smarthrm.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 数据导出业务层实现类
+ * 核心逻辑：
+ * 1. MongoTemplate.stream按批次（BATCH_SIZE）读取游标，只投影导出列，读一行写一行，内存占用与数据量无关；
+ * 2. 部门名称、项目名称等关联名称列，导出前一次性加载为小的ID → 名称映射（部门/项目数量远小于员工/任务）；
+ * 3. 每BATCH_SIZE行flush一次，响应以分块（chunked）方式持续输出
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportServiceImpl.class);
+    private static final int BATCH_SIZE = 1000;
+    // 日期统一按东八区本地时间导出（与WebMvcConfig日期转换时区一致）
+    private static final ZoneId DEFAULT_ZONE = ZoneId.of("Asia/Shanghai");
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /**
+     * 关联名称列：通过keyField关联到collection的nameField
+     */
+    private record Lookup(String keyField, String collection, String nameField) {
+    }
+
+    /**
+     * 可导出实体：集合名、可选列、默认列、关联名称列
+     */
+    private record Spec(String collection, List<String> columns, List<String> defaults, Map<String, Lookup> lookups) {
+    }
+
+    private static final Map<String, Spec> SPECS = Map.of(
+            "employees", new Spec("Employee",
+                    List.of("_id", "empName", "depId", "depName", "joinDate", "skillList", "projects", "trainingList", "tasks"),
+                    List.of("_id", "empName", "depId", "depName", "joinDate"),
+                    Map.of("depName", new Lookup("depId", "Department", "depName"))),
+            "projects", new Spec("Project",
+                    List.of("_id", "projName", "projStatus", "startDate", "members", "reqSkill"),
+                    List.of("_id", "projName", "projStatus", "startDate"),
+                    Map.of()),
+            "tasks", new Spec("Task",
+                    List.of("_id", "projId", "projName", "taskName", "managerId", "taskStatus"),
+                    List.of("_id", "projId", "projName", "taskName", "managerId", "taskStatus"),
+                    Map.of("projName", new Lookup("projId", "Project", "projName")))
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(String entity) {
+        return SPECS.containsKey(entity);
+    }
+
+    @Override
+    public List<String> resolveColumns(String entity, List<String> fields) {
+        Spec spec = spec(entity);
+        if (fields == null || fields.isEmpty()) {
+            return spec.defaults();
+        }
+        List<String> columns = new ArrayList<>();
+        for (String field : fields) {
+            String column = field.trim();
+            if (!spec.columns().contains(column)) {
+                throw new IllegalArgumentException("不支持导出的列：" + column + "，可选列：" + spec.columns());
+            }
+            if (!columns.contains(column)) {
+                columns.add(column);
+            }
+        }
+        return columns;
+    }
+
+    @Override
+    public long export(String entity, List<String> columns, Format format, OutputStream out) throws IOException {
+        Spec spec = spec(entity);
+        long start = System.nanoTime();
+
+        // 1. 关联名称映射（仅加载请求了的关联列）
+        Map<String, Map<Object, Object>> lookupMaps = new HashMap<>();
+        for (String column : columns) {
+            Lookup lookup = spec.lookups().get(column);
+            if (lookup != null) {
+                lookupMaps.put(column, loadNames(lookup));
+            }
+        }
+
+        // 2. 只投影导出列（关联列投影其关联键），按_id顺序游标读取
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(BATCH_SIZE);
+        for (String column : columns) {
+            Lookup lookup = spec.lookups().get(column);
+            query.fields().include(lookup != null ? lookup.keyField() : column);
+        }
+
+        // 3. 逐行写出
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long rows = 0;
+        try (Stream<Document> docs = mongoTemplate.stream(query, Document.class, spec.collection())) {
+            RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+            rowWriter.header(columns);
+            Iterator<Document> it = docs.iterator();
+            Object[] values = new Object[columns.size()];
+            while (it.hasNext()) {
+                Document doc = it.next();
+                for (int i = 0; i < values.length; i++) {
+                    String column = columns.get(i);
+                    Lookup lookup = spec.lookups().get(column);
+                    values[i] = normalize(lookup != null
+                            ? lookupMaps.get(column).get(doc.get(lookup.keyField()))
+                            : doc.get(column));
+                }
+                rowWriter.row(columns, values);
+                if (++rows % BATCH_SIZE == 0) {
+                    rowWriter.flush();
+                }
+            }
+            rowWriter.flush();
+        }
+        log.info("导出{}完成：{} 行，格式 {}，耗时 {} ms", entity, rows, format, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private Spec spec(String entity) {
+        Spec spec = SPECS.get(entity);
+        if (spec == null) {
+            throw new IllegalArgumentException("不支持导出的数据类型：" + entity);
+        }
+        return spec;
+    }
+
+    private Map<Object, Object> loadNames(Lookup lookup) {
+        Query query = new Query();
+        query.fields().include("_id").include(lookup.nameField());
+        Map<Object, Object> names = new HashMap<>();
+        mongoTemplate.find(query, Document.class, lookup.collection())
+                .forEach(doc -> names.put(doc.get("_id"), doc.get(lookup.nameField())));
+        return names;
+    }
+
+    /**
+     * 日期转为东八区本地时间字符串，其余值原样输出
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Date date) {
+            return DATE_TIME_FORMATTER.format(date.toInstant().atZone(DEFAULT_ZONE).toLocalDateTime());
+        }
+        return value;
+    }
+
+    private interface RowWriter {
+        void header(List<String> columns) throws IOException;
+
+        void row(List<String> columns, Object[] values) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    /**
+     * CSV：带UTF-8 BOM（Excel直接打开中文不乱码），字段按RFC 4180转义，数组/嵌套对象输出为JSON文本；
+     * 以=、+、-、@、制表符、回车开头的字符串前加'，防止表格软件把单元格当作公式执行（CSV注入），数值不处理
+     */
+    private class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void header(List<String> columns) throws IOException {
+            writer.write('\uFEFF');
+            writer.write(String.join(",", columns));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void row(List<String> columns, Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.write(',');
+                Object value = values[i];
+                if (value == null) continue;
+                String text = value instanceof String || value instanceof Number || value instanceof Boolean
+                        ? value.toString() : objectMapper.writeValueAsString(value);
+                writer.write(escape(value instanceof String ? neutralizeFormula(text) : text));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private String neutralizeFormula(String text) {
+            if (text.isEmpty()) {
+                return text;
+            }
+            char first = text.charAt(0);
+            return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r'
+                    ? "'" + text : text;
+        }
+
+        private String escape(String text) {
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    /**
+     * NDJSON：每行一个JSON对象，直接写入输出流（不拼接中间字符串）
+     */
+    private class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+        // 逐值写入时不flush，由外层按批次flush
+        private final ObjectWriter valueWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            // 行间以换行分隔，去掉Jackson默认在根值之间插入的空格
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+        }
+
+        @Override
+        public void header(List<String> columns) {
+        }
+
+        @Override
+        public void row(List<String> columns, Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns.get(i));
+                valueWriter.writeValue(generator, values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+            writer.flush();
+        }
+    }
+}
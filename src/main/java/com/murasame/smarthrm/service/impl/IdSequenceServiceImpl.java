@@ -0,0 +1,80 @@
+package com.murasame.smarthrm.service.impl;
+
+import com.murasame.smarthrm.dao.CounterDao;
+import com.murasame.smarthrm.service.IdSequenceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 自增ID序列服务实现类
+ * 核心逻辑：
+ * 1. 每个序列首次使用时，用业务集合当前最大ID初始化counters（$max，幂等）；
+ * 2. 通过findAndModify $inc 一次申请一个号段（默认64个ID），号段内的ID在本节点内存中依次发放；
+ * 3. 号段用尽后再申请下一段，多节点/多线程并发也不会产生重复ID（节点重启会丢弃未用完的号段，ID可能不连续）
+ */
+@Service
+public class IdSequenceServiceImpl implements IdSequenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceServiceImpl.class);
+
+    private final CounterDao counterDao;
+    // 每个序列在本节点内的号段
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    // 每次向数据库申请的号段大小
+    @Value("${smarthrm.id-sequence.block-size:64}")
+    private int blockSize = 64;
+
+    public IdSequenceServiceImpl(CounterDao counterDao) {
+        this.counterDao = counterDao;
+    }
+
+    @Override
+    public Integer nextId(String sequenceName) {
+        Block block = blocks.computeIfAbsent(sequenceName, this::bootstrap);
+        synchronized (block) {
+            if (block.next > block.end) {
+                int end = counterDao.incrementBy(sequenceName, blockSize);
+                block.next = end - blockSize + 1;
+                block.end = end;
+                log.debug("序列 {} 申请新号段：[{}, {}]", sequenceName, block.next, block.end);
+            }
+            return block.next++;
+        }
+    }
+
+    @Override
+    public int reserve(String sequenceName, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("预留数量必须大于0");
+        }
+        // 确保序列已用集合现有最大ID初始化；本节点未用完的号段不受影响
+        blocks.computeIfAbsent(sequenceName, this::bootstrap);
+        int end = counterDao.incrementBy(sequenceName, count);
+        log.info("序列 {} 预留号段：[{}, {}]", sequenceName, end - count + 1, end);
+        return end - count + 1;
+    }
+
+    /**
+     * 序列初始化：用集合现有最大ID为counters兜底，返回一个空号段（首次取号时再申请）
+     */
+    private Block bootstrap(String sequenceName) {
+        int maxId = counterDao.findMaxId(sequenceName);
+        counterDao.seedAtLeast(sequenceName, maxId);
+        log.info("序列 {} 初始化完成，集合现有最大ID：{}", sequenceName, maxId);
+        return new Block();
+    }
+
+    /**
+     * 本节点持有的号段 [next, end]，next > end 表示已用尽
+     */
+    private static final class Block {
+        private int next = 1;
+        private int end = 0;
+    }
+}
@@ -1,11 +1,16 @@
 package com.murasame.smarthrm.service.impl;
 
+import com.murasame.smarthrm.cache.JsonFragmentCache;
 import com.murasame.smarthrm.dao.EmployeeRepo;
 import com.murasame.smarthrm.dao.ProjectRepo;
+import com.murasame.smarthrm.dao.TaskDao;
 import com.murasame.smarthrm.dao.TaskRepo;
+import com.murasame.smarthrm.dto.ProjectTaskGroupDTO;
 import com.murasame.smarthrm.entity.Employee;
 import com.murasame.smarthrm.entity.Project;
 import com.murasame.smarthrm.entity.Task;
+import com.murasame.smarthrm.index.NameSearchIndex;
+import com.murasame.smarthrm.service.IdSequenceService;
 import com.murasame.smarthrm.service.ProjectMatchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -23,6 +28,10 @@ public class ProjectMatchServiceImpl implements ProjectMatchService {
     private final ProjectRepo projectRepo;
     private final EmployeeRepo employeeRepo;
     private final TaskRepo taskRepo;
+    private final TaskDao taskDao;
+    private final IdSequenceService idSequenceService;
+    private final NameSearchIndex nameSearchIndex;
+    private final JsonFragmentCache jsonFragmentCache;
 
     @Override
     public List<Project> matchByProjectName(String projectName) {
@@ -30,17 +39,19 @@ public class ProjectMatchServiceImpl implements ProjectMatchService {
             return new ArrayList<>();
         }
 
-        // 获取所有项目
-        List<Project> allProjects = projectRepo.findAll();
+        // 名称索引未就绪时回退到数据库查询（Spring Data对关键词做正则转义）
+        if (!nameSearchIndex.isReady()) {
+            return projectRepo.findByProjNameContainingIgnoreCase(projectName.trim());
+        }
 
-        // 通过项目名称进行模糊匹配
-        String searchTerm = projectName.trim().toLowerCase();
-        return allProjects.stream()
-                .filter(project -> {
-                    String projName = project.getProjName();
-                    return projName != null && projName.toLowerCase().contains(searchTerm);
-                })
-                .collect(Collectors.toList());
+        // 通过名称索引匹配（按相关度排序），再按ID批量加载项目
+        List<Integer> ids = nameSearchIndex.searchAll(NameSearchIndex.Domain.PROJECT, projectName);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Project> projects = new ArrayList<>();
+        projectRepo.findAllById(ids).forEach(projects::add);
+        return NameSearchIndex.orderByIds(projects, ids, Project::getId);
     }
 
     @Override
@@ -176,27 +187,10 @@ public class ProjectMatchServiceImpl implements ProjectMatchService {
             return new ArrayList<>();
         }
 
+        // 早期以id为键的技能数据在读取时已由转换器兼容
         return employee.getSkillList().stream()
-                .map(skillMap -> {
-                    // 处理 Map<String, Integer> 结构的技能列表
-                    if (skillMap.containsKey("skillId")) {
-                        return skillMap.get("skillId");
-                    } else if (skillMap.containsKey("id")) {
-                        return skillMap.get("id");
-                    } else {
-                        // 如果没有标准键名，取第一个值
-                        return skillMap.values().iterator().next();
-                    }
-                })
-                .filter(Objects::nonNull)
-                .map(obj -> {
-                    try {
-                        return Integer.parseInt(obj.toString());
-                    } catch (NumberFormatException e) {
-                        return null;
-                    }
-                })
                 .filter(Objects::nonNull)
+                .map(Employee.SkillLevel::skillId)
                 .collect(Collectors.toList());
     }
 
@@ -213,17 +207,12 @@ public class ProjectMatchServiceImpl implements ProjectMatchService {
 
         // 生成新的ID（如果需要）
         if (project.getId() == null) {
-            // 获取当前最大ID + 1
-            List<Project> allProjects = projectRepo.findAll();
-            Integer maxId = allProjects.stream()
-                    .map(Project::getId)
-                    .filter(Objects::nonNull)
-                    .max(Integer::compareTo)
-                    .orElse(0);
-            project.setId(maxId + 1);
+            project.setId(idSequenceService.nextId(IdSequenceService.PROJECT));
         }
 
-        return projectRepo.save(project);
+        Project saved = projectRepo.save(project);
+        jsonFragmentCache.invalidate(Project.class, saved.getId());
+        return saved;
     }
 
     @Override
@@ -245,7 +234,9 @@ public class ProjectMatchServiceImpl implements ProjectMatchService {
             }
         }
 
-        return projectRepo.save(project);
+        Project saved = projectRepo.save(project);
+        jsonFragmentCache.invalidate(Project.class, saved.getId());
+        return saved;
     }
 
     @Override
@@ -261,6 +252,7 @@ public class ProjectMatchServiceImpl implements ProjectMatchService {
 
         try {
             projectRepo.deleteById(projectId);
+            jsonFragmentCache.invalidate(Project.class, projectId);
             return true;
         } catch (Exception e) {
             return false;
@@ -306,16 +298,20 @@ public class ProjectMatchServiceImpl implements ProjectMatchService {
             return new ArrayList<>();
         }
 
+        // 一次聚合取回所有项目的任务及完成情况
+        Map<Integer, ProjectTaskGroupDTO> groups = taskDao.groupByProjIds(projects.stream()
+                .map(Project::getId).filter(Objects::nonNull).collect(Collectors.toSet()));
+
         return projects.stream().map(project -> {
             Map<String, Object> projectWithTasks = new HashMap<>();
             projectWithTasks.put("project", project);
 
-            // 获取项目任务
-            List<Task> tasks = taskRepo.findByProjId(project.getId());
+            ProjectTaskGroupDTO group = groups.get(project.getId());
+            List<Task> tasks = group == null ? new ArrayList<>() : group.getTasks();
             projectWithTasks.put("tasks", tasks);
             projectWithTasks.put("taskCount", tasks.size());
-            projectWithTasks.put("completedTasks", tasks.stream().filter(task -> task.getTaskStatus() == 1).count());
-            projectWithTasks.put("pendingTasks", tasks.stream().filter(task -> task.getTaskStatus() == 0).count());
+            projectWithTasks.put("completedTasks", group == null ? 0L : group.getCompleted());
+            projectWithTasks.put("pendingTasks", group == null ? 0L : group.getPending());
 
             return projectWithTasks;
         }).collect(Collectors.toList());
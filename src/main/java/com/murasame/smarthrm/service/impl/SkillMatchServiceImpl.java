@@ -2,20 +2,114 @@ package com.murasame.smarthrm.service.impl;
 
 import com.murasame.smarthrm.dao.EmployeeDao;
 import com.murasame.smarthrm.dto.SkillMatchDTO;
+import com.murasame.smarthrm.dto.SkillRankDTO;
 import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.index.SkillIndex;
 import com.murasame.smarthrm.service.SkillMatchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class SkillMatchServiceImpl implements SkillMatchService {
+	// 超出最低熟练度每一级的加分（相对该技能权重）
+	private static final double SURPLUS_BONUS = 0.1;
+	// 拥有技能但未达最低熟练度时的部分得分上限（按 熟练度/最低熟练度 折算）
+	private static final double PARTIAL_CREDIT = 0.5;
+	// 排序匹配时游标每批读取的文档数
+	private static final int STREAM_BATCH_SIZE = 1000;
+
 	private final EmployeeDao employeeDAO;
+	private final SkillIndex skillIndex;
 
 	@Override
 	public List<Employee> matchBySkills(List<SkillMatchDTO> reqs){
-		return employeeDAO.findBySkillsRequired(reqs);
+		// 索引未就绪（启动构建中/构建失败）时回退到数据库elemMatch查询
+		if (!skillIndex.isReady()) {
+			return employeeDAO.findBySkillsRequired(reqs);
+		}
+		int[] empIds = skillIndex.match(reqs);
+		if (empIds.length == 0) return List.of();
+		return employeeDAO.findByIds(Arrays.stream(empIds).boxed().toList());
+	}
+
+	@Override
+	public List<SkillRankDTO> rankBySkills(List<SkillMatchDTO> reqs, Map<Integer, Double> weights, int topK) {
+		if (reqs == null || reqs.isEmpty() || topK <= 0) return List.of();
+
+		// 1. 同一技能多次出现时取最高要求，整理成并行数组便于打分
+		Map<Integer, Integer> required = new LinkedHashMap<>();
+		reqs.forEach(r -> required.merge(r.getSkillId(), r.getMinLevel() == null ? 0 : r.getMinLevel(), Math::max));
+		int n = required.size();
+		int[] skillIds = new int[n];
+		int[] minLevels = new int[n];
+		double[] skillWeights = new double[n];
+		double totalWeight = 0;
+		int i = 0;
+		for (Map.Entry<Integer, Integer> e : required.entrySet()) {
+			skillIds[i] = e.getKey();
+			minLevels[i] = e.getValue();
+			skillWeights[i] = weights == null ? 1.0 : weights.getOrDefault(e.getKey(), 1.0);
+			totalWeight += skillWeights[i];
+			i++;
+		}
+		if (totalWeight <= 0) return List.of();
+
+		// 2. 单次遍历候选游标，用容量为K的小顶堆保留得分最高的员工（堆顶为当前第K名）
+		Comparator<SkillRankDTO> worstFirst = Comparator.comparingDouble(SkillRankDTO::getScore)
+				.thenComparing(SkillRankDTO::getEmpId, Comparator.reverseOrder());
+		PriorityQueue<SkillRankDTO> heap = new PriorityQueue<>(Math.min(topK, 1024) + 1, worstFirst);
+		int[] levels = new int[n];
+		try (Stream<Employee> candidates = employeeDAO.streamBySkillIds(required.keySet(), STREAM_BATCH_SIZE)) {
+			Iterator<Employee> it = candidates.iterator();
+			while (it.hasNext()) {
+				Employee emp = it.next();
+				fillLevels(emp.getSkillList(), skillIds, levels);
+				double score = 0;
+				int matched = 0;
+				for (int j = 0; j < n; j++) {
+					if (levels[j] >= minLevels[j] && levels[j] > 0) {
+						score += skillWeights[j] * (1 + SURPLUS_BONUS * (levels[j] - minLevels[j]));
+						matched++;
+					} else if (levels[j] > 0) {
+						score += skillWeights[j] * PARTIAL_CREDIT * levels[j] / minLevels[j];
+					}
+				}
+				if (score <= 0) continue;
+				score /= totalWeight;
+				if (heap.size() == topK) {
+					SkillRankDTO worst = heap.peek();
+					if (score < worst.getScore() || (score == worst.getScore() && emp.get_id() > worst.getEmpId())) {
+						continue;
+					}
+					heap.poll();
+				}
+				heap.offer(new SkillRankDTO(emp.get_id(), emp.getEmpName(), score, matched, n));
+			}
+		}
+
+		// 3. 按得分降序输出
+		List<SkillRankDTO> result = new ArrayList<>(heap);
+		result.sort(worstFirst.reversed());
+		return result;
+	}
+
+	/**
+	 * 按技能条件顺序取出员工对应技能的熟练度（未掌握为0），复用levels数组避免每个员工分配
+	 */
+	private static void fillLevels(List<Employee.SkillLevel> skillList, int[] skillIds, int[] levels) {
+		Arrays.fill(levels, 0);
+		if (skillList == null) return;
+		for (Employee.SkillLevel skill : skillList) {
+			if (skill == null || skill.skillId() == null || skill.proficiency() == null) continue;
+			for (int j = 0; j < skillIds.length; j++) {
+				if (skillIds[j] == skill.skillId() && skill.proficiency() > levels[j]) {
+					levels[j] = skill.proficiency();
+				}
+			}
+		}
 	}
 }
@@ -1,7 +1,10 @@
 package com.murasame.smarthrm.service.impl;
 
+import com.murasame.smarthrm.cache.JsonFragmentCache;
 import com.murasame.smarthrm.dao.TaskRepo;
+import com.murasame.smarthrm.entity.Employee;
 import com.murasame.smarthrm.entity.Task;
+import com.murasame.smarthrm.service.IdSequenceService;
 import com.murasame.smarthrm.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -16,6 +19,9 @@ import java.util.List;
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepo taskRepo;
+    private final IdSequenceService idSequenceService;
+    // 员工列表片段含其负责的任务：负责人变化时失效新旧负责人
+    private final JsonFragmentCache jsonFragmentCache;
 
     @Override
     public List<Task> getTasksByProjectId(Integer projId) {
@@ -54,14 +60,7 @@ public class TaskServiceImpl implements TaskService {
 
         // 生成新的任务ID（如果需要）
         if (task.get_id() == null) {
-            // 获取当前最大ID + 1
-            List<Task> allTasks = taskRepo.findAll();
-            Integer maxId = allTasks.stream()
-                    .map(Task::get_id)
-                    .filter(id -> id != null)
-                    .max(Integer::compareTo)
-                    .orElse(0);
-            task.set_id(maxId + 1);
+            task.set_id(idSequenceService.nextId(IdSequenceService.TASK));
         }
 
         // 设置默认状态
@@ -69,7 +68,9 @@ public class TaskServiceImpl implements TaskService {
             task.setTaskStatus(0); // 默认未完成
         }
 
-        return taskRepo.save(task);
+        Task saved = taskRepo.save(task);
+        jsonFragmentCache.invalidate(Employee.class, saved.getManagerId());
+        return saved;
     }
 
     @Override
@@ -84,7 +85,10 @@ public class TaskServiceImpl implements TaskService {
             throw new IllegalArgumentException("任务不存在");
         }
 
-        return taskRepo.save(task);
+        Task saved = taskRepo.save(task);
+        jsonFragmentCache.invalidate(Employee.class, existingTask.getManagerId());
+        jsonFragmentCache.invalidate(Employee.class, saved.getManagerId());
+        return saved;
     }
 
     @Override
@@ -93,13 +97,15 @@ public class TaskServiceImpl implements TaskService {
             return false;
         }
 
-        // 检查任务是否存在
-        if (!taskRepo.existsById(taskId)) {
+        // 检查任务是否存在（同时取得负责人，删除后失效其列表片段）
+        Task existingTask = taskRepo.findById(taskId).orElse(null);
+        if (existingTask == null) {
             return false;
         }
 
         try {
             taskRepo.deleteById(taskId);
+            jsonFragmentCache.invalidate(Employee.class, existingTask.getManagerId());
             return true;
         } catch (Exception e) {
             return false;
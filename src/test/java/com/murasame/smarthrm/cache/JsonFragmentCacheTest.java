@@ -0,0 +1,140 @@
+package com.murasame.smarthrm.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.entity.Project;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSON片段缓存测试：片段拼接的响应与直接序列化一致；命中不再补充/序列化；
+ * 失效之前取得的版本戳不会让旧片段被当作新片段；容量按字节数限制
+ */
+class JsonFragmentCacheTest {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void fragmentsSerializeLikeEntities() throws Exception {
+		JsonFragmentCache cache = cache(1 << 20);
+		List<Employee> employees = new ArrayList<>();
+		for (int id = 1; id <= 20; id++) {
+			employees.add(employee(id, "员工\"" + id + "\"\n"));
+		}
+		employees.get(3).setJoinDate(LocalDateTime.of(2024, 5, 6, 7, 8, 9));
+		employees.get(4).setTasks(List.of(new Employee.TaskRef(9)));
+
+		List<JsonFragment> fragments = cache.fragments(Employee.class, cache.stamp(), employees, Employee::get_id,
+				list -> list.forEach(emp -> emp.setDeptName("研发部")));
+		Map<String, Object> expected = Map.of("employees", employees, "pageSize", 20);
+		Map<String, Object> actual = Map.of("employees", fragments, "pageSize", 20);
+
+		// 字节输出与字符输出两种生成器
+		assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(expected)),
+				objectMapper.readTree(objectMapper.writeValueAsBytes(actual)));
+		assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(expected)),
+				objectMapper.readTree(objectMapper.writeValueAsString(actual)));
+		// 命中的片段与首次写出的一致
+		assertEquals(objectMapper.writeValueAsString(actual), objectMapper.writeValueAsString(Map.of("employees",
+				cache.fragments(Employee.class, cache.stamp(), employees, Employee::get_id, null), "pageSize", 20)));
+	}
+
+	@Test
+	void hitsSkipPrepare() {
+		JsonFragmentCache cache = cache(1 << 20);
+		List<Employee> employees = List.of(employee(1, "a"), employee(2, "b"));
+		AtomicInteger prepared = new AtomicInteger();
+
+		cache.fragments(Employee.class, cache.stamp(), employees, Employee::get_id, list -> prepared.addAndGet(list.size()));
+		cache.fragments(Employee.class, cache.stamp(), List.of(employee(2, "b"), employee(3, "c")), Employee::get_id,
+				list -> prepared.addAndGet(list.size()));
+
+		assertEquals(3, prepared.get());
+		Map<String, Object> stats = cache.stats();
+		assertEquals(1L, stats.get("hits"));
+		assertEquals(3L, stats.get("misses"));
+		assertEquals(3L, stats.get("entries"));
+		assertEquals(0.25, (double) stats.get("hitRatio"), 1e-9);
+		assertEquals(1.0, requests("hit"), 1e-9);
+		assertEquals(3.0, requests("miss"), 1e-9);
+		assertEquals(3.0, registry.get("smarthrm.json.fragment.cache.entries").gauge().value(), 1e-9);
+	}
+
+	@Test
+	void invalidationBeatsConcurrentRead() {
+		JsonFragmentCache cache = cache(1 << 20);
+		// 读请求在写入之前取得版本戳、读到旧数据；写入后失效；该请求随后才把旧片段放入缓存
+		long staleStamp = cache.stamp();
+		cache.invalidate(Employee.class, 1);
+		cache.fragments(Employee.class, staleStamp, List.of(employee(1, "旧")), Employee::get_id, null);
+
+		List<JsonFragment> fresh = cache.fragments(Employee.class, cache.stamp(), List.of(employee(1, "新")),
+				Employee::get_id, null);
+		assertTrue(fresh.get(0).getValue().contains("新"));
+		// 新片段随后可以命中
+		assertSame(fresh.get(0), cache.fragments(Employee.class, cache.stamp(), List.of(employee(1, "新")),
+				Employee::get_id, null).get(0));
+	}
+
+	@Test
+	void invalidateAllAffectsOnlyThatType() {
+		JsonFragmentCache cache = cache(1 << 20);
+		Project project = new Project();
+		project.setId(1);
+		project.setProjName("P");
+		JsonFragment emp = cache.fragments(Employee.class, cache.stamp(), List.of(employee(1, "a")), Employee::get_id, null).get(0);
+		JsonFragment proj = cache.fragments(Project.class, cache.stamp(), List.of(project), Project::getId, null).get(0);
+
+		cache.invalidateAll(Employee.class);
+
+		assertNotSame(emp, cache.fragments(Employee.class, cache.stamp(), List.of(employee(1, "a")), Employee::get_id, null).get(0));
+		assertSame(proj, cache.fragments(Project.class, cache.stamp(), List.of(project), Project::getId, null).get(0));
+		assertThrows(IllegalArgumentException.class,
+				() -> cache.fragments(String.class, cache.stamp(), List.of("x"), String::length, null));
+	}
+
+	@Test
+	void boundedByBytes() {
+		long maxBytes = 16 * 1024;
+		JsonFragmentCache cache = cache(maxBytes);
+		List<Employee> employees = new ArrayList<>();
+		for (int id = 1; id <= 2000; id++) {
+			employees.add(employee(id, "员工" + id));
+		}
+		cache.fragments(Employee.class, cache.stamp(), employees, Employee::get_id, null);
+
+		Map<String, Object> stats = cache.stats();
+		assertTrue((long) stats.get("bytes") <= maxBytes, stats.toString());
+		assertTrue((long) stats.get("evictions") > 0, stats.toString());
+		assertTrue((long) stats.get("entries") < employees.size(), stats.toString());
+	}
+
+	private JsonFragmentCache cache(long maxBytes) {
+		return new JsonFragmentCache(objectMapper, new StaticListableBeanFactory(Map.of("meterRegistry", registry)).getBeanProvider(MeterRegistry.class), maxBytes);
+	}
+
+	private double requests(String result) {
+		return registry.get("smarthrm.json.fragment.cache.requests").tag("result", result).functionCounter().count();
+	}
+
+	private static Employee employee(int id, String name) {
+		Employee emp = new Employee();
+		emp.set_id(id);
+		emp.setEmpName(name);
+		emp.setDepId(id % 4);
+		emp.setSkillList(List.of(new Employee.SkillLevel(id % 7, 3)));
+		return emp;
+	}
+}
@@ -0,0 +1,83 @@
+package com.murasame.smarthrm.cache;
+
+import com.murasame.smarthrm.entity.Department;
+import com.murasame.smarthrm.entity.Skill;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 基础数据缓存测试：命中时不读库，写入后版本号/ETag变化并重新加载；超过存活时间后重新加载，数据变化时ETag才变化
+ */
+class ReferenceDataCacheTest {
+
+	@Test
+	void servesSnapshotUntilInvalidated() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.findAll(Skill.class)).thenReturn(List.of(new Skill()));
+		ReferenceDataCache cache = new ReferenceDataCache(mongoTemplate, Duration.ofMinutes(5));
+
+		ReferenceDataCache.Snapshot<Skill> first = cache.skills();
+		ReferenceDataCache.Snapshot<Skill> second = cache.skills();
+		assertSame(first, second);
+		verify(mongoTemplate, times(1)).findAll(Skill.class);
+		String formEtag = cache.etagOf(Department.class, Skill.class);
+
+		// 通过Repo/MongoTemplate保存技能 → 生命周期事件使缓存失效
+		Skill saved = new Skill();
+		cache.onAfterSave(new AfterSaveEvent<>(saved, new Document(), "Skill"));
+		ReferenceDataCache.Snapshot<Skill> third = cache.skills();
+		assertNotEquals(first.etag(), third.etag());
+		assertNotEquals(formEtag, cache.etagOf(Department.class, Skill.class));
+		verify(mongoTemplate, times(2)).findAll(Skill.class);
+
+		// 其他类型的写入不影响技能快照
+		cache.invalidate(Department.class);
+		assertSame(third, cache.skills());
+		// 组合ETag也经由快照取版本：部门首次加载一次，其余为命中
+		assertEquals(5L, cache.stats().get("hits"));
+		assertEquals(3L, cache.stats().get("misses"));
+		assertEquals(2L, cache.stats().get("invalidations"));
+	}
+
+	@Test
+	void reloadsAfterTtlAndChangesEtagOnlyWhenDataChanged() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		Skill java = new Skill();
+		java.setSkillName("Java");
+		when(mongoTemplate.findAll(Skill.class)).thenReturn(List.of(java));
+		AtomicLong now = new AtomicLong();
+		ReferenceDataCache cache = new ReferenceDataCache(mongoTemplate, Duration.ofMinutes(5), now::get);
+
+		ReferenceDataCache.Snapshot<Skill> first = cache.skills();
+		now.addAndGet(Duration.ofMinutes(4).toNanos());
+		assertSame(first, cache.skills());
+		verify(mongoTemplate, times(1)).findAll(Skill.class);
+
+		// 到期后重新加载，数据未变化时ETag不变
+		now.addAndGet(Duration.ofMinutes(2).toNanos());
+		assertEquals(first.etag(), cache.skills().etag());
+		verify(mongoTemplate, times(2)).findAll(Skill.class);
+		String formEtag = cache.etagOf(Skill.class);
+
+		// 其他节点修改了数据（本进程没有失效事件）：到期前仍是旧快照，到期后版本号/ETag变化
+		Skill go = new Skill();
+		go.setSkillName("Go");
+		when(mongoTemplate.findAll(Skill.class)).thenReturn(List.of(go));
+		assertSame(java, cache.skills().data().get(0));
+		now.addAndGet(Duration.ofMinutes(6).toNanos());
+		assertNotEquals(formEtag, cache.etagOf(Skill.class));
+		ReferenceDataCache.Snapshot<Skill> changed = cache.skills();
+		assertNotEquals(first.etag(), changed.etag());
+		assertSame(go, changed.data().get(0));
+		assertEquals(2L, cache.stats().get("expirations"));
+	}
+}
@@ -0,0 +1,120 @@
+package com.murasame.smarthrm.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.murasame.smarthrm.dto.SkillMatchDTO;
+import com.murasame.smarthrm.entity.Employee;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 技能匹配结果缓存测试：条件规范化（顺序、重复技能）命中同一条目；只失效与写入技能相交的条目；
+ * 查询期间发生的写入不会让旧结果被缓存为新结果；容量按字节数限制
+ */
+class SkillMatchResultCacheTest {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+	private final SkillMatchResultCache cache = new SkillMatchResultCache(objectMapper,
+			new StaticListableBeanFactory(Map.of("meterRegistry", registry)).getBeanProvider(MeterRegistry.class), 1 << 20);
+	private final List<List<SkillMatchDTO>> loads = new ArrayList<>();
+	private final Function<List<SkillMatchDTO>, List<Employee>> loader = reqs -> {
+		loads.add(reqs);
+		return List.of(employee(loads.size()));
+	};
+
+	@Test
+	void permutedAndDuplicatedRequirementsShareOneEntry() throws Exception {
+		JsonFragment first = cache.get(SkillMatchDTO.fromString("1:3,2:5"), loader);
+		JsonFragment second = cache.get(SkillMatchDTO.fromString("2:5,1:3"), loader);
+		JsonFragment third = cache.get(SkillMatchDTO.fromString("2:4,1:3,2:5"), loader);
+
+		assertEquals(List.of(List.of(new SkillMatchDTO(1, 3), new SkillMatchDTO(2, 5))), loads);
+		assertSame(first, second);
+		assertSame(first, third);
+		assertEquals(objectMapper.writeValueAsString(List.of(employee(1))), objectMapper.writeValueAsString(first));
+		// 最高要求不同则是不同条目
+		cache.get(SkillMatchDTO.fromString("1:3,2:4"), loader);
+		assertEquals(2, loads.size());
+
+		Map<String, Object> stats = cache.stats();
+		assertEquals(2L, stats.get("hits"));
+		assertEquals(2L, stats.get("misses"));
+		assertEquals(0.5, (double) stats.get("hitRatio"), 1e-9);
+		for (String result : List.of("hit", "miss")) {
+			assertEquals(2.0, registry.get("smarthrm.skillmatch.cache.requests").tag("result", result).functionCounter().count(), 1e-9);
+		}
+	}
+
+	@Test
+	void invalidationIsLimitedToIntersectingSkills() {
+		cache.get(SkillMatchDTO.fromString("1:3,2:5"), loader);
+		cache.get(SkillMatchDTO.fromString("3:1"), loader);
+		cache.get(SkillMatchDTO.fromString("2:1,4:2"), loader);
+
+		cache.invalidate(List.of(new Employee.SkillLevel(2, 4), new Employee.SkillLevel(9, 1)));
+
+		cache.get(SkillMatchDTO.fromString("1:3,2:5"), loader);
+		cache.get(SkillMatchDTO.fromString("3:1"), loader);
+		cache.get(SkillMatchDTO.fromString("4:2,2:1"), loader);
+		assertEquals(5, loads.size());
+		assertEquals(List.of(new SkillMatchDTO(3, 1)), loads.get(1));
+		assertEquals(List.of(new SkillMatchDTO(1, 3), new SkillMatchDTO(2, 5)), loads.get(3));
+
+		cache.invalidateAll();
+		cache.get(SkillMatchDTO.fromString("3:1"), loader);
+		assertEquals(6, loads.size());
+	}
+
+	@Test
+	void writeDuringLoadIsNotCachedAsFresh() {
+		// 查询读到旧数据后、放入缓存前，员工写入并失效了技能1
+		cache.get(SkillMatchDTO.fromString("1:3"), reqs -> {
+			cache.invalidate(List.of(new Employee.SkillLevel(1, 5)));
+			return loader.apply(reqs);
+		});
+		cache.get(SkillMatchDTO.fromString("1:3"), loader);
+		cache.get(SkillMatchDTO.fromString("1:3"), loader);
+		assertEquals(2, loads.size());
+	}
+
+	@Test
+	void emptyRequirementsBypassCache() {
+		cache.get(List.of(), loader);
+		cache.get(List.of(), loader);
+		assertEquals(2, loads.size());
+		assertEquals(0L, cache.stats().get("entries"));
+		assertThrows(IllegalArgumentException.class, () -> cache.get(List.of(new SkillMatchDTO(null, 1)), loader));
+	}
+
+	@Test
+	void boundedByBytes() {
+		long maxBytes = 16 * 1024;
+		SkillMatchResultCache small = new SkillMatchResultCache(objectMapper,
+				new StaticListableBeanFactory(Map.of("meterRegistry", new SimpleMeterRegistry())).getBeanProvider(MeterRegistry.class), maxBytes);
+		for (int skillId = 1; skillId <= 1000; skillId++) {
+			small.get(List.of(new SkillMatchDTO(skillId, 1)), loader);
+		}
+
+		Map<String, Object> stats = small.stats();
+		assertTrue((long) stats.get("bytes") <= maxBytes, stats.toString());
+		assertTrue((long) stats.get("evictions") > 0, stats.toString());
+	}
+
+	private static Employee employee(int id) {
+		Employee emp = new Employee();
+		emp.set_id(id);
+		emp.setEmpName("员工" + id);
+		emp.setSkillList(List.of(new Employee.SkillLevel(1, 3), new Employee.SkillLevel(2, 5)));
+		return emp;
+	}
+}
@@ -0,0 +1,57 @@
+package com.murasame.smarthrm.config;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 索引引导测试
+ * 1. 静态校验：每个登记的查询路径都有索引覆盖（首键命中过滤字段/排序字段），无需数据库；
+ * 2. explain校验：指定 -Dsmarthrm.test.mongo-uri=mongodb://... 时对真实库建索引并explain，出现COLLSCAN即失败
+ */
+class IndexBootstrapTest {
+
+	@Test
+	void everyRegisteredQueryHasCoveringIndex() {
+		List<String> uncovered = new ArrayList<>();
+		for (IndexBootstrap.QueryShape shape : IndexBootstrap.QUERIES) {
+			if (IndexBootstrap.coveringIndex(shape) == null) {
+				uncovered.add(shape.method());
+			}
+		}
+		assertEquals(List.of(), uncovered);
+		assertEquals("skillList.skillId_1_skillList.proficiency_1",
+				IndexBootstrap.coveringIndex(shape("EmployeeDao.findBySkillsRequired")).name());
+		assertEquals("projStatus_1_startDate_-1",
+				IndexBootstrap.coveringIndex(shape("ProjectRepo.findByProjStatusOrderByStartDateDesc")).name());
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "smarthrm.test.mongo-uri", matches = "mongodb.*")
+	void noRegisteredQueryResolvesToCollScan() {
+		String uri = System.getProperty("smarthrm.test.mongo-uri");
+		try (MongoClient client = MongoClients.create(uri)) {
+			IndexBootstrap bootstrap = new IndexBootstrap(new MongoTemplate(client, "smartHRM_index_test"));
+			bootstrap.ensureIndexes();
+			List<String> collScans = new ArrayList<>();
+			for (IndexBootstrap.QueryShape shape : IndexBootstrap.QUERIES) {
+				List<String> stages = bootstrap.explainStages(shape);
+				if (stages.contains("COLLSCAN")) {
+					collScans.add(shape.method() + " " + stages);
+				}
+			}
+			assertEquals(List.of(), collScans);
+		}
+	}
+
+	private static IndexBootstrap.QueryShape shape(String method) {
+		return IndexBootstrap.QUERIES.stream().filter(q -> q.method().equals(method)).findFirst().orElseThrow();
+	}
+}
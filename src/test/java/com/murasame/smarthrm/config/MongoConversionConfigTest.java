@@ -0,0 +1,140 @@
+package com.murasame.smarthrm.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.murasame.smarthrm.entity.Department;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.entity.Project;
+import com.murasame.smarthrm.seed.SyntheticOrgGenerator;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 紧凑嵌套类型的转换测试：库中文档读出再写回格式不变，JSON格式与原Map结构一致，早期数据容错读取；
+ * 员工/项目整文档读取转换器与默认映射的读取结果一致
+ */
+class MongoConversionConfigTest {
+
+	private final MappingMongoConverter converter = converter(new MongoConversionConfig().mongoCustomConversions());
+	// 仅注册嵌套值类型转换器，员工/项目走默认的反射映射，作为对照
+	private final MappingMongoConverter mapping = converter(new MongoCustomConversions(MongoConversionConfig.valueConverters()));
+
+	@Test
+	void roundTripKeepsStoredShape() {
+		Document stored = new Document("_id", 1)
+				.append("empName", "张三")
+				.append("depId", 2)
+				.append("skillList", List.of(new Document("skillId", 3).append("proficiency", 4)))
+				.append("projects", List.of(new Document("projId", 5), new Document("projId", 6)))
+				.append("trainingList", List.of(new Document("trainId", 7)))
+				.append("tasks", List.of(new Document("taskId", 8)));
+
+		Employee employee = converter.read(Employee.class, stored);
+		assertEquals(List.of(new Employee.SkillLevel(3, 4)), employee.getSkillList());
+		assertEquals(List.of(new Employee.ProjectRef(5), new Employee.ProjectRef(6)), employee.getProjects());
+		assertEquals(List.of(new Employee.TrainingRef(7)), employee.getTrainingList());
+		assertEquals(List.of(new Employee.TaskRef(8)), employee.getTasks());
+
+		Document written = new Document();
+		converter.write(employee, written);
+		written.remove("_class");
+		assertEquals(stored, written);
+
+		Document dept = new Document("_id", 1).append("depName", "研发部").append("managerId", 9)
+				.append("empList", List.of(new Document("empId", 9), new Document("empId", 10)));
+		Document deptWritten = new Document();
+		converter.write(converter.read(Department.class, dept), deptWritten);
+		deptWritten.remove("_class");
+		assertEquals(dept, deptWritten);
+
+		// 更新语句中的值（Update.set）同样按库中格式转换
+		assertEquals(List.of(new Document("skillId", 3).append("proficiency", 4)),
+				converter.convertToMongoType(employee.getSkillList()));
+	}
+
+	@Test
+	void jsonShapeUnchangedAndLegacySkillKeyTolerated() throws Exception {
+		Employee employee = new Employee();
+		employee.setSkillList(List.of(new Employee.SkillLevel(3, 4)));
+		employee.setProjects(List.of(new Employee.ProjectRef(5)));
+		String json = new ObjectMapper().writeValueAsString(employee);
+		assertTrue(json.contains("\"skillList\":[{\"skillId\":3,\"proficiency\":4}]"), json);
+		assertTrue(json.contains("\"projects\":[{\"projId\":5}]"), json);
+
+		Department dept = new ObjectMapper().readValue("{\"empList\":[{\"empId\":9}]}", Department.class);
+		assertEquals(List.of(new Department.EmpRef(9)), dept.getEmpList());
+
+		Employee legacy = converter.read(Employee.class, new Document("_id", 2)
+				.append("skillList", List.of(new Document("id", 3).append("proficiency", 2), new Document("skillId", 4))));
+		assertEquals(List.of(new Employee.SkillLevel(3, 2), new Employee.SkillLevel(4, null)), legacy.getSkillList());
+	}
+
+	@Test
+	void missingOrMalformedValuesAreNotReadAsZero() {
+		Employee employee = converter.read(Employee.class, new Document("_id", 2)
+				.append("skillList", List.of(new Document("skillId", "5").append("proficiency", 2L), new Document("proficiency", 3)))
+				.append("projects", List.of(new Document("projId", null), new Document("projId", 7.0))));
+		assertEquals(List.of(new Employee.SkillLevel(5, 2), new Employee.SkillLevel(null, 3)), employee.getSkillList());
+		assertEquals(List.of(new Employee.ProjectRef(null), new Employee.ProjectRef(7)), employee.getProjects());
+
+		// 缺失的字段保存后仍然缺失
+		assertEquals(List.of(new Document("skillId", 5).append("proficiency", 2), new Document("proficiency", 3)),
+				converter.convertToMongoType(employee.getSkillList()));
+		assertEquals(List.of(new Document(), new Document("projId", 7)), converter.convertToMongoType(employee.getProjects()));
+
+		// 无法转换的值读取失败，不会悄悄变成0
+		Document malformed = new Document("_id", 3).append("skillList", List.of(new Document("skillId", "Java").append("proficiency", 4)));
+		assertThrows(ConversionFailedException.class, () -> converter.read(Employee.class, malformed));
+	}
+
+	@Test
+	void entityReadersMatchDefaultMapping() {
+		List<Document> employees = new ArrayList<>();
+		List<Document> projects = new ArrayList<>();
+		new SyntheticOrgGenerator(new SyntheticOrgGenerator.Options(3L, 5, 300, 40, 200, 10, 30, 1.0, 100))
+				.generate((collection, batch) -> {
+					if ("Employee".equals(collection)) {
+						employees.addAll(batch);
+					} else if ("Project".equals(collection)) {
+						projects.addAll(batch);
+					}
+				});
+
+		// 投影查询的部分文档、Long/String数值、null元素与缺失字段、临时显示字段
+		employees.add(new Document("_id", 9001).append("empName", "李四")
+				.append("skillList", List.of(new Document("skillId", 3).append("proficiency", 4))));
+		employees.add(new Document("_id", 9002L).append("depId", "3").append("joinDate", new Date(0))
+				.append("projects", new ArrayList<>()).append("tasks", null)
+				.append("deptName", "研发部").append("deptType", "tech"));
+		projects.add(new Document("_id", 9001).append("projName", "P"));
+		projects.add(new Document("_id", 9002L).append("projStatus", 1L).append("startDate", new Date(0))
+				.append("members", List.of(new Document("empId", 1), new Document())).append("reqSkill", new ArrayList<>()));
+
+		for (Document doc : employees) {
+			assertEquals(mapping.read(Employee.class, doc), converter.read(Employee.class, doc), doc.toJson());
+		}
+		for (Document doc : projects) {
+			assertEquals(mapping.read(Project.class, doc), converter.read(Project.class, doc), doc.toJson());
+		}
+	}
+
+	private static MappingMongoConverter converter(MongoCustomConversions conversions) {
+		MongoMappingContext context = new MongoMappingContext();
+		context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		context.afterPropertiesSet();
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+		return converter;
+	}
+}
@@ -0,0 +1,81 @@
+package com.murasame.smarthrm.controller;
+
+import com.murasame.smarthrm.cache.JsonFragmentCache;
+import com.murasame.smarthrm.dao.DepartmentDao;
+import com.murasame.smarthrm.dao.TaskDao;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.entity.Task;
+import com.murasame.smarthrm.service.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 员工列表接口查询次数测试：无论页大小，补充部门名称/任务只允许固定次数的数据库查询（防止N+1回归）
+ */
+@ExtendWith(MockitoExtension.class)
+class EmployeeControllerTest {
+
+	@Mock
+	private EmployeeService employeeService;
+	@Mock
+	private DepartmentDao departmentDao;
+	@Mock
+	private TaskDao taskDao;
+	@Spy
+	private JsonFragmentCache jsonFragmentCache = new JsonFragmentCache(Jackson2ObjectMapperBuilder.json().build(),
+			new StaticListableBeanFactory(Map.of("meterRegistry", new SimpleMeterRegistry())).getBeanProvider(MeterRegistry.class),
+			1 << 20);
+	@InjectMocks
+	private EmployeeController employeeController;
+
+	@Test
+	void listEmployeesUsesConstantQueriesPerPage() {
+		List<Employee> page = new ArrayList<>();
+		for (int id = 1; id <= 100; id++) {
+			Employee emp = new Employee();
+			emp.set_id(id);
+			emp.setDepId(id % 3 == 0 ? null : id % 5);
+			page.add(emp);
+		}
+		when(employeeService.listEmployeesWithPage(isNull(), eq(1), eq(100)))
+				.thenReturn(new PageImpl<>(page, PageRequest.of(0, 100), 1000));
+		when(departmentDao.findDepNamesByIds(anyCollection()))
+				.thenReturn(Map.of(1, "研发部", 2, "市场部", 3, "财务部", 4, "人事部"));
+		Task task = new Task();
+		task.set_id(9);
+		task.setManagerId(2);
+		when(taskDao.findByManagerIds(anyCollection())).thenReturn(List.of(task));
+
+		assertTrue(employeeController.listEmployees(null, 1, 100, null, false).getStatusCode().is2xxSuccessful());
+
+		// 1次分页查询 + 1次部门名称查询 + 1次任务查询
+		verify(employeeService, times(1)).listEmployeesWithPage(any(), anyInt(), anyInt());
+		verify(departmentDao, times(1)).findDepNamesByIds(anyCollection());
+		verify(taskDao, times(1)).findByManagerIds(anyCollection());
+		verifyNoMoreInteractions(departmentDao, taskDao);
+
+		assertEquals("市场部", page.get(1).getDeptName());
+		assertEquals(List.of(new Employee.TaskRef(9)), page.get(1).getTasks());
+		assertEquals("未分配", page.get(2).getDeptName());
+		assertEquals("部门已删除", page.get(4).getDeptName());
+		assertTrue(page.get(0).getTasks().isEmpty());
+	}
+}
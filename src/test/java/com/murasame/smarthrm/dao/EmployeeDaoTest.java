@@ -0,0 +1,80 @@
+package com.murasame.smarthrm.dao;
+
+import com.murasame.smarthrm.dto.CursorPage;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.index.NameSearchIndex;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 员工游标分页测试：深分页只用 _id 范围条件 + limit，不使用skip；关键词分页在名称索引中定位，不取全部命中；
+ * 游标可往返解析，非法游标与页大小被拒绝
+ */
+class EmployeeDaoTest {
+
+	@Test
+	void cursorPageUsesRangePredicateWithoutSkip() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		NameSearchIndex nameSearchIndex = mock(NameSearchIndex.class);
+		EmployeeDao employeeDao = new EmployeeDao(mongoTemplate, nameSearchIndex);
+		List<Employee> fetched = new ArrayList<>();
+		for (int id = 100_001; id <= 100_011; id++) {
+			Employee emp = new Employee();
+			emp.set_id(id);
+			fetched.add(emp);
+		}
+		when(mongoTemplate.find(any(Query.class), eq(Employee.class))).thenReturn(fetched);
+
+		List<Employee> result = employeeDao.findByEmpNameLikeAfter("a.b", 100_000, 11);
+		CursorPage<Employee> page = CursorPage.of(result, 10, Employee::get_id, null, false);
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(captor.capture(), eq(Employee.class));
+		verify(mongoTemplate, never()).count(any(Query.class), eq(Employee.class));
+		Query query = captor.getValue();
+		assertEquals(0, query.getSkip());
+		assertEquals(11, query.getLimit());
+		assertEquals(new Document("$gt", 100_000), query.getQueryObject().get("_id"));
+		assertEquals(new Document("_id", 1), query.getSortObject());
+
+		assertEquals(10, page.getItems().size());
+		assertEquals(100_010, CursorPage.decode(page.getNextCursor()));
+		assertNull(CursorPage.of(result.subList(0, 5), 10, Employee::get_id, null, false).getNextCursor());
+		assertNull(CursorPage.decode(""));
+		assertThrows(IllegalArgumentException.class, () -> CursorPage.decode("not-a-cursor"));
+		assertThrows(IllegalArgumentException.class, () -> CursorPage.checkPageSize(0));
+		assertThrows(IllegalArgumentException.class, () -> CursorPage.checkPageSize(-1));
+		assertThrows(IllegalArgumentException.class, () -> CursorPage.checkPageSize(CursorPage.MAX_PAGE_SIZE + 1));
+	}
+
+	@Test
+	void keywordCursorPageSeeksInIndex() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		NameSearchIndex nameSearchIndex = mock(NameSearchIndex.class);
+		EmployeeDao employeeDao = new EmployeeDao(mongoTemplate, nameSearchIndex);
+		when(nameSearchIndex.isReady()).thenReturn(true);
+		when(nameSearchIndex.searchAfter(NameSearchIndex.Domain.EMPLOYEE, "张", 40, 3)).thenReturn(List.of(41, 57));
+		when(mongoTemplate.find(any(Query.class), eq(Employee.class))).thenReturn(List.of(employee(57), employee(41)));
+
+		List<Employee> result = employeeDao.findByEmpNameLikeAfter("张", 40, 3);
+
+		assertEquals(List.of(41, 57), result.stream().map(Employee::get_id).toList());
+		verify(nameSearchIndex, never()).searchAll(any(), any());
+	}
+
+	private static Employee employee(int id) {
+		Employee emp = new Employee();
+		emp.set_id(id);
+		return emp;
+	}
+}
@@ -0,0 +1,126 @@
+package com.murasame.smarthrm.dao;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.murasame.smarthrm.config.MongoConversionConfig;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.entity.Project;
+import com.murasame.smarthrm.entity.Training;
+import com.murasame.smarthrm.seed.SyntheticOrgGenerator;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSON直通输出测试：原始文档直接写出的JSON与「映射为实体再经Jackson序列化」的结果一致（含部分文档、别名、缺失字段），
+ * 分页结构与Page序列化一致
+ */
+class RawJsonDaoTest {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	private final MappingMongoConverter converter = converter();
+	private final RawJsonDao rawJsonDao = new RawJsonDao();
+
+	RawJsonDaoTest() {
+		ReflectionTestUtils.setField(rawJsonDao, "objectMapper", objectMapper);
+	}
+
+	@Test
+	void passthroughMatchesEntitySerialization() throws Exception {
+		Map<String, List<Document>> docs = new HashMap<>();
+		new SyntheticOrgGenerator(new SyntheticOrgGenerator.Options(5L, 5, 300, 40, 200, 20, 30, 1.0, 100))
+				.generate((collection, batch) -> docs.computeIfAbsent(collection, k -> new ArrayList<>()).addAll(batch));
+
+		// 投影查询的部分文档、未声明的字段、早期技能键、null与非文档元素
+		docs.get("Employee").add(new Document("_id", 9001).append("empName", "李\"四\"\n").append("password", "x")
+				.append("skillList", Arrays.asList(new Document("id", 3).append("proficiency", 4), new Document("skillId", 5), null, 7))
+				.append("tasks", null).append("projects", "bad"));
+		docs.get("Project").add(new Document("_id", 9001).append("projName", "P")
+				.append("members", List.of(new Document("empId", 1).append("role", "dev"), new Document())));
+		docs.get("Training").add(new Document("_id", 9001).append("trainName", "T"));
+
+		assertEquivalent(docs.get("Employee"), Employee.class, RawJsonDao.EMPLOYEE);
+		assertEquivalent(docs.get("Project"), Project.class, RawJsonDao.PROJECT);
+		assertEquivalent(docs.get("Training"), Training.class, RawJsonDao.TRAINING);
+	}
+
+	@Test
+	void mixedTypeIntegerFieldsMatchEntityReading() throws Exception {
+		// 早期数据中的整数字段：DOUBLE、INT64、DECIMAL128、数字字符串
+		assertEquivalent(List.of(new Document("_id", 9002L).append("empName", "王五").append("depId", "3")
+				.append("skillList", List.of(new Document("skillId", 4.0).append("proficiency", "5"),
+						new Document("id", new Decimal128(6L)).append("proficiency", 2L)))
+				.append("projects", List.of(new Document("projId", "7")))
+				.append("tasks", List.of(new Document("taskId", 8.0)))), Employee.class, RawJsonDao.EMPLOYEE);
+		assertEquivalent(List.of(new Document("_id", "9002").append("projName", "P").append("projStatus", 1.0)
+				.append("members", List.of(new Document("empId", 2L)))
+				.append("reqSkill", List.of(new Document("skillId", "3")))), Project.class, RawJsonDao.PROJECT);
+		assertEquivalent(List.of(new Document("_id", 9002.0).append("trainName", "T").append("skillId", "4")
+				.append("members", List.of(1, 2.0, 3L, "4"))), Training.class, RawJsonDao.TRAINING);
+
+		// 无法解析的字符串：实体读取失败，直通输出同样失败而不是原样输出
+		Document malformed = new Document("_id", 9003).append("depId", "abc");
+		assertThrows(ConversionFailedException.class, () -> converter.read(Employee.class, malformed));
+		assertThrows(NumberFormatException.class,
+				() -> RawJsonDao.write(raw(malformed), RawJsonDao.EMPLOYEE, objectMapper.getFactory().createGenerator(new ByteArrayOutputStream())));
+	}
+
+	@Test
+	void pageShapeMatchesPageSerialization() throws Exception {
+		List<Document> docs = List.of(new Document("_id", 11).append("trainName", "A").append("skillId", 1).append("members", List.of(1, 2)),
+				new Document("_id", 12).append("trainName", "B"));
+		PageRequest pageable = PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "_id"));
+		List<Training> entities = docs.stream().map(doc -> converter.read(Training.class, doc)).toList();
+
+		ByteArrayOutputStream json = new ByteArrayOutputStream();
+		try (JsonGenerator gen = objectMapper.getFactory().createGenerator(json)) {
+			rawJsonDao.writePage(docs.stream().map(RawJsonDaoTest::raw).toList(),
+					new PageImpl<>(Collections.nCopies(docs.size(), null), pageable, 7), RawJsonDao.TRAINING, gen);
+		}
+		assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(new PageImpl<>(entities, pageable, 7))),
+				objectMapper.readTree(json.toByteArray()));
+	}
+
+	private void assertEquivalent(List<Document> docs, Class<?> type, RawJsonDao.Projection projection) throws Exception {
+		for (Document doc : docs) {
+			ByteArrayOutputStream json = new ByteArrayOutputStream();
+			try (JsonGenerator gen = objectMapper.getFactory().createGenerator(json)) {
+				RawJsonDao.write(raw(doc), projection, gen);
+			}
+			assertEquals(objectMapper.valueToTree(converter.read(type, doc)), objectMapper.readTree(json.toByteArray()),
+					doc.toJson());
+		}
+	}
+
+	private static RawBsonDocument raw(Document doc) {
+		return new RawBsonDocument(doc, new DocumentCodec());
+	}
+
+	private static MappingMongoConverter converter() {
+		MongoCustomConversions conversions = new MongoConversionConfig().mongoCustomConversions();
+		MongoMappingContext context = new MongoMappingContext();
+		context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		context.afterPropertiesSet();
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+		return converter;
+	}
+}
@@ -0,0 +1,101 @@
+package com.murasame.smarthrm.dao;
+
+import com.murasame.smarthrm.config.MongoConversionConfig;
+import com.murasame.smarthrm.dto.ProjectTaskGroupDTO;
+import com.murasame.smarthrm.entity.Task;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypeBasedAggregationOperationContext;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 项目任务分组聚合测试：按实体映射渲染出的管道为 $match projId $in → $sort → $group（push + 条件计数）→ $project，
+ * 管道输出形状的文档经实体映射得到ProjectTaskGroupDTO并按项目ID分组
+ */
+class TaskDaoTest {
+
+	private final MongoMappingContext mappingContext = new MongoMappingContext();
+	private final MappingMongoConverter converter = converter();
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final TaskDao taskDao = new TaskDao();
+
+	TaskDaoTest() {
+		ReflectionTestUtils.setField(taskDao, "mongoTemplate", mongoTemplate);
+	}
+
+	@Test
+	void groupByProjIdsRendersOnePipelineAndMapsGroups() {
+		// 管道最后一个$project阶段输出的文档：projId取自分组键，_id不输出
+		List<Document> output = List.of(
+				new Document("tasks", List.of(task(101, 1, 0), task(102, 1, 1), task(103, 1, 0)))
+						.append("completed", 1).append("pending", 2).append("projId", 1),
+				new Document("tasks", List.of(task(201, 2, 1)))
+						.append("completed", 1).append("pending", 0).append("projId", 2));
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq(Task.class), eq(ProjectTaskGroupDTO.class)))
+				.thenAnswer(inv -> new AggregationResults<>(output.stream()
+						.map(doc -> converter.read(ProjectTaskGroupDTO.class, doc)).toList(), new Document()));
+
+		Map<Integer, ProjectTaskGroupDTO> groups = taskDao.groupByProjIds(List.of(1, 2, 3));
+
+		ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+		verify(mongoTemplate, times(1)).aggregate(captor.capture(), eq(Task.class), eq(ProjectTaskGroupDTO.class));
+		List<Document> pipeline = captor.getValue().toPipeline(
+				new TypeBasedAggregationOperationContext(Task.class, mappingContext, new QueryMapper(converter)));
+		assertEquals(List.of(
+				Document.parse("{$match: {projId: {$in: [1, 2, 3]}}}"),
+				Document.parse("{$sort: {_id: 1}}"),
+				Document.parse("{$group: {_id: '$projId', tasks: {$push: '$$ROOT'},"
+						+ " completed: {$sum: {$cond: {if: {$eq: ['$taskStatus', 1]}, then: 1, else: 0}}},"
+						+ " pending: {$sum: {$cond: {if: {$eq: ['$taskStatus', 0]}, then: 1, else: 0}}}}}"),
+				Document.parse("{$project: {tasks: 1, completed: 1, pending: 1, _id: 0, projId: '$_id'}}")),
+				pipeline);
+		assertTrue(captor.getValue().getOptions().isAllowDiskUse());
+
+		// 没有任务的项目3不在结果中
+		assertEquals(Set.of(1, 2), groups.keySet());
+		ProjectTaskGroupDTO first = groups.get(1);
+		assertEquals(1, first.getProjId());
+		assertEquals(List.of(101, 102, 103), first.getTasks().stream().map(Task::get_id).toList());
+		assertEquals("任务102", first.getTasks().get(1).getTaskName());
+		assertEquals(1, first.getTasks().get(1).getTaskStatus());
+		assertEquals(1L, first.getCompleted());
+		assertEquals(2L, first.getPending());
+		assertEquals(0L, groups.get(2).getPending());
+
+		// 空ID集合不访问数据库
+		assertTrue(taskDao.groupByProjIds(List.of()).isEmpty());
+		verifyNoMoreInteractions(mongoTemplate);
+	}
+
+	private static Document task(int id, int projId, int status) {
+		return new Document("_id", id).append("projId", projId).append("taskName", "任务" + id)
+				.append("managerId", 7).append("taskStatus", status);
+	}
+
+	private MappingMongoConverter converter() {
+		MongoCustomConversions conversions = new MongoConversionConfig().mongoCustomConversions();
+		mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		mappingContext.afterPropertiesSet();
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+		return converter;
+	}
+}
@@ -0,0 +1,69 @@
+package com.murasame.smarthrm.index;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 名称搜索索引测试：中文子串/前缀排序、分页与游标分页、正则元字符按字面匹配、增量维护
+ */
+class NameSearchIndexTest {
+
+	@Test
+	void ranksCjkMatchesAndTreatsInputLiterally() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenReturn(List.of());
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("Project"))).thenReturn(List.of(
+				project(1, "智能人事管理系统"),
+				project(2, "人事系统"),
+				project(3, "人事"),
+				project(4, "财务系统（二期）"),
+				project(5, "Data.*Platform"),
+				project(6, "DataXPlatform")));
+		NameSearchIndex index = new NameSearchIndex(mongoTemplate);
+		index.rebuild();
+		assertTrue(index.isReady());
+
+		// 完全匹配 > 前缀 > 子串
+		assertEquals(List.of(3, 2, 1), index.searchAll(NameSearchIndex.Domain.PROJECT, "人事"));
+		assertEquals(List.of(2, 4, 1), index.searchAll(NameSearchIndex.Domain.PROJECT, "系统"));
+		// 单字查询
+		assertEquals(List.of(4), index.searchAll(NameSearchIndex.Domain.PROJECT, "财"));
+		// bigram全部命中但不连续的名称被过滤
+		assertEquals(List.of(), index.searchAll(NameSearchIndex.Domain.PROJECT, "人事管理系统二"));
+		// 正则元字符按字面匹配、忽略大小写
+		assertEquals(List.of(5), index.searchAll(NameSearchIndex.Domain.PROJECT, ".*p"));
+		assertEquals(List.of(6, 5), index.searchAll(NameSearchIndex.Domain.PROJECT, "data"));
+
+		// 分页
+		NameSearchIndex.Result page = index.search(NameSearchIndex.Domain.PROJECT, "系统", 1, 1);
+		assertEquals(3, page.total());
+		assertEquals(List.of(4), page.ids());
+
+		// 游标分页：按ID升序，从afterId之后取
+		assertEquals(List.of(1, 2), index.searchAfter(NameSearchIndex.Domain.PROJECT, "系统", null, 2));
+		assertEquals(List.of(4), index.searchAfter(NameSearchIndex.Domain.PROJECT, "系统", 2, 2));
+		assertEquals(List.of(4), index.searchAfter(NameSearchIndex.Domain.PROJECT, "系统", 3, 5));
+		assertEquals(List.of(), index.searchAfter(NameSearchIndex.Domain.PROJECT, "人事管理系统二", null, 5));
+		assertEquals(List.of(6), index.searchAfter(NameSearchIndex.Domain.PROJECT, "data", 5, 5));
+
+		// 增量维护：改名、删除
+		index.put(NameSearchIndex.Domain.PROJECT, 3, "薪酬核算");
+		assertEquals(List.of(2, 1), index.searchAll(NameSearchIndex.Domain.PROJECT, "人事"));
+		index.remove(NameSearchIndex.Domain.PROJECT, 2);
+		assertEquals(List.of(1), index.searchAll(NameSearchIndex.Domain.PROJECT, "人事"));
+		assertEquals("薪酬核算", index.nameOf(NameSearchIndex.Domain.PROJECT, 3));
+	}
+
+	private static Document project(int id, String name) {
+		return new Document("_id", id).append("projName", name);
+	}
+}
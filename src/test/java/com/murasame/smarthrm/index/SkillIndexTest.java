@@ -0,0 +1,81 @@
+package com.murasame.smarthrm.index;
+
+import com.murasame.smarthrm.dao.EmployeeDao;
+import com.murasame.smarthrm.dto.SkillMatchDTO;
+import com.murasame.smarthrm.entity.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 技能倒排索引测试：随机员工集合上与逐个比对的暴力结果保持一致，增量维护后结果同步变化
+ */
+class SkillIndexTest {
+
+	@Test
+	void matchesBruteForceAndFollowsUpdates() {
+		Random random = new Random(42);
+		List<Employee> employees = new ArrayList<>();
+		for (int id = 1; id <= 5000; id++) {
+			employees.add(employee(id, randomSkills(random)));
+		}
+		EmployeeDao dao = mock(EmployeeDao.class);
+		when(dao.findAllSkillLists()).thenReturn(employees);
+		SkillIndex index = new SkillIndex(dao);
+		assertFalse(index.isReady());
+		index.rebuild();
+		assertTrue(index.isReady());
+
+		for (int q = 0; q < 200; q++) {
+			List<SkillMatchDTO> reqs = new ArrayList<>();
+			for (int i = 0, n = 1 + random.nextInt(3); i < n; i++) {
+				reqs.add(new SkillMatchDTO(1 + random.nextInt(10), 1 + random.nextInt(5)));
+			}
+			assertArrayEquals(bruteForce(employees, reqs), index.match(reqs), "条件：" + reqs);
+		}
+
+		// 增量维护：修改技能、删除员工
+		List<SkillMatchDTO> reqs = SkillMatchDTO.fromString("1:5,2:5");
+		index.put(1, List.of(skill(1, 5), skill(2, 5)));
+		assertTrue(Arrays.stream(index.match(reqs)).anyMatch(id -> id == 1));
+		index.put(1, List.of(skill(1, 5), skill(2, 4)));
+		assertTrue(Arrays.stream(index.match(reqs)).noneMatch(id -> id == 1));
+		index.put(7000, List.of(skill(1, 5), skill(2, 5)));
+		assertTrue(Arrays.stream(index.match(reqs)).anyMatch(id -> id == 7000));
+		index.remove(7000);
+		assertTrue(Arrays.stream(index.match(reqs)).noneMatch(id -> id == 7000));
+	}
+
+	private static int[] bruteForce(List<Employee> employees, List<SkillMatchDTO> reqs) {
+		return employees.stream()
+				.filter(emp -> reqs.stream().allMatch(req -> emp.getSkillList().stream()
+						.anyMatch(s -> req.getSkillId().equals(s.skillId()) && s.proficiency() >= req.getMinLevel())))
+				.mapToInt(Employee::get_id)
+				.sorted()
+				.toArray();
+	}
+
+	private static List<Employee.SkillLevel> randomSkills(Random random) {
+		Map<Integer, Employee.SkillLevel> skills = new HashMap<>();
+		for (int i = 0, n = random.nextInt(5); i < n; i++) {
+			int skillId = 1 + random.nextInt(10);
+			skills.put(skillId, skill(skillId, 1 + random.nextInt(5)));
+		}
+		return new ArrayList<>(skills.values());
+	}
+
+	private static Employee employee(int id, List<Employee.SkillLevel> skills) {
+		Employee emp = new Employee();
+		emp.set_id(id);
+		emp.setSkillList(skills);
+		return emp;
+	}
+
+	private static Employee.SkillLevel skill(int skillId, int proficiency) {
+		return new Employee.SkillLevel(skillId, proficiency);
+	}
+}
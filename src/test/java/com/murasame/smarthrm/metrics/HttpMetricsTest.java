@@ -0,0 +1,86 @@
+package com.murasame.smarthrm.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * HTTP指标测试：请求按路由模板（而非原始URL）记录耗时直方图与响应大小，并可从Prometheus端点抓取；
+ * 以异常结束的请求的响应大小记为500/SERVER_ERROR；/internal接口需登录
+ */
+@SpringBootTest(properties = {"spring.security.user.name=ops", "spring.security.user.password=secret"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class HttpMetricsTest {
+
+	private static final String BASIC_AUTH =
+			"Basic " + Base64.getEncoder().encodeToString("ops:secret".getBytes(StandardCharsets.UTF_8));
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void prometheusEndpointExposesRouteTemplateMetrics() throws Exception {
+		// 内部接口需登录
+		mockMvc.perform(get("/internal/reference-cache")).andExpect(status().isUnauthorized());
+		mockMvc.perform(delete("/internal/mongo-stats")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/internal/reference-cache").header(HttpHeaders.AUTHORIZATION, BASIC_AUTH))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/export/{entity}", "unknown")).andExpect(status().isNotFound());
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertTrue(scrape.matches("(?s).*http_server_requests_seconds_count\\{[^}]*uri=\"/internal/reference-cache\"[^}]*} 1.*"));
+		assertTrue(scrape.matches("(?s).*http_server_requests_seconds\\{[^}]*uri=\"/internal/reference-cache\",quantile=\"0.999\"}.*"));
+		// 路由模板而非原始路径
+		assertTrue(scrape.contains("uri=\"/export/{entity}\""));
+		assertFalse(scrape.contains("/export/unknown"));
+		assertTrue(scrape.matches("(?s).*http_server_response_size_bytes_sum\\{[^}]*uri=\"/internal/reference-cache\"[^}]*} [1-9].*"));
+	}
+
+	@Test
+	void failedRequestIsTaggedAsServerError() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		ResponseSizeMetricsFilter filter = new ResponseSizeMetricsFilter(registry);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees/1");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/employees/{id}");
+
+		// 异常在错误分派前穿过过滤器，响应状态仍为200
+		assertThrows(ServletException.class, () -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+			res.getOutputStream().write(new byte[3]);
+			throw new ServletException("boom");
+		}));
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> res.getOutputStream().write(new byte[5]));
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> res.getOutputStream().write(new byte[7]));
+
+		DistributionSummary failed = registry.get("http.server.response.size").tags("status", "500", "outcome", "SERVER_ERROR").summary();
+		assertEquals(1, failed.count());
+		assertEquals(3, failed.totalAmount());
+		DistributionSummary ok = registry.get("http.server.response.size").tags("status", "200", "outcome", "SUCCESS").summary();
+		assertEquals(2, ok.count());
+		assertEquals(12, ok.totalAmount());
+	}
+}
@@ -0,0 +1,117 @@
+package com.murasame.smarthrm.metrics;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.murasame.smarthrm.dao.TaskRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Mongo命令统计测试：调用方识别（含Repository代理）、延迟/文档数/回复大小统计、单个请求的命令计数
+ */
+class MongoCommandStatsTest {
+
+	private static final ConnectionDescription CONNECTION =
+			new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+	private final MongoCommandStats stats = new MongoCommandStats(provider(registry), 5);
+	private final AtomicInteger requestIds = new AtomicInteger();
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void tagsCommandsWithCallingRepositoryMethod() {
+		// Spring Data Repository以JDK代理实现，命令在代理方法内发出
+		TaskRepo repo = (TaskRepo) Proxy.newProxyInstance(TaskRepo.class.getClassLoader(), new Class<?>[]{TaskRepo.class},
+				(proxy, method, args) -> {
+					runCommand("find", findReply(3), 2_000_000);
+					return List.of();
+				});
+
+		stats.startRequest();
+		repo.findByProjId(1);
+		repo.findByProjId(2);
+		runCommand("update", new BsonDocument("n", new BsonInt32(4)), 1_000_000);
+		assertEquals(3, stats.finishRequest("GET /projects/{id}"));
+
+		List<Map<String, Object>> commands = (List<Map<String, Object>>) stats.report().get("commands");
+		Map<String, Object> find = commands.get(0);
+		assertEquals("TaskRepo.findByProjId", find.get("method"));
+		assertEquals("find", find.get("command"));
+		assertEquals(2L, find.get("count"));
+		assertEquals(6L, find.get("documents"));
+		assertEquals(2.0, (double) find.get("p99Ms"), 0.01);
+		assertEquals(new RawBsonDocument(findReply(3), new BsonDocumentCodec()).getByteBuffer().remaining(),
+				(long) find.get("avgReplyBytes"));
+		Map<String, Object> update = commands.get(1);
+		// 栈上没有应用内的调用方（本包自身不计）时归为other
+		assertEquals("other", update.get("method"));
+		assertEquals(4L, update.get("documents"));
+
+		assertEquals(2, registry.get("mongo.command").tag("method", "TaskRepo.findByProjId").timer().count());
+		assertEquals(3.0, registry.get("http.server.requests.mongo.commands").summary().totalAmount());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void countsCommandsPerRequestOnlyWhileCounting() {
+		runCommand("find", findReply(1), 1_000);
+		stats.startRequest();
+		for (int i = 0; i < 8; i++) {
+			runCommand("find", findReply(1), 1_000);
+		}
+		assertEquals(8, stats.finishRequest("GET /employees/"));
+		stats.startRequest();
+		runCommand("find", findReply(1), 1_000);
+		assertEquals(1, stats.finishRequest("GET /employees/"));
+
+		Map<String, Object> route = ((List<Map<String, Object>>) stats.report().get("requests")).get(0);
+		assertEquals(2L, route.get("requests"));
+		assertEquals(4.5, route.get("meanCommands"));
+		assertEquals(8L, route.get("maxCommands"));
+
+		stats.reset();
+		assertTrue(((List<?>) stats.report().get("commands")).isEmpty());
+	}
+
+	private void runCommand(String name, BsonDocument reply, long nanos) {
+		int requestId = requestIds.incrementAndGet();
+		stats.commandStarted(new CommandStartedEvent(null, 1, requestId, CONNECTION, "smartHRM", name, new BsonDocument()));
+		stats.commandSucceeded(new CommandSucceededEvent(null, 1, requestId, CONNECTION, "smartHRM", name, reply, nanos));
+	}
+
+	private static BsonDocument findReply(int docs) {
+		BsonArray batch = new BsonArray();
+		for (int i = 0; i < docs; i++) {
+			batch.add(new BsonDocument("_id", new BsonInt32(i)));
+		}
+		return new BsonDocument("cursor", new BsonDocument("firstBatch", batch)).append("ok", new BsonInt32(1));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ObjectProvider<MeterRegistry> provider(MeterRegistry registry) {
+		ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable(any())).thenReturn(registry);
+		return provider;
+	}
+}
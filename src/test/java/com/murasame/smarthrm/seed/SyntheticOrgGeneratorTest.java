@@ -0,0 +1,105 @@
+package com.murasame.smarthrm.seed;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 合成组织数据生成器测试：规模、批大小、双向引用一致性、种子确定性、技能热度分布
+ */
+class SyntheticOrgGeneratorTest {
+
+	private static final SyntheticOrgGenerator.Options SMALL =
+			new SyntheticOrgGenerator.Options(7L, 10, 2_000, 150, 3_000, 40, 50, 1.0, 500);
+
+	@Test
+	void generatesConsistentBidirectionalReferences() {
+		Map<String, List<Document>> docs = new HashMap<>();
+		Map<String, Integer> counts = new SyntheticOrgGenerator(SMALL).generate((collection, batch) -> {
+			assertTrue(batch.size() <= SMALL.batchSize());
+			docs.computeIfAbsent(collection, k -> new ArrayList<>()).addAll(batch);
+		});
+
+		assertEquals(Map.of("Skill", 50, "Department", 10, "Project", 150, "Training", 40, "Task", 3_000, "Employee", 2_000), counts);
+		Map<Integer, Document> employees = byId(docs.get("Employee"));
+
+		// Department.empList ↔ Employee.depId
+		int assigned = 0;
+		for (Document dept : docs.get("Department")) {
+			for (Document ref : dept.getList("empList", Document.class)) {
+				assertEquals(dept.get("_id"), employees.get(ref.getInteger("empId")).get("depId"));
+				assigned++;
+			}
+		}
+		assertEquals(2_000, assigned);
+
+		// Project.members ↔ Employee.projects
+		assertEquals(edges(docs.get("Project"), "members", "empId"), reverseEdges(employees, "projects", "projId"));
+
+		// Training.members ↔ Employee.trainingList
+		Set<List<Integer>> trainingEdges = new HashSet<>();
+		for (Document training : docs.get("Training")) {
+			for (Integer empId : training.getList("members", Integer.class)) {
+				trainingEdges.add(List.of(training.getInteger("_id"), empId));
+			}
+		}
+		assertEquals(trainingEdges, reverseEdges(employees, "trainingList", "trainId"));
+
+		// Task.managerId ↔ Employee.tasks，且负责人是任务所属项目的成员
+		Map<Integer, Document> projects = byId(docs.get("Project"));
+		Set<List<Integer>> taskEdges = new HashSet<>();
+		for (Document task : docs.get("Task")) {
+			taskEdges.add(List.of(task.getInteger("_id"), task.getInteger("managerId")));
+			assertTrue(projects.get(task.getInteger("projId")).getList("members", Document.class)
+					.contains(new Document("empId", task.getInteger("managerId"))));
+		}
+		assertEquals(taskEdges, reverseEdges(employees, "tasks", "taskId"));
+	}
+
+	@Test
+	void sameSeedGivesSameDataAndSkillsAreSkewed() {
+		List<Document> first = new ArrayList<>();
+		List<Document> second = new ArrayList<>();
+		new SyntheticOrgGenerator(SMALL).generate((collection, batch) -> first.addAll(batch));
+		new SyntheticOrgGenerator(SMALL).generate((collection, batch) -> second.addAll(batch));
+		assertEquals(first, second);
+
+		// Zipf：最热门的技能被掌握的次数远多于排名靠后的技能
+		int[] holders = new int[SMALL.skills() + 1];
+		first.stream().filter(doc -> doc.containsKey("skillList"))
+				.flatMap(doc -> doc.getList("skillList", Document.class).stream())
+				.forEach(skill -> holders[skill.getInteger("skillId")]++);
+		assertTrue(holders[1] > 5 * holders[SMALL.skills()]);
+	}
+
+	private static Map<Integer, Document> byId(List<Document> docs) {
+		Map<Integer, Document> map = new HashMap<>();
+		docs.forEach(doc -> map.put(doc.getInteger("_id"), doc));
+		return map;
+	}
+
+	// 正向引用：(文档ID, 员工ID)
+	private static Set<List<Integer>> edges(List<Document> docs, String field, String key) {
+		Set<List<Integer>> edges = new HashSet<>();
+		for (Document doc : docs) {
+			for (Document ref : doc.getList(field, Document.class)) {
+				edges.add(List.of(doc.getInteger("_id"), ref.getInteger(key)));
+			}
+		}
+		return edges;
+	}
+
+	// 员工侧的反向引用：(被引用文档ID, 员工ID)
+	private static Set<List<Integer>> reverseEdges(Map<Integer, Document> employees, String field, String key) {
+		Set<List<Integer>> edges = new HashSet<>();
+		employees.forEach((empId, emp) -> {
+			for (Document ref : emp.getList(field, Document.class)) {
+				edges.add(List.of(ref.getInteger(key), empId));
+			}
+		});
+		return edges;
+	}
+}
@@ -0,0 +1,179 @@
+package com.murasame.smarthrm.service.impl;
+
+import com.murasame.smarthrm.cache.JsonFragmentCache;
+import com.murasame.smarthrm.cache.SkillMatchResultCache;
+import com.murasame.smarthrm.dao.DepartmentDao;
+import com.murasame.smarthrm.dao.EmployeeDao;
+import com.murasame.smarthrm.dto.DepartmentDTO;
+import com.murasame.smarthrm.entity.Department;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.service.IdSequenceService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 部门业务测试
+ * 1. 员工迁移：迁移任意数量员工时，员工与原部门各只批量写一次（按原部门分组），不再逐人读写原部门；
+ * 2. 部门列表：无论部门数量，DTO组装只额外查询一次员工姓名；
+ * 3. 负责人校验在迁移员工之前；迁移中途失败时仍失效员工相关缓存
+ */
+@ExtendWith(MockitoExtension.class)
+class DepartmentServiceImplTest {
+
+	@Mock
+	private DepartmentDao departmentDao;
+	@Mock
+	private EmployeeDao employeeDao;
+	@Mock
+	private IdSequenceService idSequenceService;
+	@Mock
+	private JsonFragmentCache jsonFragmentCache;
+	@Mock
+	private SkillMatchResultCache skillMatchResultCache;
+	@InjectMocks
+	private DepartmentServiceImpl departmentService;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void saveDepartmentMigratesThousandsInTwoBulkWrites() {
+		List<Integer> empIds = new ArrayList<>();
+		List<Employee> emps = new ArrayList<>();
+		for (int id = 1; id <= 2000; id++) {
+			empIds.add(id);
+			emps.add(employee(id, id % 5 == 0 ? null : id % 5)); // 原部门1~4，部分员工无部门
+		}
+		when(idSequenceService.nextId(IdSequenceService.DEPARTMENT)).thenReturn(100);
+		when(employeeDao.findByIds(anyList())).thenReturn(emps);
+		Department dept = new Department();
+		dept.setDepName("重组部");
+		dept.setEmpIds(empIds);
+		dept.setManagerId(1);
+
+		departmentService.saveDepartment(dept);
+
+		ArgumentCaptor<Map<Integer, List<Integer>>> targets = ArgumentCaptor.forClass(Map.class);
+		ArgumentCaptor<Map<Integer, List<Integer>>> sources = ArgumentCaptor.forClass(Map.class);
+		verify(employeeDao, times(1)).bulkUpdateDepIds(targets.capture());
+		verify(departmentDao, times(1)).bulkPullEmployees(sources.capture());
+		verify(employeeDao, never()).updateDepId(any(), any());
+		verify(departmentDao, never()).findById(any());
+		verify(departmentDao, never()).update(any());
+		verify(departmentDao, times(1)).save(dept);
+
+		assertEquals(Set.of(100), targets.getValue().keySet());
+		assertEquals(2000, targets.getValue().get(100).size());
+		assertEquals(Set.of(1, 2, 3, 4), sources.getValue().keySet());
+		assertEquals(400, sources.getValue().get(1).size());
+		assertTrue(sources.getValue().get(1).contains(1));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void updateDepartmentDetachesRemovedAndPullsAddedFromSources() {
+		Department old = new Department();
+		old.setId(7);
+		old.setEmpList(new ArrayList<>(List.of(new Department.EmpRef(1), new Department.EmpRef(2))));
+		when(departmentDao.findById(7)).thenReturn(old);
+		when(employeeDao.findByIds(anyList())).thenReturn(List.of(employee(3, 8), employee(4, 8), employee(5, null)));
+		Department dept = new Department();
+		dept.setId(7);
+		dept.setDepName("研发部");
+		dept.setEmpIds(List.of(1, 3, 4, 5));
+
+		departmentService.updateDepartment(dept);
+
+		ArgumentCaptor<Map<Integer, List<Integer>>> targets = ArgumentCaptor.forClass(Map.class);
+		verify(employeeDao, times(1)).bulkUpdateDepIds(targets.capture());
+		assertEquals(List.of(2), targets.getValue().get(null));
+		assertEquals(List.of(3, 4, 5), targets.getValue().get(7));
+		verify(departmentDao, times(1)).bulkPullEmployees(Map.of(8, List.of(3, 4)));
+		verify(departmentDao, times(1)).update(dept);
+	}
+
+	@Test
+	void invalidManagerFailsBeforeMigratingEmployees() {
+		Department old = new Department();
+		old.setId(7);
+		old.setEmpList(new ArrayList<>(List.of(new Department.EmpRef(1))));
+		when(departmentDao.findById(7)).thenReturn(old);
+		when(employeeDao.findByIds(anyList())).thenReturn(List.of(employee(3, 8)));
+		Department dept = new Department();
+		dept.setId(7);
+		dept.setEmpIds(List.of(3));
+		dept.setManagerId(1);
+
+		RuntimeException e = assertThrows(RuntimeException.class, () -> departmentService.updateDepartment(dept));
+
+		assertEquals("部门负责人ID:1 必须是本部门员工", e.getMessage());
+		verify(employeeDao, never()).bulkUpdateDepIds(any());
+		verify(departmentDao, never()).bulkPullEmployees(any());
+		verify(departmentDao, never()).update(any());
+	}
+
+	@Test
+	void failedMigrationStillInvalidatesEmployeeCaches() {
+		when(idSequenceService.nextId(IdSequenceService.DEPARTMENT)).thenReturn(100);
+		when(employeeDao.findByIds(anyList())).thenReturn(List.of(employee(3, 8)));
+		doThrow(new IllegalStateException("bulk write failed")).when(departmentDao).bulkPullEmployees(any());
+		Department dept = new Department();
+		dept.setEmpIds(List.of(3));
+		dept.setManagerId(3);
+
+		assertThrows(IllegalStateException.class, () -> departmentService.saveDepartment(dept));
+
+		// 员工的部门ID已在失败前改写
+		verify(employeeDao).bulkUpdateDepIds(any());
+		verify(jsonFragmentCache).invalidateAll(Employee.class);
+		verify(skillMatchResultCache).invalidateAll();
+	}
+
+	@Test
+	void listAllDepartmentsTakesTwoQueries() {
+		List<Department> depts = new ArrayList<>();
+		Map<Integer, String> names = new HashMap<>();
+		for (int id = 1; id <= 2000; id++) {
+			Department dept = new Department();
+			dept.setId(id);
+			dept.setDepName("部门" + id);
+			dept.setManagerId(id * 10);
+			dept.setEmpList(List.of(new Department.EmpRef(id * 10), new Department.EmpRef(id * 10 + 1)));
+			depts.add(dept);
+			names.put(id * 10, "经理" + id);
+			if (id != 2000) names.put(id * 10 + 1, "员工" + id); // 最后一个部门有一名员工已不存在
+		}
+		depts.get(0).setManagerId(null);
+		when(departmentDao.findByDepNameLikeIgnoreCase(null)).thenReturn(depts);
+		when(employeeDao.findEmpNamesByIds(anyCollection())).thenReturn(names);
+
+		List<DepartmentDTO> dtos = departmentService.listDepartments(null, 1, -1).getContent();
+
+		verify(departmentDao, times(1)).findByDepNameLikeIgnoreCase(null);
+		verify(employeeDao, times(1)).findEmpNamesByIds(argThat(ids -> ids.size() == 4000));
+		verify(employeeDao, never()).findById(any());
+		verify(employeeDao, never()).findByIds(any());
+		verify(departmentDao, never()).findById(any());
+		assertEquals(2000, dtos.size());
+		assertEquals("未设置", dtos.get(0).getManagerName());
+		assertEquals("经理2", dtos.get(1).getManagerName());
+		assertEquals(List.of(20, 21), dtos.get(1).getEmpList().stream().map(DepartmentDTO.EmpSimpleDTO::getId).toList());
+		assertEquals("员工2", dtos.get(1).getEmpList().get(1).getEmpName());
+		assertEquals(1, dtos.get(1999).getEmpList().size());
+	}
+
+	private static Employee employee(int id, Integer depId) {
+		Employee emp = new Employee();
+		emp.set_id(id);
+		emp.setDepId(depId);
+		return emp;
+	}
+}
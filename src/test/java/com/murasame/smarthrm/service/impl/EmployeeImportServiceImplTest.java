@@ -0,0 +1,143 @@
+package com.murasame.smarthrm.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.murasame.smarthrm.cache.ReferenceDataCache;
+import com.murasame.smarthrm.cache.SkillMatchResultCache;
+import com.murasame.smarthrm.dao.EmployeeDao;
+import com.murasame.smarthrm.dao.RelationshipDao;
+import com.murasame.smarthrm.dto.ImportReportDTO;
+import com.murasame.smarthrm.entity.*;
+import com.murasame.smarthrm.index.SkillIndex;
+import com.murasame.smarthrm.service.ExportService;
+import com.murasame.smarthrm.service.IdSequenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 员工批量导入测试：内存中校验、每批一次ID预留和一组bulk写入，失败行带行号报告且不影响其他行
+ */
+class EmployeeImportServiceImplTest {
+
+	private final EmployeeDao employeeDao = mock(EmployeeDao.class);
+	private final RelationshipDao relationshipDao = mock(RelationshipDao.class);
+	private final IdSequenceService idSequenceService = mock(IdSequenceService.class);
+	private final ReferenceDataCache referenceDataCache = mock(ReferenceDataCache.class);
+	private final EmployeeImportServiceImpl importService = new EmployeeImportServiceImpl(employeeDao, relationshipDao,
+			idSequenceService, referenceDataCache, mock(SkillIndex.class), mock(SkillMatchResultCache.class), new ObjectMapper());
+	private final AtomicInteger seq = new AtomicInteger(100);
+
+	@BeforeEach
+	void setUp() {
+		Department dept = new Department();
+		dept.setId(1);
+		Project project = new Project();
+		project.setId(1);
+		Task task = new Task();
+		task.set_id(7);
+		Training training = new Training();
+		training.set_id(3);
+		Skill skill = new Skill();
+		skill.set_id(2);
+		when(referenceDataCache.departments()).thenReturn(new ReferenceDataCache.Snapshot<>(1, "d", List.of(dept)));
+		when(referenceDataCache.projects()).thenReturn(new ReferenceDataCache.Snapshot<>(1, "p", List.of(project)));
+		when(referenceDataCache.tasks()).thenReturn(new ReferenceDataCache.Snapshot<>(1, "t", List.of(task)));
+		when(referenceDataCache.trainings()).thenReturn(new ReferenceDataCache.Snapshot<>(1, "r", List.of(training)));
+		when(referenceDataCache.skills()).thenReturn(new ReferenceDataCache.Snapshot<>(1, "s", List.of(skill)));
+		when(idSequenceService.reserve(eq(IdSequenceService.EMPLOYEE), anyInt()))
+				.thenAnswer(inv -> seq.getAndAdd(inv.getArgument(1)) + 1);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void importsInBatchesWithOneWritePerRelationshipKind() throws Exception {
+		StringBuilder csv = new StringBuilder("\uFEFFname,department,joinDate,skills,projects,trainings\r\n");
+		for (int i = 1; i <= 2500; i++) {
+			// 每100行有一行引用不存在的部门
+			String dep = i % 100 == 0 ? "9" : "1";
+			csv.append("员工").append(i).append(',').append(dep).append(",2025-01-01,2:4,1,3\r\n");
+		}
+
+		ImportReportDTO report = importService.importEmployees(
+				new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), ExportService.Format.CSV);
+
+		assertEquals(2500, report.getTotal());
+		assertEquals(2475, report.getImported());
+		assertEquals(25, report.getFailed());
+		assertEquals(3, report.getBatches());
+		// 行号为文件中的物理行号（表头为第1行）
+		assertEquals(new ImportReportDTO.RowError(101, "部门ID:9 不存在"), report.getErrors().get(0));
+		assertTrue(report.getRowsPerSecond() > 0);
+
+		// 每批：一次ID预留 + 一次员工bulk插入 + 每类关联一次bulk
+		verify(idSequenceService, times(3)).reserve(eq(IdSequenceService.EMPLOYEE), anyInt());
+		ArgumentCaptor<List<Employee>> inserted = ArgumentCaptor.forClass(List.class);
+		verify(employeeDao, times(3)).bulkInsert(inserted.capture());
+		assertEquals(990, inserted.getAllValues().get(0).size());
+		Employee first = inserted.getAllValues().get(0).get(0);
+		assertEquals(101, first.get_id());
+		assertEquals(List.of(new Employee.SkillLevel(2, 4)), first.getSkillList());
+		assertEquals(List.of(new Employee.ProjectRef(1)), first.getProjects());
+		assertEquals(List.of(new Employee.TrainingRef(3)), first.getTrainingList());
+		assertEquals(List.of(), first.getTasks());
+		ArgumentCaptor<Map<Integer, List<Integer>>> byProject = ArgumentCaptor.forClass(Map.class);
+		verify(relationshipDao, times(3)).addProjectMembers(byProject.capture());
+		assertEquals(990, byProject.getAllValues().get(0).get(1).size());
+		verify(relationshipDao, times(3)).addDepartmentMembers(anyMap());
+		verify(relationshipDao, times(3)).addTrainingMembers(anyMap());
+		verify(relationshipDao, never()).findMissingIds(any(), any());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void reportsRowErrorsAndTaskConflicts() throws Exception {
+		String csv = "name,department,tasks,projects\n"
+				+ "\"张三, \"\"小张\"\"\",,7,\"1,1\"\n"
+				+ "李四,,7,\n"
+				+ ",1,,\n"
+				+ "王五,abc,,\n"
+				+ "赵六,1\n";
+
+		ImportReportDTO report = importService.importEmployees(
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ExportService.Format.CSV);
+
+		assertEquals(1, report.getImported());
+		assertEquals(List.of(
+				new ImportReportDTO.RowError(3, "任务ID:7 已由第2行的员工负责"),
+				new ImportReportDTO.RowError(4, "员工姓名不能为空"),
+				new ImportReportDTO.RowError(5, "部门ID必须为正整数：abc"),
+				new ImportReportDTO.RowError(6, "列数（2）与表头列数（4）不一致")), report.getErrors());
+		ArgumentCaptor<List<Employee>> inserted = ArgumentCaptor.forClass(List.class);
+		verify(employeeDao).bulkInsert(inserted.capture());
+		assertEquals("张三, \"小张\"", inserted.getValue().get(0).getEmpName());
+		assertEquals(List.of(new Employee.TaskRef(7)), inserted.getValue().get(0).getTasks());
+		assertEquals(List.of(), inserted.getValue().get(0).getTrainingList());
+		verify(relationshipDao).assignTasks(Map.of(101, List.of(7)));
+		verify(relationshipDao).addProjectMembers(Map.of(1, List.of(101)));
+
+		String ndjson = "{\"name\":\"钱七\",\"department\":1,\"skills\":[{\"skillId\":2,\"proficiency\":6}]}\n"
+				+ "{\"empName\":\"孙八\",\"depId\":1,\"trainings\":[3]}\n"
+				+ "not json\n";
+		report = importService.importEmployees(
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ExportService.Format.NDJSON);
+		assertEquals(1, report.getImported());
+		assertEquals("技能ID:2 的熟练度需在1-5之间", report.getErrors().get(0).message());
+		assertEquals(3, report.getErrors().get(1).row());
+		verify(relationshipDao).addTrainingMembers(Map.of(3, List.of(102)));
+		verify(employeeDao, times(2)).bulkInsert(inserted.capture());
+		assertEquals(List.of(new Employee.TrainingRef(3)), inserted.getValue().get(0).getTrainingList());
+		assertEquals(List.of(), inserted.getValue().get(0).getTasks());
+
+		assertThrows(IllegalArgumentException.class, () -> importService.importEmployees(
+				new ByteArrayInputStream("empId,dept\n1,2\n".getBytes(StandardCharsets.UTF_8)), ExportService.Format.CSV));
+	}
+}
@@ -0,0 +1,153 @@
+package com.murasame.smarthrm.service.impl;
+
+import com.murasame.smarthrm.cache.JsonFragmentCache;
+import com.murasame.smarthrm.cache.SkillMatchResultCache;
+import com.murasame.smarthrm.dao.EmployeeDao;
+import com.murasame.smarthrm.dao.RelationshipDao;
+import com.murasame.smarthrm.dao.SkillDao;
+import com.murasame.smarthrm.dto.EmployeeDTO;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.entity.Project;
+import com.murasame.smarthrm.entity.Task;
+import com.murasame.smarthrm.entity.Training;
+import com.murasame.smarthrm.index.SkillIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 员工关联关系变更测试：按ID差集批量$pull/$addToSet，不读取、不回写被关联的项目/培训/任务/部门文档；
+ * 任一关联ID不存在时在第一次写入之前失败
+ */
+@ExtendWith(MockitoExtension.class)
+class EmployeeServiceImplTest {
+
+	@Mock
+	private EmployeeDao employeeDao;
+	@Mock
+	private RelationshipDao relationshipDao;
+	@Mock
+	private SkillDao skillDao;
+	@Mock
+	private SkillIndex skillIndex;
+	@Mock
+	private JsonFragmentCache jsonFragmentCache;
+	@Mock
+	private SkillMatchResultCache skillMatchResultCache;
+	@InjectMocks
+	private EmployeeServiceImpl employeeService;
+
+	@Test
+	void changingTwentyProjectsIsOnePullAndOneAddToSet() {
+		Employee old = employee(1, 5);
+		when(employeeDao.findById(1)).thenReturn(old);
+		when(relationshipDao.findProjectIdsByMember(1)).thenReturn(range(1, 20));
+		when(relationshipDao.findMissingIds(any(), anyList())).thenReturn(List.of());
+		EmployeeDTO dto = new EmployeeDTO();
+		dto.setNewProjectIds(range(11, 30));
+		dto.setNewTrainingIds(List.of(7));
+
+		Employee updated = employee(1, 5);
+		employeeService.updateEmployee(updated, dto);
+
+		verify(relationshipDao, times(1)).removeProjectMember(range(1, 10), 1);
+		verify(relationshipDao, times(1)).addProjectMember(range(21, 30), 1);
+		verify(relationshipDao, times(1)).findMissingIds(Project.class, range(21, 30));
+		verify(relationshipDao, times(1)).addTrainingMember(List.of(7), 1);
+		verify(relationshipDao, never()).removeDepartmentMember(any(), any());
+		verify(employeeDao, times(1)).update(updated);
+		assertEquals(20, updated.getProjects().size());
+	}
+
+	@Test
+	void missingProjectFailsBeforeAnyWrite() {
+		when(employeeDao.findById(1)).thenReturn(employee(1, null));
+		when(relationshipDao.findProjectIdsByMember(1)).thenReturn(List.of());
+		when(relationshipDao.findMissingIds(eq(Project.class), anyList())).thenReturn(List.of(404));
+		EmployeeDTO dto = new EmployeeDTO();
+		dto.setNewProjectIds(List.of(1, 404));
+
+		RuntimeException e = assertThrows(RuntimeException.class,
+				() -> employeeService.updateEmployee(employee(1, null), dto));
+
+		assertEquals("项目ID:404 不存在", e.getMessage());
+		verify(relationshipDao, never()).addProjectMember(any(), any());
+		verify(relationshipDao, never()).removeProjectMember(any(), any());
+		verify(employeeDao, never()).update(any());
+	}
+
+	@Test
+	void missingTrainingLeavesDepartmentAndProjectsUntouched() {
+		when(employeeDao.findById(1)).thenReturn(employee(1, 5));
+		when(relationshipDao.findProjectIdsByMember(1)).thenReturn(List.of(1));
+		when(relationshipDao.findTrainingIdsByMember(1)).thenReturn(List.of());
+		when(relationshipDao.findMissingIds(any(), anyList())).thenReturn(List.of());
+		when(relationshipDao.findMissingIds(eq(Training.class), anyList())).thenReturn(List.of(404));
+		EmployeeDTO dto = new EmployeeDTO();
+		dto.setNewProjectIds(List.of(2));
+		dto.setNewTrainingIds(List.of(404));
+
+		RuntimeException e = assertThrows(RuntimeException.class,
+				() -> employeeService.updateEmployee(employee(1, 6), dto));
+
+		assertEquals("培训ID:404 不存在", e.getMessage());
+		verify(relationshipDao, never()).removeDepartmentMember(any(), any());
+		verify(relationshipDao, never()).addDepartmentMember(any(), any());
+		verify(relationshipDao, never()).removeProjectMember(any(), any());
+		verify(relationshipDao, never()).addProjectMember(any(), any());
+		verify(employeeDao, never()).update(any());
+	}
+
+	@Test
+	void missingTaskOnCreateFailsBeforeAnyWrite() {
+		when(relationshipDao.findMissingIds(any(), anyList())).thenReturn(List.of());
+		when(relationshipDao.findMissingIds(eq(Task.class), anyList())).thenReturn(List.of(404));
+		EmployeeDTO dto = new EmployeeDTO();
+		dto.setNewProjectIds(List.of(2));
+		dto.setNewManagerTaskIds(List.of(404));
+
+		RuntimeException e = assertThrows(RuntimeException.class,
+				() -> employeeService.saveEmployee(employee(0, 5), dto));
+
+		assertEquals("任务ID:404 不存在", e.getMessage());
+		verify(relationshipDao, never()).addDepartmentMember(any(), any());
+		verify(relationshipDao, never()).addProjectMember(any(), any());
+		verify(employeeDao, never()).update(any());
+	}
+
+	@Test
+	void deleteEmployeePullsFromAllRelationsWithoutLoadingThem() {
+		when(employeeDao.findById(3)).thenReturn(employee(3, 8));
+
+		employeeService.deleteEmployee(3);
+
+		verify(relationshipDao).removeDepartmentMember(8, 3);
+		verify(relationshipDao).removeProjectMember(null, 3);
+		verify(relationshipDao).removeTrainingMember(null, 3);
+		verify(relationshipDao).releaseTasks(null, 3);
+		verify(relationshipDao, never()).findProjectIdsByMember(any());
+		verify(employeeDao).deleteById(3);
+	}
+
+	private static Employee employee(int id, Integer depId) {
+		Employee emp = new Employee();
+		emp.set_id(id);
+		emp.setDepId(depId);
+		emp.setSkillList(new ArrayList<>());
+		return emp;
+	}
+
+	private static List<Integer> range(int from, int to) {
+		return IntStream.rangeClosed(from, to).boxed().toList();
+	}
+}
@@ -0,0 +1,122 @@
+package com.murasame.smarthrm.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.murasame.smarthrm.service.ExportService;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 流式导出测试：只投影请求列、关联名称通过映射补充、CSV转义/NDJSON格式正确，公式开头的单元格被中和，且大数据量时按批次分块输出
+ */
+class ExportServiceImplTest {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final ExportServiceImpl exportService = new ExportServiceImpl(mongoTemplate, new ObjectMapper());
+
+	@Test
+	void exportsProjectedColumnsWithLookupNames() throws Exception {
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("Department")))
+				.thenReturn(List.of(new Document("_id", 1).append("depName", "研发部")));
+		when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("Employee"))).thenAnswer(inv -> List.of(
+				new Document("_id", 1).append("empName", "张三, \"小张\"").append("depId", 1)
+						.append("joinDate", Date.from(Instant.parse("2025-01-01T16:00:00Z"))),
+				new Document("_id", 2).append("empName", "李四").append("depId", 9)).stream());
+
+		List<String> columns = exportService.resolveColumns("employees", List.of("_id", "empName", "depName", "joinDate"));
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		assertEquals(2, exportService.export("employees", columns, ExportService.Format.CSV, csv));
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).stream(captor.capture(), eq(Document.class), eq("Employee"));
+		assertEquals(new Document("_id", 1).append("empName", 1).append("depId", 1).append("joinDate", 1),
+				captor.getValue().getFieldsObject());
+		assertEquals(1000, captor.getValue().getMeta().getCursorBatchSize());
+		assertEquals("\uFEFF_id,empName,depName,joinDate\r\n"
+						+ "1,\"张三, \"\"小张\"\"\",研发部,2025-01-02T00:00:00\r\n"
+						+ "2,李四,,\r\n",
+				csv.toString(StandardCharsets.UTF_8));
+
+		ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+		exportService.export("employees", List.of("_id", "depName"), ExportService.Format.NDJSON, ndjson);
+		assertEquals("{\"_id\":1,\"depName\":\"研发部\"}\n{\"_id\":2,\"depName\":null}\n",
+				ndjson.toString(StandardCharsets.UTF_8));
+
+		assertThrows(IllegalArgumentException.class, () -> exportService.resolveColumns("employees", List.of("password")));
+		assertFalse(exportService.supports("users"));
+	}
+
+	@Test
+	void csvCellsStartingWithFormulaCharactersAreNeutralized() throws Exception {
+		when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("Project"))).thenAnswer(inv -> List.of(
+				new Document("_id", 1).append("projName", "=HYPERLINK(\"http://x\",\"a\")"),
+				new Document("_id", 2).append("projName", "+1"),
+				new Document("_id", 3).append("projName", "-2"),
+				new Document("_id", 4).append("projName", "@SUM(A1)"),
+				new Document("_id", 5).append("projName", "\tx"),
+				new Document("_id", 6).append("projName", "\rx"),
+				new Document("_id", -7).append("projName", "a=b")).stream());
+
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		exportService.export("projects", List.of("_id", "projName"), ExportService.Format.CSV, csv);
+
+		assertEquals("\uFEFF_id,projName\r\n"
+						+ "1,\"'=HYPERLINK(\"\"http://x\"\",\"\"a\"\")\"\r\n"
+						+ "2,'+1\r\n"
+						+ "3,'-2\r\n"
+						+ "4,'@SUM(A1)\r\n"
+						+ "5,'\tx\r\n"
+						+ "6,\"'\rx\"\r\n"
+						+ "-7,a=b\r\n",
+				csv.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void largeExportIsWrittenInChunksWhileStreaming() throws Exception {
+		int total = 200_000;
+		when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("Project"))).thenAnswer(inv ->
+				IntStream.rangeClosed(1, total).mapToObj(id -> new Document("_id", id).append("projName", "项目" + id)));
+		CountingSink sink = new CountingSink();
+
+		long rows = exportService.export("projects", List.of("_id", "projName"), ExportService.Format.NDJSON, sink);
+
+		assertEquals(total, rows);
+		// 每1000行flush一次：数据是边读边写出去的，而不是全部读完后一次性输出
+		assertTrue(sink.flushes >= total / 1000, "flushes=" + sink.flushes);
+		assertTrue(sink.bytes > total * 20L);
+	}
+
+	private static class CountingSink extends OutputStream {
+		long bytes;
+		int flushes;
+
+		@Override
+		public void write(int b) {
+			bytes++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			bytes += len;
+		}
+
+		@Override
+		public void flush() {
+			flushes++;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.murasame.smarthrm.service.impl;
+
+import com.murasame.smarthrm.dao.CounterDao;
+import com.murasame.smarthrm.service.IdSequenceService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * ID序列服务并发测试：模拟多个节点共享同一个counters计数器，并发取号不得出现重复ID
+ */
+class IdSequenceServiceImplTest {
+
+	@Test
+	void parallelCreatesNeverReuseAnId() throws Exception {
+		// counters集合中的seq，findAndModify $inc 在数据库侧是原子的
+		AtomicInteger seq = new AtomicInteger();
+		CounterDao counterDao = mock(CounterDao.class);
+		when(counterDao.findMaxId(anyString())).thenReturn(100);
+		doAnswer(inv -> {
+			seq.accumulateAndGet(inv.getArgument(1), Math::max);
+			return null;
+		}).when(counterDao).seedAtLeast(anyString(), anyInt());
+		when(counterDao.incrementBy(anyString(), anyInt()))
+				.thenAnswer(inv -> seq.addAndGet(inv.getArgument(1)));
+
+		// 两个“节点”各自持有号段
+		List<IdSequenceService> nodes = List.of(new IdSequenceServiceImpl(counterDao), new IdSequenceServiceImpl(counterDao));
+		int threads = 16;
+		int perThread = 500;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		Set<Integer> ids = ConcurrentHashMap.newKeySet();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			IdSequenceService node = nodes.get(t % nodes.size());
+			futures.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < perThread; i++) {
+					assertTrue(ids.add(node.nextId(IdSequenceService.EMPLOYEE)), "重复ID");
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> f : futures) {
+			f.get(30, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertEquals(threads * perThread, ids.size());
+		// 新ID均大于集合中已有的最大ID
+		assertTrue(ids.stream().allMatch(id -> id > 100));
+		// 号段预分配：8000个ID只需要约 8000/64 次数据库往返
+		verify(counterDao, atMost(threads * perThread / 64 + nodes.size())).incrementBy(anyString(), anyInt());
+	}
+}
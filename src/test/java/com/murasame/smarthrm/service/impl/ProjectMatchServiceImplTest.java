@@ -0,0 +1,116 @@
+package com.murasame.smarthrm.service.impl;
+
+import com.murasame.smarthrm.dao.TaskDao;
+import com.murasame.smarthrm.dao.TaskRepo;
+import com.murasame.smarthrm.dto.ProjectTaskGroupDTO;
+import com.murasame.smarthrm.entity.Project;
+import com.murasame.smarthrm.entity.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 项目+任务批量组装测试：批量版本与原逐项目查询版本返回结构一致，且只有一次数据库往返
+ * （聚合管道本身见TaskDaoTest，组装耗时对比见benchmarks profile中的ProjectTasksBenchmark）
+ */
+@ExtendWith(MockitoExtension.class)
+class ProjectMatchServiceImplTest {
+
+	private static final int TASKS_PER_PROJECT = 5;
+
+	@Mock
+	private TaskRepo taskRepo;
+	@Mock
+	private TaskDao taskDao;
+	@InjectMocks
+	private ProjectMatchServiceImpl projectMatchService;
+
+	@Test
+	void getProjectsWithTasksMatchesPerProjectShapeInOneQuery() {
+		List<Project> projects = projects(3);
+		projects.add(project(99)); // 没有任务的项目
+		stubTasks();
+
+		List<Map<String, Object>> batched = projectMatchService.getProjectsWithTasks(projects);
+
+		verify(taskDao, times(1)).groupByProjIds(anyCollection());
+		verifyNoInteractions(taskRepo);
+		assertEquals(legacy(projects), batched);
+		assertEquals(0, batched.get(3).get("taskCount"));
+		assertEquals(0L, batched.get(3).get("pendingTasks"));
+	}
+
+	/**
+	 * 原实现：逐个项目查询任务并在内存中统计完成情况（作为对照组）
+	 */
+	private List<Map<String, Object>> legacy(List<Project> projects) {
+		List<Map<String, Object>> result = new ArrayList<>();
+		for (Project project : projects) {
+			Map<String, Object> projectWithTasks = new HashMap<>();
+			projectWithTasks.put("project", project);
+			List<Task> tasks = taskRepo.findByProjId(project.getId());
+			projectWithTasks.put("tasks", tasks);
+			projectWithTasks.put("taskCount", tasks.size());
+			projectWithTasks.put("completedTasks", tasks.stream().filter(task -> task.getTaskStatus() == 1).count());
+			projectWithTasks.put("pendingTasks", tasks.stream().filter(task -> task.getTaskStatus() == 0).count());
+			result.add(projectWithTasks);
+		}
+		return result;
+	}
+
+	/**
+	 * 两条查询路径返回同一份模拟数据
+	 */
+	private void stubTasks() {
+		lenient().when(taskRepo.findByProjId(anyInt())).thenAnswer(inv -> tasksOf(inv.getArgument(0)));
+		lenient().when(taskDao.groupByProjIds(anyCollection())).thenAnswer(inv -> {
+			Map<Integer, ProjectTaskGroupDTO> groups = new HashMap<>();
+			for (Integer projId : inv.<Collection<Integer>>getArgument(0)) {
+				List<Task> tasks = tasksOf(projId);
+				if (tasks.isEmpty()) continue;
+				ProjectTaskGroupDTO group = new ProjectTaskGroupDTO();
+				group.setProjId(projId);
+				group.setTasks(tasks);
+				group.setCompleted(tasks.stream().filter(t -> t.getTaskStatus() == 1).count());
+				group.setPending(tasks.stream().filter(t -> t.getTaskStatus() == 0).count());
+				groups.put(projId, group);
+			}
+			return groups;
+		});
+	}
+
+	private static List<Task> tasksOf(int projId) {
+		List<Task> tasks = new ArrayList<>();
+		if (projId == 99) return tasks;
+		for (int i = 0; i < TASKS_PER_PROJECT; i++) {
+			Task task = new Task();
+			task.set_id(projId * 100 + i);
+			task.setProjId(projId);
+			task.setTaskStatus(i % 2);
+			tasks.add(task);
+		}
+		return tasks;
+	}
+
+	private static List<Project> projects(int n) {
+		List<Project> projects = new ArrayList<>();
+		for (int id = 1; id <= n; id++) {
+			projects.add(project(id));
+		}
+		return projects;
+	}
+
+	private static Project project(int id) {
+		Project project = new Project();
+		project.setId(id);
+		return project;
+	}
+}
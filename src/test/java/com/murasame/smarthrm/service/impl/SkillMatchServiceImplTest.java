@@ -0,0 +1,125 @@
+package com.murasame.smarthrm.service.impl;
+
+import com.murasame.smarthrm.dao.EmployeeDao;
+import com.murasame.smarthrm.dto.SkillMatchDTO;
+import com.murasame.smarthrm.dto.SkillRankDTO;
+import com.murasame.smarthrm.entity.Employee;
+import com.murasame.smarthrm.index.SkillIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 技能排序匹配测试：超出熟练度加分与未达标部分得分、技能权重（默认1）、重复条件取最高要求、
+ * TopK截断与同分按员工ID升序、空条件/权重全为0/topK≤0直接返回空
+ */
+@ExtendWith(MockitoExtension.class)
+class SkillMatchServiceImplTest {
+
+	@Mock
+	private EmployeeDao employeeDao;
+	@Mock
+	private SkillIndex skillIndex;
+	@InjectMocks
+	private SkillMatchServiceImpl skillMatchService;
+
+	@Test
+	void scoresSurplusBonusAndPartialCredit() {
+		stream(employee(1, "甲", 1, 5, 2, 4),   // 全部达标，技能1超出2级：(1.2 + 1.0) / 2
+				employee(2, "乙", 1, 3, 2, 2),   // 技能2未达标：(1.0 + 0.5 * 2/4) / 2
+				employee(3, "丙", 3, 5),         // 不含任何条件技能
+				employee(4, "丁"));              // 技能列表为空
+
+		List<SkillRankDTO> ranked = skillMatchService.rankBySkills(SkillMatchDTO.fromString("1:3,2:4"), Map.of(), 10);
+
+		assertEquals(List.of(1, 2), ranked.stream().map(SkillRankDTO::getEmpId).toList());
+		assertEquals(1.1, ranked.get(0).getScore(), 1e-9);
+		assertEquals(2, ranked.get(0).getMatchedSkills());
+		assertEquals(2, ranked.get(0).getTotalSkills());
+		assertEquals("甲", ranked.get(0).getEmpName());
+		assertEquals(0.625, ranked.get(1).getScore(), 1e-9);
+		assertEquals(1, ranked.get(1).getMatchedSkills());
+	}
+
+	@Test
+	void weightsDefaultToOne() {
+		stream(employee(1, "甲", 1, 1), employee(2, "乙", 2, 1));
+
+		List<SkillRankDTO> weighted = skillMatchService.rankBySkills(SkillMatchDTO.fromString("1:1,2:1"), Map.of(1, 3.0), 10);
+		assertEquals(List.of(1, 2), weighted.stream().map(SkillRankDTO::getEmpId).toList());
+		assertEquals(0.75, weighted.get(0).getScore(), 1e-9);
+		assertEquals(0.25, weighted.get(1).getScore(), 1e-9);
+
+		// 未传权重时每个技能权重为1
+		List<SkillRankDTO> unweighted = skillMatchService.rankBySkills(SkillMatchDTO.fromString("1:1,2:1"), null, 10);
+		assertEquals(0.5, unweighted.get(0).getScore(), 1e-9);
+		assertEquals(0.5, unweighted.get(1).getScore(), 1e-9);
+	}
+
+	@Test
+	void duplicateRequirementsMergeToMaxLevel() {
+		stream(employee(1, "甲", 1, 3));
+
+		List<SkillRankDTO> ranked = skillMatchService.rankBySkills(SkillMatchDTO.fromString("1:2,1:4"), Map.of(), 10);
+
+		verify(employeeDao).streamBySkillIds(eq(Set.of(1)), anyInt());
+		assertEquals(1, ranked.get(0).getTotalSkills());
+		assertEquals(0, ranked.get(0).getMatchedSkills());
+		assertEquals(0.5 * 3 / 4, ranked.get(0).getScore(), 1e-9);
+	}
+
+	@Test
+	void keepsTopKWithEmpIdTieBreak() {
+		// 同分员工逆序到达，中途出现更高分员工
+		stream(employee(5, "e", 1, 3), employee(4, "d", 1, 3), employee(7, "g", 1, 5),
+				employee(3, "c", 1, 3), employee(2, "b", 1, 3), employee(6, "f", 1, 1));
+
+		List<SkillRankDTO> ranked = skillMatchService.rankBySkills(SkillMatchDTO.fromString("1:3"), Map.of(), 3);
+
+		assertEquals(List.of(7, 2, 3), ranked.stream().map(SkillRankDTO::getEmpId).toList());
+		assertEquals(1.2, ranked.get(0).getScore(), 1e-9);
+		assertEquals(1.0, ranked.get(2).getScore(), 1e-9);
+	}
+
+	@Test
+	void degenerateInputsReturnEmptyWithoutQuerying() {
+		assertEquals(List.of(), skillMatchService.rankBySkills(List.of(), Map.of(), 10));
+		assertEquals(List.of(), skillMatchService.rankBySkills(null, Map.of(), 10));
+		assertEquals(List.of(), skillMatchService.rankBySkills(SkillMatchDTO.fromString("1:3"), Map.of(), 0));
+		assertEquals(List.of(), skillMatchService.rankBySkills(SkillMatchDTO.fromString("1:3,2:1"), Map.of(1, 0.0, 2, 0.0), 10));
+		verifyNoInteractions(employeeDao);
+	}
+
+	private void stream(Employee... employees) {
+		when(employeeDao.streamBySkillIds(anyCollection(), anyInt())).thenAnswer(inv -> Arrays.stream(employees));
+	}
+
+	/**
+	 * skills为「技能ID, 熟练度」交替排列
+	 */
+	private static Employee employee(int id, String name, int... skills) {
+		Employee emp = new Employee();
+		emp.set_id(id);
+		emp.setEmpName(name);
+		if (skills.length > 0) {
+			List<Employee.SkillLevel> skillList = new ArrayList<>();
+			for (int i = 0; i < skills.length; i += 2) {
+				skillList.add(new Employee.SkillLevel(skills[i], skills[i + 1]));
+			}
+			emp.setSkillList(skillList);
+		}
+		return emp;
+	}
+}